@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import feign.FeignException;
+import org.apache.fineract.cn.api.util.InvalidTokenException;
+import org.apache.fineract.cn.api.util.NotFoundException;
+import org.apache.fineract.cn.identity.api.v1.domain.Authentication;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+
+/**
+ * Keeps an access token fresh for all threads of a client.  The token is refreshed on a background thread some time
+ * ahead of {@link Authentication#getAccessTokenExpiration()}, with random jitter so that clients which logged in
+ * together do not refresh together.  Concurrent calls to {@link #refresh()} share one call to identity, and
+ * {@link #getAccessToken()} never blocks.
+ *
+ * <pre>
+ *   final AccessTokenRefresher refresher = new AccessTokenRefresher(
+ *       () -> identityManager.refresh(refreshTokenSupplier.get()), Duration.ofMinutes(1), Duration.ofSeconds(30));
+ *   refresher.start(identityManager.login(user, password));
+ * </pre>
+ *
+ * A failed refresh is retried with exponential backoff, up to {@link #MAXIMUM_RETRY_DELAY_MILLIS} apart.  When identity
+ * rejects the request itself, for example because the refresh token expired, retrying won't help, so no further
+ * refresh is scheduled until {@link #start(Authentication)} is called with a new login.
+ *
+ * The tenant set when the refresher is constructed is set on the background thread for the refresh call.
+ */
+@SuppressWarnings("WeakerAccess")
+public class AccessTokenRefresher implements AutoCloseable {
+  static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+  static final long MAXIMUM_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final Supplier<Authentication> refreshCall;
+  private final long refreshAheadMillis;
+  private final long maximumJitterMillis;
+  private final Optional<String> tenant;
+  private final ScheduledExecutorService executor;
+  private final AtomicReference<CompletableFuture<Authentication>> inFlight = new AtomicReference<>();
+  private final AtomicInteger failures = new AtomicInteger();
+
+  private volatile Authentication current;
+  private ScheduledFuture<?> scheduled;
+
+  /**
+   * @param refreshCall calls identity for a new token, for example {@link IdentityManager#refresh(String)}.
+   * @param refreshAhead how long before the access token expires to refresh it.
+   * @param maximumJitter the largest additional random amount by which a refresh is brought forward.
+   */
+  public AccessTokenRefresher(
+      final Supplier<Authentication> refreshCall,
+      final Duration refreshAhead,
+      final Duration maximumJitter) {
+    if (refreshAhead.isNegative() || maximumJitter.isNegative())
+      throw new IllegalArgumentException("refreshAhead and maximumJitter must not be negative.");
+    this.refreshCall = Objects.requireNonNull(refreshCall);
+    this.refreshAheadMillis = refreshAhead.toMillis();
+    this.maximumJitterMillis = maximumJitter.toMillis();
+    this.tenant = TenantContextHolder.identifier();
+
+    final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, "identity-token-refresher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.setRemoveOnCancelPolicy(true);
+    this.executor = executor;
+  }
+
+  /**
+   * Starts tracking the given authentication, typically the result of a login, and schedules its refresh.
+   */
+  public void start(final Authentication authentication) {
+    failures.set(0);
+    accept(Objects.requireNonNull(authentication));
+  }
+
+  public String getAccessToken() {
+    final Authentication authentication = current;
+    if (authentication == null)
+      throw new IllegalStateException("No token has been obtained yet.");
+    return authentication.getAccessToken();
+  }
+
+  public Optional<Authentication> getAuthentication() {
+    return Optional.ofNullable(current);
+  }
+
+  /**
+   * Refreshes the token now, for example after identity rejected it.  If a refresh is already running, its result is
+   * returned instead of starting another.
+   */
+  public CompletableFuture<Authentication> refresh() {
+    while (true) {
+      final CompletableFuture<Authentication> running = inFlight.get();
+      if (running != null)
+        return running;
+
+      final CompletableFuture<Authentication> started = new CompletableFuture<>();
+      if (inFlight.compareAndSet(null, started)) {
+        try {
+          executor.execute(() -> callIdentity(started));
+        }
+        catch (final RejectedExecutionException e) {
+          inFlight.set(null);
+          started.completeExceptionally(e);
+        }
+        return started;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private void callIdentity(final CompletableFuture<Authentication> result) {
+    final Optional<String> previousTenant = TenantContextHolder.identifier();
+    tenant.ifPresent(TenantContextHolder::setIdentifier);
+    try {
+      final Authentication authentication = refreshCall.get();
+      failures.set(0);
+      accept(authentication);
+      inFlight.set(null);
+      result.complete(authentication);
+    }
+    catch (final RuntimeException e) {
+      inFlight.set(null);
+      result.completeExceptionally(e);
+      if (!isRejectedByIdentity(e))
+        schedule(retryDelayMillis(failures.incrementAndGet()));
+    }
+    catch (final Error e) {
+      //Not retried, but the refresh must still end, or every later refresh() would return this one.
+      inFlight.set(null);
+      result.completeExceptionally(e);
+      throw e;
+    }
+    finally {
+      TenantContextHolder.clear();
+      previousTenant.ifPresent(TenantContextHolder::setIdentifier);
+    }
+  }
+
+  private void accept(final Authentication authentication) {
+    current = authentication;
+    schedule(refreshDelayMillis(authentication, System.currentTimeMillis()));
+  }
+
+  long refreshDelayMillis(final Authentication authentication, final long nowMillis) {
+    final long expiresInMillis = expiresAt(authentication).toEpochMilli() - nowMillis;
+    final long jitter = maximumJitterMillis == 0 ? 0 : ThreadLocalRandom.current().nextLong(maximumJitterMillis + 1);
+    return Math.max(0, expiresInMillis - refreshAheadMillis - jitter);
+  }
+
+  /**
+   * Doubles with each consecutive failure up to the maximum, and is randomly shortened by up to half so that clients
+   * which failed together don't retry together.
+   */
+  static long retryDelayMillis(final int consecutiveFailures) {
+    final int doublings = Math.min(Math.max(0, consecutiveFailures - 1), 30);
+    final long delay = Math.min(MAXIMUM_RETRY_DELAY_MILLIS, RETRY_DELAY_MILLIS << doublings);
+    return delay - ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+  }
+
+  /**
+   * Whether identity answered with a client error.  The feign client maps the common ones to exceptions, the rest
+   * arrive as {@link FeignException}s carrying the status.
+   */
+  static boolean isRejectedByIdentity(final Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof InvalidTokenException || cause instanceof NotFoundException
+          || cause instanceof IllegalArgumentException)
+        return true;
+      if (cause instanceof FeignException) {
+        final int status = ((FeignException) cause).status();
+        return status >= 400 && status < 500;
+      }
+      if (cause.getCause() == cause)
+        return false;
+    }
+    return false;
+  }
+
+  private synchronized void schedule(final long delayMillis) {
+    if (scheduled != null)
+      scheduled.cancel(false);
+    try {
+      scheduled = executor.schedule(this::refresh, delayMillis, TimeUnit.MILLISECONDS);
+    }
+    catch (final RejectedExecutionException ignored) {
+      //Closed.
+    }
+  }
+
+  static Instant expiresAt(final Authentication authentication) {
+    final String expiration = authentication.getAccessTokenExpiration();
+    try {
+      return Instant.parse(expiration);
+    }
+    catch (final DateTimeParseException e) {
+      final String local = expiration.endsWith("Z") ? expiration.substring(0, expiration.length() - 1) : expiration;
+      return LocalDateTime.parse(local).toInstant(ZoneOffset.UTC);
+    }
+  }
+}
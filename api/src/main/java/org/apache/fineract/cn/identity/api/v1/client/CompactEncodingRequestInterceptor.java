@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.client;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.apache.fineract.cn.identity.api.v1.IdentityMediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Asks the identity service for Smile, and for gzip where it answers with JSON.  Only register this together with
+ * {@link CompactResponseDecoder}, which understands both.
+ */
+@SuppressWarnings("unused")
+public class CompactEncodingRequestInterceptor implements RequestInterceptor {
+  private static final String ACCEPT = IdentityMediaTypes.APPLICATION_SMILE_VALUE + ", "
+      + MediaType.APPLICATION_JSON_VALUE + ";q=0.9, " + MediaType.ALL_VALUE + ";q=0.8";
+
+  @Override
+  public void apply(final RequestTemplate template) {
+    template.header(HttpHeaders.ACCEPT);
+    template.header(HttpHeaders.ACCEPT, ACCEPT);
+    template.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+  }
+}
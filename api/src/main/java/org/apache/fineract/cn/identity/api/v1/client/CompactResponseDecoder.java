@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.apache.fineract.cn.identity.api.v1.IdentityMediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Decodes gzipped and Smile encoded responses from the identity service, and hands everything else to the decoder
+ * it wraps.  Register it in the feign configuration of the {@link IdentityManager} client in place of the existing
+ * decoder, together with {@link CompactEncodingRequestInterceptor}.
+ */
+@SuppressWarnings("unused")
+public class CompactResponseDecoder implements Decoder {
+  private final Decoder delegate;
+  private final ObjectMapper smileMapper;
+
+  public CompactResponseDecoder(final Decoder delegate) {
+    this.delegate = delegate;
+    this.smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+  }
+
+  @Override
+  public Object decode(final Response response, final Type type) throws IOException, FeignException {
+    final Response decompressed = isGzipped(response) ? gunzip(response) : response;
+
+    if (decompressed.body() != null && isSmile(decompressed)) {
+      if (type == void.class || type == Void.class)
+        return null;
+      try (final InputStream body = decompressed.body().asInputStream()) {
+        return smileMapper.readValue(body, smileMapper.getTypeFactory().constructType(type));
+      }
+    }
+
+    return delegate.decode(decompressed, type);
+  }
+
+  private static boolean isGzipped(final Response response) {
+    return response.body() != null
+        && header(response, HttpHeaders.CONTENT_ENCODING).stream().anyMatch(x -> x.trim().equalsIgnoreCase("gzip"));
+  }
+
+  private static boolean isSmile(final Response response) {
+    return header(response, HttpHeaders.CONTENT_TYPE).stream()
+        .anyMatch(x -> x.toLowerCase().startsWith(IdentityMediaTypes.APPLICATION_SMILE_VALUE));
+  }
+
+  private static Collection<String> header(final Response response, final String name) {
+    return response.headers().entrySet().stream()
+        .filter(entry -> entry.getKey() != null && entry.getKey().equalsIgnoreCase(name))
+        .map(Map.Entry::getValue)
+        .findFirst()
+        .orElse(Collections.emptyList());
+  }
+
+  private static Response gunzip(final Response response) throws IOException {
+    final byte[] body;
+    try (final InputStream in = new GZIPInputStream(response.body().asInputStream())) {
+      body = Util.toByteArray(in);
+    }
+
+    final Map<String, Collection<String>> headers = new LinkedHashMap<>();
+    response.headers().forEach((name, values) -> {
+      if (name == null || !(name.equalsIgnoreCase(HttpHeaders.CONTENT_ENCODING) || name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)))
+        headers.put(name, values);
+    });
+
+    return Response.create(response.status(), response.reason(), headers, body);
+  }
+}
@@ -20,11 +20,17 @@ package org.apache.fineract.cn.identity.api.v1.client;
 
 import org.apache.fineract.cn.identity.api.v1.domain.Authentication;
 import org.apache.fineract.cn.identity.api.v1.domain.CallEndpointSet;
+import org.apache.fineract.cn.identity.api.v1.domain.ChangeSet;
 import org.apache.fineract.cn.identity.api.v1.domain.Password;
+import org.apache.fineract.cn.identity.api.v1.domain.PasswordHashPolicy;
 import org.apache.fineract.cn.identity.api.v1.domain.Permission;
+import org.apache.fineract.cn.identity.api.v1.domain.PermissionCheck;
 import org.apache.fineract.cn.identity.api.v1.domain.PermittableGroup;
+import org.apache.fineract.cn.identity.api.v1.domain.PermittableGroupEndpointsChange;
+import org.apache.fineract.cn.identity.api.v1.domain.PublicKeyBundle;
 import org.apache.fineract.cn.identity.api.v1.domain.Role;
 import org.apache.fineract.cn.identity.api.v1.domain.RoleIdentifier;
+import org.apache.fineract.cn.identity.api.v1.domain.RolePermissionsChange;
 import org.apache.fineract.cn.identity.api.v1.domain.User;
 import org.apache.fineract.cn.identity.api.v1.domain.UserWithPassword;
 import java.util.List;
@@ -75,6 +81,18 @@ public interface IdentityManager extends Anubis {
           produces = {MediaType.ALL_VALUE})
   void logout();
 
+  @RequestMapping(value = "/publickeys", method = RequestMethod.GET,
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.ALL_VALUE})
+  PublicKeyBundle getPublicKeyBundle(@RequestParam("includeApplicationKeys") boolean includeApplicationKeys);
+
+  @RequestMapping(value = "/changes", method = RequestMethod.GET,
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.ALL_VALUE})
+  ChangeSet getChanges(@RequestParam("since") long since,
+                       @RequestParam("limit") int limit,
+                       @RequestParam("waitInSeconds") int waitInSeconds);
+
   @RequestMapping(value = "/permittablegroups", method = RequestMethod.POST,
           consumes = {MediaType.APPLICATION_JSON_VALUE},
           produces = {MediaType.APPLICATION_JSON_VALUE})
@@ -86,6 +104,13 @@ public interface IdentityManager extends Anubis {
           produces = {MediaType.ALL_VALUE})
   PermittableGroup getPermittableGroup(@PathVariable("identifier") String identifier);
 
+  //Sent as POST, which the service accepts in place of PATCH, because the default feign client can't send PATCH.
+  @RequestMapping(value = "/permittablegroups/{identifier}/permittables", method = RequestMethod.POST,
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.APPLICATION_JSON_VALUE})
+  void changePermittableGroupEndpoints(@PathVariable("identifier") String identifier,
+                                       @RequestBody final PermittableGroupEndpointsChange change);
+
   @RequestMapping(value = "/permittablegroups", method = RequestMethod.GET,
           consumes = {MediaType.APPLICATION_JSON_VALUE},
           produces = {MediaType.ALL_VALUE})
@@ -101,6 +126,13 @@ public interface IdentityManager extends Anubis {
           produces = {MediaType.APPLICATION_JSON_VALUE})
   void changeRole(@PathVariable("identifier") String identifier, @RequestBody final Role role);
 
+  //Sent as POST, which the service accepts in place of PATCH, because the default feign client can't send PATCH.
+  @RequestMapping(value = "/roles/{identifier}/permissions", method = RequestMethod.POST,
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.APPLICATION_JSON_VALUE})
+  void changeRolePermissions(@PathVariable("identifier") String identifier,
+                             @RequestBody final RolePermissionsChange change);
+
   @RequestMapping(value = "/roles/{identifier}", method = RequestMethod.GET,
           consumes = {MediaType.APPLICATION_JSON_VALUE},
           produces = {MediaType.ALL_VALUE})
@@ -111,11 +143,23 @@ public interface IdentityManager extends Anubis {
           produces = {MediaType.ALL_VALUE})
   List<Role> getRoles();
 
+  @RequestMapping(value = "/roles", method = RequestMethod.GET,
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.ALL_VALUE})
+  List<Role> getRoles(@RequestParam("ids") List<String> identifiers);
+
   @RequestMapping(value = "/roles/{identifier}", method = RequestMethod.DELETE,
           consumes = {MediaType.APPLICATION_JSON_VALUE},
           produces = {MediaType.ALL_VALUE})
   void deleteRole(@PathVariable("identifier") String identifier);
 
+  @RequestMapping(value = "/roles/{identifier}/users", method = RequestMethod.GET,
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.ALL_VALUE})
+  List<User> getUsersWithRole(@PathVariable("identifier") String identifier,
+                              @RequestParam(value = "startAfter", required = false) String startAfter,
+                              @RequestParam(value = "size", required = false) Integer size);
+
   @RequestMapping(value = "/users", method = RequestMethod.POST,
       consumes = {MediaType.APPLICATION_JSON_VALUE},
       produces = {MediaType.APPLICATION_JSON_VALUE})
@@ -132,6 +176,12 @@ public interface IdentityManager extends Anubis {
           produces = {MediaType.ALL_VALUE})
   Set<Permission> getUserPermissions(@PathVariable("useridentifier") String userIdentifier);
 
+  @RequestMapping(value = "/users/{useridentifier}/permissions/_check", method = RequestMethod.POST,
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.ALL_VALUE})
+  List<PermissionCheck> checkUserPermissions(@PathVariable("useridentifier") String userIdentifier,
+                                             @RequestBody List<PermissionCheck> checks);
+
   @RequestMapping(value = "/users/{useridentifier}/password", method = RequestMethod.PUT,
       consumes = {MediaType.APPLICATION_JSON_VALUE},
       produces = {MediaType.APPLICATION_JSON_VALUE})
@@ -147,6 +197,11 @@ public interface IdentityManager extends Anubis {
       produces = {MediaType.ALL_VALUE})
   List<User> getUsers();
 
+  @RequestMapping(value = "/users", method = RequestMethod.GET,
+      consumes = {MediaType.APPLICATION_JSON_VALUE},
+      produces = {MediaType.ALL_VALUE})
+  List<User> getUsers(@RequestParam("ids") List<String> identifiers);
+
   @RequestMapping(value = "/applications", method = RequestMethod.GET,
           consumes = {MediaType.APPLICATION_JSON_VALUE},
           produces = {MediaType.ALL_VALUE})
@@ -247,4 +302,14 @@ public interface IdentityManager extends Anubis {
           consumes = {MediaType.APPLICATION_JSON_VALUE},
           produces = {MediaType.ALL_VALUE})
   ApplicationSignatureSet createSignatureSet();
+
+  @RequestMapping(value = "/passwordhashpolicy", method = RequestMethod.GET,
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.ALL_VALUE})
+  PasswordHashPolicy getPasswordHashPolicy();
+
+  @RequestMapping(value = "/passwordhashpolicy", method = RequestMethod.PUT,
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.APPLICATION_JSON_VALUE})
+  void changePasswordHashPolicy(@RequestBody PasswordHashPolicy policy);
 }
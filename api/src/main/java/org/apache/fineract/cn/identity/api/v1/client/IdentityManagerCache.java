@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.client;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.cn.api.util.UserContext;
+import org.apache.fineract.cn.api.util.UserContextHolder;
+import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+
+/**
+ * Opt-in read-through cache for the static data downstream services fetch from identity on hot paths.  Wrap the
+ * feign client and publish the result as the primary {@link IdentityManager}:
+ *
+ * <pre>
+ *   final IdentityManagerCache cache = new IdentityManagerCache(10_000)
+ *       .expireAfter(IdentityManagerCache.CachedCall.USER_PERMISSIONS, 30, TimeUnit.SECONDS);
+ *   final IdentityManager identityManager = cache.wrap(feignIdentityManager);
+ * </pre>
+ *
+ * Entries are keyed by tenant, caller, call and arguments.  Identity authorizes every call against the caller's
+ * access token, so a result is only served again to the same token; a user without the permission to read another
+ * user's permissions never sees a result fetched by someone who has it.  Concurrent misses on the same key wait for a
+ * single call to identity, and failures are never cached.  Values are shared between the calls of one caller and must
+ * not be modified.  Services listening to the {@link EventConstants#DESTINATION identity events} can forward the
+ * {@link EventConstants#OPERATION_HEADER operation header} to {@link #onEvent(String)} to drop affected entries
+ * before they expire.
+ */
+@SuppressWarnings("WeakerAccess")
+public class IdentityManagerCache {
+  public enum CachedCall {
+    PERMITTABLE_GROUP("getPermittableGroup"),
+    ROLE("getRole"),
+    USER("getUser"),
+    APPLICATION_PERMISSIONS("getApplicationPermissions"),
+    USER_PERMISSIONS("getUserPermissions");
+
+    private final String methodName;
+
+    CachedCall(final String methodName) {
+      this.methodName = methodName;
+    }
+
+    static CachedCall of(final Method method) {
+      if (method.getParameterCount() != 1 || method.getParameterTypes()[0] != String.class)
+        return null;
+      for (final CachedCall call : values()) {
+        if (call.methodName.equals(method.getName()))
+          return call;
+      }
+      return null;
+    }
+  }
+
+  private static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  private static final Map<String, Set<CachedCall>> INVALIDATED_BY = new ConcurrentHashMap<>();
+  static {
+    final Set<CachedCall> roles = EnumSet.of(CachedCall.ROLE, CachedCall.USER_PERMISSIONS);
+    INVALIDATED_BY.put(EventConstants.OPERATION_POST_ROLE, roles);
+    INVALIDATED_BY.put(EventConstants.OPERATION_PUT_ROLE, roles);
+    INVALIDATED_BY.put(EventConstants.OPERATION_DELETE_ROLE, roles);
+    INVALIDATED_BY.put(EventConstants.OPERATION_PATCH_ROLE_PERMISSIONS, roles);
+    //User permissions are expanded from the permittable groups their role references.
+    final Set<CachedCall> permittableGroups = EnumSet.of(CachedCall.PERMITTABLE_GROUP, CachedCall.USER_PERMISSIONS);
+    INVALIDATED_BY.put(EventConstants.OPERATION_POST_PERMITTABLE_GROUP, permittableGroups);
+    INVALIDATED_BY.put(EventConstants.OPERATION_PATCH_PERMITTABLE_GROUP_PERMITTABLES, permittableGroups);
+    final Set<CachedCall> users = EnumSet.of(CachedCall.USER, CachedCall.USER_PERMISSIONS);
+    INVALIDATED_BY.put(EventConstants.OPERATION_POST_USER, users);
+    INVALIDATED_BY.put(EventConstants.OPERATION_PUT_USER_ROLEIDENTIFIER, users);
+    final Set<CachedCall> applications = EnumSet.of(CachedCall.APPLICATION_PERMISSIONS);
+    INVALIDATED_BY.put(EventConstants.OPERATION_POST_APPLICATION_PERMISSION, applications);
+    INVALIDATED_BY.put(EventConstants.OPERATION_DELETE_APPLICATION_PERMISSION, applications);
+    INVALIDATED_BY.put(EventConstants.OPERATION_DELETE_APPLICATION, applications);
+  }
+
+  private final int maximumSize;
+  private final Map<CachedCall, Long> ttlMillis = new EnumMap<>(CachedCall.class);
+  private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queued = new AtomicInteger();
+
+  /**
+   * @param maximumSize the number of entries kept over all tenants and calls.  The oldest entries are evicted first.
+   */
+  public IdentityManagerCache(final int maximumSize) {
+    if (maximumSize <= 0)
+      throw new IllegalArgumentException("maximumSize must be positive.");
+    this.maximumSize = maximumSize;
+    for (final CachedCall call : CachedCall.values())
+      ttlMillis.put(call, DEFAULT_TTL_MILLIS);
+  }
+
+  /**
+   * Sets how long results of the given call are served from the cache.  A duration of zero disables caching for that
+   * call.  Configure before calling {@link #wrap(IdentityManager)}.
+   */
+  public IdentityManagerCache expireAfter(final CachedCall call, final long duration, final TimeUnit unit) {
+    if (duration < 0)
+      throw new IllegalArgumentException("duration must not be negative.");
+    ttlMillis.put(call, unit.toMillis(duration));
+    return this;
+  }
+
+  public IdentityManager wrap(final IdentityManager delegate) {
+    Objects.requireNonNull(delegate);
+    final InvocationHandler handler = (proxy, method, args) -> {
+      if (method.getDeclaringClass() == Object.class)
+        return invokeOnObject(proxy, method, args);
+
+      final CachedCall call = CachedCall.of(method);
+      if (call == null || ttlMillis.get(call) == 0)
+        return invoke(delegate, method, args);
+
+      return get(new Key(currentTenant(), currentCaller(), call, (String) args[0]), () -> invoke(delegate, method, args));
+    };
+    return (IdentityManager) Proxy.newProxyInstance(
+        IdentityManager.class.getClassLoader(), new Class<?>[]{IdentityManager.class}, handler);
+  }
+
+  /**
+   * Drops the entries for the current tenant which may be stale after the given identity event.  Unknown operations
+   * are ignored.
+   */
+  public void onEvent(final String operation) {
+    final Set<CachedCall> calls = INVALIDATED_BY.get(operation);
+    if (calls != null)
+      calls.forEach(this::invalidate);
+  }
+
+  /**
+   * Drops all entries of the given call for the current tenant.
+   */
+  public void invalidate(final CachedCall call) {
+    final String tenant = currentTenant();
+    entries.keySet().removeIf(key -> key.call == call && key.tenant.equals(tenant));
+  }
+
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private Object get(final Key key, final Loader loader) throws Throwable {
+    while (true) {
+      final long now = System.currentTimeMillis();
+      final Entry existing = entries.get(key);
+      if (existing != null && !existing.isExpired(now))
+        return existing.await();
+
+      final Entry loading = new Entry(key);
+      final boolean won = existing == null
+          ? entries.putIfAbsent(key, loading) == null
+          : entries.replace(key, existing, loading);
+      if (!won)
+        continue;
+
+      insertionOrder.add(loading);
+      queued.incrementAndGet();
+      evict();
+
+      final Object value;
+      try {
+        value = loader.load();
+      }
+      catch (final Throwable e) {
+        entries.remove(key, loading);
+        loading.value.completeExceptionally(e);
+        throw e;
+      }
+      loading.expiresAt = System.currentTimeMillis() + ttlMillis.get(key.call);
+      loading.value.complete(value);
+      return value;
+    }
+  }
+
+  /**
+   * Evicts in insertion order.  The queue also holds entries which were since reloaded or invalidated; those are
+   * dropped as they are reached, and the queue is trimmed once it grows past twice the cache size.
+   */
+  private void evict() {
+    while (entries.size() > maximumSize || queued.get() > 2 * maximumSize) {
+      final Entry eldest = insertionOrder.poll();
+      if (eldest == null)
+        return;
+      queued.decrementAndGet();
+      if (entries.get(eldest.key) != eldest)
+        continue;
+      if (entries.size() > maximumSize) {
+        entries.remove(eldest.key, eldest);
+      }
+      else {
+        insertionOrder.add(eldest);
+        queued.incrementAndGet();
+      }
+    }
+  }
+
+  private static String currentTenant() {
+    return TenantContextHolder.identifier().orElseThrow(TenantNotSetException::new);
+  }
+
+  /**
+   * Calls without a user context reach identity without a token, so they share the anonymous caller.
+   */
+  private static String currentCaller() {
+    return UserContextHolder.getUserContext().map(UserContext::getAccessToken).orElse("");
+  }
+
+  private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    }
+    catch (final InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static Object invokeOnObject(final Object proxy, final Method method, final Object[] args) {
+    switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      default:
+        return IdentityManagerCache.class.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+    }
+  }
+
+  @FunctionalInterface
+  private interface Loader {
+    Object load() throws Throwable;
+  }
+
+  private static final class Entry {
+    private final Key key;
+    private final CompletableFuture<Object> value = new CompletableFuture<>();
+    private volatile long expiresAt = Long.MAX_VALUE;
+
+    Entry(final Key key) {
+      this.key = key;
+    }
+
+    boolean isExpired(final long now) {
+      return now >= expiresAt;
+    }
+
+    Object await() throws Throwable {
+      try {
+        return value.join();
+      }
+      catch (final CompletionException e) {
+        throw e.getCause() == null ? e : e.getCause();
+      }
+    }
+  }
+
+  private static final class Key {
+    private final String tenant;
+    private final String caller;
+    private final CachedCall call;
+    private final String argument;
+
+    Key(final String tenant, final String caller, final CachedCall call, final String argument) {
+      this.tenant = tenant;
+      this.caller = caller;
+      this.call = call;
+      this.argument = argument;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final Key key = (Key) o;
+      return tenant.equals(key.tenant) && caller.equals(key.caller) && call == key.call
+          && Objects.equals(argument, key.argument);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(tenant, caller, call, argument);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.util.Objects;
+import javax.validation.constraints.Min;
+import org.hibernate.validator.constraints.NotBlank;
+
+/**
+ * One entry of the change feed.  The operation is the event operation of the change, as in
+ * {@link org.apache.fineract.cn.identity.api.v1.events.EventConstants}.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class Change {
+  public static final String TYPE_USER = "user";
+  public static final String TYPE_ROLE = "role";
+  public static final String TYPE_PERMITTABLE_GROUP = "permittablegroup";
+  public static final String TYPE_APPLICATION = "application";
+
+  @Min(1)
+  private long version;
+
+  @NotBlank
+  private String entityType;
+
+  @NotBlank
+  private String entityIdentifier;
+
+  @NotBlank
+  private String operation;
+
+  @NotBlank
+  private String createdOn;
+
+  public Change() {
+  }
+
+  public Change(
+      final long version,
+      final String entityType,
+      final String entityIdentifier,
+      final String operation,
+      final String createdOn) {
+    this.version = version;
+    this.entityType = entityType;
+    this.entityIdentifier = entityIdentifier;
+    this.operation = operation;
+    this.createdOn = createdOn;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  public String getEntityType() {
+    return entityType;
+  }
+
+  public void setEntityType(String entityType) {
+    this.entityType = entityType;
+  }
+
+  public String getEntityIdentifier() {
+    return entityIdentifier;
+  }
+
+  public void setEntityIdentifier(String entityIdentifier) {
+    this.entityIdentifier = entityIdentifier;
+  }
+
+  public String getOperation() {
+    return operation;
+  }
+
+  public void setOperation(String operation) {
+    this.operation = operation;
+  }
+
+  public String getCreatedOn() {
+    return createdOn;
+  }
+
+  public void setCreatedOn(String createdOn) {
+    this.createdOn = createdOn;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    Change change = (Change) o;
+    return version == change.version &&
+            Objects.equals(entityType, change.entityType) &&
+            Objects.equals(entityIdentifier, change.entityIdentifier) &&
+            Objects.equals(operation, change.operation) &&
+            Objects.equals(createdOn, change.createdOn);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(version, entityType, entityIdentifier, operation, createdOn);
+  }
+
+  @Override
+  public String toString() {
+    return "Change{" +
+            "version=" + version +
+            ", entityType='" + entityType + '\'' +
+            ", entityIdentifier='" + entityIdentifier + '\'' +
+            ", operation='" + operation + '\'' +
+            ", createdOn='" + createdOn + '\'' +
+            '}';
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.util.List;
+import java.util.Objects;
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * The changes after a version, in order.  Pass version as since in the next request to continue.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class ChangeSet {
+  @Min(0)
+  private long version;
+
+  @NotNull
+  @Valid
+  private List<Change> changes;
+
+  public ChangeSet() {
+  }
+
+  public ChangeSet(final long version, final List<Change> changes) {
+    this.version = version;
+    this.changes = changes;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  public List<Change> getChanges() {
+    return changes;
+  }
+
+  public void setChanges(List<Change> changes) {
+    this.changes = changes;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    ChangeSet changeSet = (ChangeSet) o;
+    return version == changeSet.version &&
+            Objects.equals(changes, changeSet.changes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(version, changes);
+  }
+
+  @Override
+  public String toString() {
+    return "ChangeSet{" +
+            "version=" + version +
+            ", changes=" + changes +
+            '}';
+  }
+}
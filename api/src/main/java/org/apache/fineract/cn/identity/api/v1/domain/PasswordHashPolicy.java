@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.util.Objects;
+
+/**
+ * How much work goes into hashing a tenant's passwords.  Set either an explicit iteration count or a
+ * target verification time; if both are set, the iteration count wins.  With neither, the service
+ * default applies.  The effective values are computed by the service and ignored on write.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class PasswordHashPolicy {
+  @Min(1000)
+  @Max(10000000)
+  private Integer iterationCount;
+
+  @Min(1)
+  @Max(10000)
+  private Integer targetVerificationMillis;
+
+  private Integer effectiveIterationCount;
+  private Double estimatedVerificationMillis;
+
+  public PasswordHashPolicy() {
+  }
+
+  public PasswordHashPolicy(final Integer iterationCount, final Integer targetVerificationMillis) {
+    this.iterationCount = iterationCount;
+    this.targetVerificationMillis = targetVerificationMillis;
+  }
+
+  public Integer getIterationCount() {
+    return iterationCount;
+  }
+
+  public void setIterationCount(Integer iterationCount) {
+    this.iterationCount = iterationCount;
+  }
+
+  public Integer getTargetVerificationMillis() {
+    return targetVerificationMillis;
+  }
+
+  public void setTargetVerificationMillis(Integer targetVerificationMillis) {
+    this.targetVerificationMillis = targetVerificationMillis;
+  }
+
+  public Integer getEffectiveIterationCount() {
+    return effectiveIterationCount;
+  }
+
+  public void setEffectiveIterationCount(Integer effectiveIterationCount) {
+    this.effectiveIterationCount = effectiveIterationCount;
+  }
+
+  public Double getEstimatedVerificationMillis() {
+    return estimatedVerificationMillis;
+  }
+
+  public void setEstimatedVerificationMillis(Double estimatedVerificationMillis) {
+    this.estimatedVerificationMillis = estimatedVerificationMillis;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o)
+      return true;
+    if (!(o instanceof PasswordHashPolicy))
+      return false;
+    PasswordHashPolicy that = (PasswordHashPolicy) o;
+    return Objects.equals(iterationCount, that.iterationCount) &&
+        Objects.equals(targetVerificationMillis, that.targetVerificationMillis);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(iterationCount, targetVerificationMillis);
+  }
+
+  @Override
+  public String toString() {
+    return "PasswordHashPolicy{" +
+        "iterationCount=" + iterationCount +
+        ", targetVerificationMillis=" + targetVerificationMillis +
+        ", effectiveIterationCount=" + effectiveIterationCount +
+        ", estimatedVerificationMillis=" + estimatedVerificationMillis +
+        '}';
+  }
+}
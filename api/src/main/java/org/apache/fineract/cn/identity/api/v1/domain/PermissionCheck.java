@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.util.Objects;
+import javax.annotation.Nullable;
+import org.hibernate.validator.constraints.NotBlank;
+
+/**
+ * A single "may this user call METHOD on PATH" question.  The path is application qualified in the same form as
+ * permittable endpoints, for example "identity-v1/users/xyz".  In answers, allowed is set.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class PermissionCheck {
+  @NotBlank
+  private String path;
+
+  @NotBlank
+  private String method;
+
+  @Nullable
+  private Boolean allowed;
+
+  public PermissionCheck() {
+  }
+
+  public PermissionCheck(final String path, final String method) {
+    this.path = path;
+    this.method = method;
+  }
+
+  public PermissionCheck(final String path, final String method, final boolean allowed) {
+    this.path = path;
+    this.method = method;
+    this.allowed = allowed;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  public void setMethod(String method) {
+    this.method = method;
+  }
+
+  @Nullable
+  public Boolean getAllowed() {
+    return allowed;
+  }
+
+  public void setAllowed(@Nullable Boolean allowed) {
+    this.allowed = allowed;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    PermissionCheck that = (PermissionCheck) o;
+    return Objects.equals(path, that.path) &&
+            Objects.equals(method, that.method) &&
+            Objects.equals(allowed, that.allowed);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(path, method, allowed);
+  }
+
+  @Override
+  public String toString() {
+    return "PermissionCheck{" +
+            "path='" + path + '\'' +
+            ", method='" + method + '\'' +
+            ", allowed=" + allowed +
+            '}';
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import org.apache.fineract.cn.anubis.api.v1.domain.PermittableEndpoint;
+
+/**
+ * Adds endpoints to and removes endpoints from a permittable group without recreating it.  Endpoints are identified
+ * by path and method.  Adding an endpoint the group already has, or removing one it doesn't have, changes nothing.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class PermittableGroupEndpointsChange {
+  @NotNull
+  @Valid
+  private List<PermittableEndpoint> add = new ArrayList<>();
+
+  @NotNull
+  @Valid
+  private List<PermittableEndpoint> remove = new ArrayList<>();
+
+  public PermittableGroupEndpointsChange() {
+  }
+
+  public PermittableGroupEndpointsChange(List<PermittableEndpoint> add, List<PermittableEndpoint> remove) {
+    this.add = add;
+    this.remove = remove;
+  }
+
+  public List<PermittableEndpoint> getAdd() {
+    return add;
+  }
+
+  public void setAdd(List<PermittableEndpoint> add) {
+    this.add = add;
+  }
+
+  public List<PermittableEndpoint> getRemove() {
+    return remove;
+  }
+
+  public void setRemove(List<PermittableEndpoint> remove) {
+    this.remove = remove;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    PermittableGroupEndpointsChange that = (PermittableGroupEndpointsChange) o;
+    return Objects.equals(add, that.add) &&
+            Objects.equals(remove, that.remove);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(add, remove);
+  }
+
+  @Override
+  public String toString() {
+    return "PermittableGroupEndpointsChange{" +
+            "add=" + add +
+            ", remove=" + remove +
+            '}';
+  }
+}
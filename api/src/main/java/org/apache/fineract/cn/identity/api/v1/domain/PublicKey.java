@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.math.BigInteger;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * A public key token verifiers can check signatures with.  The application identifier is only set for keys
+ * registered by applications.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class PublicKey {
+  @Nullable
+  private String applicationIdentifier;
+  private String keyTimestamp;
+  private BigInteger publicKeyMod;
+  private BigInteger publicKeyExp;
+
+  public PublicKey() {
+  }
+
+  public PublicKey(
+      @Nullable final String applicationIdentifier,
+      final String keyTimestamp,
+      final BigInteger publicKeyMod,
+      final BigInteger publicKeyExp) {
+    this.applicationIdentifier = applicationIdentifier;
+    this.keyTimestamp = keyTimestamp;
+    this.publicKeyMod = publicKeyMod;
+    this.publicKeyExp = publicKeyExp;
+  }
+
+  @Nullable
+  public String getApplicationIdentifier() {
+    return applicationIdentifier;
+  }
+
+  public void setApplicationIdentifier(@Nullable String applicationIdentifier) {
+    this.applicationIdentifier = applicationIdentifier;
+  }
+
+  public String getKeyTimestamp() {
+    return keyTimestamp;
+  }
+
+  public void setKeyTimestamp(String keyTimestamp) {
+    this.keyTimestamp = keyTimestamp;
+  }
+
+  public BigInteger getPublicKeyMod() {
+    return publicKeyMod;
+  }
+
+  public void setPublicKeyMod(BigInteger publicKeyMod) {
+    this.publicKeyMod = publicKeyMod;
+  }
+
+  public BigInteger getPublicKeyExp() {
+    return publicKeyExp;
+  }
+
+  public void setPublicKeyExp(BigInteger publicKeyExp) {
+    this.publicKeyExp = publicKeyExp;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    PublicKey publicKey = (PublicKey) o;
+    return Objects.equals(applicationIdentifier, publicKey.applicationIdentifier) &&
+            Objects.equals(keyTimestamp, publicKey.keyTimestamp) &&
+            Objects.equals(publicKeyMod, publicKey.publicKeyMod) &&
+            Objects.equals(publicKeyExp, publicKey.publicKeyExp);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(applicationIdentifier, keyTimestamp, publicKeyMod, publicKeyExp);
+  }
+
+  @Override
+  public String toString() {
+    return "PublicKey{" +
+            "applicationIdentifier='" + applicationIdentifier + '\'' +
+            ", keyTimestamp='" + keyTimestamp + '\'' +
+            '}';
+  }
+}
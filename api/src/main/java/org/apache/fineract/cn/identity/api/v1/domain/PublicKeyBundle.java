@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.util.List;
+import java.util.Objects;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import org.hibernate.validator.constraints.NotBlank;
+
+/**
+ * All public keys of a tenant which are currently valid.  The version changes whenever the set of keys changes and
+ * is also sent as the ETag of the bundle.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class PublicKeyBundle {
+  @NotBlank
+  private String version;
+
+  @NotNull
+  @Valid
+  private List<PublicKey> identityKeys;
+
+  @NotNull
+  @Valid
+  private List<PublicKey> applicationKeys;
+
+  public PublicKeyBundle() {
+  }
+
+  public PublicKeyBundle(final String version, final List<PublicKey> identityKeys, final List<PublicKey> applicationKeys) {
+    this.version = version;
+    this.identityKeys = identityKeys;
+    this.applicationKeys = applicationKeys;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  public void setVersion(String version) {
+    this.version = version;
+  }
+
+  public List<PublicKey> getIdentityKeys() {
+    return identityKeys;
+  }
+
+  public void setIdentityKeys(List<PublicKey> identityKeys) {
+    this.identityKeys = identityKeys;
+  }
+
+  public List<PublicKey> getApplicationKeys() {
+    return applicationKeys;
+  }
+
+  public void setApplicationKeys(List<PublicKey> applicationKeys) {
+    this.applicationKeys = applicationKeys;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    PublicKeyBundle that = (PublicKeyBundle) o;
+    return Objects.equals(version, that.version) &&
+            Objects.equals(identityKeys, that.identityKeys) &&
+            Objects.equals(applicationKeys, that.applicationKeys);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(version, identityKeys, applicationKeys);
+  }
+
+  @Override
+  public String toString() {
+    return "PublicKeyBundle{" +
+            "version='" + version + '\'' +
+            ", identityKeys=" + identityKeys +
+            ", applicationKeys=" + applicationKeys +
+            '}';
+  }
+}
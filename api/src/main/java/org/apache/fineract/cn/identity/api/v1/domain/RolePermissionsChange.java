@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Changes a role's permissions without rewriting the whole role.  Permissions in add replace the role's permission
+ * for the same permittable group, or are appended if the role has none.  Remove names permittable groups whose
+ * permission is taken away.  Removals are applied before additions.  A permittable group added more than once is
+ * allowed the operations of all of them.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class RolePermissionsChange {
+  @NotNull
+  @Valid
+  private List<Permission> add = new ArrayList<>();
+
+  @NotNull
+  private List<String> remove = new ArrayList<>();
+
+  public RolePermissionsChange() {
+  }
+
+  public RolePermissionsChange(List<Permission> add, List<String> remove) {
+    this.add = add;
+    this.remove = remove;
+  }
+
+  public List<Permission> getAdd() {
+    return add;
+  }
+
+  public void setAdd(List<Permission> add) {
+    this.add = add;
+  }
+
+  public List<String> getRemove() {
+    return remove;
+  }
+
+  public void setRemove(List<String> remove) {
+    this.remove = remove;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    RolePermissionsChange that = (RolePermissionsChange) o;
+    return Objects.equals(add, that.add) &&
+            Objects.equals(remove, that.remove);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(add, remove);
+  }
+
+  @Override
+  public String toString() {
+    return "RolePermissionsChange{" +
+            "add=" + add +
+            ", remove=" + remove +
+            '}';
+  }
+}
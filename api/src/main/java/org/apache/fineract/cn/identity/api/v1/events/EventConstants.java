@@ -30,15 +30,19 @@ public interface EventConstants {
   String OPERATION_AUTHENTICATE = "auth";
 
   String OPERATION_POST_PERMITTABLE_GROUP = "post-permittablegroup";
+  String OPERATION_PATCH_PERMITTABLE_GROUP_PERMITTABLES = "patch-permittablegroup-permittables";
 
   String OPERATION_POST_ROLE = "post-role";
   String OPERATION_PUT_ROLE = "put-role";
   String OPERATION_DELETE_ROLE = "delete-role";
+  String OPERATION_PATCH_ROLE_PERMISSIONS = "patch-role-permissions";
 
   String OPERATION_POST_USER = "post-user";
   String OPERATION_PUT_USER_ROLEIDENTIFIER = "put-user-roleidentifier";
   String OPERATION_PUT_USER_PASSWORD = "put-user-password";
 
+  String OPERATION_PUT_PASSWORD_HASH_POLICY = "put-passwordhashpolicy";
+
   String OPERATION_PUT_APPLICATION_SIGNATURE =   "put-application-signature";
   String OPERATION_DELETE_APPLICATION = "delete-application";
   String OPERATION_POST_APPLICATION_CALLENDPOINTSET = "post-application-callendpointset";
@@ -51,15 +55,19 @@ public interface EventConstants {
   String SELECTOR_AUTHENTICATE = OPERATION_HEADER + " = '" + OPERATION_AUTHENTICATE + "'";
 
   String SELECTOR_POST_PERMITTABLE_GROUP = OPERATION_HEADER + " = '" + OPERATION_POST_PERMITTABLE_GROUP + "'";
+  String SELECTOR_PATCH_PERMITTABLE_GROUP_PERMITTABLES = OPERATION_HEADER + " = '" + OPERATION_PATCH_PERMITTABLE_GROUP_PERMITTABLES + "'";
 
   String SELECTOR_POST_ROLE = OPERATION_HEADER + " = '" + OPERATION_POST_ROLE + "'";
   String SELECTOR_PUT_ROLE = OPERATION_HEADER + " = '" + OPERATION_PUT_ROLE + "'";
   String SELECTOR_DELETE_ROLE = OPERATION_HEADER + " = '" + OPERATION_DELETE_ROLE + "'";
+  String SELECTOR_PATCH_ROLE_PERMISSIONS = OPERATION_HEADER + " = '" + OPERATION_PATCH_ROLE_PERMISSIONS + "'";
 
   String SELECTOR_POST_USER = OPERATION_HEADER + " = '" + OPERATION_POST_USER + "'";
   String SELECTOR_PUT_USER_ROLEIDENTIFIER = OPERATION_HEADER + " = '" + OPERATION_PUT_USER_ROLEIDENTIFIER + "'";
   String SELECTOR_PUT_USER_PASSWORD = OPERATION_HEADER + " = '" + OPERATION_PUT_USER_PASSWORD + "'";
 
+  String SELECTOR_PUT_PASSWORD_HASH_POLICY = OPERATION_HEADER + " = '" + OPERATION_PUT_PASSWORD_HASH_POLICY + "'";
+
   String SELECTOR_PUT_APPLICATION_SIGNATURE = OPERATION_HEADER + " = '" + OPERATION_PUT_APPLICATION_SIGNATURE + "'";
   String SELECTOR_DELETE_APPLICATION = OPERATION_HEADER + " = '" + OPERATION_DELETE_APPLICATION + "'";
   String SELECTOR_POST_APPLICATION_CALLENDPOINTSET = OPERATION_HEADER + " = '" + OPERATION_POST_APPLICATION_CALLENDPOINTSET + "'";
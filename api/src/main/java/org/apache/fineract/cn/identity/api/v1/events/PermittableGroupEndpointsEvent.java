@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.events;
+
+import java.util.List;
+import java.util.Objects;
+import org.apache.fineract.cn.anubis.api.v1.domain.PermittableEndpoint;
+
+/**
+ * Carries the endpoints which were actually added to and removed from a permittable group.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class PermittableGroupEndpointsEvent {
+  private String permittableGroupIdentifier;
+  private List<PermittableEndpoint> added;
+  private List<PermittableEndpoint> removed;
+
+  public PermittableGroupEndpointsEvent() {
+  }
+
+  public PermittableGroupEndpointsEvent(
+      String permittableGroupIdentifier,
+      List<PermittableEndpoint> added,
+      List<PermittableEndpoint> removed) {
+    this.permittableGroupIdentifier = permittableGroupIdentifier;
+    this.added = added;
+    this.removed = removed;
+  }
+
+  public String getPermittableGroupIdentifier() {
+    return permittableGroupIdentifier;
+  }
+
+  public void setPermittableGroupIdentifier(String permittableGroupIdentifier) {
+    this.permittableGroupIdentifier = permittableGroupIdentifier;
+  }
+
+  public List<PermittableEndpoint> getAdded() {
+    return added;
+  }
+
+  public void setAdded(List<PermittableEndpoint> added) {
+    this.added = added;
+  }
+
+  public List<PermittableEndpoint> getRemoved() {
+    return removed;
+  }
+
+  public void setRemoved(List<PermittableEndpoint> removed) {
+    this.removed = removed;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    PermittableGroupEndpointsEvent that = (PermittableGroupEndpointsEvent) o;
+    return Objects.equals(permittableGroupIdentifier, that.permittableGroupIdentifier) &&
+            Objects.equals(added, that.added) &&
+            Objects.equals(removed, that.removed);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(permittableGroupIdentifier, added, removed);
+  }
+
+  @Override
+  public String toString() {
+    return "PermittableGroupEndpointsEvent{" +
+            "permittableGroupIdentifier='" + permittableGroupIdentifier + '\'' +
+            ", added=" + added +
+            ", removed=" + removed +
+            '}';
+  }
+}
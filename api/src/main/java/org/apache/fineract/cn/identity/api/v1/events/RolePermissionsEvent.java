@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.events;
+
+import java.util.List;
+import java.util.Objects;
+import org.apache.fineract.cn.identity.api.v1.domain.Permission;
+
+/**
+ * Carries the permissions added to and removed from a role, so that listeners can apply the change to what they
+ * have cached rather than re-reading the role.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class RolePermissionsEvent {
+  private String roleIdentifier;
+  private List<Permission> added;
+  private List<String> removed;
+
+  public RolePermissionsEvent() {
+  }
+
+  public RolePermissionsEvent(String roleIdentifier, List<Permission> added, List<String> removed) {
+    this.roleIdentifier = roleIdentifier;
+    this.added = added;
+    this.removed = removed;
+  }
+
+  public String getRoleIdentifier() {
+    return roleIdentifier;
+  }
+
+  public void setRoleIdentifier(String roleIdentifier) {
+    this.roleIdentifier = roleIdentifier;
+  }
+
+  public List<Permission> getAdded() {
+    return added;
+  }
+
+  public void setAdded(List<Permission> added) {
+    this.added = added;
+  }
+
+  public List<String> getRemoved() {
+    return removed;
+  }
+
+  public void setRemoved(List<String> removed) {
+    this.removed = removed;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    RolePermissionsEvent that = (RolePermissionsEvent) o;
+    return Objects.equals(roleIdentifier, that.roleIdentifier) &&
+            Objects.equals(added, that.added) &&
+            Objects.equals(removed, that.removed);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(roleIdentifier, added, removed);
+  }
+
+  @Override
+  public String toString() {
+    return "RolePermissionsEvent{" +
+            "roleIdentifier='" + roleIdentifier + '\'' +
+            ", added=" + added +
+            ", removed=" + removed +
+            '}';
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.cn.identity.api.v1.domain.Authentication;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AccessTokenRefresherTest {
+
+  @Test
+  public void concurrentRefreshesShareOneCall() throws Exception {
+    final AtomicInteger calls = new AtomicInteger();
+    final CountDownLatch release = new CountDownLatch(1);
+    try (final AccessTokenRefresher testSubject = new AccessTokenRefresher(() -> {
+      calls.incrementAndGet();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      }
+      catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return authenticationExpiringAt(Instant.now().plus(Duration.ofHours(1)).toString());
+    }, Duration.ofMinutes(1), Duration.ZERO)) {
+      final CompletableFuture<Authentication> first = testSubject.refresh();
+      final CompletableFuture<Authentication> second = testSubject.refresh();
+      Assert.assertSame(first, second);
+
+      release.countDown();
+      Assert.assertEquals("token", first.get(10, TimeUnit.SECONDS).getAccessToken());
+      Assert.assertEquals(1, calls.get());
+      Assert.assertEquals("token", testSubject.getAccessToken());
+    }
+  }
+
+  @Test
+  public void refreshFailingWithAnErrorDoesNotBlockLaterRefreshes() throws Exception {
+    final AtomicInteger calls = new AtomicInteger();
+    try (final AccessTokenRefresher testSubject = new AccessTokenRefresher(() -> {
+      if (calls.incrementAndGet() == 1)
+        throw new AssertionError("first call fails");
+      return authenticationExpiringAt(Instant.now().plus(Duration.ofHours(1)).toString());
+    }, Duration.ofMinutes(1), Duration.ZERO)) {
+      final CompletableFuture<Authentication> first = testSubject.refresh();
+      try {
+        first.get(10, TimeUnit.SECONDS);
+        Assert.fail("The first refresh should have failed.");
+      }
+      catch (final ExecutionException e) {
+        Assert.assertTrue(e.getCause() instanceof AssertionError);
+      }
+
+      final CompletableFuture<Authentication> second = testSubject.refresh();
+      Assert.assertNotSame(first, second);
+      Assert.assertEquals("token", second.get(10, TimeUnit.SECONDS).getAccessToken());
+      Assert.assertEquals(2, calls.get());
+    }
+  }
+
+  @Test
+  public void refreshIsBroughtForwardByAtMostTheJitter() {
+    try (final AccessTokenRefresher testSubject = new AccessTokenRefresher(
+        () -> null, Duration.ofMinutes(1), Duration.ofSeconds(30))) {
+      final long now = System.currentTimeMillis();
+      final Authentication authentication
+          = authenticationExpiringAt(Instant.ofEpochMilli(now).plus(Duration.ofMinutes(10)).toString());
+
+      for (int i = 0; i < 100; i++) {
+        final long delay = testSubject.refreshDelayMillis(authentication, now);
+        Assert.assertTrue(delay <= TimeUnit.MINUTES.toMillis(9));
+        Assert.assertTrue(delay >= TimeUnit.MINUTES.toMillis(9) - TimeUnit.SECONDS.toMillis(30));
+      }
+    }
+  }
+
+  @Test
+  public void expiredTokensAreRefreshedImmediately() {
+    try (final AccessTokenRefresher testSubject = new AccessTokenRefresher(
+        () -> null, Duration.ofMinutes(1), Duration.ofSeconds(30))) {
+      final long now = System.currentTimeMillis();
+      final Authentication authentication
+          = authenticationExpiringAt(Instant.ofEpochMilli(now).minus(Duration.ofMinutes(1)).toString());
+
+      Assert.assertEquals(0, testSubject.refreshDelayMillis(authentication, now));
+    }
+  }
+
+  @Test
+  public void expirationWithoutZoneIsReadAsUtc() {
+    final Instant expected = Instant.parse("2030-01-01T00:00:00Z");
+
+    Assert.assertEquals(expected, AccessTokenRefresher.expiresAt(authenticationExpiringAt("2030-01-01T00:00:00Z")));
+    Assert.assertEquals(expected, AccessTokenRefresher.expiresAt(authenticationExpiringAt("2030-01-01T00:00:00")));
+    Assert.assertEquals(expected.plusMillis(123),
+        AccessTokenRefresher.expiresAt(authenticationExpiringAt("2030-01-01T00:00:00.123")));
+  }
+
+  @Test
+  public void retriesBackOffExponentially() {
+    for (int i = 0; i < 100; i++) {
+      assertWithin(500, 1000, AccessTokenRefresher.retryDelayMillis(1));
+      assertWithin(2000, 4000, AccessTokenRefresher.retryDelayMillis(3));
+      assertWithin(AccessTokenRefresher.MAXIMUM_RETRY_DELAY_MILLIS / 2, AccessTokenRefresher.MAXIMUM_RETRY_DELAY_MILLIS,
+          AccessTokenRefresher.retryDelayMillis(1000));
+    }
+  }
+
+  @Test
+  public void clientErrorsAreNotRetried() {
+    Assert.assertTrue(AccessTokenRefresher.isRejectedByIdentity(new IllegalArgumentException()));
+    Assert.assertTrue(AccessTokenRefresher.isRejectedByIdentity(new CompletionException(new IllegalArgumentException())));
+    Assert.assertFalse(AccessTokenRefresher.isRejectedByIdentity(new IllegalStateException()));
+  }
+
+  private static void assertWithin(final long lowest, final long highest, final long actual) {
+    Assert.assertTrue(actual + " is below " + lowest, actual >= lowest);
+    Assert.assertTrue(actual + " is above " + highest, actual <= highest);
+  }
+
+  private static Authentication authenticationExpiringAt(final String accessTokenExpiration) {
+    return new Authentication("token", accessTokenExpiration, accessTokenExpiration, null);
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.client;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.cn.api.util.UserContextHolder;
+import org.apache.fineract.cn.identity.api.v1.domain.Role;
+import org.apache.fineract.cn.identity.api.v1.domain.User;
+import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class IdentityManagerCacheTest {
+  private static final String TENANT = "tenant";
+
+  private IdentityManager delegate;
+
+  @Before
+  public void setup() {
+    delegate = Mockito.mock(IdentityManager.class);
+    Mockito.when(delegate.getRole(Mockito.anyString())).thenAnswer(invocation -> role((String) invocation.getArguments()[0]));
+    Mockito.when(delegate.getUser(Mockito.anyString())).thenAnswer(invocation -> new User((String) invocation.getArguments()[0], "role"));
+    enter("antony-token");
+  }
+
+  @After
+  public void tearDown() {
+    TenantContextHolder.clear();
+    UserContextHolder.clear();
+  }
+
+  @Test
+  public void concurrentMissesCallIdentityOnce() throws Exception {
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Mockito.when(delegate.getRole("scribe")).thenAnswer(invocation -> {
+      loading.countDown();
+      Assert.assertTrue(release.await(10, TimeUnit.SECONDS));
+      return role("scribe");
+    });
+    final IdentityManager testSubject = new IdentityManagerCache(100).wrap(delegate);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<Role> first = executor.submit(() -> {
+        enter("antony-token");
+        return testSubject.getRole("scribe");
+      });
+      Assert.assertTrue(loading.await(10, TimeUnit.SECONDS));
+      final Future<Role> second = executor.submit(() -> {
+        enter("antony-token");
+        return testSubject.getRole("scribe");
+      });
+      Thread.sleep(100);
+      release.countDown();
+
+      Assert.assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+      Mockito.verify(delegate, Mockito.times(1)).getRole("scribe");
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void failuresAreNotCached() {
+    Mockito.when(delegate.getRole("scribe"))
+        .thenThrow(new IllegalStateException("identity unavailable"))
+        .thenReturn(role("scribe"));
+    final IdentityManager testSubject = new IdentityManagerCache(100).wrap(delegate);
+
+    try {
+      testSubject.getRole("scribe");
+      Assert.fail("The first call should have failed.");
+    }
+    catch (final IllegalStateException ignored) {
+    }
+    Assert.assertEquals("scribe", testSubject.getRole("scribe").getIdentifier());
+    Mockito.verify(delegate, Mockito.times(2)).getRole("scribe");
+  }
+
+  @Test
+  public void eldestEntryIsEvictedFirst() {
+    final IdentityManagerCache cache = new IdentityManagerCache(2);
+    final IdentityManager testSubject = cache.wrap(delegate);
+
+    testSubject.getRole("scribe");
+    testSubject.getRole("pharaoh");
+    testSubject.getRole("vizier");
+    Assert.assertEquals(2, cache.size());
+
+    testSubject.getRole("vizier");
+    Mockito.verify(delegate, Mockito.times(1)).getRole("vizier");
+    testSubject.getRole("scribe");
+    Mockito.verify(delegate, Mockito.times(2)).getRole("scribe");
+  }
+
+  @Test
+  public void eventsDropAffectedEntriesOfTheCurrentTenantOnly() {
+    final IdentityManagerCache cache = new IdentityManagerCache(100);
+    final IdentityManager testSubject = cache.wrap(delegate);
+
+    testSubject.getRole("scribe");
+    testSubject.getUser("antony");
+    TenantContextHolder.clear();
+    TenantContextHolder.setIdentifier("other");
+    testSubject.getRole("scribe");
+
+    cache.onEvent(EventConstants.OPERATION_PATCH_ROLE_PERMISSIONS);
+    testSubject.getRole("scribe");
+    Mockito.verify(delegate, Mockito.times(3)).getRole("scribe");
+
+    TenantContextHolder.clear();
+    TenantContextHolder.setIdentifier(TENANT);
+    testSubject.getRole("scribe");
+    testSubject.getUser("antony");
+    Mockito.verify(delegate, Mockito.times(3)).getRole("scribe");
+    Mockito.verify(delegate, Mockito.times(1)).getUser("antony");
+
+    cache.onEvent(EventConstants.OPERATION_PATCH_PERMITTABLE_GROUP_PERMITTABLES);
+    testSubject.getRole("scribe");
+    Mockito.verify(delegate, Mockito.times(3)).getRole("scribe");
+  }
+
+  @Test
+  public void resultsAreNotSharedBetweenCallers() {
+    final IdentityManager testSubject = new IdentityManagerCache(100).wrap(delegate);
+
+    testSubject.getUser("antony");
+    UserContextHolder.clear();
+    UserContextHolder.setAccessToken("cleopatra", "cleopatra-token");
+    testSubject.getUser("antony");
+
+    Mockito.verify(delegate, Mockito.times(2)).getUser("antony");
+  }
+
+  @Test
+  public void zeroDurationDisablesCaching() {
+    final IdentityManager testSubject = new IdentityManagerCache(100)
+        .expireAfter(IdentityManagerCache.CachedCall.ROLE, 0, TimeUnit.SECONDS)
+        .wrap(delegate);
+
+    testSubject.getRole("scribe");
+    testSubject.getRole("scribe");
+
+    Mockito.verify(delegate, Mockito.times(2)).getRole("scribe");
+  }
+
+  private static void enter(final String accessToken) {
+    TenantContextHolder.clear();
+    TenantContextHolder.setIdentifier(TENANT);
+    UserContextHolder.clear();
+    UserContextHolder.setAccessToken("antony", accessToken);
+  }
+
+  private static Role role(final String identifier) {
+    final Role ret = new Role();
+    ret.setIdentifier(identifier);
+    return ret;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.test.domain.ValidationTest;
+import org.apache.fineract.cn.test.domain.ValidationTestCase;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class ChangeSetTest extends ValidationTest<ChangeSet> {
+
+  public ChangeSetTest(final ValidationTestCase<ChangeSet> testCase) {
+    super(testCase);
+  }
+
+  @Parameterized.Parameters
+  public static Collection testCases() {
+    final Collection<ValidationTestCase> ret = new ArrayList<>();
+
+    ret.add(new ValidationTestCase<ChangeSet>("validCase")
+            .adjustment(x -> {})
+            .valid(true));
+    ret.add(new ValidationTestCase<ChangeSet>("nothing changed yet")
+            .adjustment(x -> {
+              x.setVersion(0);
+              x.setChanges(Collections.emptyList());
+            })
+            .valid(true));
+    ret.add(new ValidationTestCase<ChangeSet>("negative version")
+            .adjustment(x -> x.setVersion(-1))
+            .valid(false));
+    ret.add(new ValidationTestCase<ChangeSet>("null changes")
+            .adjustment(x -> x.setChanges(null))
+            .valid(false));
+    ret.add(new ValidationTestCase<ChangeSet>("invalid change")
+            .adjustment(x -> x.getChanges().get(0).setEntityIdentifier(null))
+            .valid(false));
+
+    return ret;
+  }
+
+  @Override
+  protected ChangeSet createValidTestSubject() {
+    final Change change = new Change(2, Change.TYPE_USER, "antony", EventConstants.OPERATION_PUT_USER_ROLEIDENTIFIER, "2017-03-01T10:15:30Z");
+    return new ChangeSet(2, new ArrayList<>(Collections.singletonList(change)));
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.test.domain.ValidationTest;
+import org.apache.fineract.cn.test.domain.ValidationTestCase;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class ChangeTest extends ValidationTest<Change> {
+
+  public ChangeTest(final ValidationTestCase<Change> testCase) {
+    super(testCase);
+  }
+
+  @Parameterized.Parameters
+  public static Collection testCases() {
+    final Collection<ValidationTestCase> ret = new ArrayList<>();
+
+    ret.add(new ValidationTestCase<Change>("validCase")
+            .adjustment(x -> {})
+            .valid(true));
+    ret.add(new ValidationTestCase<Change>("zero version")
+            .adjustment(x -> x.setVersion(0))
+            .valid(false));
+    ret.add(new ValidationTestCase<Change>("null entity type")
+            .adjustment(x -> x.setEntityType(null))
+            .valid(false));
+    ret.add(new ValidationTestCase<Change>("blank entity identifier")
+            .adjustment(x -> x.setEntityIdentifier(" "))
+            .valid(false));
+    ret.add(new ValidationTestCase<Change>("empty operation")
+            .adjustment(x -> x.setOperation(""))
+            .valid(false));
+    ret.add(new ValidationTestCase<Change>("null created on")
+            .adjustment(x -> x.setCreatedOn(null))
+            .valid(false));
+
+    return ret;
+  }
+
+  @Override
+  protected Change createValidTestSubject() {
+    return new Change(1, Change.TYPE_ROLE, "scribe", EventConstants.OPERATION_PUT_ROLE, "2017-03-01T10:15:30Z");
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import org.apache.fineract.cn.anubis.api.v1.domain.PermittableEndpoint;
+import org.apache.fineract.cn.test.domain.ValidationTest;
+import org.apache.fineract.cn.test.domain.ValidationTestCase;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class PermittableGroupEndpointsChangeTest extends ValidationTest<PermittableGroupEndpointsChange> {
+
+  public PermittableGroupEndpointsChangeTest(final ValidationTestCase<PermittableGroupEndpointsChange> testCase) {
+    super(testCase);
+  }
+
+  @Parameterized.Parameters
+  public static Collection testCases() {
+    final Collection<ValidationTestCase> ret = new ArrayList<>();
+
+    ret.add(new ValidationTestCase<PermittableGroupEndpointsChange>("validCase")
+            .adjustment(x -> {})
+            .valid(true));
+    ret.add(new ValidationTestCase<PermittableGroupEndpointsChange>("no changes")
+            .adjustment(x -> {
+              x.setAdd(Collections.emptyList());
+              x.setRemove(Collections.emptyList());
+            })
+            .valid(true));
+    ret.add(new ValidationTestCase<PermittableGroupEndpointsChange>("null add")
+            .adjustment(x -> x.setAdd(null))
+            .valid(false));
+    ret.add(new ValidationTestCase<PermittableGroupEndpointsChange>("null remove")
+            .adjustment(x -> x.setRemove(null))
+            .valid(false));
+    ret.add(new ValidationTestCase<PermittableGroupEndpointsChange>("illegal method added")
+            .adjustment(x -> x.getAdd().get(0).setMethod("blah"))
+            .valid(false));
+    ret.add(new ValidationTestCase<PermittableGroupEndpointsChange>("illegal method removed")
+            .adjustment(x -> x.getRemove().get(0).setMethod("blah"))
+            .valid(false));
+
+    return ret;
+  }
+
+  @Override
+  protected PermittableGroupEndpointsChange createValidTestSubject() {
+    return new PermittableGroupEndpointsChange(
+        new ArrayList<>(Collections.singletonList(buildPermittableEndpoint("/x/y", "GET"))),
+        new ArrayList<>(Collections.singletonList(buildPermittableEndpoint("/x/y/z", "POST"))));
+  }
+
+  private static PermittableEndpoint buildPermittableEndpoint(final String path, final String method) {
+    final PermittableEndpoint ret = new PermittableEndpoint();
+    ret.setPath(path);
+    ret.setMethod(method);
+    return ret;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import org.apache.fineract.cn.test.domain.ValidationTest;
+import org.apache.fineract.cn.test.domain.ValidationTestCase;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class PublicKeyBundleTest extends ValidationTest<PublicKeyBundle> {
+
+  public PublicKeyBundleTest(final ValidationTestCase<PublicKeyBundle> testCase) {
+    super(testCase);
+  }
+
+  @Parameterized.Parameters
+  public static Collection testCases() {
+    final Collection<ValidationTestCase> ret = new ArrayList<>();
+
+    ret.add(new ValidationTestCase<PublicKeyBundle>("validCase")
+            .adjustment(x -> {})
+            .valid(true));
+    ret.add(new ValidationTestCase<PublicKeyBundle>("no application keys")
+            .adjustment(x -> x.setApplicationKeys(Collections.emptyList()))
+            .valid(true));
+    ret.add(new ValidationTestCase<PublicKeyBundle>("null version")
+            .adjustment(x -> x.setVersion(null))
+            .valid(false));
+    ret.add(new ValidationTestCase<PublicKeyBundle>("blank version")
+            .adjustment(x -> x.setVersion(""))
+            .valid(false));
+    ret.add(new ValidationTestCase<PublicKeyBundle>("null identity keys")
+            .adjustment(x -> x.setIdentityKeys(null))
+            .valid(false));
+    ret.add(new ValidationTestCase<PublicKeyBundle>("null application keys")
+            .adjustment(x -> x.setApplicationKeys(null))
+            .valid(false));
+
+    return ret;
+  }
+
+  @Override
+  protected PublicKeyBundle createValidTestSubject() {
+    return new PublicKeyBundle("v1",
+        Collections.singletonList(new PublicKey(null, "2017_01_01T00_00_00", BigInteger.TEN, BigInteger.ONE)),
+        Collections.singletonList(new PublicKey("office-v1", "2017_01_02T00_00_00", BigInteger.TEN, BigInteger.ONE)));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.api.v1.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import org.apache.fineract.cn.anubis.api.v1.domain.AllowedOperation;
+import org.apache.fineract.cn.identity.api.v1.PermittableGroupIds;
+import org.apache.fineract.cn.test.domain.ValidationTest;
+import org.apache.fineract.cn.test.domain.ValidationTestCase;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class RolePermissionsChangeTest extends ValidationTest<RolePermissionsChange> {
+
+  public RolePermissionsChangeTest(final ValidationTestCase<RolePermissionsChange> testCase) {
+    super(testCase);
+  }
+
+  @Parameterized.Parameters
+  public static Collection testCases() {
+    final Collection<ValidationTestCase> ret = new ArrayList<>();
+
+    ret.add(new ValidationTestCase<RolePermissionsChange>("validCase")
+            .adjustment(x -> {})
+            .valid(true));
+    ret.add(new ValidationTestCase<RolePermissionsChange>("no changes")
+            .adjustment(x -> {
+              x.setAdd(Collections.emptyList());
+              x.setRemove(Collections.emptyList());
+            })
+            .valid(true));
+    ret.add(new ValidationTestCase<RolePermissionsChange>("same group added twice")
+            .adjustment(x -> x.getAdd().add(new Permission(PermittableGroupIds.IDENTITY_MANAGEMENT, AllowedOperation.ALL)))
+            .valid(true));
+    ret.add(new ValidationTestCase<RolePermissionsChange>("null add")
+            .adjustment(x -> x.setAdd(null))
+            .valid(false));
+    ret.add(new ValidationTestCase<RolePermissionsChange>("null remove")
+            .adjustment(x -> x.setRemove(null))
+            .valid(false));
+    ret.add(new ValidationTestCase<RolePermissionsChange>("permission without group")
+            .adjustment(x -> x.getAdd().get(0).setPermittableEndpointGroupIdentifier(null))
+            .valid(false));
+    ret.add(new ValidationTestCase<RolePermissionsChange>("permission without operations")
+            .adjustment(x -> x.getAdd().get(0).setAllowedOperations(null))
+            .valid(false));
+
+    return ret;
+  }
+
+  @Override
+  protected RolePermissionsChange createValidTestSubject() {
+    final Permission permission = new Permission(PermittableGroupIds.IDENTITY_MANAGEMENT, Collections.singleton(AllowedOperation.READ));
+    return new RolePermissionsChange(
+        new ArrayList<>(Collections.singletonList(permission)),
+        new ArrayList<>(Arrays.asList(PermittableGroupIds.ROLE_MANAGEMENT, PermittableGroupIds.SELF_MANAGEMENT)));
+  }
+}
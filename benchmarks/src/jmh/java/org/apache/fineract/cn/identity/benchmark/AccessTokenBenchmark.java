@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.benchmark;
+
+import com.google.gson.Gson;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import org.apache.fineract.cn.anubis.api.v1.domain.AllowedOperation;
+import org.apache.fineract.cn.anubis.api.v1.domain.TokenContent;
+import org.apache.fineract.cn.anubis.api.v1.domain.TokenPermission;
+import org.apache.fineract.cn.anubis.token.TenantAccessTokenSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and parsing access tokens as the number of permissions in the token content grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AccessTokenBenchmark {
+  private static final String APPLICATION = "identity-v1";
+  private static final AllowedOperation[] OPERATIONS = AllowedOperation.values();
+
+  @Param({"10", "100", "500", "2000"})
+  public int permissionCount;
+
+  @Param({"2048", "4096"})
+  public int keySize;
+
+  @Param({"PLAIN", "CRT"})
+  public BenchmarkKeys.KeyForm keyForm;
+
+  private TenantAccessTokenSerializer serializer;
+  private TenantAccessTokenSerializer.Specification specification;
+  private PublicKey publicKey;
+  private String accessToken;
+
+  @Setup
+  public void setup() throws Exception {
+    final KeyPair keyPair = BenchmarkKeys.createKeyPair(keySize);
+    publicKey = keyPair.getPublic();
+    serializer = new TenantAccessTokenSerializer(new Gson());
+    specification = new TenantAccessTokenSerializer.Specification()
+        .setKeyTimestamp("2018-01-01T00_00_00")
+        .setPrivateKey(BenchmarkKeys.privateKey(keyPair, keyForm))
+        .setTokenContent(new TokenContent(permissions(permissionCount)))
+        .setSecondsToLive(1200)
+        .setUser("benchmarker")
+        .setSourceApplication(APPLICATION);
+    accessToken = serializer.build(specification).getToken();
+  }
+
+  @Benchmark
+  public String build(final TokenSize size) {
+    final String ret = serializer.build(specification).getToken();
+    size.tokenBytes = ret.length();
+    return ret;
+  }
+
+  @Benchmark
+  public Jws<Claims> parse() {
+    return Jwts.parser().setSigningKey(publicKey).parseClaimsJws(accessToken);
+  }
+
+  //Deterministic, so that results stay comparable between runs.
+  static List<TokenPermission> permissions(final int count) {
+    final List<TokenPermission> ret = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final Set<AllowedOperation> allowedOperations = EnumSet.noneOf(AllowedOperation.class);
+      for (int j = 0; j <= i % OPERATIONS.length; j++)
+        allowedOperations.add(OPERATIONS[(i + j) % OPERATIONS.length]);
+      ret.add(new TokenPermission(APPLICATION + "/resources" + (i % 50) + "/{identifier}/items" + i + "/*",
+          allowedOperations));
+    }
+    return ret;
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.benchmark;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.anubis.token.TenantAccessTokenSerializer;
+import org.apache.fineract.cn.anubis.token.TenantRefreshTokenSerializer;
+import org.apache.fineract.cn.crypto.HashGenerator;
+import org.apache.fineract.cn.crypto.SaltGenerator;
+import org.apache.fineract.cn.identity.internal.command.AuthenticationCommandResponse;
+import org.apache.fineract.cn.identity.internal.command.PasswordAuthenticationCommand;
+import org.apache.fineract.cn.identity.internal.command.RefreshTokenAuthenticationCommand;
+import org.apache.fineract.cn.identity.internal.command.handler.AuthenticationCommandHandler;
+import org.apache.fineract.cn.identity.internal.command.handler.UserEntityCreator;
+import org.apache.fineract.cn.identity.internal.metrics.AuthenticationMetrics;
+import org.apache.fineract.cn.identity.internal.metrics.CommandMetrics;
+import org.apache.fineract.cn.identity.internal.metrics.StatementMetrics;
+import org.apache.fineract.cn.identity.internal.repository.AllowedOperationType;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetsInMemory;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionEntity;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUsersInMemory;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionsInMemory;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureEntity;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignaturesInMemory;
+import org.apache.fineract.cn.identity.internal.repository.InMemoryStore;
+import org.apache.fineract.cn.identity.internal.repository.PermissionType;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupEntity;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupsInMemory;
+import org.apache.fineract.cn.identity.internal.repository.PermittableType;
+import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
+import org.apache.fineract.cn.identity.internal.repository.RolesInMemory;
+import org.apache.fineract.cn.identity.internal.repository.SignaturesInMemory;
+import org.apache.fineract.cn.identity.internal.repository.TenantsInMemory;
+import org.apache.fineract.cn.identity.internal.repository.UserEntity;
+import org.apache.fineract.cn.identity.internal.repository.UsersInMemory;
+import org.apache.fineract.cn.identity.internal.service.PasswordHashCalibrator;
+import org.apache.fineract.cn.identity.internal.service.PasswordHashPolicyService;
+import org.apache.fineract.cn.identity.internal.service.UserTokenPermissions;
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.apache.fineract.cn.lang.ApplicationName;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.apache.fineract.cn.lang.security.RsaKeyPairFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessagePostProcessor;
+import org.springframework.security.crypto.util.EncodingUtils;
+import org.springframework.util.Base64Utils;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Password login and refresh token authentication through the real command handler, token serializers and
+ * hash generator, against in memory repositories.  Throughput and latency are reported per operation; run with
+ * the gc profiler (the default in the build) to get allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AuthenticationBenchmark {
+  private static final String IDENTITY_APPLICATION = "identity-v1";
+  private static final String CLIENT_APPLICATION = "benchmark-v1";
+  private static final String KEY_TIMESTAMP = "2018-01-01T00_00_00";
+  private static final String USER = "benchmarker";
+  private static final String ROLE = "benchmark-role";
+  private static final String PASSWORD = Base64Utils.encodeToString("benchmark-password".getBytes());
+  private static final List<String> METHODS = Arrays.asList("GET", "POST", "PUT", "DELETE");
+
+  @Param({"1", "10", "50"})
+  public int permittableGroupsPerRole;
+
+  @Param({"0", "10", "50"})
+  public int applicationPermissions;
+
+  @Param({"2048", "4096"})
+  public int keySize;
+
+  //Lower this with -p iterationCount=1 to take password hashing out of the picture.
+  @Param({"" + IdentityConstants.ITERATION_COUNT})
+  public int iterationCount;
+
+  private AuthenticationCommandHandler commandHandler;
+  private PasswordAuthenticationCommand passwordCommand;
+  private RefreshTokenAuthenticationCommand refreshCommand;
+
+  @Setup
+  public void setup() throws Exception {
+    final Logger logger = NOPLogger.NOP_LOGGER;
+    final HashGenerator hashGenerator = new HashGenerator();
+    final byte[] fixedSalt = new SaltGenerator().createRandomSalt();
+
+    //JMH runs setup on the benchmark thread, and the in memory repositories are partitioned by tenant.
+    TenantContextHolder.setIdentifier("benchmark");
+    final InMemoryStore store = new InMemoryStore(logger, 256, "", 0);
+
+    final KeyPair tenantKeys = createKeyPair();
+    final SignaturesInMemory signatures = new SignaturesInMemory(store);
+    signatures.add(new RsaKeyPairFactory.KeyPairHolder(KEY_TIMESTAMP,
+        (RSAPublicKey) tenantKeys.getPublic(), (RSAPrivateKey) tenantKeys.getPrivate()));
+
+    final TenantsInMemory tenants = new TenantsInMemory(store);
+    tenants.add(fixedSalt, 93, 4);
+
+    final PermittableGroupsInMemory permittableGroups = new PermittableGroupsInMemory(store);
+    final int groupCount = Math.max(permittableGroupsPerRole, applicationPermissions);
+    for (int i = 0; i < groupCount; i++)
+      permittableGroups.add(permittableGroup(group(i)));
+
+    final RolesInMemory roles = new RolesInMemory(store);
+    final List<PermissionType> rolePermissions = new ArrayList<>();
+    for (int i = 0; i < permittableGroupsPerRole; i++)
+      rolePermissions.add(new PermissionType(group(i), EnumSet.allOf(AllowedOperationType.class)));
+    roles.add(new RoleEntity(ROLE, rolePermissions));
+
+    final UsersInMemory users = new UsersInMemory(store);
+    users.add(user(hashGenerator, fixedSalt));
+
+    final KeyPair applicationKeys = createKeyPair();
+    final ApplicationSignaturesInMemory applicationSignatures = new ApplicationSignaturesInMemory(store);
+    final ApplicationSignatureEntity applicationSignature = new ApplicationSignatureEntity();
+    applicationSignature.setApplicationIdentifier(CLIENT_APPLICATION);
+    applicationSignature.setKeyTimestamp(KEY_TIMESTAMP);
+    applicationSignature.setPublicKeyMod(((RSAPublicKey) applicationKeys.getPublic()).getModulus());
+    applicationSignature.setPublicKeyExp(((RSAPublicKey) applicationKeys.getPublic()).getPublicExponent());
+    applicationSignatures.add(applicationSignature);
+
+    final ApplicationPermissionsInMemory applicationPermissionRepository = new ApplicationPermissionsInMemory(store);
+    final ApplicationPermissionUsersInMemory applicationPermissionUsers = new ApplicationPermissionUsersInMemory(store);
+    for (int i = 0; i < applicationPermissions; i++) {
+      applicationPermissionRepository.add(new ApplicationPermissionEntity(CLIENT_APPLICATION,
+          new PermissionType(group(i), EnumSet.of(AllowedOperationType.READ))));
+      applicationPermissionUsers.setEnabled(CLIENT_APPLICATION, group(i), USER, true);
+    }
+
+    //The policy default matches the stored hash, so logins never rehash.
+    final SaltGenerator saltGenerator = new SaltGenerator();
+    final PasswordHashPolicyService passwordHashPolicy = new PasswordHashPolicyService(
+        tenants, new PasswordHashCalibrator(hashGenerator, saltGenerator, logger), iterationCount, 60);
+
+    final ApplicationName identityApplicationName = ApplicationName.fromSpringApplicationName(IDENTITY_APPLICATION);
+    commandHandler = new AuthenticationCommandHandler(
+        users, roles, new UserTokenPermissions(roles, permittableGroups, identityApplicationName),
+        signatures,
+        tenants,
+        hashGenerator,
+        new TenantAccessTokenSerializer(new Gson()), new TenantRefreshTokenSerializer(),
+        keyTimestamp -> tenantKeys.getPublic(),
+        applicationSignatures, applicationPermissionRepository, applicationPermissionUsers,
+        new ApplicationCallEndpointSetsInMemory(store),
+        new DiscardingJmsTemplate(),
+        identityApplicationName,
+        new Gson(), logger,
+        new CommandMetrics(new StatementMetrics(logger, 0, 100)),
+        new AuthenticationMetrics(logger, 0),
+        new UserEntityCreator(saltGenerator, hashGenerator, tenants, passwordHashPolicy));
+    setTimeToLive("accessTtl", 1200);
+    setTimeToLive("refreshTtl", 54000);
+
+    passwordCommand = new PasswordAuthenticationCommand(USER, PASSWORD);
+    refreshCommand = new RefreshTokenAuthenticationCommand(refreshToken(applicationKeys.getPrivate()));
+  }
+
+  @Benchmark
+  public AuthenticationCommandResponse passwordLogin() {
+    return commandHandler.process(passwordCommand);
+  }
+
+  @Benchmark
+  public AuthenticationCommandResponse refresh() {
+    return commandHandler.process(refreshCommand);
+  }
+
+  private KeyPair createKeyPair() throws NoSuchAlgorithmException {
+    final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(keySize);
+    return generator.generateKeyPair();
+  }
+
+  private UserEntity user(final HashGenerator hashGenerator, final byte[] fixedSalt) {
+    final byte[] variableSalt = new SaltGenerator().createRandomSalt();
+    final UserEntity ret = new UserEntity();
+    ret.setIdentifier(USER);
+    ret.setRole(ROLE);
+    ret.setSalt(ByteBuffer.wrap(variableSalt));
+    ret.setIterationCount(iterationCount);
+    ret.setPassword(ByteBuffer.wrap(hashGenerator.hash(PASSWORD, EncodingUtils.concatenate(variableSalt, fixedSalt),
+        iterationCount, IdentityConstants.HASH_LENGTH)));
+    ret.setPasswordExpiresOn(com.datastax.driver.core.LocalDate.fromDaysSinceEpoch(
+        (int) LocalDate.now(ZoneId.of("UTC")).plusDays(93).toEpochDay()));
+    return ret;
+  }
+
+  private String refreshToken(final PrivateKey applicationKey) {
+    return new TenantRefreshTokenSerializer().build(new TenantRefreshTokenSerializer.Specification()
+        .setUser(USER)
+        .setSecondsToLive((int) TimeUnit.DAYS.toSeconds(1))
+        .setKeyTimestamp(KEY_TIMESTAMP)
+        .setPrivateKey(applicationKey)
+        .setSourceApplication(CLIENT_APPLICATION))
+        .getToken();
+  }
+
+  //The time to live is normally injected from configuration.
+  private void setTimeToLive(final String fieldName, final int seconds) throws ReflectiveOperationException {
+    final Field field = AuthenticationCommandHandler.class.getDeclaredField(fieldName);
+    field.setAccessible(true);
+    field.setInt(commandHandler, seconds);
+  }
+
+  private static String group(final int i) {
+    return "benchmark-group-" + i;
+  }
+
+  private static PermittableGroupEntity permittableGroup(final String identifier) {
+    final PermittableGroupEntity ret = new PermittableGroupEntity();
+    ret.setIdentifier(identifier);
+    ret.setPermittables(METHODS.stream().map(method -> {
+      final PermittableType permittable = new PermittableType();
+      permittable.setPath(IDENTITY_APPLICATION + "/" + identifier + "/*");
+      permittable.setMethod(method);
+      return permittable;
+    }).collect(Collectors.toList()));
+    return ret;
+  }
+
+  private static class DiscardingJmsTemplate extends JmsTemplate {
+    @Override
+    public void convertAndSend(final Object message, final MessagePostProcessor postProcessor) {
+    }
+  }
+}
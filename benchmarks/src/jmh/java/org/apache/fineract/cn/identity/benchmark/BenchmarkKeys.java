@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.benchmark;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.spec.RSAPrivateKeySpec;
+
+/**
+ * RSA keys for the benchmarks.  Identity stores only the modulus and private exponent of its signing keys, which
+ * gives a plain key; freshly generated keys carry the CRT factors, which makes signing considerably cheaper.
+ */
+final class BenchmarkKeys {
+  enum KeyForm { PLAIN, CRT }
+
+  private BenchmarkKeys() {
+  }
+
+  static KeyPair createKeyPair(final int keySize) throws GeneralSecurityException {
+    final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(keySize);
+    return generator.generateKeyPair();
+  }
+
+  static PrivateKey privateKey(final KeyPair keyPair, final KeyForm keyForm) throws GeneralSecurityException {
+    if (keyForm == KeyForm.CRT)
+      return keyPair.getPrivate();
+
+    final RSAPrivateKey crtKey = (RSAPrivateKey) keyPair.getPrivate();
+    return KeyFactory.getInstance("RSA")
+        .generatePrivate(new RSAPrivateKeySpec(crtKey.getModulus(), crtKey.getPrivateExponent()));
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.benchmark;
+
+import org.apache.fineract.cn.crypto.HashGenerator;
+import org.apache.fineract.cn.crypto.SaltGenerator;
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.util.EncodingUtils;
+import org.springframework.util.Base64Utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password verification cost per iteration count on the machine the benchmark runs on.  Use the results to
+ * choose a tenant's password hash policy; the service's own calibration measures the same operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordHashBenchmark {
+  private static final byte[] PASSWORD = "benchmark-password".getBytes();
+
+  @Param({"1000", "4096", "10000", "50000", "100000"})
+  public int iterationCount;
+
+  private HashGenerator hashGenerator;
+  private byte[] hash;
+  private byte[] fixedSalt;
+  private byte[] variableSalt;
+
+  @Setup
+  public void setup() {
+    final SaltGenerator saltGenerator = new SaltGenerator();
+    hashGenerator = new HashGenerator();
+    fixedSalt = saltGenerator.createRandomSalt();
+    variableSalt = saltGenerator.createRandomSalt();
+    hash = hashGenerator.hash(Base64Utils.encodeToString(PASSWORD), EncodingUtils.concatenate(variableSalt, fixedSalt),
+        iterationCount, IdentityConstants.HASH_LENGTH);
+  }
+
+  @Benchmark
+  public boolean verify() {
+    return hashGenerator.isEqual(hash, PASSWORD, fixedSalt, variableSalt, iterationCount, IdentityConstants.HASH_LENGTH);
+  }
+}
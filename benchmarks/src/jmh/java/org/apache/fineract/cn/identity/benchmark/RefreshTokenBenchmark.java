@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.benchmark;
+
+import org.apache.fineract.cn.anubis.token.TenantRefreshTokenSerializer;
+import org.apache.fineract.cn.anubis.token.TokenDeserializationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and deserializing refresh tokens.  Refresh tokens carry no permissions, so only the key matters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RefreshTokenBenchmark {
+  @Param({"2048", "4096"})
+  public int keySize;
+
+  @Param({"PLAIN", "CRT"})
+  public BenchmarkKeys.KeyForm keyForm;
+
+  private TenantRefreshTokenSerializer serializer;
+  private TenantRefreshTokenSerializer.Specification specification;
+  private PublicKey publicKey;
+  private String refreshToken;
+
+  @Setup
+  public void setup() throws Exception {
+    final KeyPair keyPair = BenchmarkKeys.createKeyPair(keySize);
+    publicKey = keyPair.getPublic();
+    serializer = new TenantRefreshTokenSerializer();
+    specification = new TenantRefreshTokenSerializer.Specification()
+        .setKeyTimestamp("2018-01-01T00_00_00")
+        .setPrivateKey(BenchmarkKeys.privateKey(keyPair, keyForm))
+        .setSecondsToLive((int) TimeUnit.HOURS.toSeconds(15))
+        .setUser("benchmarker")
+        .setSourceApplication("benchmark-v1");
+    refreshToken = serializer.build(specification).getToken();
+  }
+
+  @Benchmark
+  public String build(final TokenSize size) {
+    final String ret = serializer.build(specification).getToken();
+    size.tokenBytes = ret.length();
+    return ret;
+  }
+
+  @Benchmark
+  public TokenDeserializationResult deserialize() {
+    return serializer.deserialize((application, keyTimestamp) -> publicKey, refreshToken);
+  }
+}
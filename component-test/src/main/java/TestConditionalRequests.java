@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import org.apache.fineract.cn.api.context.AutoUserContext;
+import org.apache.fineract.cn.api.util.ApiConstants;
+import org.apache.fineract.cn.api.util.UserContext;
+import org.apache.fineract.cn.api.util.UserContextHolder;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * The feign client doesn't expose response headers, so the conditional GETs are issued directly.
+ */
+public class TestConditionalRequests extends AbstractIdentityTest {
+  private final RestTemplate restTemplate = new RestTemplate();
+
+  @Test
+  public void rolesAreNotModifiedUntilARoleChanges() throws InterruptedException {
+    try (final AutoUserContext ignore = loginAdmin()) {
+      final ResponseEntity<String> first = get("/roles", null);
+      Assert.assertEquals(HttpStatus.OK, first.getStatusCode());
+      final String etag = first.getHeaders().getETag();
+      Assert.assertNotNull(etag);
+      Assert.assertTrue(etag.startsWith("W/"));
+      Assert.assertTrue(first.getHeaders().getVary().contains(HttpHeaders.ACCEPT));
+
+      final ResponseEntity<String> unchanged = get("/roles", etag);
+      Assert.assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+      Assert.assertNull(unchanged.getBody());
+
+      createRoleManagementRole();
+
+      final ResponseEntity<String> changed = get("/roles", etag);
+      Assert.assertEquals(HttpStatus.OK, changed.getStatusCode());
+      Assert.assertNotNull(changed.getHeaders().getETag());
+      Assert.assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+  }
+
+  @Test
+  public void permittableGroupsAreNotModifiedUntilAGroupChanges() throws InterruptedException {
+    try (final AutoUserContext ignore = loginAdmin()) {
+      final ResponseEntity<String> first = get("/permittablegroups", null);
+      Assert.assertEquals(HttpStatus.OK, first.getStatusCode());
+      final String etag = first.getHeaders().getETag();
+      Assert.assertNotNull(etag);
+
+      Assert.assertEquals(HttpStatus.NOT_MODIFIED, get("/permittablegroups", etag).getStatusCode());
+      Assert.assertEquals(HttpStatus.OK, get("/permittablegroups", "\"someOtherVersion\"").getStatusCode());
+    }
+  }
+
+  @Test
+  public void userPermissionsAreNotModifiedUntilTheirRoleChanges() throws InterruptedException {
+    try (final AutoUserContext ignore = loginAdmin()) {
+      final String path = "/users/" + ADMIN_IDENTIFIER + "/permissions";
+      final ResponseEntity<String> first = get(path, null);
+      Assert.assertEquals(HttpStatus.OK, first.getStatusCode());
+      final String etag = first.getHeaders().getETag();
+      Assert.assertNotNull(etag);
+
+      Assert.assertEquals(HttpStatus.NOT_MODIFIED, get(path, etag).getStatusCode());
+
+      //A role the user doesn't have still moves the version of the roles.
+      createRoleManagementRole();
+
+      Assert.assertEquals(HttpStatus.OK, get(path, etag).getStatusCode());
+    }
+  }
+
+  private ResponseEntity<String> get(final String path, final String ifNoneMatch) {
+    final UserContext userContext = UserContextHolder.checkedGetUserContext();
+    final HttpHeaders headers = new HttpHeaders();
+    headers.set(TenantHeaderFilter.TENANT_HEADER, TenantContextHolder.checkedGetIdentifier());
+    headers.set(ApiConstants.USER_HEADER, userContext.getUser());
+    headers.set(ApiConstants.AUTHORIZATION_HEADER, userContext.getAccessToken());
+    if (ifNoneMatch != null)
+      headers.setIfNoneMatch(ifNoneMatch);
+
+    return restTemplate.exchange(testEnvironment.serverURI() + path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+  }
+}
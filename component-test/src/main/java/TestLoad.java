@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import generator.TenantData;
+import generator.TenantDataGenerator;
+import generator.TenantDataProfile;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import load.LoadBudget;
+import load.LoadDriver;
+import load.LoadReport;
+import org.apache.fineract.cn.anubis.token.TenantRefreshTokenSerializer;
+import org.apache.fineract.cn.api.context.AutoUserContext;
+import org.apache.fineract.cn.crypto.HashGenerator;
+import org.apache.fineract.cn.identity.api.v1.domain.RoleIdentifier;
+import org.apache.fineract.cn.identity.internal.command.handler.Provisioner;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUserRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureRepository;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupRepository;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
+import org.apache.fineract.cn.identity.internal.repository.TenantRepository;
+import org.apache.fineract.cn.identity.internal.repository.UserRepository;
+import org.apache.fineract.cn.lang.AutoTenantContext;
+import org.apache.fineract.cn.test.env.TestEnvironment;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Password logins, refresh grants, permission lookups and role changes against a generated tenant, at a fixed
+ * rate.  This is not part of the {@link TestSuite}; run it on its own with {@code ./gradlew loadTest}.  Size and pace are set with system properties: load.users, load.roles,
+ * load.permittableGroups, load.applications, load.workers, load.rate (requests per second),
+ * load.warmupSeconds, load.durationSeconds and load.&lt;operation&gt;.weight.  Limits are described in
+ * {@link LoadBudget}.  Latency distributions are written to build/load-test.
+ */
+@SuppressWarnings("SpringAutowiredFieldsWarningInspection")
+public class TestLoad extends AbstractIdentityTest {
+  private static final String LOGIN = "login";
+  private static final String REFRESH = "refresh";
+  private static final String PERMISSIONS = "permissions";
+  private static final String ROLE_CHANGE = "roleChange";
+  private static final int REFRESH_TOKENS = 200;
+
+  @Autowired
+  private Provisioner provisioner;
+
+  @Autowired
+  private TenantRepository tenants;
+
+  @Autowired
+  private UserRepository users;
+
+  @Autowired
+  private RoleRepository roles;
+
+  @Autowired
+  private PermittableGroupRepository permittableGroups;
+
+  @Autowired
+  private ApplicationSignatureRepository applicationSignatures;
+
+  @Autowired
+  private ApplicationPermissionRepository applicationPermissions;
+
+  @Autowired
+  private ApplicationPermissionUserRepository applicationPermissionUsers;
+
+  @Autowired
+  private ApplicationCallEndpointSetRepository applicationCallEndpointSets;
+
+  @Autowired
+  private HashGenerator hashGenerator;
+
+  @Test
+  public void identityStaysWithinBudget() throws Exception {
+    final String tenant = TestEnvironment.getRandomTenantName();
+    cassandraInitializer.initializeTenant(tenant);
+    TimeUnit.SECONDS.sleep(1);
+
+    final int warmupSeconds = LoadBudget.intProperty("warmupSeconds", 10);
+    final int durationSeconds = LoadBudget.intProperty("durationSeconds", 60);
+
+    final TenantData data;
+    final String adminToken;
+    try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+      data = new TenantDataGenerator(tenants, users, roles, permittableGroups, applicationSignatures,
+          applicationPermissions, applicationPermissionUsers, applicationCallEndpointSets, hashGenerator)
+          .generate(profile(), provisioner::provisionTenant);
+      adminToken = getTestSubject().login(ADMIN_IDENTIFIER, TestEnvironment.encodePassword(ADMIN_PASSWORD))
+          .getAccessToken();
+    }
+
+    final List<String> userIdentifiers = data.getUserIdentifiers();
+    final List<String> roleIdentifiers = data.getRoleIdentifiers();
+    final List<String> refreshTokens = refreshTokens(data, warmupSeconds + durationSeconds + 60);
+
+    final LoadDriver driver = new LoadDriver()
+        .add(LOGIN, LoadBudget.intProperty(LOGIN + ".weight", 2), worker -> {
+          try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+            getTestSubject().login(any(userIdentifiers), data.getEncodedUserPassword());
+          }
+        })
+        .add(REFRESH, LoadBudget.intProperty(REFRESH + ".weight", 4), worker -> {
+          try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+            getTestSubject().refresh(any(refreshTokens));
+          }
+        })
+        .add(PERMISSIONS, LoadBudget.intProperty(PERMISSIONS + ".weight", 3), worker -> {
+          try (final AutoTenantContext ignored = new AutoTenantContext(tenant);
+               final AutoUserContext ignored2 = new AutoUserContext(ADMIN_IDENTIFIER, adminToken)) {
+            getTestSubject().getUserPermissions(any(userIdentifiers));
+          }
+        })
+        .add(ROLE_CHANGE, LoadBudget.intProperty(ROLE_CHANGE + ".weight", 1), worker -> {
+          try (final AutoTenantContext ignored = new AutoTenantContext(tenant);
+               final AutoUserContext ignored2 = new AutoUserContext(ADMIN_IDENTIFIER, adminToken)) {
+            getTestSubject().changeUserRole(any(userIdentifiers), new RoleIdentifier(any(roleIdentifiers)));
+          }
+        });
+
+    final LoadReport report = driver.run(
+        LoadBudget.intProperty("workers", 8),
+        LoadBudget.intProperty("rate", 50),
+        warmupSeconds,
+        durationSeconds);
+
+    report.print(System.out);
+    report.writeDistributions(new File("build/load-test"));
+
+    final List<String> violations = report.violations(new LoadBudget(0.01));
+    Assert.assertTrue("Load test exceeded its budget: " + violations, violations.isEmpty());
+  }
+
+  private static TenantDataProfile profile() {
+    return new TenantDataProfile()
+        .setUsers(LoadBudget.intProperty("users", 2000))
+        .setRoles(LoadBudget.intProperty("roles", 50))
+        .setPermittableGroups(LoadBudget.intProperty("permittableGroups", 300))
+        .setApplications(LoadBudget.intProperty("applications", 10))
+        .setAdminPassword(ADMIN_PASSWORD);
+  }
+
+  /**
+   * Signing is done up front so that the client's cost doesn't count toward the service's latency.
+   */
+  private static List<String> refreshTokens(final TenantData data, final int secondsToLive) {
+    final TenantRefreshTokenSerializer serializer = new TenantRefreshTokenSerializer();
+    final List<String> ret = new ArrayList<>();
+    for (int i = 0; i < REFRESH_TOKENS && i < data.getEnabledPermissions().size(); i++) {
+      final TenantData.EnabledPermission permission = data.getEnabledPermissions().get(i);
+      ret.add(serializer.build(new TenantRefreshTokenSerializer.Specification()
+          .setUser(permission.getUserIdentifier())
+          .setSecondsToLive(secondsToLive)
+          .setKeyTimestamp(data.getApplicationKeys().getTimestamp())
+          .setPrivateKey(data.getApplicationKeys().privateKey())
+          .setSourceApplication(permission.getApplicationIdentifier()))
+          .getToken());
+    }
+    return ret;
+  }
+
+  private static <T> T any(final List<T> from) {
+    return from.get(ThreadLocalRandom.current().nextInt(from.size()));
+  }
+}
@@ -18,7 +18,10 @@
  */
 import org.apache.fineract.cn.identity.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.identity.api.v1.domain.PermittableGroup;
+import org.apache.fineract.cn.identity.api.v1.domain.PermittableGroupEndpointsChange;
 import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.identity.api.v1.events.PermittableGroupEndpointsEvent;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.apache.fineract.cn.anubis.api.v1.domain.PermittableEndpoint;
@@ -89,6 +92,49 @@ public class TestPermittableGroups extends AbstractIdentityTest {
     }
   }
 
+  @Test
+  public void changeEndpoints() throws InterruptedException {
+    try (final AutoUserContext ignored = tenantApplicationSecurityEnvironment.createAutoSeshatContext()) {
+      final String identifier = testEnvironment.generateUniqueIdentifier("group");
+
+      final PermittableEndpoint originalEndpoint = buildPermittableEndpoint();
+      getTestSubject().createPermittableGroup(buildPermittableGroup(identifier, originalEndpoint));
+      Assert.assertTrue(eventRecorder.wait(EventConstants.OPERATION_POST_PERMITTABLE_GROUP, identifier));
+
+      final PermittableEndpoint addedEndpoint = buildPermittableEndpoint();
+      addedEndpoint.setPath("/x/y");
+      addedEndpoint.setMethod("GET");
+
+      //Adding the same endpoint twice adds it once.
+      getTestSubject().changePermittableGroupEndpoints(identifier, new PermittableGroupEndpointsChange(
+          Arrays.asList(addedEndpoint, addedEndpoint),
+          Collections.singletonList(buildPermittableEndpoint())));
+
+      Assert.assertTrue(eventRecorder.wait(EventConstants.OPERATION_PATCH_PERMITTABLE_GROUP_PERMITTABLES,
+          new PermittableGroupEndpointsEvent(identifier,
+              Collections.singletonList(addedEndpoint),
+              Collections.singletonList(originalEndpoint))));
+
+      final PermittableGroup changedGroup = getTestSubject().getPermittableGroup(identifier);
+      Assert.assertEquals(Collections.singletonList(addedEndpoint), changedGroup.getPermittables());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void changeEndpointsWithIllegalMethodThrows() throws InterruptedException {
+    try (final AutoUserContext ignored = tenantApplicationSecurityEnvironment.createAutoSeshatContext()) {
+      final String identifier = testEnvironment.generateUniqueIdentifier("group");
+      getTestSubject().createPermittableGroup(buildPermittableGroup(identifier, buildPermittableEndpoint()));
+      Assert.assertTrue(eventRecorder.wait(EventConstants.OPERATION_POST_PERMITTABLE_GROUP, identifier));
+
+      final PermittableEndpoint permittableEndpoint = buildPermittableEndpoint();
+      permittableEndpoint.setMethod("blah");
+      getTestSubject().changePermittableGroupEndpoints(identifier, new PermittableGroupEndpointsChange(
+          Collections.singletonList(permittableEndpoint), Collections.emptyList()));
+      Assert.assertFalse("change should throw because 'blah' is an illegal method name.", true);
+    }
+  }
+
   private PermittableGroup buildPermittableGroup(final String identifier, final PermittableEndpoint permittableEndpoint) {
     final PermittableGroup ret = new PermittableGroup();
     ret.setIdentifier(identifier);
@@ -18,9 +18,15 @@
  */
 import static org.apache.fineract.cn.identity.internal.util.IdentityConstants.SU_ROLE;
 
+import org.apache.fineract.cn.identity.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.identity.api.v1.domain.Permission;
 import org.apache.fineract.cn.identity.api.v1.domain.Role;
+import org.apache.fineract.cn.identity.api.v1.domain.RoleIdentifier;
+import org.apache.fineract.cn.identity.api.v1.domain.RolePermissionsChange;
+import org.apache.fineract.cn.identity.api.v1.domain.User;
 import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.identity.api.v1.events.RolePermissionsEvent;
+import org.apache.fineract.cn.anubis.api.v1.domain.AllowedOperation;
 import org.apache.fineract.cn.api.context.AutoUserContext;
 import org.apache.fineract.cn.api.util.NotFoundException;
 import org.junit.Assert;
@@ -28,6 +34,7 @@ import org.junit.Test;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 
 /**
@@ -194,4 +201,91 @@ public class TestRoles extends AbstractIdentityTest {
       Assert.assertEquals(adminRole, adminRoleStillThere);
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void getUsersWithRole() throws InterruptedException {
+    final String roleIdentifier;
+    try (final AutoUserContext ignore = loginAdmin()) {
+      roleIdentifier = createSelfManagementRole();
+    }
+
+    final String firstUser = createUserWithNonexpiredPassword(AHMES_PASSWORD, roleIdentifier);
+    final String secondUser = createUserWithNonexpiredPassword(AHMES_FRIENDS_PASSWORD, roleIdentifier);
+
+    try (final AutoUserContext ignore = loginAdmin()) {
+      final List<String> usersWithRole = getTestSubject().getUsersWithRole(roleIdentifier, null, null).stream()
+          .map(User::getIdentifier)
+          .collect(Collectors.toList());
+      Assert.assertEquals(new TreeSet<>(Arrays.asList(firstUser, secondUser)), new TreeSet<>(usersWithRole));
+
+      final List<User> firstPage = getTestSubject().getUsersWithRole(roleIdentifier, null, 1);
+      Assert.assertEquals(1, firstPage.size());
+      Assert.assertEquals(roleIdentifier, firstPage.get(0).getRole());
+      final List<User> secondPage = getTestSubject().getUsersWithRole(roleIdentifier, firstPage.get(0).getIdentifier(), 1);
+      Assert.assertEquals(1, secondPage.size());
+      Assert.assertNotEquals(firstPage.get(0).getIdentifier(), secondPage.get(0).getIdentifier());
+
+      getTestSubject().changeUserRole(firstUser, new RoleIdentifier(ADMIN_ROLE));
+      Assert.assertTrue(eventRecorder.wait(EventConstants.OPERATION_PUT_USER_ROLEIDENTIFIER, firstUser));
+
+      final List<User> remaining = getTestSubject().getUsersWithRole(roleIdentifier, null, null);
+      Assert.assertEquals(Collections.singletonList(new User(secondUser, roleIdentifier)), remaining);
+      Assert.assertTrue(getTestSubject().getUsersWithRole(ADMIN_ROLE, null, null).contains(new User(firstUser, ADMIN_ROLE)));
+    }
+  }
+
+  @Test
+  public void getRolesByIdentifiers() throws InterruptedException {
+    try (final AutoUserContext ignore = loginAdmin()) {
+      final String firstRole = createRoleManagementRole();
+      final String secondRole = createSelfManagementRole();
+
+      final List<Role> roles = getTestSubject().getRoles(
+          Arrays.asList(secondRole, firstRole, generateRoleIdentifier(), secondRole));
+      Assert.assertEquals(
+          Arrays.asList(buildRole(secondRole, buildSelfPermission()), buildRole(firstRole, buildRolePermission())),
+          roles);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getTooManyRolesByIdentifiersFails() throws InterruptedException {
+    try (final AutoUserContext ignore = loginAdmin()) {
+      final List<String> identifiers = IntStream.rangeClosed(0, 500).mapToObj(String::valueOf).collect(Collectors.toList());
+      getTestSubject().getRoles(identifiers);
+      Assert.fail("More than 500 roles should not be readable at once.");
+    }
+  }
+
+  @Test
+  public void changeRolePermissions() throws InterruptedException {
+    try (final AutoUserContext ignore = loginAdmin()) {
+      final String roleIdentifier = createRole(buildRolePermission(), buildSelfPermission());
+
+      final Permission readUsers = new Permission(PermittableGroupIds.IDENTITY_MANAGEMENT, EnumSet.of(AllowedOperation.READ));
+      final Permission changeUsers = new Permission(PermittableGroupIds.IDENTITY_MANAGEMENT, EnumSet.of(AllowedOperation.CHANGE));
+      final Permission readAndChangeUsers = new Permission(PermittableGroupIds.IDENTITY_MANAGEMENT,
+          EnumSet.of(AllowedOperation.READ, AllowedOperation.CHANGE));
+      final List<String> remove = Collections.singletonList(PermittableGroupIds.ROLE_MANAGEMENT);
+
+      getTestSubject().changeRolePermissions(roleIdentifier,
+          new RolePermissionsChange(Arrays.asList(readUsers, changeUsers), remove));
+
+      Assert.assertTrue(eventRecorder.wait(EventConstants.OPERATION_PATCH_ROLE_PERMISSIONS,
+          new RolePermissionsEvent(roleIdentifier, Collections.singletonList(readAndChangeUsers), remove)));
+
+      final Role role = getTestSubject().getRole(roleIdentifier);
+      Assert.assertEquals(new HashSet<>(Arrays.asList(buildSelfPermission(), readAndChangeUsers)),
+          new HashSet<>(role.getPermissions()));
+    }
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void changePermissionsOfMissingRoleFails() throws InterruptedException {
+    try (final AutoUserContext ignore = loginAdmin()) {
+      getTestSubject().changeRolePermissions(generateRoleIdentifier(),
+          new RolePermissionsChange(Collections.singletonList(buildUserPermission()), Collections.emptyList()));
+      Assert.fail("Permissions of a role which doesn't exist should not be changeable.");
+    }
+  }
+}
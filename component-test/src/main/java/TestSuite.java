@@ -27,12 +27,14 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
     TestApplications.class,
     TestAuthentication.class,
+    TestConditionalRequests.class,
     TestKeyRotation.class,
     //TestPasswords.class,
     TestPermittableGroups.class,
     TestProvisioning.class,
     //TestRefreshToken.class,
     TestRoles.class,
+    TestTenantDataGenerator.class,
     TestUsers.class,
 })
 public class TestSuite extends SuiteTestEnvironment {
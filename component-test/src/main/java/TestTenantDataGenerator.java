@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import generator.Distribution;
+import generator.TenantData;
+import generator.TenantDataGenerator;
+import generator.TenantDataProfile;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.crypto.HashGenerator;
+import org.apache.fineract.cn.crypto.SaltGenerator;
+import org.apache.fineract.cn.identity.api.v1.domain.Authentication;
+import org.apache.fineract.cn.identity.internal.command.handler.Provisioner;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUserRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureRepository;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupRepository;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
+import org.apache.fineract.cn.identity.internal.repository.TenantRepository;
+import org.apache.fineract.cn.identity.internal.repository.UserEntity;
+import org.apache.fineract.cn.identity.internal.repository.UserRepository;
+import org.apache.fineract.cn.lang.AutoTenantContext;
+import org.apache.fineract.cn.test.env.TestEnvironment;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * The generator is used for load tests; this only checks that what it writes is a working tenant.
+ */
+@SuppressWarnings("SpringAutowiredFieldsWarningInspection")
+public class TestTenantDataGenerator extends AbstractIdentityTest {
+  @Autowired
+  private Provisioner provisioner;
+
+  @Autowired
+  private TenantRepository tenants;
+
+  @Autowired
+  private UserRepository users;
+
+  @Autowired
+  private RoleRepository roles;
+
+  @Autowired
+  private PermittableGroupRepository permittableGroups;
+
+  @Autowired
+  private ApplicationSignatureRepository applicationSignatures;
+
+  @Autowired
+  private ApplicationPermissionRepository applicationPermissions;
+
+  @Autowired
+  private ApplicationPermissionUserRepository applicationPermissionUsers;
+
+  @Autowired
+  private ApplicationCallEndpointSetRepository applicationCallEndpointSets;
+
+  @Autowired
+  private HashGenerator hashGenerator;
+
+  @Test
+  public void generatedTenantIsUsable() throws InterruptedException {
+    final String tenant = TestEnvironment.getRandomTenantName();
+    cassandraInitializer.initializeTenant(tenant);
+    TimeUnit.SECONDS.sleep(1);
+
+    try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+      final TenantData data = generator().generate(smallProfile(), provisioner::provisionTenant);
+
+      Assert.assertEquals(50, users.getAll().size() - 1);
+      for (final String role : data.getRoleIdentifiers())
+        Assert.assertTrue(roles.get(role).isPresent());
+      for (final TenantData.EnabledPermission permission : data.getEnabledPermissions())
+        Assert.assertTrue(applicationPermissionUsers.enabled(permission.getApplicationIdentifier(),
+            permission.getPermittableGroupIdentifier(), permission.getUserIdentifier()));
+
+      final UserEntity user = data.getUsers().get(7);
+      final Authentication authentication = getTestSubject().login(user.getIdentifier(), data.getEncodedUserPassword());
+      Assert.assertNotNull(authentication);
+    }
+  }
+
+  @Test
+  public void sameSeedPlansSameTenant() {
+    final byte[] fixedSalt = new SaltGenerator().createRandomSalt();
+
+    final TenantData first = generator().plan(smallProfile(), fixedSalt);
+    final TenantData second = generator().plan(smallProfile(), fixedSalt);
+    final TenantData other = generator().plan(smallProfile().setSeed(7), fixedSalt);
+
+    Assert.assertEquals(userRoles(first), userRoles(second));
+    Assert.assertEquals(first.getRoles().stream().map(x -> x.getPermissions().toString()).collect(Collectors.toList()),
+        second.getRoles().stream().map(x -> x.getPermissions().toString()).collect(Collectors.toList()));
+    Assert.assertEquals(first.getEnabledPermissions().size(), second.getEnabledPermissions().size());
+    Assert.assertNotEquals(userRoles(first), userRoles(other));
+  }
+
+  private static List<String> userRoles(final TenantData data) {
+    return data.getUsers().stream().map(x -> x.getIdentifier() + ":" + x.getRole()).collect(Collectors.toList());
+  }
+
+  private static TenantDataProfile smallProfile() {
+    return new TenantDataProfile()
+        .setSeed(42)
+        .setUsers(50)
+        .setRoles(5)
+        .setPermittableGroups(20)
+        .setApplications(3)
+        .setPermissionsPerRole(Distribution.uniform(1, 10))
+        .setPermissionsPerApplication(Distribution.constant(4))
+        .setEnabledApplicationPermissionsPerUser(Distribution.geometric(2, 4))
+        .setAdminPassword(ADMIN_PASSWORD)
+        .setWriterThreads(4);
+  }
+
+  private TenantDataGenerator generator() {
+    return new TenantDataGenerator(tenants, users, roles, permittableGroups, applicationSignatures,
+        applicationPermissions, applicationPermissionUsers, applicationCallEndpointSets, hashGenerator);
+  }
+}
@@ -33,9 +33,12 @@ import org.apache.fineract.cn.test.env.TestEnvironment;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @author Myrle Krantz
@@ -149,6 +152,27 @@ public class TestUsers extends AbstractIdentityTest {
     }
   }
 
+  @Test
+  public void testGetUsersByIdentifiers() throws InterruptedException {
+    final String firstUser = createUserWithNonexpiredPassword(AHMES_PASSWORD, ADMIN_ROLE);
+    final String secondUser = createUserWithNonexpiredPassword(AHMES_FRIENDS_PASSWORD, ADMIN_ROLE);
+
+    try (final AutoUserContext ignore = loginAdmin()) {
+      final List<User> users = getTestSubject().getUsers(
+          Arrays.asList(firstUser, testEnvironment.generateUniqueIdentifier("missing"), secondUser, firstUser));
+      Assert.assertEquals(Arrays.asList(new User(firstUser, ADMIN_ROLE), new User(secondUser, ADMIN_ROLE)), users);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetTooManyUsersByIdentifiersFails() throws InterruptedException {
+    try (final AutoUserContext ignore = loginAdmin()) {
+      final List<String> identifiers = IntStream.rangeClosed(0, 500).mapToObj(String::valueOf).collect(Collectors.toList());
+      getTestSubject().getUsers(identifiers);
+      Assert.fail("More than 500 users should not be readable at once.");
+    }
+  }
+
   private Permission constructFullAccessPermission(final String permittableGroupId) {
     final HashSet<AllowedOperation> allowedOperations = new HashSet<>();
     allowedOperations.add(AllowedOperation.CHANGE);
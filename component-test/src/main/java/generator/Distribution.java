@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package generator;
+
+import java.util.Random;
+
+/**
+ * How many of something each generated entity gets.  Samples are drawn from the generator's seeded random, so
+ * the same seed always yields the same tenant.
+ */
+@FunctionalInterface
+public interface Distribution {
+
+  int sample(Random random);
+
+  static Distribution constant(final int value) {
+    return random -> value;
+  }
+
+  /**
+   * Uniform over [min, max], both inclusive.
+   */
+  static Distribution uniform(final int min, final int max) {
+    if (min > max)
+      throw new IllegalArgumentException("min " + min + " is greater than max " + max + ".");
+    return random -> min + random.nextInt(max - min + 1);
+  }
+
+  /**
+   * Geometric with the given mean, capped at max: most entities get few, a long tail gets many, as with real
+   * roles and users.
+   */
+  static Distribution geometric(final double mean, final int max) {
+    if (mean < 1)
+      throw new IllegalArgumentException("mean " + mean + " is less than one.");
+    if (mean == 1)
+      return constant(1);
+
+    final double logOfFailure = Math.log(1.0 - (1.0 / mean));
+    return random -> {
+      final double u = 1.0 - random.nextDouble();
+      return (int) Math.min(max, 1 + Math.floor(Math.log(u) / logOfFailure));
+    };
+  }
+}
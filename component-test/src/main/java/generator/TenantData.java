@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetEntity;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionEntity;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureEntity;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupEntity;
+import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
+import org.apache.fineract.cn.identity.internal.repository.UserEntity;
+import org.apache.fineract.cn.lang.security.RsaKeyPairFactory;
+
+/**
+ * Everything a {@link TenantDataGenerator} writes for one tenant, plus what a load test needs to act as the
+ * generated users and applications.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class TenantData {
+  public static class EnabledPermission {
+    private final String applicationIdentifier;
+    private final String permittableGroupIdentifier;
+    private final String userIdentifier;
+
+    EnabledPermission(final String applicationIdentifier, final String permittableGroupIdentifier, final String userIdentifier) {
+      this.applicationIdentifier = applicationIdentifier;
+      this.permittableGroupIdentifier = permittableGroupIdentifier;
+      this.userIdentifier = userIdentifier;
+    }
+
+    public String getApplicationIdentifier() {
+      return applicationIdentifier;
+    }
+
+    public String getPermittableGroupIdentifier() {
+      return permittableGroupIdentifier;
+    }
+
+    public String getUserIdentifier() {
+      return userIdentifier;
+    }
+  }
+
+  final List<PermittableGroupEntity> permittableGroups = new ArrayList<>();
+  final List<RoleEntity> roles = new ArrayList<>();
+  final List<UserEntity> users = new ArrayList<>();
+  final List<ApplicationSignatureEntity> applicationSignatures = new ArrayList<>();
+  final List<ApplicationPermissionEntity> applicationPermissions = new ArrayList<>();
+  final List<ApplicationCallEndpointSetEntity> callEndpointSets = new ArrayList<>();
+  final List<EnabledPermission> enabledPermissions = new ArrayList<>();
+  private final RsaKeyPairFactory.KeyPairHolder applicationKeys;
+  private final String encodedUserPassword;
+
+  TenantData(final RsaKeyPairFactory.KeyPairHolder applicationKeys, final String encodedUserPassword) {
+    this.applicationKeys = applicationKeys;
+    this.encodedUserPassword = encodedUserPassword;
+  }
+
+  public List<PermittableGroupEntity> getPermittableGroups() {
+    return permittableGroups;
+  }
+
+  public List<RoleEntity> getRoles() {
+    return roles;
+  }
+
+  public List<UserEntity> getUsers() {
+    return users;
+  }
+
+  public List<ApplicationSignatureEntity> getApplicationSignatures() {
+    return applicationSignatures;
+  }
+
+  public List<ApplicationPermissionEntity> getApplicationPermissions() {
+    return applicationPermissions;
+  }
+
+  public List<ApplicationCallEndpointSetEntity> getCallEndpointSets() {
+    return callEndpointSets;
+  }
+
+  public List<EnabledPermission> getEnabledPermissions() {
+    return enabledPermissions;
+  }
+
+  /**
+   * All generated applications share these keys, so a load test can sign refresh tokens for any of them.
+   */
+  public RsaKeyPairFactory.KeyPairHolder getApplicationKeys() {
+    return applicationKeys;
+  }
+
+  /**
+   * The base64 encoded password every generated user logs in with.
+   */
+  public String getEncodedUserPassword() {
+    return encodedUserPassword;
+  }
+
+  public List<String> getUserIdentifiers() {
+    return users.stream().map(UserEntity::getIdentifier).collect(Collectors.toList());
+  }
+
+  public List<String> getRoleIdentifiers() {
+    return roles.stream().map(RoleEntity::getIdentifier).collect(Collectors.toList());
+  }
+
+  public List<String> getApplicationIdentifiers() {
+    return applicationSignatures.stream().map(ApplicationSignatureEntity::getApplicationIdentifier).collect(Collectors.toList());
+  }
+
+  public int getRowCount() {
+    return permittableGroups.size() + roles.size() + users.size() + applicationSignatures.size()
+        + applicationPermissions.size() + callEndpointSets.size() + enabledPermissions.size();
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package generator;
+
+import com.datastax.driver.core.LocalDate;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.anubis.api.v1.domain.ApplicationSignatureSet;
+import org.apache.fineract.cn.crypto.HashGenerator;
+import org.apache.fineract.cn.identity.internal.repository.AllowedOperationType;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetEntity;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionEntity;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUserRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureEntity;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureRepository;
+import org.apache.fineract.cn.identity.internal.repository.PermissionType;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupEntity;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupRepository;
+import org.apache.fineract.cn.identity.internal.repository.PermittableType;
+import org.apache.fineract.cn.identity.internal.repository.PrivateTenantInfoEntity;
+import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
+import org.apache.fineract.cn.identity.internal.repository.TenantRepository;
+import org.apache.fineract.cn.identity.internal.repository.UserEntity;
+import org.apache.fineract.cn.identity.internal.repository.UserRepository;
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.apache.fineract.cn.identity.internal.util.Time;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.apache.fineract.cn.lang.security.RsaKeyPairFactory;
+import org.springframework.security.crypto.util.EncodingUtils;
+import org.springframework.util.Base64Utils;
+
+/**
+ * Fills a tenant with synthetic users, roles, permittable groups and applications for load and capacity
+ * testing.  The tenant is provisioned first, then everything is written straight to the repositories,
+ * bypassing commands and events.  Given the same profile, two runs produce the same identifiers and the same
+ * assignments; only the application keys differ.
+ *
+ * <p>All generated users share one salt and so one password hash.  Hashing tens of thousands of passwords would
+ * otherwise dominate generation time, and it makes no difference to how the service verifies them.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class TenantDataGenerator {
+  private static final List<String> METHODS = Arrays.asList("GET", "POST", "PUT", "DELETE");
+  private static final int SALT_LENGTH = 32;
+  private static final int PASSWORD_VALID_FOR_DAYS = 3650;
+
+  private final TenantRepository tenants;
+  private final UserRepository users;
+  private final RoleRepository roles;
+  private final PermittableGroupRepository permittableGroups;
+  private final ApplicationSignatureRepository applicationSignatures;
+  private final ApplicationPermissionRepository applicationPermissions;
+  private final ApplicationPermissionUserRepository applicationPermissionUsers;
+  private final ApplicationCallEndpointSetRepository applicationCallEndpointSets;
+  private final HashGenerator hashGenerator;
+
+  public TenantDataGenerator(
+      final TenantRepository tenants,
+      final UserRepository users,
+      final RoleRepository roles,
+      final PermittableGroupRepository permittableGroups,
+      final ApplicationSignatureRepository applicationSignatures,
+      final ApplicationPermissionRepository applicationPermissions,
+      final ApplicationPermissionUserRepository applicationPermissionUsers,
+      final ApplicationCallEndpointSetRepository applicationCallEndpointSets,
+      final HashGenerator hashGenerator) {
+    this.tenants = tenants;
+    this.users = users;
+    this.roles = roles;
+    this.permittableGroups = permittableGroups;
+    this.applicationSignatures = applicationSignatures;
+    this.applicationPermissions = applicationPermissions;
+    this.applicationPermissionUsers = applicationPermissionUsers;
+    this.applicationCallEndpointSets = applicationCallEndpointSets;
+    this.hashGenerator = hashGenerator;
+  }
+
+  /**
+   * Provisions and populates the tenant in the current tenant context.
+   *
+   * @param provisioner takes the encoded admin password, e.g. {@code Provisioner::provisionTenant}.
+   */
+  public TenantData generate(
+      final TenantDataProfile profile,
+      final Function<String, ApplicationSignatureSet> provisioner) {
+    provisioner.apply(encode(profile.getAdminPassword()));
+
+    final byte[] fixedSalt = tenants.getPrivateTenantInfo()
+        .map(PrivateTenantInfoEntity::getFixedSalt)
+        .map(ByteBuffer::array)
+        .orElseThrow(() -> new IllegalStateException("Tenant was not provisioned."));
+
+    final TenantData ret = plan(profile, fixedSalt);
+    write(profile, ret);
+    return ret;
+  }
+
+  /**
+   * Decides what to generate without writing anything.
+   */
+  public TenantData plan(final TenantDataProfile profile, final byte[] fixedSalt) {
+    final Random random = new Random(profile.getSeed());
+    final TenantData ret = new TenantData(RsaKeyPairFactory.createKeyPair(), encode(profile.getUserPassword()));
+
+    final List<String> applicationIdentifiers = new ArrayList<>();
+    for (int i = 0; i < profile.getApplications(); i++)
+      applicationIdentifiers.add(String.format("generated%02d-v1", i));
+
+    for (int i = 0; i < profile.getPermittableGroups(); i++)
+      ret.permittableGroups.add(permittableGroup(i, applicationIdentifiers, profile.getEndpointsPerGroup(), random));
+    final List<String> groupIdentifiers = ret.permittableGroups.stream()
+        .map(PermittableGroupEntity::getIdentifier)
+        .collect(Collectors.toList());
+
+    for (int i = 0; i < profile.getRoles(); i++) {
+      final List<PermissionType> permissions = pick(groupIdentifiers, profile.getPermissionsPerRole().sample(random), random)
+          .stream()
+          .map(group -> new PermissionType(group, allowedOperations(random)))
+          .collect(Collectors.toList());
+      ret.roles.add(new RoleEntity(String.format("generated-role%04d", i), permissions));
+    }
+
+    for (final String application : applicationIdentifiers) {
+      ret.applicationSignatures.add(applicationSignature(application, ret.getApplicationKeys()));
+
+      final List<String> applicationGroups
+          = pick(groupIdentifiers, profile.getPermissionsPerApplication().sample(random), random);
+      applicationGroups.forEach(group -> ret.applicationPermissions.add(
+          new ApplicationPermissionEntity(application, new PermissionType(group, allowedOperations(random)))));
+
+      final int callEndpointSets = profile.getCallEndpointSetsPerApplication().sample(random);
+      for (int i = 0; i < callEndpointSets && !applicationGroups.isEmpty(); i++) {
+        final ApplicationCallEndpointSetEntity callEndpointSet = new ApplicationCallEndpointSetEntity();
+        callEndpointSet.setApplicationIdentifier(application);
+        callEndpointSet.setCallEndpointSetIdentifier(String.format("generated-set%02d", i));
+        callEndpointSet.setCallEndpointGroupIdentifiers(
+            pick(applicationGroups, profile.getGroupsPerCallEndpointSet().sample(random), random));
+        ret.callEndpointSets.add(callEndpointSet);
+      }
+    }
+
+    final byte[] variableSalt = new byte[SALT_LENGTH];
+    random.nextBytes(variableSalt);
+    final ByteBuffer password = ByteBuffer.wrap(hashGenerator.hash(ret.getEncodedUserPassword(),
+        EncodingUtils.concatenate(variableSalt, fixedSalt), profile.getIterationCount(), IdentityConstants.HASH_LENGTH));
+    final LocalDate passwordExpiresOn = LocalDate.fromDaysSinceEpoch(
+        Time.utcNowAsStaxLocalDate().getDaysSinceEpoch() + PASSWORD_VALID_FOR_DAYS);
+    final List<String> roleIdentifiers = ret.getRoleIdentifiers();
+
+    for (int i = 0; i < profile.getUsers(); i++) {
+      final UserEntity user = new UserEntity();
+      user.setIdentifier(String.format("generated-user%06d", i));
+      user.setRole(roleIdentifiers.isEmpty() ? IdentityConstants.SU_ROLE : roleIdentifiers.get(random.nextInt(roleIdentifiers.size())));
+      user.setPassword(password);
+      user.setSalt(ByteBuffer.wrap(variableSalt));
+      user.setIterationCount(profile.getIterationCount());
+      user.setPasswordExpiresOn(passwordExpiresOn);
+      ret.users.add(user);
+
+      pick(ret.applicationPermissions, profile.getEnabledApplicationPermissionsPerUser().sample(random), random)
+          .forEach(permission -> ret.enabledPermissions.add(new TenantData.EnabledPermission(
+              permission.getApplicationIdentifier(), permission.getPermittableGroupIdentifier(), user.getIdentifier())));
+    }
+
+    return ret;
+  }
+
+  /**
+   * Writes in dependency order; within each kind, rows are written concurrently.
+   */
+  public void write(final TenantDataProfile profile, final TenantData data) {
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    final int threads = Math.max(1, profile.getWriterThreads());
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      write(executor, threads, tenant, data.permittableGroups, permittableGroups::add);
+      write(executor, threads, tenant, data.roles, roles::add);
+      write(executor, threads, tenant, data.applicationSignatures, applicationSignatures::add);
+      write(executor, threads, tenant, data.applicationPermissions, applicationPermissions::add);
+      write(executor, threads, tenant, data.callEndpointSets, applicationCallEndpointSets::add);
+      write(executor, threads, tenant, data.users, users::add);
+      write(executor, threads, tenant, data.enabledPermissions, permission -> applicationPermissionUsers.setEnabled(
+          permission.getApplicationIdentifier(), permission.getPermittableGroupIdentifier(), permission.getUserIdentifier(), true));
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static <T> void write(
+      final ExecutorService executor,
+      final int threads,
+      final String tenant,
+      final List<T> items,
+      final Consumer<T> writer) {
+    final int chunkSize = Math.max(1, (items.size() + threads - 1) / threads);
+    final List<Future<?>> chunks = new ArrayList<>();
+    for (int from = 0; from < items.size(); from += chunkSize) {
+      final List<T> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+      chunks.add(executor.submit(() -> {
+        TenantContextHolder.setIdentifier(tenant);
+        try {
+          chunk.forEach(writer);
+        }
+        finally {
+          TenantContextHolder.clear();
+        }
+      }));
+    }
+
+    for (final Future<?> chunk : chunks) {
+      try {
+        chunk.get();
+      }
+      catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+      catch (final ExecutionException e) {
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+  }
+
+  private static PermittableGroupEntity permittableGroup(
+      final int index,
+      final List<String> applicationIdentifiers,
+      final Distribution endpointsPerGroup,
+      final Random random) {
+    final String application = applicationIdentifiers.isEmpty()
+        ? "generated-v1"
+        : applicationIdentifiers.get(random.nextInt(applicationIdentifiers.size()));
+
+    final int endpoints = Math.max(1, endpointsPerGroup.sample(random));
+    final List<PermittableType> permittables = new ArrayList<>();
+    for (int i = 0; i < endpoints; i++) {
+      final PermittableType permittable = new PermittableType();
+      permittable.setPath(application + "/resource" + index + "/" + i + "/*");
+      permittable.setMethod(METHODS.get(random.nextInt(METHODS.size())));
+      permittables.add(permittable);
+    }
+
+    final PermittableGroupEntity ret = new PermittableGroupEntity();
+    ret.setIdentifier(String.format("generated-group%05d", index));
+    ret.setPermittables(permittables);
+    return ret;
+  }
+
+  private static ApplicationSignatureEntity applicationSignature(
+      final String application,
+      final RsaKeyPairFactory.KeyPairHolder keys) {
+    final ApplicationSignatureEntity ret = new ApplicationSignatureEntity();
+    ret.setApplicationIdentifier(application);
+    ret.setKeyTimestamp(keys.getTimestamp());
+    ret.setPublicKeyMod(keys.getPublicKeyMod());
+    ret.setPublicKeyExp(keys.getPublicKeyExp());
+    return ret;
+  }
+
+  private static Set<AllowedOperationType> allowedOperations(final Random random) {
+    final Set<AllowedOperationType> ret = EnumSet.of(AllowedOperationType.READ);
+    if (random.nextBoolean())
+      ret.add(AllowedOperationType.CHANGE);
+    if (random.nextBoolean())
+      ret.add(AllowedOperationType.DELETE);
+    return ret;
+  }
+
+  private static <T> List<T> pick(final List<T> from, final int count, final Random random) {
+    final int size = Math.min(Math.max(0, count), from.size());
+    final Set<Integer> picked = new LinkedHashSet<>();
+    while (picked.size() < size)
+      picked.add(random.nextInt(from.size()));
+    return picked.stream().map(from::get).collect(Collectors.toList());
+  }
+
+  private static String encode(final String password) {
+    return Base64Utils.encodeToString(password.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package generator;
+
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+
+/**
+ * The shape of a generated tenant.  The defaults describe a large tenant; tests will usually want to scale
+ * the counts down.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class TenantDataProfile {
+  private long seed = 0;
+  private int users = 20000;
+  private int roles = 200;
+  private int permittableGroups = 2000;
+  private int applications = 30;
+  private Distribution permissionsPerRole = Distribution.geometric(12, 200);
+  private Distribution endpointsPerGroup = Distribution.uniform(1, 8);
+  private Distribution permissionsPerApplication = Distribution.uniform(5, 40);
+  private Distribution callEndpointSetsPerApplication = Distribution.uniform(1, 5);
+  private Distribution groupsPerCallEndpointSet = Distribution.uniform(1, 4);
+  private Distribution enabledApplicationPermissionsPerUser = Distribution.geometric(2, 20);
+  private String adminPassword = "generated-admin-password";
+  private String userPassword = "generated-user-password";
+  private int iterationCount = IdentityConstants.ITERATION_COUNT;
+  private int writerThreads = Runtime.getRuntime().availableProcessors();
+
+  public TenantDataProfile() {
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public TenantDataProfile setSeed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  public int getUsers() {
+    return users;
+  }
+
+  public TenantDataProfile setUsers(int users) {
+    this.users = users;
+    return this;
+  }
+
+  public int getRoles() {
+    return roles;
+  }
+
+  public TenantDataProfile setRoles(int roles) {
+    this.roles = roles;
+    return this;
+  }
+
+  public int getPermittableGroups() {
+    return permittableGroups;
+  }
+
+  public TenantDataProfile setPermittableGroups(int permittableGroups) {
+    this.permittableGroups = permittableGroups;
+    return this;
+  }
+
+  public int getApplications() {
+    return applications;
+  }
+
+  public TenantDataProfile setApplications(int applications) {
+    this.applications = applications;
+    return this;
+  }
+
+  public Distribution getPermissionsPerRole() {
+    return permissionsPerRole;
+  }
+
+  public TenantDataProfile setPermissionsPerRole(Distribution permissionsPerRole) {
+    this.permissionsPerRole = permissionsPerRole;
+    return this;
+  }
+
+  public Distribution getEndpointsPerGroup() {
+    return endpointsPerGroup;
+  }
+
+  public TenantDataProfile setEndpointsPerGroup(Distribution endpointsPerGroup) {
+    this.endpointsPerGroup = endpointsPerGroup;
+    return this;
+  }
+
+  public Distribution getPermissionsPerApplication() {
+    return permissionsPerApplication;
+  }
+
+  public TenantDataProfile setPermissionsPerApplication(Distribution permissionsPerApplication) {
+    this.permissionsPerApplication = permissionsPerApplication;
+    return this;
+  }
+
+  public Distribution getCallEndpointSetsPerApplication() {
+    return callEndpointSetsPerApplication;
+  }
+
+  public TenantDataProfile setCallEndpointSetsPerApplication(Distribution callEndpointSetsPerApplication) {
+    this.callEndpointSetsPerApplication = callEndpointSetsPerApplication;
+    return this;
+  }
+
+  public Distribution getGroupsPerCallEndpointSet() {
+    return groupsPerCallEndpointSet;
+  }
+
+  public TenantDataProfile setGroupsPerCallEndpointSet(Distribution groupsPerCallEndpointSet) {
+    this.groupsPerCallEndpointSet = groupsPerCallEndpointSet;
+    return this;
+  }
+
+  public Distribution getEnabledApplicationPermissionsPerUser() {
+    return enabledApplicationPermissionsPerUser;
+  }
+
+  public TenantDataProfile setEnabledApplicationPermissionsPerUser(Distribution enabledApplicationPermissionsPerUser) {
+    this.enabledApplicationPermissionsPerUser = enabledApplicationPermissionsPerUser;
+    return this;
+  }
+
+  public String getAdminPassword() {
+    return adminPassword;
+  }
+
+  public TenantDataProfile setAdminPassword(String adminPassword) {
+    this.adminPassword = adminPassword;
+    return this;
+  }
+
+  public String getUserPassword() {
+    return userPassword;
+  }
+
+  public TenantDataProfile setUserPassword(String userPassword) {
+    this.userPassword = userPassword;
+    return this;
+  }
+
+  public int getIterationCount() {
+    return iterationCount;
+  }
+
+  /**
+   * Should match the tenant's password hash policy, or every generated user is rehashed on first login.
+   */
+  public TenantDataProfile setIterationCount(int iterationCount) {
+    this.iterationCount = iterationCount;
+    return this;
+  }
+
+  public int getWriterThreads() {
+    return writerThreads;
+  }
+
+  public TenantDataProfile setWriterThreads(int writerThreads) {
+    this.writerThreads = writerThreads;
+    return this;
+  }
+}
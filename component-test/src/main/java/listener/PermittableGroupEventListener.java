@@ -19,6 +19,7 @@
 package listener;
 
 import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.identity.api.v1.events.PermittableGroupEndpointsEvent;
 import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
 import org.apache.fineract.cn.test.listener.EventRecorder;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,4 +52,15 @@ public class PermittableGroupEventListener {
           final String payload) throws Exception {
     eventRecorder.event(tenant, EventConstants.OPERATION_POST_PERMITTABLE_GROUP, payload, String.class);
   }
+
+  @JmsListener(
+          subscription = EventConstants.DESTINATION,
+          destination = EventConstants.DESTINATION,
+          selector = EventConstants.SELECTOR_PATCH_PERMITTABLE_GROUP_PERMITTABLES
+  )
+  public void onChangePermittableGroupEndpoints(
+          @Header(TenantHeaderFilter.TENANT_HEADER)final String tenant,
+          final String payload) throws Exception {
+    eventRecorder.event(tenant, EventConstants.OPERATION_PATCH_PERMITTABLE_GROUP_PERMITTABLES, payload, PermittableGroupEndpointsEvent.class);
+  }
 }
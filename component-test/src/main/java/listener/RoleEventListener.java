@@ -19,6 +19,7 @@
 package listener;
 
 import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.identity.api.v1.events.RolePermissionsEvent;
 import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
 import org.apache.fineract.cn.test.listener.EventRecorder;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -73,4 +74,15 @@ public class RoleEventListener {
       final String payload) throws Exception {
     eventRecorder.event(tenant, EventConstants.OPERATION_DELETE_ROLE, payload, String.class);
   }
+
+  @JmsListener(
+      subscription = EventConstants.DESTINATION,
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_PATCH_ROLE_PERMISSIONS
+  )
+  public void onChangeRolePermissions(
+      @Header(TenantHeaderFilter.TENANT_HEADER)final String tenant,
+      final String payload) throws Exception {
+    eventRecorder.event(tenant, EventConstants.OPERATION_PATCH_ROLE_PERMISSIONS, payload, RolePermissionsEvent.class);
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package load;
+
+import java.util.Optional;
+
+/**
+ * The limits a load test run must stay within.  Every limit can be set with a system property, so that a run
+ * can be tightened or loosened without a code change; for example {@code -Dload.login.p99Millis=250} or
+ * {@code -Dload.refresh.minThroughput=100}.  A limit that isn't set isn't checked.
+ */
+@SuppressWarnings("WeakerAccess")
+public class LoadBudget {
+  private static final String PREFIX = "load.";
+
+  private final double maxErrorRate;
+
+  public LoadBudget(final double defaultMaxErrorRate) {
+    this.maxErrorRate = doubleProperty(PREFIX + "maxErrorRate").orElse(defaultMaxErrorRate);
+  }
+
+  public double getMaxErrorRate() {
+    return maxErrorRate;
+  }
+
+  public Optional<Double> getP99Millis(final String operation) {
+    return doubleProperty(PREFIX + operation + ".p99Millis");
+  }
+
+  public Optional<Double> getMinThroughput(final String operation) {
+    return doubleProperty(PREFIX + operation + ".minThroughput");
+  }
+
+  public static int intProperty(final String name, final int defaultValue) {
+    return Integer.getInteger(PREFIX + name, defaultValue);
+  }
+
+  private static Optional<Double> doubleProperty(final String name) {
+    return Optional.ofNullable(System.getProperty(name)).map(Double::valueOf);
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package load;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a weighted mix of operations with a fixed number of workers at a fixed overall rate.  The loop is
+ * closed: each worker waits for its request to finish before sending the next.  When the service can't keep
+ * up, requests are sent late and their latency includes the wait.
+ */
+@SuppressWarnings("WeakerAccess")
+public class LoadDriver {
+  @FunctionalInterface
+  public interface Operation {
+    /**
+     * @param worker index of the worker thread, for operations that keep per-worker state.
+     */
+    void run(int worker) throws Exception;
+  }
+
+  private static class WeightedOperation {
+    final String name;
+    final int weight;
+    final Operation operation;
+
+    WeightedOperation(final String name, final int weight, final Operation operation) {
+      this.name = name;
+      this.weight = weight;
+      this.operation = operation;
+    }
+  }
+
+  private final List<WeightedOperation> operations = new ArrayList<>();
+  private int totalWeight = 0;
+
+  public LoadDriver add(final String name, final int weight, final Operation operation) {
+    if (weight <= 0)
+      throw new IllegalArgumentException("Weight of " + name + " must be positive.");
+    operations.add(new WeightedOperation(name, weight, operation));
+    totalWeight += weight;
+    return this;
+  }
+
+  /**
+   * Runs the mix for the warmup period and discards the results, then runs it again and reports.
+   */
+  public LoadReport run(final int workers, final double ratePerSecond, final long warmupSeconds, final long durationSeconds)
+      throws InterruptedException {
+    runFor(workers, ratePerSecond, warmupSeconds);
+    return runFor(workers, ratePerSecond, durationSeconds);
+  }
+
+  private LoadReport runFor(final int workers, final double ratePerSecond, final long seconds)
+      throws InterruptedException {
+    final Map<String, OperationStatistics> statistics = new LinkedHashMap<>();
+    operations.forEach(x -> statistics.put(x.name, new OperationStatistics(x.name)));
+
+    final long intervalNanos = (long) (workers * 1e9 / ratePerSecond);
+    final long start = System.nanoTime();
+    final long end = start + TimeUnit.SECONDS.toNanos(seconds);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(workers);
+    try {
+      final List<Future<?>> running = new ArrayList<>();
+      for (int i = 0; i < workers; i++) {
+        final int worker = i;
+        final long firstDue = start + (intervalNanos * i) / workers;
+        running.add(executor.submit(() -> work(worker, firstDue, intervalNanos, end, statistics)));
+      }
+      for (final Future<?> worker : running)
+        worker.get();
+    }
+    catch (final ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    return new LoadReport(new ArrayList<>(statistics.values()), System.nanoTime() - start);
+  }
+
+  private void work(
+      final int worker,
+      final long firstDue,
+      final long intervalNanos,
+      final long end,
+      final Map<String, OperationStatistics> statistics) {
+    final Random random = new Random(worker);
+    for (long due = firstDue; due < end; due += intervalNanos) {
+      final long wait = due - System.nanoTime();
+      if (wait > 0)
+        LockSupport.parkNanos(wait);
+
+      final WeightedOperation next = pick(random);
+      final OperationStatistics operationStatistics = statistics.get(next.name);
+      try {
+        next.operation.run(worker);
+        operationStatistics.success(System.nanoTime() - due);
+      }
+      catch (final Exception e) {
+        operationStatistics.error();
+      }
+    }
+  }
+
+  private WeightedOperation pick(final Random random) {
+    int remaining = random.nextInt(totalWeight);
+    for (final WeightedOperation operation : operations) {
+      remaining -= operation.weight;
+      if (remaining < 0)
+        return operation;
+    }
+    throw new IllegalStateException("No operations.");
+  }
+}
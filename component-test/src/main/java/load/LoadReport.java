@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package load;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The results of one load test run.
+ */
+@SuppressWarnings("WeakerAccess")
+public class LoadReport {
+  private final List<OperationStatistics> operations;
+  private final long elapsedNanos;
+
+  LoadReport(final List<OperationStatistics> operations, final long elapsedNanos) {
+    this.operations = operations;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public List<OperationStatistics> getOperations() {
+    return operations;
+  }
+
+  /**
+   * @return a description of each limit the run exceeded; empty if it stayed within budget.
+   */
+  public List<String> violations(final LoadBudget budget) {
+    final List<String> ret = new ArrayList<>();
+    for (final OperationStatistics operation : operations) {
+      final String name = operation.getOperation();
+      if (operation.getErrorRate() > budget.getMaxErrorRate())
+        ret.add(String.format("%s error rate %.4f exceeds %.4f", name, operation.getErrorRate(), budget.getMaxErrorRate()));
+
+      final double p99 = operation.getMillisAtPercentile(99.0);
+      budget.getP99Millis(name)
+          .filter(limit -> p99 > limit)
+          .ifPresent(limit -> ret.add(String.format("%s p99 %.1fms exceeds %.1fms", name, p99, limit)));
+
+      final double throughput = operation.getThroughput(elapsedNanos);
+      budget.getMinThroughput(name)
+          .filter(limit -> throughput < limit)
+          .ifPresent(limit -> ret.add(String.format("%s throughput %.1f/s is below %.1f/s", name, throughput, limit)));
+    }
+    return ret;
+  }
+
+  public void print(final PrintStream out) {
+    out.println(String.format("%-12s %8s %7s %9s %9s %9s %9s %9s",
+        "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+    for (final OperationStatistics operation : operations) {
+      out.println(String.format("%-12s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f",
+          operation.getOperation(),
+          operation.getCount(),
+          operation.getErrors(),
+          operation.getThroughput(elapsedNanos),
+          operation.getMillisAtPercentile(50.0),
+          operation.getMillisAtPercentile(99.0),
+          operation.getMillisAtPercentile(99.9),
+          operation.getMaxMillis()));
+    }
+  }
+
+  /**
+   * Writes one .hgrm file per operation, which can be plotted with HdrHistogram's tooling.
+   */
+  public void writeDistributions(final File directory) throws FileNotFoundException {
+    if (!directory.isDirectory() && !directory.mkdirs())
+      throw new IllegalStateException("Could not create " + directory + ".");
+
+    for (final OperationStatistics operation : operations) {
+      try (final PrintStream out = new PrintStream(new File(directory, operation.getOperation() + ".hgrm"))) {
+        operation.printDistribution(out);
+      }
+    }
+  }
+}
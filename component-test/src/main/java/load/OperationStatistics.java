@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package load;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and errors of one kind of request during a load test run.  Latency is measured from when the
+ * request was due, not from when it was sent, so a service that falls behind can't hide it by slowing down
+ * the load generator.
+ */
+@SuppressWarnings("WeakerAccess")
+public class OperationStatistics {
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final String operation;
+  private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+  private final LongAdder errors = new LongAdder();
+
+  OperationStatistics(final String operation) {
+    this.operation = operation;
+  }
+
+  void success(final long latencyNanos) {
+    latencies.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+  }
+
+  void error() {
+    errors.increment();
+  }
+
+  public String getOperation() {
+    return operation;
+  }
+
+  public long getCount() {
+    return latencies.getTotalCount();
+  }
+
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  public double getErrorRate() {
+    final long all = getCount() + getErrors();
+    return all == 0 ? 0 : (double) getErrors() / all;
+  }
+
+  public double getMillisAtPercentile(final double percentile) {
+    return latencies.getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  public double getMaxMillis() {
+    return latencies.getMaxValue() / 1000.0;
+  }
+
+  public double getThroughput(final long elapsedNanos) {
+    return getCount() / (elapsedNanos / 1e9);
+  }
+
+  /**
+   * The full distribution in HdrHistogram's text format, in milliseconds, for comparing runs.
+   */
+  public void printDistribution(final PrintStream out) {
+    latencies.outputPercentileDistribution(out, 1000.0);
+  }
+}
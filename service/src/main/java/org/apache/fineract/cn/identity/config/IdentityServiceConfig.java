@@ -20,9 +20,9 @@ package org.apache.fineract.cn.identity.config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import java.util.List;
 import org.apache.fineract.cn.anubis.config.EnableAnubis;
 import org.apache.fineract.cn.async.config.EnableAsync;
-import org.apache.fineract.cn.cassandra.config.EnableCassandra;
 import org.apache.fineract.cn.command.config.EnableCommandProcessing;
 import org.apache.fineract.cn.crypto.config.EnableCrypto;
 import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
@@ -37,6 +37,9 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
@@ -46,7 +49,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter
 @EnableWebMvc
 @EnableAsync
 @EnableTenantContext
-@EnableCassandra
+@Import(CassandraConfig.class)
 @EnableCommandProcessing
 @EnableServiceException
 @EnableCrypto
@@ -55,6 +58,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter
     "org.apache.fineract.cn.identity.rest",
     "org.apache.fineract.cn.identity.internal.service",
     "org.apache.fineract.cn.identity.internal.repository",
+    "org.apache.fineract.cn.identity.internal.metrics",
     "org.apache.fineract.cn.identity.internal.command.handler"
 })
 public class IdentityServiceConfig extends WebMvcConfigurerAdapter {
@@ -81,6 +85,13 @@ public class IdentityServiceConfig extends WebMvcConfigurerAdapter {
     configurer.setUseSuffixPatternMatch(Boolean.FALSE);
   }
 
+  @Override
+  public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+    //Smile is only produced when the client asks for it, the JSON converter stays first.
+    if (converters.stream().noneMatch(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter))
+      converters.add(new MappingJackson2SmileHttpMessageConverter());
+  }
+
   public static void main(String[] args) {
     SpringApplication.run(IdentityServiceConfig.class, args);
   }
@@ -22,6 +22,7 @@ import org.apache.fineract.cn.command.annotation.Aggregate;
 import org.apache.fineract.cn.command.annotation.CommandHandler;
 import org.apache.fineract.cn.command.annotation.CommandLogLevel;
 import org.apache.fineract.cn.command.annotation.EventEmitter;
+import org.apache.fineract.cn.identity.api.v1.domain.Change;
 import org.apache.fineract.cn.identity.api.v1.events.ApplicationCallEndpointSetEvent;
 import org.apache.fineract.cn.identity.api.v1.events.ApplicationPermissionEvent;
 import org.apache.fineract.cn.identity.api.v1.events.ApplicationPermissionUserEvent;
@@ -37,13 +38,16 @@ import org.apache.fineract.cn.identity.internal.command.SetApplicationPermission
 import org.apache.fineract.cn.identity.internal.command.SetApplicationSignatureCommand;
 import org.apache.fineract.cn.identity.internal.mapper.ApplicationCallEndpointSetMapper;
 import org.apache.fineract.cn.identity.internal.mapper.PermissionMapper;
+import org.apache.fineract.cn.identity.internal.metrics.CommandMetrics;
 import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetEntity;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSets;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetRepository;
 import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionEntity;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUsers;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissions;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUserRepository;
 import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureEntity;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatures;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureRepository;
+import org.apache.fineract.cn.identity.internal.service.ChangeLogService;
+import org.apache.fineract.cn.identity.internal.service.PublicKeyBundleService;
 import org.apache.fineract.cn.lang.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -55,101 +59,136 @@ import org.springframework.stereotype.Component;
 @Aggregate
 @Component
 public class ApplicationCommandHandler {
-  private final ApplicationSignatures applicationSignatures;
-  private final ApplicationPermissions applicationPermissions;
-  private final ApplicationPermissionUsers applicationPermissionUsers;
-  private final ApplicationCallEndpointSets applicationCallEndpointSets;
+  private final ApplicationSignatureRepository applicationSignatures;
+  private final ApplicationPermissionRepository applicationPermissions;
+  private final ApplicationPermissionUserRepository applicationPermissionUsers;
+  private final ApplicationCallEndpointSetRepository applicationCallEndpointSets;
+  private final CommandMetrics commandMetrics;
+  private final PublicKeyBundleService publicKeyBundleService;
+  private final ChangeLogService changeLogService;
 
   @Autowired
-  public ApplicationCommandHandler(final ApplicationSignatures applicationSignatures,
-                                   final ApplicationPermissions applicationPermissions,
-                                   final ApplicationPermissionUsers applicationPermissionUsers,
-                                   final ApplicationCallEndpointSets applicationCallEndpointSets) {
+  public ApplicationCommandHandler(final ApplicationSignatureRepository applicationSignatures,
+                                   final ApplicationPermissionRepository applicationPermissions,
+                                   final ApplicationPermissionUserRepository applicationPermissionUsers,
+                                   final ApplicationCallEndpointSetRepository applicationCallEndpointSets,
+                                   final CommandMetrics commandMetrics,
+                                   final PublicKeyBundleService publicKeyBundleService,
+                                   final ChangeLogService changeLogService) {
     this.applicationSignatures = applicationSignatures;
     this.applicationPermissions = applicationPermissions;
     this.applicationPermissionUsers = applicationPermissionUsers;
     this.applicationCallEndpointSets = applicationCallEndpointSets;
+    this.commandMetrics = commandMetrics;
+    this.publicKeyBundleService = publicKeyBundleService;
+    this.changeLogService = changeLogService;
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_PUT_APPLICATION_SIGNATURE)
   public ApplicationSignatureEvent process(final SetApplicationSignatureCommand command) {
-    final ApplicationSignatureEntity applicationSignatureEntity = new ApplicationSignatureEntity();
-    applicationSignatureEntity.setApplicationIdentifier(command.getApplicationIdentifier());
-    applicationSignatureEntity.setKeyTimestamp(command.getKeyTimestamp());
-    applicationSignatureEntity.setPublicKeyMod(command.getSignature().getPublicKeyMod());
-    applicationSignatureEntity.setPublicKeyExp(command.getSignature().getPublicKeyExp());
-    applicationSignatures.add(applicationSignatureEntity);
-
-    return new ApplicationSignatureEvent(command.getApplicationIdentifier(), command.getKeyTimestamp());
+    return commandMetrics.measure(command, () -> {
+      final ApplicationSignatureEntity applicationSignatureEntity = new ApplicationSignatureEntity();
+      applicationSignatureEntity.setApplicationIdentifier(command.getApplicationIdentifier());
+      applicationSignatureEntity.setKeyTimestamp(command.getKeyTimestamp());
+      applicationSignatureEntity.setPublicKeyMod(command.getSignature().getPublicKeyMod());
+      applicationSignatureEntity.setPublicKeyExp(command.getSignature().getPublicKeyExp());
+      applicationSignatures.add(applicationSignatureEntity);
+      publicKeyBundleService.keysChanged();
+
+      changeLogService.record(Change.TYPE_APPLICATION, command.getApplicationIdentifier(), EventConstants.OPERATION_PUT_APPLICATION_SIGNATURE);
+      return new ApplicationSignatureEvent(command.getApplicationIdentifier(), command.getKeyTimestamp());
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_DELETE_APPLICATION)
   public String process(final DeleteApplicationCommand command) {
-    applicationSignatures.delete(command.getApplicationIdentifier());
-    return command.getApplicationIdentifier();
+    return commandMetrics.measure(command, () -> {
+      applicationSignatures.delete(command.getApplicationIdentifier());
+      publicKeyBundleService.keysChanged();
+      changeLogService.record(Change.TYPE_APPLICATION, command.getApplicationIdentifier(), EventConstants.OPERATION_DELETE_APPLICATION);
+      return command.getApplicationIdentifier();
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_POST_APPLICATION_PERMISSION)
   public ApplicationPermissionEvent process(final CreateApplicationPermissionCommand command) {
-    final ApplicationPermissionEntity applicationPermissionEntity = new ApplicationPermissionEntity(
-            command.getApplicationIdentifer(), PermissionMapper.mapToPermissionType(command.getPermission()));
-
-    applicationPermissions.add(applicationPermissionEntity);
-    return new ApplicationPermissionEvent(command.getApplicationIdentifer(), command.getPermission().getPermittableEndpointGroupIdentifier());
+    return commandMetrics.measure(command, () -> {
+      final ApplicationPermissionEntity applicationPermissionEntity = new ApplicationPermissionEntity(
+              command.getApplicationIdentifer(), PermissionMapper.mapToPermissionType(command.getPermission()));
+
+      applicationPermissions.add(applicationPermissionEntity);
+      changeLogService.record(Change.TYPE_APPLICATION, command.getApplicationIdentifer(), EventConstants.OPERATION_POST_APPLICATION_PERMISSION);
+      return new ApplicationPermissionEvent(command.getApplicationIdentifer(), command.getPermission().getPermittableEndpointGroupIdentifier());
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_DELETE_APPLICATION_PERMISSION)
   public ApplicationPermissionEvent process(final DeleteApplicationPermissionCommand command) {
-    applicationPermissions.delete(command.getApplicationIdentifier(), command.getPermittableGroupIdentifier());
-    return new ApplicationPermissionEvent(command.getApplicationIdentifier(), command.getPermittableGroupIdentifier());
+    return commandMetrics.measure(command, () -> {
+      applicationPermissions.delete(command.getApplicationIdentifier(), command.getPermittableGroupIdentifier());
+      changeLogService.record(Change.TYPE_APPLICATION, command.getApplicationIdentifier(), EventConstants.OPERATION_DELETE_APPLICATION_PERMISSION);
+      return new ApplicationPermissionEvent(command.getApplicationIdentifier(), command.getPermittableGroupIdentifier());
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_PUT_APPLICATION_PERMISSION_USER_ENABLED)
   public ApplicationPermissionUserEvent process(final SetApplicationPermissionUserEnabledCommand command) {
-    applicationPermissionUsers.setEnabled(command.getApplicationIdentifier(), command.getPermittableGroupIdentifier(), command.getUserIdentifier(), command.isEnabled());
-    return new ApplicationPermissionUserEvent(command.getApplicationIdentifier(), command.getPermittableGroupIdentifier(), command.getUserIdentifier());
+    return commandMetrics.measure(command, () -> {
+      applicationPermissionUsers.setEnabled(command.getApplicationIdentifier(), command.getPermittableGroupIdentifier(), command.getUserIdentifier(), command.isEnabled());
+      changeLogService.record(Change.TYPE_APPLICATION, command.getApplicationIdentifier(), EventConstants.OPERATION_PUT_APPLICATION_PERMISSION_USER_ENABLED);
+      return new ApplicationPermissionUserEvent(command.getApplicationIdentifier(), command.getPermittableGroupIdentifier(), command.getUserIdentifier());
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_PUT_APPLICATION_CALLENDPOINTSET)
   public ApplicationCallEndpointSetEvent process(final ChangeApplicationCallEndpointSetCommand command) {
-    applicationCallEndpointSets.get(command.getApplicationIdentifier(), command.getCallEndpointSetIdentifier())
-            .orElseThrow(() -> ServiceException.notFound("No application call endpoint '"
-                    + command.getApplicationIdentifier() + "." + command.getCallEndpointSetIdentifier() + "'."));
-
-    final ApplicationCallEndpointSetEntity toSave  = ApplicationCallEndpointSetMapper.mapToEntity(
-            command.getApplicationIdentifier(),
-            command.getCallEndpointSet());
-    applicationCallEndpointSets.change(toSave);
-    return new ApplicationCallEndpointSetEvent(command.getApplicationIdentifier(), command.getCallEndpointSetIdentifier());
+    return commandMetrics.measure(command, () -> {
+      applicationCallEndpointSets.get(command.getApplicationIdentifier(), command.getCallEndpointSetIdentifier())
+              .orElseThrow(() -> ServiceException.notFound("No application call endpoint '"
+                      + command.getApplicationIdentifier() + "." + command.getCallEndpointSetIdentifier() + "'."));
+
+      final ApplicationCallEndpointSetEntity toSave  = ApplicationCallEndpointSetMapper.mapToEntity(
+              command.getApplicationIdentifier(),
+              command.getCallEndpointSet());
+      applicationCallEndpointSets.change(toSave);
+      changeLogService.record(Change.TYPE_APPLICATION, command.getApplicationIdentifier(), EventConstants.OPERATION_PUT_APPLICATION_CALLENDPOINTSET);
+      return new ApplicationCallEndpointSetEvent(command.getApplicationIdentifier(), command.getCallEndpointSetIdentifier());
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_POST_APPLICATION_CALLENDPOINTSET)
   public ApplicationCallEndpointSetEvent process(final CreateApplicationCallEndpointSetCommand command) {
-    if (!applicationSignatures.signaturesExistForApplication(command.getApplicationIdentifier()))
-      throw ServiceException.notFound("No application '" + command.getApplicationIdentifier() + "'.");
-
-    final ApplicationCallEndpointSetEntity toSave  = ApplicationCallEndpointSetMapper.mapToEntity(
-            command.getApplicationIdentifier(),
-            command.getCallEndpointSet());
-    applicationCallEndpointSets.add(toSave);
-    return new ApplicationCallEndpointSetEvent(command.getApplicationIdentifier(), command.getCallEndpointSet().getIdentifier());
+    return commandMetrics.measure(command, () -> {
+      if (!applicationSignatures.signaturesExistForApplication(command.getApplicationIdentifier()))
+        throw ServiceException.notFound("No application '" + command.getApplicationIdentifier() + "'.");
+
+      final ApplicationCallEndpointSetEntity toSave  = ApplicationCallEndpointSetMapper.mapToEntity(
+              command.getApplicationIdentifier(),
+              command.getCallEndpointSet());
+      applicationCallEndpointSets.add(toSave);
+      changeLogService.record(Change.TYPE_APPLICATION, command.getApplicationIdentifier(), EventConstants.OPERATION_POST_APPLICATION_CALLENDPOINTSET);
+      return new ApplicationCallEndpointSetEvent(command.getApplicationIdentifier(), command.getCallEndpointSet().getIdentifier());
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_DELETE_APPLICATION_CALLENDPOINTSET)
   public ApplicationCallEndpointSetEvent process(final DeleteApplicationCallEndpointSetCommand command) {
-    applicationCallEndpointSets.get(command.getApplicationIdentifier(), command.getCallEndpointSetIdentifier())
-            .orElseThrow(() -> ServiceException.notFound("No application call endpoint '"
-                    + command.getApplicationIdentifier() + "." + command.getCallEndpointSetIdentifier() + "'."));
-
-    applicationCallEndpointSets.delete(command.getApplicationIdentifier(), command.getCallEndpointSetIdentifier());
-    return new ApplicationCallEndpointSetEvent(command.getApplicationIdentifier(), command.getCallEndpointSetIdentifier());
+    return commandMetrics.measure(command, () -> {
+      applicationCallEndpointSets.get(command.getApplicationIdentifier(), command.getCallEndpointSetIdentifier())
+              .orElseThrow(() -> ServiceException.notFound("No application call endpoint '"
+                      + command.getApplicationIdentifier() + "." + command.getCallEndpointSetIdentifier() + "'."));
+
+      applicationCallEndpointSets.delete(command.getApplicationIdentifier(), command.getCallEndpointSetIdentifier());
+      changeLogService.record(Change.TYPE_APPLICATION, command.getApplicationIdentifier(), EventConstants.OPERATION_DELETE_APPLICATION_CALLENDPOINTSET);
+      return new ApplicationCallEndpointSetEvent(command.getApplicationIdentifier(), command.getCallEndpointSetIdentifier());
+    });
   }
 }
\ No newline at end of file
@@ -18,10 +18,8 @@
  */
 package org.apache.fineract.cn.identity.internal.command.handler;
 
-import com.google.common.collect.Sets;
 import com.google.gson.Gson;
 import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
-import org.apache.fineract.cn.anubis.api.v1.domain.AllowedOperation;
 import org.apache.fineract.cn.anubis.api.v1.domain.TokenContent;
 import org.apache.fineract.cn.anubis.api.v1.domain.TokenPermission;
 import org.apache.fineract.cn.anubis.provider.InvalidKeyTimestampException;
@@ -39,26 +37,28 @@ import org.apache.fineract.cn.crypto.HashGenerator;
 import org.apache.fineract.cn.identity.internal.command.AuthenticationCommandResponse;
 import org.apache.fineract.cn.identity.internal.command.PasswordAuthenticationCommand;
 import org.apache.fineract.cn.identity.internal.command.RefreshTokenAuthenticationCommand;
+import org.apache.fineract.cn.identity.internal.metrics.AuthenticationMetrics;
+import org.apache.fineract.cn.identity.internal.metrics.AuthenticationPhase;
+import org.apache.fineract.cn.identity.internal.metrics.AuthenticationTimer;
+import org.apache.fineract.cn.identity.internal.metrics.CommandMetrics;
+
 import org.apache.fineract.cn.identity.internal.repository.AllowedOperationType;
 import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetEntity;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSets;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUsers;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissions;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUserRepository;
 import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureEntity;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatures;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureRepository;
 import org.apache.fineract.cn.identity.internal.repository.PermissionType;
-import org.apache.fineract.cn.identity.internal.repository.PermittableGroupEntity;
-import org.apache.fineract.cn.identity.internal.repository.PermittableGroups;
-import org.apache.fineract.cn.identity.internal.repository.PermittableType;
 import org.apache.fineract.cn.identity.internal.repository.PrivateSignatureEntity;
 import org.apache.fineract.cn.identity.internal.repository.PrivateTenantInfoEntity;
 import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
-import org.apache.fineract.cn.identity.internal.repository.Roles;
-import org.apache.fineract.cn.identity.internal.repository.Signatures;
-import org.apache.fineract.cn.identity.internal.repository.Tenants;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
+import org.apache.fineract.cn.identity.internal.repository.SignatureRepository;
+import org.apache.fineract.cn.identity.internal.repository.TenantRepository;
 import org.apache.fineract.cn.identity.internal.repository.UserEntity;
-import org.apache.fineract.cn.identity.internal.repository.Users;
-import org.apache.fineract.cn.identity.internal.service.RoleMapper;
+import org.apache.fineract.cn.identity.internal.repository.UserRepository;
+import org.apache.fineract.cn.identity.internal.service.UserTokenPermissions;
 import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
 import org.apache.fineract.cn.lang.ApplicationName;
 import org.apache.fineract.cn.lang.DateConverter;
@@ -78,9 +78,7 @@ import org.springframework.util.Base64Utils;
 import javax.annotation.Nullable;
 import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collector;
@@ -94,22 +92,26 @@ import java.util.stream.Stream;
 @Aggregate
 @Component
 public class AuthenticationCommandHandler {
-  private final Users users;
-  private final Roles roles;
-  private final PermittableGroups permittableGroups;
-  private final Signatures signatures;
-  private final Tenants tenants;
+  private final UserRepository users;
+  private final RoleRepository roles;
+  private final UserTokenPermissions userTokenPermissions;
+  private final SignatureRepository signatures;
+  private final TenantRepository tenants;
   private final HashGenerator hashGenerator;
   private final TenantAccessTokenSerializer tenantAccessTokenSerializer;
   private final TenantRefreshTokenSerializer tenantRefreshTokenSerializer;
   private final TenantRsaKeyProvider tenantRsaKeyProvider;
-  private final ApplicationSignatures applicationSignatures;
-  private final ApplicationPermissions applicationPermissions;
-  private final ApplicationPermissionUsers applicationPermissionUsers;
-  private final ApplicationCallEndpointSets applicationCallEndpointSets;
+  private final ApplicationSignatureRepository applicationSignatures;
+  private final ApplicationPermissionRepository applicationPermissions;
+  private final ApplicationPermissionUserRepository applicationPermissionUsers;
+  private final ApplicationCallEndpointSetRepository applicationCallEndpointSets;
   private final JmsTemplate jmsTemplate;
   private final Gson gson;
   private final Logger logger;
+  private final CommandMetrics commandMetrics;
+  private final AuthenticationMetrics authenticationMetrics;
+  private final UserEntityCreator userEntityCreator;
+
   private final ApplicationName applicationName;
 
   @Value("${identity.token.access.ttl:1200}") //Given in seconds.  Default 20 minutes.
@@ -121,11 +123,11 @@ public class AuthenticationCommandHandler {
 
 
   @Autowired
-  public AuthenticationCommandHandler(final Users users,
-                                      final Roles roles,
-                                      final PermittableGroups permittableGroups,
-                                      final Signatures signatures,
-                                      final Tenants tenants,
+  public AuthenticationCommandHandler(final UserRepository users,
+                                      final RoleRepository roles,
+                                      final UserTokenPermissions userTokenPermissions,
+                                      final SignatureRepository signatures,
+                                      final TenantRepository tenants,
                                       final HashGenerator hashGenerator,
                                       @SuppressWarnings("SpringJavaAutowiringInspection")
                                       final TenantAccessTokenSerializer tenantAccessTokenSerializer,
@@ -133,17 +135,20 @@ public class AuthenticationCommandHandler {
                                         final TenantRefreshTokenSerializer tenantRefreshTokenSerializer,
                                       @SuppressWarnings("SpringJavaAutowiringInspection")
                                         final TenantRsaKeyProvider tenantRsaKeyProvider,
-                                      final ApplicationSignatures applicationSignatures,
-                                      final ApplicationPermissions applicationPermissions,
-                                      final ApplicationPermissionUsers applicationPermissionUsers,
-                                      final ApplicationCallEndpointSets applicationCallEndpointSets,
+                                      final ApplicationSignatureRepository applicationSignatures,
+                                      final ApplicationPermissionRepository applicationPermissions,
+                                      final ApplicationPermissionUserRepository applicationPermissionUsers,
+                                      final ApplicationCallEndpointSetRepository applicationCallEndpointSets,
                                       final JmsTemplate jmsTemplate,
                                       final ApplicationName applicationName,
                                       @Qualifier(IdentityConstants.JSON_SERIALIZER_NAME) final Gson gson,
-                                      @Qualifier(IdentityConstants.LOGGER_NAME) final Logger logger) {
+                                      @Qualifier(IdentityConstants.LOGGER_NAME) final Logger logger,
+                                      final CommandMetrics commandMetrics,
+                                      final AuthenticationMetrics authenticationMetrics,
+                                      final UserEntityCreator userEntityCreator) {
     this.users = users;
     this.roles = roles;
-    this.permittableGroups = permittableGroups;
+    this.userTokenPermissions = userTokenPermissions;
     this.signatures = signatures;
     this.tenants = tenants;
     this.hashGenerator = hashGenerator;
@@ -158,12 +163,25 @@ public class AuthenticationCommandHandler {
     this.gson = gson;
     this.logger = logger;
     this.applicationName = applicationName;
+    this.commandMetrics = commandMetrics;
+    this.authenticationMetrics = authenticationMetrics;
+    this.userEntityCreator = userEntityCreator;
   }
 
   @CommandHandler(logStart = CommandLogLevel.DEBUG, logFinish = CommandLogLevel.DEBUG)
   public AuthenticationCommandResponse process(final PasswordAuthenticationCommand command)
       throws AmitAuthenticationException
   {
+    return commandMetrics.measure(command,
+        () -> authenticationMetrics.time("password", timer -> authenticate(command, timer)));
+  }
+
+  private AuthenticationCommandResponse authenticate(
+      final PasswordAuthenticationCommand command,
+      final AuthenticationTimer timer) throws AmitAuthenticationException
+  {
+    timer.setUser(command.getUseridentifier());
+
     final byte[] base64decodedPassword;
     try {
       base64decodedPassword = Base64Utils.decodeFromString(command.getPassword());
@@ -172,12 +190,16 @@ public class AuthenticationCommandHandler {
     {
       throw ServiceException.badRequest("Password was not base64 encoded.");
     }
+    timer.lap(AuthenticationPhase.BASE64_DECODE);
 
     final PrivateTenantInfoEntity privateTenantInfo = checkedGetPrivateTenantInfo();
+    timer.lap(AuthenticationPhase.TENANT_INFO);
     final PrivateSignatureEntity privateSignature = checkedGetPrivateSignature();
+    timer.lap(AuthenticationPhase.SIGNATURE_LOOKUP);
 
     byte[] fixedSalt = privateTenantInfo.getFixedSalt().array();
     final UserEntity user = getUser(command.getUseridentifier());
+    timer.lap(AuthenticationPhase.USER_FETCH);
 
     if (!this.hashGenerator.isEqual(
             user.getPassword().array(),
@@ -189,8 +211,13 @@ public class AuthenticationCommandHandler {
     {
       throw AmitAuthenticationException.userPasswordCombinationNotFound();
     }
+    timer.lap(AuthenticationPhase.HASH_VERIFY);
+
+    rehashIfPolicyChanged(user, command.getPassword(), fixedSalt);
+    timer.lap(AuthenticationPhase.REHASH);
 
     final TokenSerializationResult refreshToken = getRefreshToken(user, privateSignature);
+    timer.lap(AuthenticationPhase.REFRESH_TOKEN_SIGN);
 
     final AuthenticationCommandResponse ret = getAuthenticationResponse(
             applicationName.toString(),
@@ -199,13 +226,32 @@ public class AuthenticationCommandHandler {
             privateSignature,
             user,
             refreshToken.getToken(),
-            refreshToken.getExpiration());
+            refreshToken.getExpiration(),
+            timer);
 
     fireAuthenticationEvent(user.getIdentifier());
+    timer.lap(AuthenticationPhase.EVENT_PUBLISH);
 
     return ret;
   }
 
+  private void rehashIfPolicyChanged(final UserEntity user, final String password, final byte[] fixedSalt) {
+    try {
+      userEntityCreator.rehashIfPolicyChanged(user, password, fixedSalt).ifPresent(rehashed -> {
+        //Only the hash is written, and only if the password wasn't changed since it was verified.
+        if (users.rehashPassword(rehashed, user.getPassword()))
+          logger.info("Rehashed password of user {} from {} to {} iterations.",
+              user.getIdentifier(), user.getIterationCount(), rehashed.getIterationCount());
+        else
+          logger.info("Password of user {} changed during login, so it wasn't rehashed.", user.getIdentifier());
+      });
+    }
+    catch (final RuntimeException e) {
+      //The login itself succeeded; the next one will try again.
+      logger.warn("Failed to rehash password of user {}.", user.getIdentifier(), e);
+    }
+  }
+
   private PrivateSignatureEntity checkedGetPrivateSignature() {
     final Optional<PrivateSignatureEntity> privateSignature = signatures.getPrivateSignature();
     if (!privateSignature.isPresent()) {
@@ -244,14 +290,27 @@ public class AuthenticationCommandHandler {
   @CommandHandler(logStart = CommandLogLevel.DEBUG, logFinish = CommandLogLevel.DEBUG)
   public AuthenticationCommandResponse process(final RefreshTokenAuthenticationCommand command)
       throws AmitAuthenticationException
+  {
+    return commandMetrics.measure(command,
+        () -> authenticationMetrics.time("refresh", timer -> refresh(command, timer)));
+  }
+
+  private AuthenticationCommandResponse refresh(
+      final RefreshTokenAuthenticationCommand command,
+      final AuthenticationTimer timer) throws AmitAuthenticationException
   {
     final TokenDeserializationResult deserializedRefreshToken =
         tenantRefreshTokenSerializer.deserialize(new TenantIdentityRsaKeyProvider(), command.getRefreshToken());
+    timer.setUser(deserializedRefreshToken.getUserIdentifier());
+    timer.lap(AuthenticationPhase.REFRESH_TOKEN_VERIFY);
 
     final PrivateTenantInfoEntity privateTenantInfo = checkedGetPrivateTenantInfo();
+    timer.lap(AuthenticationPhase.TENANT_INFO);
     final PrivateSignatureEntity privateSignature = checkedGetPrivateSignature();
+    timer.lap(AuthenticationPhase.SIGNATURE_LOOKUP);
 
     final UserEntity user = getUser(deserializedRefreshToken.getUserIdentifier());
+    timer.lap(AuthenticationPhase.USER_FETCH);
     final String sourceApplicationName = deserializedRefreshToken.getSourceApplication();
 
     return getAuthenticationResponse(
@@ -261,7 +320,8 @@ public class AuthenticationCommandHandler {
             privateSignature,
             user,
             command.getRefreshToken(),
-            LocalDateTime.ofInstant(deserializedRefreshToken.getExpiration().toInstant(), ZoneId.of("UTC")));
+            LocalDateTime.ofInstant(deserializedRefreshToken.getExpiration().toInstant(), ZoneId.of("UTC")),
+            timer);
   }
 
   private AuthenticationCommandResponse getAuthenticationResponse(
@@ -272,8 +332,9 @@ public class AuthenticationCommandHandler {
           final PrivateSignatureEntity privateSignature,
           final UserEntity user,
           final String refreshToken,
-          final LocalDateTime refreshTokenExpiration) {
-    final Optional<LocalDateTime> passwordExpiration = getExpiration(user);
+          final LocalDateTime refreshTokenExpiration,
+          final AuthenticationTimer timer) {
+    final Optional<LocalDateTime> passwordExpiration = UserTokenPermissions.passwordExpiration(user);
 
     final int gracePeriod = privateTenantInfo.getTimeToChangePasswordAfterExpirationInDays();
     if (pastGracePeriod(passwordExpiration, gracePeriod))
@@ -282,17 +343,15 @@ public class AuthenticationCommandHandler {
     final Set<TokenPermission> tokenPermissions;
 
     if (sourceApplicationName.equals(applicationName.toString())) { //ie, this is a token for the identity manager.
-      if (pastExpiration(passwordExpiration)) {
-        tokenPermissions = identityEndpointsAllowedEvenWithExpiredPassword();
+      final boolean passwordExpired = pastExpiration(passwordExpiration);
+      if (passwordExpired)
         logger.info("Password expired {}", passwordExpiration.map(LocalDateTime::toString).orElse("empty"));
-      }
-      else {
-        tokenPermissions = getUserTokenPermissions(user);
-      }
+      tokenPermissions = userTokenPermissions.forUser(user, passwordExpired);
     }
     else {
       tokenPermissions = getApplicationTokenPermissions(user, sourceApplicationName, callEndpointSet);
     }
+    timer.lap(AuthenticationPhase.PERMISSION_COMPUTE);
 
     final HashSet<TokenPermission> minifiedTokenPermissions = new HashSet<>(
         tokenPermissions
@@ -307,6 +366,7 @@ public class AuthenticationCommandHandler {
             )
             .values()
     );
+    timer.lap(AuthenticationPhase.MINIFICATION);
 
 
     logger.info("Access token for tenant '{}', user '{}', application '{}', and callEndpointSet '{}' being returned containing the permissions '{}'.",
@@ -321,6 +381,7 @@ public class AuthenticationCommandHandler {
             minifiedTokenPermissions,
             privateSignature,
             sourceApplicationName);
+    timer.lap(AuthenticationPhase.ACCESS_TOKEN_SIGN);
 
     return new AuthenticationCommandResponse(
             accessToken.getToken(), DateConverter.toIsoString(accessToken.getExpiration()),
@@ -328,16 +389,6 @@ public class AuthenticationCommandHandler {
             passwordExpiration.map(DateConverter::toIsoString).orElse(null));
   }
 
-  private Optional<LocalDateTime> getExpiration(final UserEntity user)
-  {
-    if (user.getIdentifier().equals(IdentityConstants.SU_NAME))
-      return Optional.empty();
-    else
-      return Optional.of(LocalDateTime.of(
-              LocalDate.ofEpochDay(user.getPasswordExpiresOn().getDaysSinceEpoch()), //Convert from cassandra LocalDate to java LocalDate.
-              LocalTime.MIDNIGHT));
-  }
-
   private UserEntity getUser(final String identifier) throws AmitAuthenticationException {
     final Optional<UserEntity> user = users.get(identifier);
     if (!user.isPresent()) {
@@ -389,19 +440,6 @@ public class AuthenticationCommandHandler {
       return tenantAccessTokenSerializer.build(x);
   }
 
-  private Set<TokenPermission> getUserTokenPermissions(
-          final UserEntity user) {
-
-    final Optional<RoleEntity> userRole = roles.get(user.getRole());
-    final Set<TokenPermission> tokenPermissions = userRole
-            .map(r -> r.getPermissions().stream().flatMap(this::mapPermissions).collect(Collectors.toSet()))
-            .orElse(new HashSet<>());
-
-    tokenPermissions.addAll(identityEndpointsForEveryUser());
-
-    return tokenPermissions;
-  }
-
   private Set<TokenPermission> getApplicationTokenPermissions(
           final UserEntity user,
           final String sourceApplicationName,
@@ -449,9 +487,7 @@ public class AuthenticationCommandHandler {
     if (!permissionsPossible.containsAll(permissionsRequestedByApplication))
       throw AmitAuthenticationException.applicationMissingPermissions(userIdentifier, sourceApplicationName);
 
-    return permissionsPossible.stream()
-            .flatMap(this::mapPermissions)
-            .collect(Collectors.toSet());
+    return userTokenPermissions.forPermissions(permissionsPossible);
   }
 
   private Set<TokenPermission> getApplicationUserTokenPermissions(
@@ -464,11 +500,10 @@ public class AuthenticationCommandHandler {
     final Stream<PermissionType> applicationRequestedPermissionsTheUserHas
             = intersectPermissionList(permissionsForUser, permissionsRequestedByApplication.stream());
 
-    return applicationRequestedPermissionsTheUserHas
+    return userTokenPermissions.forPermissions(applicationRequestedPermissionsTheUserHas
             .filter(x ->
                     applicationPermissionUsers.enabled(sourceApplicationName, x.getPermittableGroupIdentifier(), userIdentifier))
-            .flatMap(this::mapPermissions)
-            .collect(Collectors.toSet());
+            .collect(Collectors.toList()));
   }
 
   private Stream<PermissionType> intersectPermissionList(
@@ -511,60 +546,15 @@ public class AuthenticationCommandHandler {
                     Collectors.mapping(PermissionType::getAllowedOperations, setToSetCollector)));
   }
 
-  private Set<TokenPermission> identityEndpointsForEveryUser() {
-    final Set<TokenPermission> ret = identityEndpointsAllowedEvenWithExpiredPassword();
-
-    ret.add(new TokenPermission(
-            applicationName + "/applications/*/permissions/*/users/{useridentifier}/enabled",
-            Sets.newHashSet(AllowedOperation.READ, AllowedOperation.CHANGE, AllowedOperation.DELETE)));
-    ret.add(new TokenPermission(
-            applicationName + "/users/{useridentifier}/permissions",
-            Sets.newHashSet(AllowedOperation.READ)));
-
-    return ret;
-  }
-
-  private Set<TokenPermission> identityEndpointsAllowedEvenWithExpiredPassword() {
-    final Set<TokenPermission> ret = new HashSet<>();
-
-    ret.add(new TokenPermission(
-            applicationName + "/users/{useridentifier}/password",
-            Sets.newHashSet(AllowedOperation.READ, AllowedOperation.CHANGE, AllowedOperation.DELETE)));
-    ret.add(new TokenPermission(
-            applicationName + "/token/_current",
-            Sets.newHashSet(AllowedOperation.DELETE)));
-
-    return ret;
-  }
-
   static boolean pastExpiration(
           @SuppressWarnings("OptionalUsedAsFieldOrParameterType") final Optional<LocalDateTime> passwordExpiration) {
-    return passwordExpiration.map(x -> LocalDateTime.now().compareTo(x) >= 0).orElse(false);
+    return UserTokenPermissions.pastExpiration(passwordExpiration);
   }
 
   static boolean pastGracePeriod(
           @SuppressWarnings("OptionalUsedAsFieldOrParameterType") final Optional<LocalDateTime> passwordExpiration,
           final long gracePeriod) {
-    return passwordExpiration.map(x -> (LocalDateTime.now().compareTo(x.plusDays(gracePeriod)) >= 0)).orElse(false);
-  }
-
-  private Stream<TokenPermission> mapPermissions(final PermissionType permission) {
-    return permittableGroups.get(permission.getPermittableGroupIdentifier())
-            .map(PermittableGroupEntity::getPermittables)
-            .map(Collection::stream)
-            .orElse(Stream.empty())
-            .filter(permittable -> isAllowed(permittable, permission))
-            .map(this::getTokenPermission);
-  }
-
-  private boolean isAllowed(final PermittableType permittable, final PermissionType permission) {
-    return permission.getAllowedOperations().contains(AllowedOperationType.fromHttpMethod(permittable.getMethod()));
-  }
-
-  private TokenPermission getTokenPermission(final PermittableType permittable) {
-    final HashSet<AllowedOperation> allowedOperations = new HashSet<>();
-    allowedOperations.add(RoleMapper.mapAllowedOperation(AllowedOperationType.fromHttpMethod(permittable.getMethod())));
-    return new TokenPermission(permittable.getPath(), allowedOperations);
+    return UserTokenPermissions.pastGracePeriod(passwordExpiration, gracePeriod);
   }
 
   private TokenSerializationResult getRefreshToken(final UserEntity user,
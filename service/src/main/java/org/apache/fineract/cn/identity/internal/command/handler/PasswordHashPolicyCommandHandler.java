@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.command.handler;
+
+import org.apache.fineract.cn.command.annotation.Aggregate;
+import org.apache.fineract.cn.command.annotation.CommandHandler;
+import org.apache.fineract.cn.command.annotation.CommandLogLevel;
+import org.apache.fineract.cn.command.annotation.EventEmitter;
+import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.identity.internal.command.ChangePasswordHashPolicyCommand;
+import org.apache.fineract.cn.identity.internal.metrics.CommandMetrics;
+import org.apache.fineract.cn.identity.internal.repository.PasswordHashPolicyEntity;
+import org.apache.fineract.cn.identity.internal.repository.TenantRepository;
+import org.apache.fineract.cn.identity.internal.service.PasswordHashPolicyService;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Existing hashes are not touched here; each user is rehashed on their next successful login.
+ */
+@SuppressWarnings("unused")
+@Aggregate
+@Component
+public class PasswordHashPolicyCommandHandler {
+
+  private final TenantRepository tenants;
+  private final PasswordHashPolicyService passwordHashPolicy;
+  private final CommandMetrics commandMetrics;
+
+  @Autowired
+  PasswordHashPolicyCommandHandler(
+          final TenantRepository tenants,
+          final PasswordHashPolicyService passwordHashPolicy,
+          final CommandMetrics commandMetrics)
+  {
+    this.tenants = tenants;
+    this.passwordHashPolicy = passwordHashPolicy;
+    this.commandMetrics = commandMetrics;
+  }
+
+  @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
+  @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_PUT_PASSWORD_HASH_POLICY)
+  public String process(final ChangePasswordHashPolicyCommand command) {
+    return commandMetrics.measure(command, () -> {
+      final PasswordHashPolicyEntity entity = new PasswordHashPolicyEntity();
+      entity.setIterationCount(command.getInstance().getIterationCount());
+      entity.setTargetVerificationMillis(command.getInstance().getTargetVerificationMillis());
+
+      tenants.changePasswordHashPolicy(passwordHashPolicy.calibrate(entity));
+      passwordHashPolicy.invalidate();
+
+      return TenantContextHolder.checkedGetIdentifier();
+    });
+  }
+}
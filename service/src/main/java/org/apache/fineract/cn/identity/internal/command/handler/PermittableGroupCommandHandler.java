@@ -18,18 +18,27 @@
  */
 package org.apache.fineract.cn.identity.internal.command.handler;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 import org.apache.fineract.cn.anubis.api.v1.domain.PermittableEndpoint;
 import org.apache.fineract.cn.command.annotation.Aggregate;
 import org.apache.fineract.cn.command.annotation.CommandHandler;
 import org.apache.fineract.cn.command.annotation.CommandLogLevel;
 import org.apache.fineract.cn.command.annotation.EventEmitter;
+import org.apache.fineract.cn.identity.api.v1.domain.Change;
 import org.apache.fineract.cn.identity.api.v1.domain.PermittableGroup;
 import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.identity.api.v1.events.PermittableGroupEndpointsEvent;
+import org.apache.fineract.cn.identity.internal.command.ChangePermittableGroupEndpointsCommand;
 import org.apache.fineract.cn.identity.internal.command.CreatePermittableGroupCommand;
+import org.apache.fineract.cn.identity.internal.metrics.CommandMetrics;
 import org.apache.fineract.cn.identity.internal.repository.PermittableGroupEntity;
-import org.apache.fineract.cn.identity.internal.repository.PermittableGroups;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupRepository;
 import org.apache.fineract.cn.identity.internal.repository.PermittableType;
+import org.apache.fineract.cn.identity.internal.service.ChangeLogService;
+import org.apache.fineract.cn.identity.internal.service.PermissionCheckService;
+import org.apache.fineract.cn.identity.internal.service.ResourceVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
@@ -42,22 +51,74 @@ import org.springframework.util.Assert;
 @Component
 public class PermittableGroupCommandHandler {
 
-  private final PermittableGroups repository;
+  private final PermittableGroupRepository repository;
+  private final CommandMetrics commandMetrics;
+  private final PermissionCheckService permissionCheckService;
+  private final ResourceVersionService resourceVersionService;
+  private final ChangeLogService changeLogService;
 
   @Autowired
-  public PermittableGroupCommandHandler(final PermittableGroups repository)
+  public PermittableGroupCommandHandler(
+      final PermittableGroupRepository repository,
+      final CommandMetrics commandMetrics,
+      final PermissionCheckService permissionCheckService,
+      final ResourceVersionService resourceVersionService,
+      final ChangeLogService changeLogService)
   {
     this.repository = repository;
+    this.commandMetrics = commandMetrics;
+    this.permissionCheckService = permissionCheckService;
+    this.resourceVersionService = resourceVersionService;
+    this.changeLogService = changeLogService;
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_POST_PERMITTABLE_GROUP)
   public String process(final CreatePermittableGroupCommand command) {
-    Assert.isTrue(!repository.get(command.getInstance().getIdentifier()).isPresent());
+    return commandMetrics.measure(command, () -> {
+      Assert.isTrue(!repository.get(command.getInstance().getIdentifier()).isPresent());
 
-    repository.add(map(command.getInstance()));
+      repository.add(map(command.getInstance()));
+      //Roles may already refer to the new group.
+      permissionCheckService.invalidateAllRoles();
+      resourceVersionService.changed(ResourceVersionService.PERMITTABLE_GROUPS);
+      changeLogService.record(Change.TYPE_PERMITTABLE_GROUP, command.getInstance().getIdentifier(),
+          EventConstants.OPERATION_POST_PERMITTABLE_GROUP);
 
-    return command.getInstance().getIdentifier();
+      return command.getInstance().getIdentifier();
+    });
+  }
+
+  @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
+  @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_PATCH_PERMITTABLE_GROUP_PERMITTABLES)
+  public PermittableGroupEndpointsEvent process(final ChangePermittableGroupEndpointsCommand command) {
+    return commandMetrics.measure(command, () -> {
+      final PermittableGroupEntity group = repository.get(command.getIdentifier())
+          .orElseThrow(() -> new IllegalArgumentException("Permittable group " + command.getIdentifier() + " not found."));
+      final List<PermittableType> add = command.getChange().getAdd().stream().map(this::map).collect(Collectors.toList());
+      final List<PermittableType> remove = command.getChange().getRemove().stream().map(this::map).collect(Collectors.toList());
+
+      //The event only carries what actually changes: every endpoint of the group matching a removal, and each
+      //addition the group doesn't have once the removals are made.
+      final List<PermittableType> removed = group.getPermittables().stream()
+          .filter(x -> remove.stream().anyMatch(x::isSameEndpoint))
+          .collect(Collectors.toList());
+      final List<PermittableType> added = new ArrayList<>();
+      add.stream()
+          .filter(x -> group.getPermittables().stream().noneMatch(y -> y.isSameEndpoint(x) && !removed.contains(y)))
+          .filter(x -> added.stream().noneMatch(x::isSameEndpoint))
+          .forEach(added::add);
+
+      Assert.isTrue(repository.changePermittables(command.getIdentifier(), add, remove));
+      permissionCheckService.permittablesChanged(command.getIdentifier());
+      resourceVersionService.changed(ResourceVersionService.PERMITTABLE_GROUPS);
+      changeLogService.record(Change.TYPE_PERMITTABLE_GROUP, command.getIdentifier(),
+          EventConstants.OPERATION_PATCH_PERMITTABLE_GROUP_PERMITTABLES);
+
+      return new PermittableGroupEndpointsEvent(command.getIdentifier(),
+          added.stream().map(this::map).collect(Collectors.toList()),
+          removed.stream().map(this::map).collect(Collectors.toList()));
+    });
   }
 
   private PermittableGroupEntity map(final PermittableGroup instance) {
@@ -74,4 +135,12 @@ public class PermittableGroupCommandHandler {
     ret.setPath(instance.getPath());
     return ret;
   }
+
+  private PermittableEndpoint map(final PermittableType instance) {
+    final PermittableEndpoint ret = new PermittableEndpoint();
+    ret.setMethod(instance.getMethod());
+    ret.setGroupId(instance.getSourceGroupId());
+    ret.setPath(instance.getPath());
+    return ret;
+  }
 }
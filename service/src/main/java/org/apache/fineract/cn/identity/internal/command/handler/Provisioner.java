@@ -22,6 +22,7 @@ import com.datastax.driver.core.exceptions.InvalidQueryException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -35,12 +36,15 @@ import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpoi
 import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUsers;
 import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissions;
 import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatures;
+import org.apache.fineract.cn.identity.internal.repository.ChangeLog;
 import org.apache.fineract.cn.identity.internal.repository.PermissionType;
+import org.apache.fineract.cn.identity.internal.repository.NotInMemoryCondition;
 import org.apache.fineract.cn.identity.internal.repository.Permissions;
 import org.apache.fineract.cn.identity.internal.repository.PermittableGroupEntity;
 import org.apache.fineract.cn.identity.internal.repository.PermittableGroups;
 import org.apache.fineract.cn.identity.internal.repository.PermittableType;
 import org.apache.fineract.cn.identity.internal.repository.PrivateTenantInfoEntity;
+import org.apache.fineract.cn.identity.internal.repository.ResourceVersions;
 import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
 import org.apache.fineract.cn.identity.internal.repository.Roles;
 import org.apache.fineract.cn.identity.internal.repository.SignatureEntity;
@@ -56,12 +60,16 @@ import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 /**
  * @author Myrle Krantz
  */
 @Component
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
 public class Provisioner {
   private final Signatures signature;
   private final Tenants tenant;
@@ -73,6 +81,8 @@ public class Provisioner {
   private final ApplicationPermissions applicationPermissions;
   private final ApplicationPermissionUsers applicationPermissionUsers;
   private final ApplicationCallEndpointSets applicationCallEndpointSets;
+  private final ResourceVersions resourceVersions;
+  private final ChangeLog changeLog;
   private final UserEntityCreator userEntityCreator;
   private final Logger logger;
   private final SaltGenerator saltGenerator;
@@ -98,6 +108,8 @@ public class Provisioner {
           final ApplicationPermissions applicationPermissions,
           final ApplicationPermissionUsers applicationPermissionUsers,
           final ApplicationCallEndpointSets applicationCallEndpointSets,
+          final ResourceVersions resourceVersions,
+          final ChangeLog changeLog,
           final UserEntityCreator userEntityCreator,
           @Qualifier(IdentityConstants.LOGGER_NAME) final Logger logger,
           final SaltGenerator saltGenerator)
@@ -112,6 +124,8 @@ public class Provisioner {
     this.applicationPermissions = applicationPermissions;
     this.applicationPermissionUsers = applicationPermissionUsers;
     this.applicationCallEndpointSets = applicationCallEndpointSets;
+    this.resourceVersions = resourceVersions;
+    this.changeLog = changeLog;
     this.userEntityCreator = userEntityCreator;
     this.logger = logger;
     this.saltGenerator = saltGenerator;
@@ -135,6 +149,18 @@ public class Provisioner {
           users.add(suUser);
           logger.info("Successfully changed admin password '{}'...", TenantContextHolder.checkedGetIdentifier());
 
+          tenant.buildPasswordHashPolicyColumns();
+          users.buildTable();
+          final int indexedUsers = users.backfillRolesIndex();
+          logger.info("Indexed {} users by role for tenant '{}'.", indexedUsers, TenantContextHolder.checkedGetIdentifier());
+
+          resourceVersions.buildTable();
+          changeLog.buildTable();
+          //Creates the per permission and per endpoint tables, rows still in the old lists are moved when next written.
+          roles.buildTable();
+          permittableGroups.buildTable();
+          permittablesGroups(this::permitPatch);
+
           return latestSignature.get();
         }
       }
@@ -160,12 +186,10 @@ public class Provisioner {
       applicationPermissions.buildTable();
       applicationPermissionUsers.buildTable();
       applicationCallEndpointSets.buildTable();
+      resourceVersions.buildTable();
+      changeLog.buildTable();
 
-
-      createPermittablesGroup(PermittableGroupIds.ROLE_MANAGEMENT, "/roles/*", "/permittablegroups/*");
-      createPermittablesGroup(PermittableGroupIds.IDENTITY_MANAGEMENT, "/users/*");
-      createPermittablesGroup(PermittableGroupIds.SELF_MANAGEMENT, "/users/{useridentifier}/password", "/applications/*/permissions/*/users/{useridentifier}/enabled");
-      createPermittablesGroup(PermittableGroupIds.APPLICATION_SELF_MANAGEMENT, "/applications/{applicationidentifier}/permissions");
+      permittablesGroups(this::createPermittablesGroup);
 
       final List<PermissionType> permissions = new ArrayList<>();
       permissions.add(fullAccess(PermittableGroupIds.ROLE_MANAGEMENT));
@@ -204,6 +228,27 @@ public class Provisioner {
     return ret;
   }
 
+  private interface PermittablesGroupWriter {
+    void write(String identifier, String... paths);
+  }
+
+  private void permittablesGroups(final PermittablesGroupWriter writer) {
+    writer.write(PermittableGroupIds.ROLE_MANAGEMENT, "/roles/*", "/permittablegroups/*");
+    writer.write(PermittableGroupIds.IDENTITY_MANAGEMENT, "/users/*");
+    writer.write(PermittableGroupIds.SELF_MANAGEMENT, "/users/{useridentifier}/password", "/applications/*/permissions/*/users/{useridentifier}/enabled");
+    writer.write(PermittableGroupIds.APPLICATION_SELF_MANAGEMENT, "/applications/{applicationidentifier}/permissions");
+  }
+
+  /**
+   * Tenants provisioned before PATCH was permitted get it on the identity groups when they are provisioned again.
+   */
+  private void permitPatch(final String identifier, final String... paths) {
+    final List<PermittableType> patch = Arrays.stream(paths).flatMap(this::permittables)
+        .filter(x -> x.getMethod().equals("PATCH"))
+        .collect(Collectors.toList());
+    permittableGroups.changePermittables(identifier, patch, Collections.emptyList());
+  }
+
   private void createPermittablesGroup(final String identifier, final String... paths) {
     final PermittableGroupEntity permittableGroup = new PermittableGroupEntity();
     permittableGroup.setIdentifier(identifier);
@@ -225,6 +270,10 @@ public class Provisioner {
     putret.setPath(applicationName + path);
     putret.setMethod("PUT");
 
+    final PermittableType patchret = new PermittableType();
+    patchret.setPath(applicationName + path);
+    patchret.setMethod("PATCH");
+
     final PermittableType delret = new PermittableType();
     delret.setPath(applicationName + path);
     delret.setMethod("DELETE");
@@ -233,6 +282,7 @@ public class Provisioner {
     ret.add(getret);
     ret.add(postret);
     ret.add(putret);
+    ret.add(patchret);
     ret.add(delret);
 
     return ret.stream();
@@ -18,12 +18,10 @@
  */
 package org.apache.fineract.cn.identity.internal.command.handler;
 
-import com.datastax.driver.core.exceptions.InvalidQueryException;
 import java.nio.ByteBuffer;
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -32,39 +30,51 @@ import org.apache.fineract.cn.anubis.api.v1.domain.ApplicationSignatureSet;
 import org.apache.fineract.cn.crypto.SaltGenerator;
 import org.apache.fineract.cn.identity.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.identity.internal.mapper.SignatureMapper;
-import org.apache.fineract.cn.identity.internal.repository.*;
-import org.apache.fineract.cn.identity.internal.util.DataSourceUtils;
+import org.apache.fineract.cn.identity.internal.repository.AllowedOperationType;
+import org.apache.fineract.cn.identity.internal.repository.InMemoryStore;
+import org.apache.fineract.cn.identity.internal.repository.PermissionType;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupEntity;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupRepository;
+import org.apache.fineract.cn.identity.internal.repository.PermittableType;
+import org.apache.fineract.cn.identity.internal.repository.PrivateTenantInfoEntity;
+import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
+import org.apache.fineract.cn.identity.internal.repository.SignatureEntity;
+import org.apache.fineract.cn.identity.internal.repository.SignatureRepository;
+import org.apache.fineract.cn.identity.internal.repository.TenantAwareDataSourceProvider;
+import org.apache.fineract.cn.identity.internal.repository.TenantRepository;
+import org.apache.fineract.cn.identity.internal.repository.UserEntity;
+import org.apache.fineract.cn.identity.internal.repository.UserRepository;
 import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
 import org.apache.fineract.cn.lang.ServiceException;
 import org.apache.fineract.cn.lang.TenantContextHolder;
 import org.apache.fineract.cn.lang.security.RsaKeyPairFactory;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
-import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 /**
+ * Provisions tenants through the repository interfaces.  Under the memory profile there is no database to migrate,
+ * so only the initial rows are written.
+ *
  * @author Myrle Krantz
  */
 @Component
-@Profile("postgres")
+@Profile({"postgres", InMemoryStore.PROFILE})
 public class ProvisionerForSQL {
-    private final Signatures signature;
-    private final Tenants tenant;
-    private final Users users;
-    private final PermittableGroupsForSQL permittableGroupsForSQL;
-    private final Permissions permissions;
-    private final Roles roles;
-    @Autowired
-    private final Environment environment;
-
-    private final ApplicationSignatures applicationSignatures;
-    private final ApplicationPermissions applicationPermissions;
-    private final ApplicationPermissionUsers applicationPermissionUsers;
-    private final ApplicationCallEndpointSets applicationCallEndpointSets;
+    static final String MIGRATIONS_LOCATION = "db/migrations/postgresql";
+
+    private final SignatureRepository signature;
+    private final TenantRepository tenant;
+    private final UserRepository users;
+    private final PermittableGroupRepository permittableGroups;
+    private final RoleRepository roles;
+    private final Optional<TenantAwareDataSourceProvider> tenantAwareDataSourceProvider;
     private final UserEntityCreator userEntityCreator;
     private final Logger logger;
     private final SaltGenerator saltGenerator;
@@ -80,16 +90,12 @@ public class ProvisionerForSQL {
 
     @Autowired
     ProvisionerForSQL(
-            final Signatures signature,
-            final Tenants tenant,
-            final Users users,
-            final PermittableGroupsForSQL permittableGroupsForSQL,
-            final Permissions permissions,
-            final Roles roles,
-            Environment environment, final ApplicationSignatures applicationSignatures,
-            final ApplicationPermissions applicationPermissions,
-            final ApplicationPermissionUsers applicationPermissionUsers,
-            final ApplicationCallEndpointSets applicationCallEndpointSets,
+            final SignatureRepository signature,
+            final TenantRepository tenant,
+            final UserRepository users,
+            final PermittableGroupRepository permittableGroups,
+            final RoleRepository roles,
+            final Optional<TenantAwareDataSourceProvider> tenantAwareDataSourceProvider,
             final UserEntityCreator userEntityCreator,
             @Qualifier(IdentityConstants.LOGGER_NAME) final Logger logger,
             final SaltGenerator saltGenerator)
@@ -97,20 +103,17 @@ public class ProvisionerForSQL {
         this.signature = signature;
         this.tenant = tenant;
         this.users = users;
-        this.permittableGroupsForSQL = permittableGroupsForSQL;
-        this.permissions = permissions;
+        this.permittableGroups = permittableGroups;
         this.roles = roles;
-        this.environment = environment;
-        this.applicationSignatures = applicationSignatures;
-        this.applicationPermissions = applicationPermissions;
-        this.applicationPermissionUsers = applicationPermissionUsers;
-        this.applicationCallEndpointSets = applicationCallEndpointSets;
+        this.tenantAwareDataSourceProvider = tenantAwareDataSourceProvider;
         this.userEntityCreator = userEntityCreator;
         this.logger = logger;
         this.saltGenerator = saltGenerator;
     }
 
     public synchronized ApplicationSignatureSet provisionTenant(final String initialPasswordHash) {
+        tenantAwareDataSourceProvider.ifPresent(this::migrate);
+
         {
             final Optional<ApplicationSignatureSet> latestSignature = signature.getAllKeyTimestamps().stream()
                     .max(String::compareTo)
@@ -128,37 +131,24 @@ public class ProvisionerForSQL {
                     users.add(suUser);
                     logger.info("Successfully changed admin password '{}'...", TenantContextHolder.checkedGetIdentifier());
 
+                    permittablesGroups(this::permitPatch);
+
                     return latestSignature.get();
                 }
             }
         }
 
-        logger.info("Provisioning cassandra tables for tenant '{}'...", TenantContextHolder.checkedGetIdentifier());
+        logger.info("Provisioning {} tables for tenant '{}'...", storeName(), TenantContextHolder.checkedGetIdentifier());
         final RsaKeyPairFactory.KeyPairHolder keys = RsaKeyPairFactory.createKeyPair();
 
         byte[] fixedSalt = this.saltGenerator.createRandomSalt();
 
         try {
-            signature.buildTable();
             final SignatureEntity signatureEntity = signature.add(keys);
 
-            tenant.buildTable();
             tenant.add(fixedSalt, passwordExpiresInDays, timeToChangePasswordAfterExpirationInDays);
 
-            users.buildTable();
-            permittableGroupsForSQL.buildTable();
-            permissions.buildType();
-            roles.buildTable();
-            applicationSignatures.buildTable();
-            applicationPermissions.buildTable();
-            applicationPermissionUsers.buildTable();
-            applicationCallEndpointSets.buildTable();
-
-
-            createPermittablesGroup(PermittableGroupIds.ROLE_MANAGEMENT, "/roles/*", "/permittablegroups/*");
-            createPermittablesGroup(PermittableGroupIds.IDENTITY_MANAGEMENT, "/users/*");
-            createPermittablesGroup(PermittableGroupIds.SELF_MANAGEMENT, "/users/{useridentifier}/password", "/applications/*/permissions/*/users/{useridentifier}/enabled");
-            createPermittablesGroup(PermittableGroupIds.APPLICATION_SELF_MANAGEMENT, "/applications/{applicationidentifier}/permissions");
+            permittablesGroups(this::createPermittablesGroup);
 
             final List<PermissionType> permissions = new ArrayList<>();
             permissions.add(fullAccess(PermittableGroupIds.ROLE_MANAGEMENT));
@@ -179,13 +169,34 @@ public class ProvisionerForSQL {
 
             final ApplicationSignatureSet ret = SignatureMapper.mapToApplicationSignatureSet(signatureEntity);
 
-            logger.info("Successfully provisioned cassandra tables for tenant '{}'...", TenantContextHolder.checkedGetIdentifier());
+            logger.info("Successfully provisioned {} tables for tenant '{}'...", storeName(), TenantContextHolder.checkedGetIdentifier());
 
             return ret;
         }
-        catch (final InvalidQueryException e)
+        catch (final IllegalStateException e)
+        {
+            logger.error("Failed to provision {} tables for tenant.", storeName(), e);
+            throw ServiceException.internalError("Failed to provision tenant.");
+        }
+    }
+
+    private String storeName() {
+        return tenantAwareDataSourceProvider.isPresent() ? "postgresql" : "in-memory";
+    }
+
+    private void migrate(final TenantAwareDataSourceProvider dataSourceProvider) {
+        final Flyway flyway = new Flyway();
+        flyway.setLocations(MIGRATIONS_LOCATION);
+        flyway.setDataSource(dataSourceProvider.getTenantDataSource());
+        //Creates the tenant's schema if it doesn't exist yet, and keeps the migration history there.
+        flyway.setSchemas(dataSourceProvider.getTenantSchema());
+        flyway.setBaselineOnMigrate(true);
+        try {
+            flyway.migrate();
+        }
+        catch (final FlywayException e)
         {
-            logger.error("Failed to provision cassandra tables for tenant.", e);
+            logger.error("Failed to migrate postgresql tables for tenant.", e);
             throw ServiceException.internalError("Failed to provision tenant.");
         }
     }
@@ -197,25 +208,32 @@ public class ProvisionerForSQL {
         return ret;
     }
 
-    private void createPermittablesGroup(final String identifier, final String... paths) {
-        final PermittableGroupEntityForSQL permittableGroupEntityForSQL = new PermittableGroupEntityForSQL();
-        permittableGroupEntityForSQL.setIdentifier(identifier);
-        permittableGroupEntityForSQL.setPermittables(Arrays.stream(paths).flatMap(this::permittables).collect(Collectors.toList()));
-        permittableGroupsForSQL.add(permittableGroupEntityForSQL);
-        try (
-                final Connection connection = DataSourceUtils.createConnection(this.environment,"seshat");
-        ) {
-
-                final IsisPermittableDAO isisPermittableDAO = new IsisPermittableDAO();
-                isisPermittableDAO.setIdentifier(identifier);
-                isisPermittableDAO.setPermittables(permittableGroupEntityForSQL.getPermittables().toString());
-                isisPermittableDAO.insert(connection);
+    private interface PermittablesGroupWriter {
+        void write(String identifier, String... paths);
+    }
 
-        }
-        catch (SQLException sqlex) {
-    //      this.logger.error(sqlex.getMessage(), sqlex);
-          throw new IllegalStateException("Could not provision database for tenant {}" + sqlex);
-        }
+    private void permittablesGroups(final PermittablesGroupWriter writer) {
+        writer.write(PermittableGroupIds.ROLE_MANAGEMENT, "/roles/*", "/permittablegroups/*");
+        writer.write(PermittableGroupIds.IDENTITY_MANAGEMENT, "/users/*");
+        writer.write(PermittableGroupIds.SELF_MANAGEMENT, "/users/{useridentifier}/password", "/applications/*/permissions/*/users/{useridentifier}/enabled");
+        writer.write(PermittableGroupIds.APPLICATION_SELF_MANAGEMENT, "/applications/{applicationidentifier}/permissions");
+    }
+
+    /**
+     * Tenants provisioned before PATCH was permitted get it on the identity groups when they are provisioned again.
+     */
+    private void permitPatch(final String identifier, final String... paths) {
+        final List<PermittableType> patch = Arrays.stream(paths).flatMap(this::permittables)
+                .filter(x -> x.getMethod().equals("PATCH"))
+                .collect(Collectors.toList());
+        permittableGroups.changePermittables(identifier, patch, Collections.emptyList());
+    }
+
+    private void createPermittablesGroup(final String identifier, final String... paths) {
+        final PermittableGroupEntity permittableGroup = new PermittableGroupEntity();
+        permittableGroup.setIdentifier(identifier);
+        permittableGroup.setPermittables(Arrays.stream(paths).flatMap(this::permittables).collect(Collectors.toList()));
+        permittableGroups.add(permittableGroup);
     }
 
     private Stream<PermittableType> permittables(final String path)
@@ -232,6 +250,10 @@ public class ProvisionerForSQL {
         putret.setPath(applicationName + path);
         putret.setMethod("PUT");
 
+        final PermittableType patchret = new PermittableType();
+        patchret.setPath(applicationName + path);
+        patchret.setMethod("PATCH");
+
         final PermittableType delret = new PermittableType();
         delret.setPath(applicationName + path);
         delret.setMethod("DELETE");
@@ -240,6 +262,7 @@ public class ProvisionerForSQL {
         ret.add(getret);
         ret.add(postret);
         ret.add(putret);
+        ret.add(patchret);
         ret.add(delret);
 
         return ret.stream();
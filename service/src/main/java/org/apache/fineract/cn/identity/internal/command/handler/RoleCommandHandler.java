@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.cn.identity.internal.command.handler;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -25,14 +26,23 @@ import org.apache.fineract.cn.command.annotation.Aggregate;
 import org.apache.fineract.cn.command.annotation.CommandHandler;
 import org.apache.fineract.cn.command.annotation.CommandLogLevel;
 import org.apache.fineract.cn.command.annotation.EventEmitter;
+import org.apache.fineract.cn.identity.api.v1.domain.Change;
+import org.apache.fineract.cn.identity.api.v1.domain.Permission;
 import org.apache.fineract.cn.identity.api.v1.domain.Role;
 import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
+import org.apache.fineract.cn.identity.api.v1.events.RolePermissionsEvent;
 import org.apache.fineract.cn.identity.internal.command.ChangeRoleCommand;
+import org.apache.fineract.cn.identity.internal.command.ChangeRolePermissionsCommand;
 import org.apache.fineract.cn.identity.internal.command.CreateRoleCommand;
 import org.apache.fineract.cn.identity.internal.command.DeleteRoleCommand;
 import org.apache.fineract.cn.identity.internal.mapper.PermissionMapper;
+import org.apache.fineract.cn.identity.internal.metrics.CommandMetrics;
+import org.apache.fineract.cn.identity.internal.repository.PermissionType;
 import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
-import org.apache.fineract.cn.identity.internal.repository.Roles;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
+import org.apache.fineract.cn.identity.internal.service.ChangeLogService;
+import org.apache.fineract.cn.identity.internal.service.PermissionCheckService;
+import org.apache.fineract.cn.identity.internal.service.ResourceVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
@@ -45,44 +55,95 @@ import org.springframework.util.Assert;
 @Component
 public class RoleCommandHandler {
 
-  private final Roles roles;
+  private final RoleRepository roles;
+  private final CommandMetrics commandMetrics;
+  private final PermissionCheckService permissionCheckService;
+  private final ResourceVersionService resourceVersionService;
+  private final ChangeLogService changeLogService;
 
   @Autowired
-  public RoleCommandHandler(final Roles roles)
+  public RoleCommandHandler(
+      final RoleRepository roles,
+      final CommandMetrics commandMetrics,
+      final PermissionCheckService permissionCheckService,
+      final ResourceVersionService resourceVersionService,
+      final ChangeLogService changeLogService)
   {
     this.roles = roles;
+    this.commandMetrics = commandMetrics;
+    this.permissionCheckService = permissionCheckService;
+    this.resourceVersionService = resourceVersionService;
+    this.changeLogService = changeLogService;
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_PUT_ROLE)
   public String process(final ChangeRoleCommand command) {
-    final Optional<RoleEntity> instance = roles.get(command.getIdentifier());
-    Assert.isTrue(instance.isPresent());
+    return commandMetrics.measure(command, () -> {
+      final Optional<RoleEntity> instance = roles.get(command.getIdentifier());
+      Assert.isTrue(instance.isPresent());
 
-    instance.ifPresent(x -> roles.change(mapRole(command.getInstance())));
+      instance.ifPresent(x -> roles.change(mapRole(command.getInstance())));
+      permissionCheckService.invalidateRole(command.getIdentifier());
+      resourceVersionService.changed(ResourceVersionService.ROLES);
 
-    return command.getInstance().getIdentifier();
+      changeLogService.record(Change.TYPE_ROLE, command.getInstance().getIdentifier(), EventConstants.OPERATION_PUT_ROLE);
+
+      return command.getInstance().getIdentifier();
+    });
+  }
+
+  @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
+  @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_PATCH_ROLE_PERMISSIONS)
+  public RolePermissionsEvent process(final ChangeRolePermissionsCommand command) {
+    return commandMetrics.measure(command, () -> {
+      //Permissions added twice for the same permittable group allow the operations of both.
+      final List<PermissionType> add = PermissionType.merged(command.getChange().getAdd().stream()
+          .map(PermissionMapper::mapToPermissionType)
+          .collect(Collectors.toList()));
+      final List<Permission> added = add.stream().map(PermissionMapper::mapToPermission).collect(Collectors.toList());
+      final List<String> removed = command.getChange().getRemove();
+
+      Assert.isTrue(roles.changePermissions(command.getIdentifier(), add, removed));
+      permissionCheckService.invalidateRole(command.getIdentifier());
+      resourceVersionService.changed(ResourceVersionService.ROLES);
+
+      changeLogService.record(Change.TYPE_ROLE, command.getIdentifier(), EventConstants.OPERATION_PATCH_ROLE_PERMISSIONS);
+
+      return new RolePermissionsEvent(command.getIdentifier(), added, removed);
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_POST_ROLE)
   public String process(final CreateRoleCommand command) {
-    Assert.isTrue(!roles.get(command.getInstance().getIdentifier()).isPresent());
+    return commandMetrics.measure(command, () -> {
+      Assert.isTrue(!roles.get(command.getInstance().getIdentifier()).isPresent());
 
-    roles.add(mapRole(command.getInstance()));
+      roles.add(mapRole(command.getInstance()));
+      resourceVersionService.changed(ResourceVersionService.ROLES);
 
-    return command.getInstance().getIdentifier();
+      changeLogService.record(Change.TYPE_ROLE, command.getInstance().getIdentifier(), EventConstants.OPERATION_POST_ROLE);
+
+      return command.getInstance().getIdentifier();
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_DELETE_ROLE)
   public String process(final DeleteRoleCommand command) {
-    final Optional<RoleEntity> instance = roles.get(command.getIdentifier());
-    Assert.isTrue(instance.isPresent());
+    return commandMetrics.measure(command, () -> {
+      final Optional<RoleEntity> instance = roles.get(command.getIdentifier());
+      Assert.isTrue(instance.isPresent());
+
+      instance.ifPresent(roles::delete);
+      permissionCheckService.invalidateRole(command.getIdentifier());
+      resourceVersionService.changed(ResourceVersionService.ROLES);
 
-    instance.ifPresent(roles::delete);
+      changeLogService.record(Change.TYPE_ROLE, command.getIdentifier(), EventConstants.OPERATION_DELETE_ROLE);
 
-    return command.getIdentifier();
+      return command.getIdentifier();
+    });
   }
 
   private @Nonnull RoleEntity mapRole(
@@ -22,12 +22,16 @@ import org.apache.fineract.cn.command.annotation.Aggregate;
 import org.apache.fineract.cn.command.annotation.CommandHandler;
 import org.apache.fineract.cn.command.annotation.CommandLogLevel;
 import org.apache.fineract.cn.command.annotation.EventEmitter;
+import org.apache.fineract.cn.identity.api.v1.domain.Change;
 import org.apache.fineract.cn.identity.api.v1.events.EventConstants;
 import org.apache.fineract.cn.identity.internal.command.ChangeUserPasswordCommand;
 import org.apache.fineract.cn.identity.internal.command.ChangeUserRoleCommand;
 import org.apache.fineract.cn.identity.internal.command.CreateUserCommand;
+import org.apache.fineract.cn.identity.internal.metrics.CommandMetrics;
 import org.apache.fineract.cn.identity.internal.repository.UserEntity;
-import org.apache.fineract.cn.identity.internal.repository.Users;
+import org.apache.fineract.cn.identity.internal.repository.UserRepository;
+import org.apache.fineract.cn.identity.internal.service.ChangeLogService;
+import org.apache.fineract.cn.identity.internal.service.ResourceVersionService;
 import org.apache.fineract.cn.lang.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -42,56 +46,75 @@ import org.springframework.util.Assert;
 @Component
 public class UserCommandHandler {
 
-  private final Users usersRepository;
+  private final UserRepository usersRepository;
   private final UserEntityCreator userEntityCreator;
+  private final CommandMetrics commandMetrics;
+  private final ResourceVersionService resourceVersionService;
+  private final ChangeLogService changeLogService;
 
   @Autowired
   UserCommandHandler(
-          final Users usersRepository,
-          final UserEntityCreator userEntityCreator)
+          final UserRepository usersRepository,
+          final UserEntityCreator userEntityCreator,
+          final CommandMetrics commandMetrics,
+          final ResourceVersionService resourceVersionService,
+          final ChangeLogService changeLogService)
   {
     this.usersRepository = usersRepository;
     this.userEntityCreator = userEntityCreator;
+    this.commandMetrics = commandMetrics;
+    this.resourceVersionService = resourceVersionService;
+    this.changeLogService = changeLogService;
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_PUT_USER_ROLEIDENTIFIER)
   public String process(final ChangeUserRoleCommand command) {
-    final UserEntity user = usersRepository.get(command.getIdentifier())
-        .orElseThrow(() -> ServiceException.notFound(
-            "User " + command.getIdentifier() + " doesn't exist."));
+    return commandMetrics.measure(command, () -> {
+      final UserEntity user = usersRepository.get(command.getIdentifier())
+          .orElseThrow(() -> ServiceException.notFound(
+              "User " + command.getIdentifier() + " doesn't exist."));
 
-    user.setRole(command.getRole());
-    usersRepository.add(user);
+      usersRepository.changeRole(user.getIdentifier(), user.getRole(), command.getRole());
+      resourceVersionService.changed(ResourceVersionService.USERS);
+      changeLogService.record(Change.TYPE_USER, user.getIdentifier(), EventConstants.OPERATION_PUT_USER_ROLEIDENTIFIER);
 
-    return user.getIdentifier();
+      return user.getIdentifier();
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_PUT_USER_PASSWORD)
   public String process(final ChangeUserPasswordCommand command) {
-    final UserEntity user = usersRepository.get(command.getIdentifier())
-        .orElseThrow(() -> ServiceException.notFound(
-            "User " + command.getIdentifier() + " doesn't exist."));
+    return commandMetrics.measure(command, () -> {
+      final UserEntity user = usersRepository.get(command.getIdentifier())
+          .orElseThrow(() -> ServiceException.notFound(
+              "User " + command.getIdentifier() + " doesn't exist."));
 
-    final UserEntity userWithNewPassword = userEntityCreator.build(
-            user.getIdentifier(), user.getRole(), command.getPassword(),
-            !SecurityContextHolder.getContext().getAuthentication().getName().equals(command.getIdentifier()));
-    usersRepository.add(userWithNewPassword);
+      final UserEntity userWithNewPassword = userEntityCreator.build(
+              user.getIdentifier(), user.getRole(), command.getPassword(),
+              !SecurityContextHolder.getContext().getAuthentication().getName().equals(command.getIdentifier()));
+      usersRepository.add(userWithNewPassword, user.getRole());
+      changeLogService.record(Change.TYPE_USER, user.getIdentifier(), EventConstants.OPERATION_PUT_USER_PASSWORD);
 
-    return user.getIdentifier();
+      return user.getIdentifier();
+    });
   }
 
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = EventConstants.OPERATION_HEADER, selectorValue = EventConstants.OPERATION_POST_USER)
   public String process(final CreateUserCommand command) {
-    Assert.hasText(command.getPassword());
+    return commandMetrics.measure(command, () -> {
+      Assert.hasText(command.getPassword());
 
-    final UserEntity userEntity = userEntityCreator.build(
-        command.getIdentifier(), command.getRole(), command.getPassword(), true);
+      final UserEntity userEntity = userEntityCreator.build(
+          command.getIdentifier(), command.getRole(), command.getPassword(), true);
 
-    usersRepository.add(userEntity);
+      usersRepository.add(userEntity);
+      resourceVersionService.changed(ResourceVersionService.USERS);
+      changeLogService.record(Change.TYPE_USER, command.getIdentifier(), EventConstants.OPERATION_POST_USER);
 
-    return command.getIdentifier();
+      return command.getIdentifier();
+    });
   }
 }
@@ -24,8 +24,9 @@ import java.util.Optional;
 import org.apache.fineract.cn.crypto.HashGenerator;
 import org.apache.fineract.cn.crypto.SaltGenerator;
 import org.apache.fineract.cn.identity.internal.repository.PrivateTenantInfoEntity;
-import org.apache.fineract.cn.identity.internal.repository.Tenants;
+import org.apache.fineract.cn.identity.internal.repository.TenantRepository;
 import org.apache.fineract.cn.identity.internal.repository.UserEntity;
+import org.apache.fineract.cn.identity.internal.service.PasswordHashPolicyService;
 import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
 import org.apache.fineract.cn.identity.internal.util.Time;
 import org.apache.fineract.cn.lang.ServiceException;
@@ -42,16 +43,19 @@ public class UserEntityCreator {
 
   private final SaltGenerator saltGenerator;
   private final HashGenerator hashGenerator;
-  private final Tenants tenants;
+  private final TenantRepository tenants;
+  private final PasswordHashPolicyService passwordHashPolicy;
 
-  @Autowired UserEntityCreator(
+  @Autowired public UserEntityCreator(
       final SaltGenerator saltGenerator,
       final HashGenerator hashGenerator,
-      final Tenants tenants)
+      final TenantRepository tenants,
+      final PasswordHashPolicyService passwordHashPolicy)
   {
     this.saltGenerator = saltGenerator;
     this.hashGenerator = hashGenerator;
     this.tenants = tenants;
+    this.passwordHashPolicy = passwordHashPolicy;
   }
 
 
@@ -81,18 +85,51 @@ public class UserEntityCreator {
 
     userEntity.setIdentifier(identifier);
     userEntity.setRole(role);
+    setPassword(userEntity, password, fixedSalt, passwordHashPolicy.iterationCount());
+    userEntity.setPasswordExpiresOn(deriveExpiration(passwordMustChange, passwordExpiresInDays));
+
+    return userEntity;
+  }
+
+  /**
+   * After a successful login the plain password is known, which is the only time a stored hash can be
+   * brought in line with the tenant's current iteration count.  Identifier, role and expiration are kept.
+   *
+   * @return the user with a new hash, or empty if the stored hash already matches the policy.
+   */
+  Optional<UserEntity> rehashIfPolicyChanged(
+          final UserEntity user,
+          final String password,
+          final byte[] fixedSalt)
+  {
+    final int iterationCount = passwordHashPolicy.iterationCount();
+    if (user.getIterationCount() == iterationCount)
+      return Optional.empty();
+
+    final UserEntity userEntity = new UserEntity();
 
+    userEntity.setIdentifier(user.getIdentifier());
+    userEntity.setRole(user.getRole());
+    setPassword(userEntity, password, fixedSalt, iterationCount);
+    userEntity.setPasswordExpiresOn(user.getPasswordExpiresOn());
+
+    return Optional.of(userEntity);
+  }
+
+  private void setPassword(
+          final UserEntity userEntity,
+          final String password,
+          final byte[] fixedSalt,
+          final int iterationCount)
+  {
     final byte[] variableSalt = this.saltGenerator.createRandomSalt();
     final byte[] fullSalt = EncodingUtils.concatenate(variableSalt, fixedSalt);
 
     userEntity.setPassword(ByteBuffer.wrap(this.hashGenerator.hash(password, fullSalt,
-        IdentityConstants.ITERATION_COUNT, IdentityConstants.HASH_LENGTH)));
+        iterationCount, IdentityConstants.HASH_LENGTH)));
 
     userEntity.setSalt(ByteBuffer.wrap(variableSalt));
-    userEntity.setIterationCount(IdentityConstants.ITERATION_COUNT);
-    userEntity.setPasswordExpiresOn(deriveExpiration(passwordMustChange, passwordExpiresInDays));
-
-    return userEntity;
+    userEntity.setIterationCount(iterationCount);
   }
 
   private LocalDate deriveExpiration(final boolean passwordMustChange, final int passwordExpiresInDays) {
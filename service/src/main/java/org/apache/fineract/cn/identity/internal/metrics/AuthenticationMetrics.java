@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates the phase timings of all logins and refreshes into one histogram per phase.  Authentications which
+ * take longer than identity.authentication.slowLogThresholdInMillis are logged with their phase breakdown.  A
+ * threshold of zero or less turns the slow log off.
+ */
+@Component
+public class AuthenticationMetrics {
+  private static final AuthenticationPhase[] PHASES = AuthenticationPhase.values();
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  @FunctionalInterface
+  public interface TimedAction<T, E extends Exception> {
+    T run(AuthenticationTimer timer) throws E;
+  }
+
+  private final Logger logger;
+  private final long slowLogThresholdNanos;
+  private final Recorder[] recorders = new Recorder[PHASES.length];
+  private final Histogram[] totals = new Histogram[PHASES.length];
+  private final Histogram[] intervals = new Histogram[PHASES.length];
+
+  @Autowired
+  public AuthenticationMetrics(
+      @Qualifier(IdentityConstants.LOGGER_NAME) final Logger logger,
+      @Value("${identity.authentication.slowLogThresholdInMillis:1000}") final long slowLogThresholdInMillis) {
+    this.logger = logger;
+    this.slowLogThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowLogThresholdInMillis);
+    for (int i = 0; i < PHASES.length; i++) {
+      recorders[i] = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+      totals[i] = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+  }
+
+  public <T, E extends Exception> T time(final String grantType, final TimedAction<T, E> action) throws E {
+    final AuthenticationTimer timer = new AuthenticationTimer();
+    boolean succeeded = false;
+    try {
+      final T ret = action.run(timer);
+      succeeded = true;
+      return ret;
+    }
+    finally {
+      finish(timer, grantType, succeeded);
+    }
+  }
+
+  private void finish(final AuthenticationTimer timer, final String grantType, final boolean succeeded) {
+    for (final AuthenticationPhase phase : PHASES) {
+      if (timer.completed(phase)) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(timer.nanos(phase));
+        recorders[phase.ordinal()].recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+      }
+    }
+
+    final long elapsedNanos = timer.elapsedNanos();
+    if (slowLogThresholdNanos > 0 && elapsedNanos > slowLogThresholdNanos) {
+      logger.warn("Slow {} authentication ({}) for tenant '{}', user '{}' took {} ms: {}.",
+          grantType,
+          succeeded ? "succeeded" : "failed",
+          TenantContextHolder.identifier().orElse("null"),
+          timer.getUser(),
+          TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+          timer.breakdown());
+    }
+  }
+
+  public synchronized List<PhaseStatistics> getStatistics() {
+    final List<PhaseStatistics> ret = new ArrayList<>(PHASES.length);
+    for (final AuthenticationPhase phase : PHASES) {
+      final int i = phase.ordinal();
+      intervals[i] = recorders[i].getIntervalHistogram(intervals[i]);
+      totals[i].add(intervals[i]);
+
+      final PhaseStatistics statistics = new PhaseStatistics();
+      statistics.setPhase(phase.getDisplayName());
+      statistics.setCount(totals[i].getTotalCount());
+      statistics.setMeanMillis(totals[i].getMean() / 1000.0);
+      statistics.setP50Millis(totals[i].getValueAtPercentile(50.0) / 1000.0);
+      statistics.setP99Millis(totals[i].getValueAtPercentile(99.0) / 1000.0);
+      statistics.setMaxMillis(totals[i].getMaxValue() / 1000.0);
+      ret.add(statistics);
+    }
+    return ret;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+/**
+ * The steps of a login or token refresh, in the order in which they occur.
+ */
+public enum AuthenticationPhase {
+  BASE64_DECODE("base64Decode"),
+  REFRESH_TOKEN_VERIFY("refreshTokenVerify"),
+  TENANT_INFO("tenantInfo"),
+  SIGNATURE_LOOKUP("signatureLookup"),
+  USER_FETCH("userFetch"),
+  HASH_VERIFY("hashVerify"),
+  REHASH("rehash"),
+  REFRESH_TOKEN_SIGN("refreshTokenSign"),
+  PERMISSION_COMPUTE("permissionCompute"),
+  MINIFICATION("minification"),
+  ACCESS_TOKEN_SIGN("accessTokenSign"),
+  EVENT_PUBLISH("eventPublish");
+
+  private final String displayName;
+
+  AuthenticationPhase(final String displayName) {
+    this.displayName = displayName;
+  }
+
+  public String getDisplayName() {
+    return displayName;
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the phases of a single authentication.  Not thread safe; each authentication gets its own timer.
+ */
+public class AuthenticationTimer {
+  private static final AuthenticationPhase[] PHASES = AuthenticationPhase.values();
+
+  private final long startNanos;
+  private final long[] phaseNanos = new long[PHASES.length];
+  private final boolean[] completed = new boolean[PHASES.length];
+  private long lastLapNanos;
+  private String user;
+
+  AuthenticationTimer() {
+    this.startNanos = System.nanoTime();
+    this.lastLapNanos = startNanos;
+  }
+
+  /**
+   * Attributes the time since the previous lap, or since the start, to the given phase.
+   */
+  public void lap(final AuthenticationPhase phase) {
+    final long now = System.nanoTime();
+    phaseNanos[phase.ordinal()] += now - lastLapNanos;
+    completed[phase.ordinal()] = true;
+    lastLapNanos = now;
+  }
+
+  public void setUser(final String user) {
+    this.user = user;
+  }
+
+  String getUser() {
+    return user;
+  }
+
+  long elapsedNanos() {
+    return System.nanoTime() - startNanos;
+  }
+
+  boolean completed(final AuthenticationPhase phase) {
+    return completed[phase.ordinal()];
+  }
+
+  long nanos(final AuthenticationPhase phase) {
+    return phaseNanos[phase.ordinal()];
+  }
+
+  String breakdown() {
+    final StringBuilder ret = new StringBuilder();
+    for (final AuthenticationPhase phase : PHASES) {
+      if (!completed(phase))
+        continue;
+      if (ret.length() > 0)
+        ret.append(", ");
+      ret.append(phase.getDisplayName()).append('=').append(TimeUnit.NANOSECONDS.toMillis(nanos(phase))).append("ms");
+    }
+    return ret.toString();
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Measures command handler invocations per command class and tenant.  Recorders are looked up by the command's
+ * class and the tenant identifier directly, so no tag objects are created per call.  The cassandra statements
+ * issued by each invocation are counted as well.
+ *
+ * At most identity.commandMetrics.maximumTenants tenants are recorded separately per command class, the
+ * invocations in any further tenants are recorded together under "*".
+ */
+@Component
+public class CommandMetrics {
+  private static final String NO_TENANT = "";
+
+  @FunctionalInterface
+  public interface MeasuredAction<T, E extends Exception> {
+    T run() throws E;
+  }
+
+  private final StatementMetrics statementMetrics;
+  private final int maximumTenants;
+  private final ConcurrentMap<Class<?>, ConcurrentMap<String, CommandRecorder>> recorders = new ConcurrentHashMap<>();
+
+  @Autowired
+  public CommandMetrics(
+      final StatementMetrics statementMetrics,
+      @Value("${identity.commandMetrics.maximumTenants:100}") final int maximumTenants) {
+    this.statementMetrics = statementMetrics;
+    this.maximumTenants = maximumTenants;
+  }
+
+  public <T, E extends Exception> T measure(final Object command, final MeasuredAction<T, E> action) throws E {
+    final String tenant = TenantContextHolder.identifier().orElse(NO_TENANT);
+    final CommandRecorder recorder = recorder(command.getClass(), tenant);
+    final StatementMetrics.Tally statements = statementMetrics.begin();
+    final long start = recorder.start();
+    boolean succeeded = false;
+    try {
+      final T ret = action.run();
+      succeeded = true;
+      return ret;
+    }
+    finally {
+      recorder.finish(start, succeeded);
+      statementMetrics.end(statements, command.getClass().getSimpleName(), tenant);
+    }
+  }
+
+  public List<CommandStatistics> getStatistics(final String tenant) {
+    return recorders.entrySet().stream()
+        .filter(entry -> entry.getValue().containsKey(tenant))
+        .map(entry -> entry.getValue().get(tenant).snapshot(entry.getKey().getSimpleName(), tenant))
+        .collect(Collectors.toList());
+  }
+
+  private CommandRecorder recorder(final Class<?> commandClass, final String tenant) {
+    ConcurrentMap<String, CommandRecorder> tenantRecorders = recorders.get(commandClass);
+    if (tenantRecorders == null)
+      tenantRecorders = recorders.computeIfAbsent(commandClass, x -> new ConcurrentHashMap<>());
+
+    final CommandRecorder recorder = tenantRecorders.get(tenant);
+    if (recorder != null)
+      return recorder;
+    //The check and the insertion are not atomic, so a few more tenants than the maximum may be kept.
+    if (tenantRecorders.size() >= maximumTenants)
+      return tenantRecorders.computeIfAbsent(StatementMetrics.OTHER_TENANTS, x -> new CommandRecorder());
+    return tenantRecorders.computeIfAbsent(tenant, x -> new CommandRecorder());
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and counts for one command class in one tenant.  Recording takes no locks and allocates nothing;
+ * only taking a snapshot is synchronized.
+ */
+class CommandRecorder {
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+  private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+  private final LongAdder successes = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private Histogram interval = null;
+
+  long start() {
+    inFlight.incrementAndGet();
+    return System.nanoTime();
+  }
+
+  void finish(final long startNanos, final boolean succeeded) {
+    final long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    recorder.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+    inFlight.decrementAndGet();
+    if (succeeded)
+      successes.increment();
+    else
+      failures.increment();
+  }
+
+  synchronized CommandStatistics snapshot(final String command, final String tenant) {
+    interval = recorder.getIntervalHistogram(interval);
+    total.add(interval);
+
+    final CommandStatistics ret = new CommandStatistics();
+    ret.setCommand(command);
+    ret.setTenant(tenant);
+    ret.setSuccesses(successes.sum());
+    ret.setFailures(failures.sum());
+    ret.setInFlight(inFlight.get());
+    ret.setMeanMillis(total.getMean() / 1000.0);
+    ret.setP50Millis(millis(total.getValueAtPercentile(50.0)));
+    ret.setP90Millis(millis(total.getValueAtPercentile(90.0)));
+    ret.setP99Millis(millis(total.getValueAtPercentile(99.0)));
+    ret.setP999Millis(millis(total.getValueAtPercentile(99.9)));
+    ret.setMaxMillis(millis(total.getMaxValue()));
+    return ret;
+  }
+
+  private static double millis(final long micros) {
+    return micros / 1000.0;
+  }
+}
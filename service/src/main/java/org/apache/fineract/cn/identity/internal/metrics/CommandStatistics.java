@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+/**
+ * Counts and latency percentiles are over the lifetime of the service instance.  Taking a snapshot changes
+ * nothing, so any number of readers can compute throughput from the difference between two of their snapshots.
+ */
+@SuppressWarnings("unused")
+public class CommandStatistics {
+  private String command;
+  private String tenant;
+  private long successes;
+  private long failures;
+  private int inFlight;
+  private double meanMillis;
+  private double p50Millis;
+  private double p90Millis;
+  private double p99Millis;
+  private double p999Millis;
+  private double maxMillis;
+
+  public CommandStatistics() {
+  }
+
+  public String getCommand() {
+    return command;
+  }
+
+  public void setCommand(String command) {
+    this.command = command;
+  }
+
+  public String getTenant() {
+    return tenant;
+  }
+
+  public void setTenant(String tenant) {
+    this.tenant = tenant;
+  }
+
+  public long getSuccesses() {
+    return successes;
+  }
+
+  public void setSuccesses(long successes) {
+    this.successes = successes;
+  }
+
+  public long getFailures() {
+    return failures;
+  }
+
+  public void setFailures(long failures) {
+    this.failures = failures;
+  }
+
+  public int getInFlight() {
+    return inFlight;
+  }
+
+  public void setInFlight(int inFlight) {
+    this.inFlight = inFlight;
+  }
+
+  public double getMeanMillis() {
+    return meanMillis;
+  }
+
+  public void setMeanMillis(double meanMillis) {
+    this.meanMillis = meanMillis;
+  }
+
+  public double getP50Millis() {
+    return p50Millis;
+  }
+
+  public void setP50Millis(double p50Millis) {
+    this.p50Millis = p50Millis;
+  }
+
+  public double getP90Millis() {
+    return p90Millis;
+  }
+
+  public void setP90Millis(double p90Millis) {
+    this.p90Millis = p90Millis;
+  }
+
+  public double getP99Millis() {
+    return p99Millis;
+  }
+
+  public void setP99Millis(double p99Millis) {
+    this.p99Millis = p99Millis;
+  }
+
+  public double getP999Millis() {
+    return p999Millis;
+  }
+
+  public void setP999Millis(double p999Millis) {
+    this.p999Millis = p999Millis;
+  }
+
+  public double getMaxMillis() {
+    return maxMillis;
+  }
+
+  public void setMaxMillis(double maxMillis) {
+    this.maxMillis = maxMillis;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+/**
+ * Latency percentiles of one authentication phase over the lifetime of the service instance.
+ */
+@SuppressWarnings("unused")
+public class PhaseStatistics {
+  private String phase;
+  private long count;
+  private double meanMillis;
+  private double p50Millis;
+  private double p99Millis;
+  private double maxMillis;
+
+  public PhaseStatistics() {
+  }
+
+  public String getPhase() {
+    return phase;
+  }
+
+  public void setPhase(String phase) {
+    this.phase = phase;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public double getMeanMillis() {
+    return meanMillis;
+  }
+
+  public void setMeanMillis(double meanMillis) {
+    this.meanMillis = meanMillis;
+  }
+
+  public double getP50Millis() {
+    return p50Millis;
+  }
+
+  public void setP50Millis(double p50Millis) {
+    this.p50Millis = p50Millis;
+  }
+
+  public double getP99Millis() {
+    return p99Millis;
+  }
+
+  public void setP99Millis(double p99Millis) {
+    this.p99Millis = p99Millis;
+  }
+
+  public double getMaxMillis() {
+    return maxMillis;
+  }
+
+  public void setMaxMillis(double maxMillis) {
+    this.maxMillis = maxMillis;
+  }
+}
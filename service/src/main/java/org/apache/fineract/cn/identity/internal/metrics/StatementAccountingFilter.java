@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the cassandra statements of each request per endpoint.  If identity.cassandra.statementHeader is set,
+ * the count and the time spent in cassandra are also returned in the X-Cassandra-Statements response header.  This
+ * buffers response bodies, so it is meant for debugging only.
+ *
+ * The tenant header is only trusted for requests which succeeded, since anyone can send any value in it.  The
+ * statements of failed requests are recorded without a tenant.
+ */
+@Component
+public class StatementAccountingFilter extends OncePerRequestFilter {
+  static final String STATEMENTS_HEADER = "X-Cassandra-Statements";
+
+  private final StatementMetrics statementMetrics;
+  private final boolean statementHeader;
+
+  @Autowired
+  public StatementAccountingFilter(
+      final StatementMetrics statementMetrics,
+      @Value("${identity.cassandra.statementHeader:false}") final boolean statementHeader) {
+    this.statementMetrics = statementMetrics;
+    this.statementHeader = statementHeader;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      final HttpServletRequest request,
+      final HttpServletResponse response,
+      final FilterChain filterChain) throws ServletException, IOException {
+    final StatementMetrics.Tally tally = statementMetrics.begin();
+    final ContentCachingResponseWrapper bufferedResponse
+        = statementHeader ? new ContentCachingResponseWrapper(response) : null;
+    boolean succeeded = false;
+    try {
+      filterChain.doFilter(request, bufferedResponse == null ? response : bufferedResponse);
+      succeeded = response.getStatus() < HttpServletResponse.SC_BAD_REQUEST;
+    }
+    finally {
+      statementMetrics.end(tally, endpoint(request),
+          succeeded ? request.getHeader(TenantHeaderFilter.TENANT_HEADER) : null);
+      if (bufferedResponse != null) {
+        bufferedResponse.setHeader(STATEMENTS_HEADER, tally.getStatements() + "; "
+            + TimeUnit.NANOSECONDS.toMillis(tally.getCassandraNanos()) + "ms");
+        bufferedResponse.copyBodyToResponse();
+      }
+    }
+  }
+
+  private static String endpoint(final HttpServletRequest request) {
+    final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return request.getMethod() + " " + (pattern == null ? "unmapped" : pattern.toString());
+  }
+}
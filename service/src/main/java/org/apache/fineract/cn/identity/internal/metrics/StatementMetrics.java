@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the cassandra statements executed within a scope, either an HTTP request or a command.  Scopes are bound
+ * to the thread on which they were started, so the statements of a command are attributed to the command and not
+ * to the request which sent it.
+ *
+ * Statements which take longer than identity.cassandra.slowStatementThresholdInMillis are logged together with
+ * the repository method which issued them.  A threshold of zero or less turns the slow statement log off.
+ *
+ * At most identity.cassandra.statementMetrics.maximumTenants tenants are recorded separately per scope, the
+ * statements of any further tenants are recorded together under "*".
+ */
+@Component
+public class StatementMetrics {
+  private static final String NO_TENANT = "";
+  static final String OTHER_TENANTS = "*";
+  private static final String REPOSITORY_PACKAGE = "org.apache.fineract.cn.identity.internal.repository.";
+  private static final String REGISTRY_CLASS = REPOSITORY_PACKAGE + "TenantStatementRegistry";
+
+  static class Tally {
+    private final Tally enclosing;
+    private int statements;
+    private long cassandraNanos;
+
+    private Tally(final Tally enclosing) {
+      this.enclosing = enclosing;
+    }
+
+    int getStatements() {
+      return statements;
+    }
+
+    long getCassandraNanos() {
+      return cassandraNanos;
+    }
+  }
+
+  private final Logger logger;
+  private final long slowStatementThresholdNanos;
+  private final int maximumTenants;
+  private final ThreadLocal<Tally> current = new ThreadLocal<>();
+  private final ConcurrentMap<String, ConcurrentMap<String, StatementRecorder>> recorders = new ConcurrentHashMap<>();
+
+  @Autowired
+  public StatementMetrics(
+      @Qualifier(IdentityConstants.LOGGER_NAME) final Logger logger,
+      @Value("${identity.cassandra.slowStatementThresholdInMillis:200}") final long slowStatementThresholdInMillis,
+      @Value("${identity.cassandra.statementMetrics.maximumTenants:100}") final int maximumTenants) {
+    this.logger = logger;
+    this.slowStatementThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowStatementThresholdInMillis);
+    this.maximumTenants = maximumTenants;
+  }
+
+  /**
+   * Called by the statement registry after every statement execution, successful or not.
+   */
+  public void record(final String cql, final long nanos) {
+    final Tally tally = current.get();
+    if (tally != null) {
+      tally.statements++;
+      tally.cassandraNanos += nanos;
+    }
+
+    if (slowStatementThresholdNanos > 0 && nanos > slowStatementThresholdNanos) {
+      logger.warn("Slow cassandra statement in {} for tenant '{}' took {} ms: {}",
+          repositoryMethod(),
+          TenantContextHolder.identifier().orElse("null"),
+          TimeUnit.NANOSECONDS.toMillis(nanos),
+          cql);
+    }
+  }
+
+  public List<StatementStatistics> getStatistics(final String tenant) {
+    return recorders.entrySet().stream()
+        .filter(entry -> entry.getValue().containsKey(tenant))
+        .map(entry -> entry.getValue().get(tenant).snapshot(entry.getKey(), tenant))
+        .collect(Collectors.toList());
+  }
+
+  Tally begin() {
+    final Tally ret = new Tally(current.get());
+    current.set(ret);
+    return ret;
+  }
+
+  void end(final Tally tally, final String scope, final String tenant) {
+    if (tally.enclosing == null)
+      current.remove();
+    else
+      current.set(tally.enclosing);
+
+    recorder(scope, tenant == null ? NO_TENANT : tenant).record(tally.statements, tally.cassandraNanos);
+  }
+
+  private StatementRecorder recorder(final String scope, final String tenant) {
+    ConcurrentMap<String, StatementRecorder> tenantRecorders = recorders.get(scope);
+    if (tenantRecorders == null)
+      tenantRecorders = recorders.computeIfAbsent(scope, x -> new ConcurrentHashMap<>());
+
+    final StatementRecorder recorder = tenantRecorders.get(tenant);
+    if (recorder != null)
+      return recorder;
+    //The check and the insertion are not atomic, so a few more tenants than the maximum may be kept.
+    if (tenantRecorders.size() >= maximumTenants)
+      return tenantRecorders.computeIfAbsent(OTHER_TENANTS, x -> new StatementRecorder());
+    return tenantRecorders.computeIfAbsent(tenant, x -> new StatementRecorder());
+  }
+
+  //Only walked for slow statements, so the cost of the stack trace does not matter.
+  private static String repositoryMethod() {
+    return Arrays.stream(new Throwable().getStackTrace())
+        .filter(frame -> frame.getClassName().startsWith(REPOSITORY_PACKAGE))
+        .filter(frame -> !frame.getClassName().equals(REGISTRY_CLASS))
+        .findFirst()
+        .map(frame -> frame.getClassName().substring(REPOSITORY_PACKAGE.length()) + "." + frame.getMethodName())
+        .orElse("unknown");
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cassandra statements issued per request or command, for one scope in one tenant.
+ */
+class StatementRecorder {
+  private static final long HIGHEST_TRACKABLE_STATEMENTS = 100_000;
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  private final Recorder statements = new Recorder(HIGHEST_TRACKABLE_STATEMENTS, SIGNIFICANT_DIGITS);
+  private final Recorder cassandraTime = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+  private final Histogram totalStatements = new Histogram(HIGHEST_TRACKABLE_STATEMENTS, SIGNIFICANT_DIGITS);
+  private final Histogram totalCassandraTime = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+  private Histogram statementsInterval = null;
+  private Histogram cassandraTimeInterval = null;
+
+  void record(final int statementCount, final long cassandraNanos) {
+    statements.recordValue(Math.min(statementCount, HIGHEST_TRACKABLE_STATEMENTS));
+    cassandraTime.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(cassandraNanos), HIGHEST_TRACKABLE_MICROS));
+  }
+
+  synchronized StatementStatistics snapshot(final String scope, final String tenant) {
+    statementsInterval = statements.getIntervalHistogram(statementsInterval);
+    totalStatements.add(statementsInterval);
+    cassandraTimeInterval = cassandraTime.getIntervalHistogram(cassandraTimeInterval);
+    totalCassandraTime.add(cassandraTimeInterval);
+
+    final StatementStatistics ret = new StatementStatistics();
+    ret.setScope(scope);
+    ret.setTenant(tenant);
+    ret.setCount(totalStatements.getTotalCount());
+    ret.setMeanStatements(totalStatements.getMean());
+    ret.setP99Statements(totalStatements.getValueAtPercentile(99.0));
+    ret.setMaxStatements(totalStatements.getMaxValue());
+    ret.setMeanCassandraMillis(totalCassandraTime.getMean() / 1000.0);
+    ret.setP99CassandraMillis(totalCassandraTime.getValueAtPercentile(99.0) / 1000.0);
+    return ret;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.metrics;
+
+/**
+ * How many cassandra statements the requests to one endpoint, or the invocations of one command, issued.
+ */
+@SuppressWarnings("unused")
+public class StatementStatistics {
+  private String scope;
+  private String tenant;
+  private long count;
+  private double meanStatements;
+  private long p99Statements;
+  private long maxStatements;
+  private double meanCassandraMillis;
+  private double p99CassandraMillis;
+
+  public StatementStatistics() {
+  }
+
+  public String getScope() {
+    return scope;
+  }
+
+  public void setScope(String scope) {
+    this.scope = scope;
+  }
+
+  public String getTenant() {
+    return tenant;
+  }
+
+  public void setTenant(String tenant) {
+    this.tenant = tenant;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public double getMeanStatements() {
+    return meanStatements;
+  }
+
+  public void setMeanStatements(double meanStatements) {
+    this.meanStatements = meanStatements;
+  }
+
+  public long getP99Statements() {
+    return p99Statements;
+  }
+
+  public void setP99Statements(long p99Statements) {
+    this.p99Statements = p99Statements;
+  }
+
+  public long getMaxStatements() {
+    return maxStatements;
+  }
+
+  public void setMaxStatements(long maxStatements) {
+    this.maxStatements = maxStatements;
+  }
+
+  public double getMeanCassandraMillis() {
+    return meanCassandraMillis;
+  }
+
+  public void setMeanCassandraMillis(double meanCassandraMillis) {
+    this.meanCassandraMillis = meanCassandraMillis;
+  }
+
+  public double getP99CassandraMillis() {
+    return p99CassandraMillis;
+  }
+
+  public void setP99CassandraMillis(double p99CassandraMillis) {
+    this.p99CassandraMillis = p99CassandraMillis;
+  }
+}
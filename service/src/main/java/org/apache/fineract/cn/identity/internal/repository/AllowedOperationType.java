@@ -27,7 +27,7 @@ import java.util.Set;
 
 public enum AllowedOperationType {
   READ, //GET, TRACE
-  CHANGE, //POST, PUT
+  CHANGE, //POST, PUT, PATCH
   DELETE; //DELETE
 
   public static final Set<AllowedOperationType> ALL = Collections.unmodifiableSet(
@@ -46,6 +46,7 @@ public enum AllowedOperationType {
         return READ;
       case "POST":
       case "PUT":
+      case "PATCH":
         return CHANGE;
       case "DELETE":
         return DELETE;
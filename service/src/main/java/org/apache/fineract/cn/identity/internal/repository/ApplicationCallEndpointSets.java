@@ -19,44 +19,41 @@
 package org.apache.fineract.cn.identity.internal.repository;
 
 import com.datastax.driver.core.DataType;
-import com.datastax.driver.core.Session;
-import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.schemabuilder.Create;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import com.datastax.driver.mapping.Mapper;
-import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareCassandraMapperProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareEntityTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Myrle Krantz
  */
 @Component
-public class ApplicationCallEndpointSets {
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class ApplicationCallEndpointSets implements ApplicationCallEndpointSetRepository {
   static final String TABLE_NAME = "isis_application_callendpointsets";
   static final String APPLICATION_IDENTIFIER_COLUMN = "application_identifier";
   static final String CALLENDPOINTSET_IDENTIFIER_COLUMN = "call_endpoint_set_identifier";
   static final String CALLENDPOINT_GROUP_IDENTIFIERS_COLUMN = "call_endpoint_group_identifiers";
 
-  private final CassandraSessionProvider cassandraSessionProvider;
-  private final TenantAwareEntityTemplate tenantAwareEntityTemplate;
-  private final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider;
+  private static final String SELECT_FOR_APPLICATION = QueryBuilder.select().from(TABLE_NAME)
+      .where(QueryBuilder.eq(APPLICATION_IDENTIFIER_COLUMN, QueryBuilder.bindMarker()))
+      .getQueryString();
+
+  private final TenantStatementRegistry statements;
 
   @Autowired
-  public ApplicationCallEndpointSets(
-          final CassandraSessionProvider cassandraSessionProvider,
-          final TenantAwareEntityTemplate tenantAwareEntityTemplate,
-          final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider) {
-    this.cassandraSessionProvider = cassandraSessionProvider;
-    this.tenantAwareEntityTemplate = tenantAwareEntityTemplate;
-    this.tenantAwareCassandraMapperProvider = tenantAwareCassandraMapperProvider;
+  public ApplicationCallEndpointSets(final TenantStatementRegistry statements) {
+    this.statements = statements;
   }
 
   public void buildTable() {
@@ -66,22 +63,34 @@ public class ApplicationCallEndpointSets {
         .addClusteringColumn(CALLENDPOINTSET_IDENTIFIER_COLUMN, DataType.text())
         .addColumn(CALLENDPOINT_GROUP_IDENTIFIERS_COLUMN, DataType.list(DataType.text()));
 
-    cassandraSessionProvider.getTenantSession().execute(create);
+    statements.execute(create);
   }
 
   public void add(final ApplicationCallEndpointSetEntity entity) {
-    tenantAwareEntityTemplate.save(entity);
+    statements.save(entity);
   }
 
   public void change(final ApplicationCallEndpointSetEntity instance) {
-    tenantAwareEntityTemplate.save(instance);
+    statements.save(instance);
+  }
+
+  public CompletableFuture<Void> changeAsync(final ApplicationCallEndpointSetEntity instance) {
+    return statements.saveAsync(instance);
   }
 
   public Optional<ApplicationCallEndpointSetEntity> get(final String applicationIdentifier, final String callEndpointSetIdentifier)
   {
-    final ApplicationCallEndpointSetEntity entity =
-            tenantAwareCassandraMapperProvider.getMapper(ApplicationCallEndpointSetEntity.class).get(applicationIdentifier, callEndpointSetIdentifier);
+    return checked(statements.get(ApplicationCallEndpointSetEntity.class, applicationIdentifier, callEndpointSetIdentifier));
+  }
 
+  public CompletableFuture<Optional<ApplicationCallEndpointSetEntity>> getAsync(
+      final String applicationIdentifier,
+      final String callEndpointSetIdentifier) {
+    return statements.getAsync(ApplicationCallEndpointSetEntity.class, applicationIdentifier, callEndpointSetIdentifier)
+        .thenApply(ApplicationCallEndpointSets::checked);
+  }
+
+  private static Optional<ApplicationCallEndpointSetEntity> checked(final ApplicationCallEndpointSetEntity entity) {
     if (entity != null) {
       Assert.notNull(entity.getApplicationIdentifier());
       Assert.notNull(entity.getCallEndpointSetIdentifier());
@@ -91,16 +100,12 @@ public class ApplicationCallEndpointSets {
   }
 
   public List<ApplicationCallEndpointSetEntity> getAllForApplication(final String applicationIdentifier) {
-    final Mapper<ApplicationCallEndpointSetEntity> entityMapper = tenantAwareCassandraMapperProvider.getMapper(ApplicationCallEndpointSetEntity.class);
-    final Session tenantSession = cassandraSessionProvider.getTenantSession();
-
-    final Statement statement = QueryBuilder.select().from(TABLE_NAME).where(QueryBuilder.eq(APPLICATION_IDENTIFIER_COLUMN, applicationIdentifier));
-
-    return entityMapper.map(tenantSession.execute(statement)).all();
+    final Mapper<ApplicationCallEndpointSetEntity> entityMapper = statements.mapper(ApplicationCallEndpointSetEntity.class);
+    return entityMapper.map(statements.execute(statements.bind(SELECT_FOR_APPLICATION, applicationIdentifier))).all();
   }
 
   public void delete(final String applicationIdentifier, final String callEndpointSetIdentifier) {
-    final Optional<ApplicationCallEndpointSetEntity> toDelete = tenantAwareEntityTemplate.findById(ApplicationCallEndpointSetEntity.class, applicationIdentifier, callEndpointSetIdentifier);
-    toDelete.ifPresent(tenantAwareEntityTemplate::delete);
+    final Optional<ApplicationCallEndpointSetEntity> toDelete = get(applicationIdentifier, callEndpointSetIdentifier);
+    toDelete.ifPresent(statements::delete);
   }
 }
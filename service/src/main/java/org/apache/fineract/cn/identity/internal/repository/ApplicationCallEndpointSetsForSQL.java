@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class ApplicationCallEndpointSetsForSQL implements ApplicationCallEndpointSetRepository {
+  static final String TABLE_NAME = "isis_application_callendpointsets";
+  static final String APPLICATION_IDENTIFIER_COLUMN = "application_identifier";
+  static final String CALLENDPOINTSET_IDENTIFIER_COLUMN = "call_endpoint_set_identifier";
+  static final String CALLENDPOINT_GROUP_IDENTIFIERS_COLUMN = "call_endpoint_group_identifiers";
+
+  private static final String ALL_COLUMNS = APPLICATION_IDENTIFIER_COLUMN + ", " + CALLENDPOINTSET_IDENTIFIER_COLUMN + ", "
+      + CALLENDPOINT_GROUP_IDENTIFIERS_COLUMN;
+
+  private static final String UPSERT_STMT = "INSERT INTO " + TABLE_NAME + " (" + ALL_COLUMNS + ") VALUES (?, ?, ?)"
+      + " ON CONFLICT (" + APPLICATION_IDENTIFIER_COLUMN + ", " + CALLENDPOINTSET_IDENTIFIER_COLUMN + ") DO UPDATE SET "
+      + CALLENDPOINT_GROUP_IDENTIFIERS_COLUMN + " = EXCLUDED." + CALLENDPOINT_GROUP_IDENTIFIERS_COLUMN;
+  private static final String FIND_ONE_STMT = "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME
+      + " WHERE " + APPLICATION_IDENTIFIER_COLUMN + " = ? AND " + CALLENDPOINTSET_IDENTIFIER_COLUMN + " = ?";
+  private static final String FIND_FOR_APPLICATION_STMT = "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME
+      + " WHERE " + APPLICATION_IDENTIFIER_COLUMN + " = ?";
+  private static final String DELETE_STMT = "DELETE FROM " + TABLE_NAME
+      + " WHERE " + APPLICATION_IDENTIFIER_COLUMN + " = ? AND " + CALLENDPOINTSET_IDENTIFIER_COLUMN + " = ?";
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  ApplicationCallEndpointSetsForSQL(final TenantAwareJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void add(final ApplicationCallEndpointSetEntity entity) {
+    save(entity);
+  }
+
+  @Override
+  public void change(final ApplicationCallEndpointSetEntity instance) {
+    save(instance);
+  }
+
+  @Override
+  public Optional<ApplicationCallEndpointSetEntity> get(final String applicationIdentifier, final String callEndpointSetIdentifier) {
+    return jdbcTemplate.queryForObject(FIND_ONE_STMT, statement -> {
+      statement.setString(1, applicationIdentifier);
+      statement.setString(2, callEndpointSetIdentifier);
+    }, ApplicationCallEndpointSetsForSQL::map);
+  }
+
+  @Override
+  public List<ApplicationCallEndpointSetEntity> getAllForApplication(final String applicationIdentifier) {
+    return jdbcTemplate.query(FIND_FOR_APPLICATION_STMT, statement -> statement.setString(1, applicationIdentifier),
+        ApplicationCallEndpointSetsForSQL::map);
+  }
+
+  @Override
+  public void delete(final String applicationIdentifier, final String callEndpointSetIdentifier) {
+    jdbcTemplate.update(DELETE_STMT, statement -> {
+      statement.setString(1, applicationIdentifier);
+      statement.setString(2, callEndpointSetIdentifier);
+    });
+  }
+
+  private void save(final ApplicationCallEndpointSetEntity entity) {
+    final List<String> callEndpointGroupIdentifiers = entity.getCallEndpointGroupIdentifiers() == null
+        ? Collections.emptyList() : entity.getCallEndpointGroupIdentifiers();
+    jdbcTemplate.update(UPSERT_STMT, statement -> {
+      statement.setString(1, entity.getApplicationIdentifier());
+      statement.setString(2, entity.getCallEndpointSetIdentifier());
+      statement.setArray(3, TenantAwareJdbcTemplate.textArray(statement, callEndpointGroupIdentifiers));
+    });
+  }
+
+  private static ApplicationCallEndpointSetEntity map(final ResultSet resultSet) throws SQLException {
+    final ApplicationCallEndpointSetEntity ret = new ApplicationCallEndpointSetEntity();
+    ret.setApplicationIdentifier(resultSet.getString(APPLICATION_IDENTIFIER_COLUMN));
+    ret.setCallEndpointSetIdentifier(resultSet.getString(CALLENDPOINTSET_IDENTIFIER_COLUMN));
+    ret.setCallEndpointGroupIdentifiers(TenantAwareJdbcTemplate.strings(resultSet, CALLENDPOINT_GROUP_IDENTIFIERS_COLUMN));
+    return ret;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class ApplicationCallEndpointSetsInMemory implements ApplicationCallEndpointSetRepository {
+  private final InMemoryStore store;
+
+  @Autowired
+  public ApplicationCallEndpointSetsInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public void add(final ApplicationCallEndpointSetEntity entity) {
+    store.partition().applicationCallEndpointSets.put(
+        InMemoryStore.key(entity.getApplicationIdentifier(), entity.getCallEndpointSetIdentifier()), copy(entity));
+  }
+
+  @Override
+  public void change(final ApplicationCallEndpointSetEntity instance) {
+    add(instance);
+  }
+
+  @Override
+  public Optional<ApplicationCallEndpointSetEntity> get(
+      final String applicationIdentifier,
+      final String callEndpointSetIdentifier) {
+    return Optional.ofNullable(store.partition().applicationCallEndpointSets.get(
+        InMemoryStore.key(applicationIdentifier, callEndpointSetIdentifier)))
+        .map(ApplicationCallEndpointSetsInMemory::copy);
+  }
+
+  @Override
+  public List<ApplicationCallEndpointSetEntity> getAllForApplication(final String applicationIdentifier) {
+    return store.partition().applicationCallEndpointSets.values().stream()
+        .filter(x -> x.getApplicationIdentifier().equals(applicationIdentifier))
+        .map(ApplicationCallEndpointSetsInMemory::copy)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public void delete(final String applicationIdentifier, final String callEndpointSetIdentifier) {
+    store.partition().applicationCallEndpointSets.remove(
+        InMemoryStore.key(applicationIdentifier, callEndpointSetIdentifier));
+  }
+
+  private static ApplicationCallEndpointSetEntity copy(final ApplicationCallEndpointSetEntity instance) {
+    final ApplicationCallEndpointSetEntity ret = new ApplicationCallEndpointSetEntity();
+    ret.setApplicationIdentifier(instance.getApplicationIdentifier());
+    ret.setCallEndpointSetIdentifier(instance.getCallEndpointSetIdentifier());
+    if (instance.getCallEndpointGroupIdentifiers() != null)
+      ret.setCallEndpointGroupIdentifiers(new ArrayList<>(instance.getCallEndpointGroupIdentifiers()));
+    return ret;
+  }
+}
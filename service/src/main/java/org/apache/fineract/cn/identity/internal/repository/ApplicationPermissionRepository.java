@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage for the permissions requested by applications, independent of the database the tenant is provisioned on.
+ */
+public interface ApplicationPermissionRepository {
+
+  void add(ApplicationPermissionEntity entity);
+
+  boolean exists(String applicationIdentifier, String permittableGroupIdentifier);
+
+  List<PermissionType> getAllPermissionsForApplication(String applicationIdentifier);
+
+  void delete(String applicationIdentifier, String permittableGroupIdentifier);
+
+  Optional<PermissionType> getPermissionForApplication(String applicationIdentifier, String permittableEndpointGroupIdentifier);
+
+  default CompletableFuture<Void> addAsync(final ApplicationPermissionEntity entity) {
+    return TenantAwareFutures.run(() -> add(entity));
+  }
+
+  default CompletableFuture<Optional<PermissionType>> getPermissionForApplicationAsync(
+      final String applicationIdentifier,
+      final String permittableEndpointGroupIdentifier) {
+    return TenantAwareFutures.supply(() -> getPermissionForApplication(applicationIdentifier, permittableEndpointGroupIdentifier));
+  }
+}
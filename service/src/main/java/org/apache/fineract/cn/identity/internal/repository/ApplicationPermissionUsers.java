@@ -21,29 +21,31 @@ package org.apache.fineract.cn.identity.internal.repository;
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.schemabuilder.Create;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
-import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareEntityTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @author Myrle Krantz
  */
 @Component
-public class ApplicationPermissionUsers {
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class ApplicationPermissionUsers implements ApplicationPermissionUserRepository {
   static final String TABLE_NAME = "isis_application_permission_users";
   static final String APPLICATION_IDENTIFIER_COLUMN = "application_identifier";
   static final String PERMITTABLE_GROUP_IDENTIFIER_COLUMN = "permittable_group_identifier";
   static final String USER_IDENTIFIER_COLUMN = "user_identifier";
   static final String ENABLED_COLUMN = "enabled";
-  private final CassandraSessionProvider cassandraSessionProvider;
-  private final TenantAwareEntityTemplate tenantAwareEntityTemplate;
+  private final TenantStatementRegistry statements;
 
   @Autowired
-  public ApplicationPermissionUsers(final CassandraSessionProvider cassandraSessionProvider,
-                                    final TenantAwareEntityTemplate tenantAwareEntityTemplate) {
-    this.cassandraSessionProvider = cassandraSessionProvider;
-    this.tenantAwareEntityTemplate = tenantAwareEntityTemplate;
+  public ApplicationPermissionUsers(final TenantStatementRegistry statements) {
+    this.statements = statements;
   }
 
   public void buildTable() {
@@ -54,22 +56,37 @@ public class ApplicationPermissionUsers {
         .addClusteringColumn(USER_IDENTIFIER_COLUMN, DataType.text())
         .addColumn(ENABLED_COLUMN, DataType.cboolean());
 
-    cassandraSessionProvider.getTenantSession().execute(create);
+    statements.execute(create);
   }
 
   public boolean enabled(final String applicationIdentifier,
                          final String permittableEndpointGroupIdentifier,
                          final String userIdentifier) {
-    return tenantAwareEntityTemplate.findById(
-            ApplicationPermissionUsersEntity.class, applicationIdentifier, permittableEndpointGroupIdentifier, userIdentifier)
+    return Optional.ofNullable(statements.get(ApplicationPermissionUsersEntity.class,
+            applicationIdentifier, permittableEndpointGroupIdentifier, userIdentifier))
             .map(ApplicationPermissionUsersEntity::getEnabled)
             .orElse(false);
   }
 
+  public CompletableFuture<Boolean> enabledAsync(final String applicationIdentifier,
+                                                 final String permittableEndpointGroupIdentifier,
+                                                 final String userIdentifier) {
+    return statements.getAsync(ApplicationPermissionUsersEntity.class,
+            applicationIdentifier, permittableEndpointGroupIdentifier, userIdentifier)
+            .thenApply(x -> Optional.ofNullable(x).map(ApplicationPermissionUsersEntity::getEnabled).orElse(false));
+  }
+
   public void setEnabled(final String applicationIdentifier,
                          final String permittableGroupIdentifier,
                          final String userIdentifier,
                          final boolean enabled) {
-    tenantAwareEntityTemplate.save(new ApplicationPermissionUsersEntity(applicationIdentifier, permittableGroupIdentifier, userIdentifier, enabled));
+    statements.save(new ApplicationPermissionUsersEntity(applicationIdentifier, permittableGroupIdentifier, userIdentifier, enabled));
+  }
+
+  public CompletableFuture<Void> setEnabledAsync(final String applicationIdentifier,
+                                                 final String permittableGroupIdentifier,
+                                                 final String userIdentifier,
+                                                 final boolean enabled) {
+    return statements.saveAsync(new ApplicationPermissionUsersEntity(applicationIdentifier, permittableGroupIdentifier, userIdentifier, enabled));
   }
 }
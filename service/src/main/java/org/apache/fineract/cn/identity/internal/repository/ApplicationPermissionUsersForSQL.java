@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class ApplicationPermissionUsersForSQL implements ApplicationPermissionUserRepository {
+  static final String TABLE_NAME = "isis_application_permission_users";
+  static final String APPLICATION_IDENTIFIER_COLUMN = "application_identifier";
+  static final String PERMITTABLE_GROUP_IDENTIFIER_COLUMN = "permittable_group_identifier";
+  static final String USER_IDENTIFIER_COLUMN = "user_identifier";
+  static final String ENABLED_COLUMN = "enabled";
+
+  private static final String UPSERT_STMT = "INSERT INTO " + TABLE_NAME + " ("
+      + APPLICATION_IDENTIFIER_COLUMN + ", " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + ", " + USER_IDENTIFIER_COLUMN + ", " + ENABLED_COLUMN + ")"
+      + " VALUES (?, ?, ?, ?) ON CONFLICT (" + APPLICATION_IDENTIFIER_COLUMN + ", " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + ", " + USER_IDENTIFIER_COLUMN + ")"
+      + " DO UPDATE SET " + ENABLED_COLUMN + " = EXCLUDED." + ENABLED_COLUMN;
+  private static final String FIND_ENABLED_STMT = "SELECT " + ENABLED_COLUMN + " FROM " + TABLE_NAME
+      + " WHERE " + APPLICATION_IDENTIFIER_COLUMN + " = ? AND " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + " = ? AND " + USER_IDENTIFIER_COLUMN + " = ?";
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  ApplicationPermissionUsersForSQL(final TenantAwareJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public boolean enabled(final String applicationIdentifier,
+                         final String permittableEndpointGroupIdentifier,
+                         final String userIdentifier) {
+    return jdbcTemplate.queryForObject(FIND_ENABLED_STMT, statement -> {
+      statement.setString(1, applicationIdentifier);
+      statement.setString(2, permittableEndpointGroupIdentifier);
+      statement.setString(3, userIdentifier);
+    }, resultSet -> resultSet.getBoolean(ENABLED_COLUMN)).orElse(false);
+  }
+
+  @Override
+  public void setEnabled(final String applicationIdentifier,
+                         final String permittableGroupIdentifier,
+                         final String userIdentifier,
+                         final boolean enabled) {
+    jdbcTemplate.update(UPSERT_STMT, statement -> {
+      statement.setString(1, applicationIdentifier);
+      statement.setString(2, permittableGroupIdentifier);
+      statement.setString(3, userIdentifier);
+      statement.setBoolean(4, enabled);
+    });
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class ApplicationPermissionUsersInMemory implements ApplicationPermissionUserRepository {
+  private final InMemoryStore store;
+
+  @Autowired
+  public ApplicationPermissionUsersInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public boolean enabled(
+      final String applicationIdentifier,
+      final String permittableEndpointGroupIdentifier,
+      final String userIdentifier) {
+    return store.partition().applicationPermissionUsers.getOrDefault(
+        InMemoryStore.key(applicationIdentifier, permittableEndpointGroupIdentifier, userIdentifier), false);
+  }
+
+  @Override
+  public void setEnabled(
+      final String applicationIdentifier,
+      final String permittableGroupIdentifier,
+      final String userIdentifier,
+      final boolean enabled) {
+    store.partition().applicationPermissionUsers.put(
+        InMemoryStore.key(applicationIdentifier, permittableGroupIdentifier, userIdentifier), enabled);
+  }
+}
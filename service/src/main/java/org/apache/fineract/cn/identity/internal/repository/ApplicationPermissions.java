@@ -19,43 +19,41 @@
 package org.apache.fineract.cn.identity.internal.repository;
 
 import com.datastax.driver.core.DataType;
-import com.datastax.driver.core.Session;
-import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.schemabuilder.Create;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import com.datastax.driver.mapping.Mapper;
-import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareCassandraMapperProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareEntityTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
  * @author Myrle Krantz
  */
 @Component
-public class ApplicationPermissions {
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class ApplicationPermissions implements ApplicationPermissionRepository {
   static final String TABLE_NAME = "isis_application_permissions";
   static final String APPLICATION_IDENTIFIER_COLUMN = "application_identifier";
   static final String PERMITTABLE_GROUP_IDENTIFIER_COLUMN = "permittable_group_identifier";
   static final String PERMISSION_COLUMN = "permission";
 
-  private final CassandraSessionProvider cassandraSessionProvider;
-  private final TenantAwareEntityTemplate tenantAwareEntityTemplate;
-  private final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider;
+  private static final String SELECT_FOR_APPLICATION = QueryBuilder.select().from(TABLE_NAME)
+      .where(QueryBuilder.eq(APPLICATION_IDENTIFIER_COLUMN, QueryBuilder.bindMarker()))
+      .getQueryString();
+
+  private final TenantStatementRegistry statements;
 
   @Autowired
-  public ApplicationPermissions(final CassandraSessionProvider cassandraSessionProvider,
-                                final TenantAwareEntityTemplate tenantAwareEntityTemplate,
-                                final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider) {
-    this.cassandraSessionProvider = cassandraSessionProvider;
-    this.tenantAwareEntityTemplate = tenantAwareEntityTemplate;
-    this.tenantAwareCassandraMapperProvider = tenantAwareCassandraMapperProvider;
+  public ApplicationPermissions(final TenantStatementRegistry statements) {
+    this.statements = statements;
   }
 
   public void buildTable() {
@@ -65,16 +63,20 @@ public class ApplicationPermissions {
         .addClusteringColumn(PERMITTABLE_GROUP_IDENTIFIER_COLUMN, DataType.text())
         .addUDTColumn(PERMISSION_COLUMN, SchemaBuilder.frozen(Permissions.TYPE_NAME));
 
-    cassandraSessionProvider.getTenantSession().execute(create);
+    statements.execute(create);
 
   }
 
   public void add(final ApplicationPermissionEntity entity) {
-    tenantAwareEntityTemplate.save(entity);
+    statements.save(entity);
+  }
+
+  public CompletableFuture<Void> addAsync(final ApplicationPermissionEntity entity) {
+    return statements.saveAsync(entity);
   }
 
   public boolean exists(final String applicationIdentifier, final String permittableGroupIdentifier) {
-    return tenantAwareEntityTemplate.findById(ApplicationPermissionEntity.class, applicationIdentifier, permittableGroupIdentifier).isPresent();
+    return find(applicationIdentifier, permittableGroupIdentifier).isPresent();
   }
 
   public List<PermissionType> getAllPermissionsForApplication(final String applicationIdentifier) {
@@ -83,25 +85,34 @@ public class ApplicationPermissions {
   }
 
   private List<ApplicationPermissionEntity> getAllApplicationPermissionEntitiesForApplication(final String applicationIdentifier) {
-    final Mapper<ApplicationPermissionEntity> entityMapper = tenantAwareCassandraMapperProvider.getMapper(ApplicationPermissionEntity.class);
-    final Session tenantSession = cassandraSessionProvider.getTenantSession();
-
-    final Statement statement = QueryBuilder.select().from(TABLE_NAME).where(QueryBuilder.eq(APPLICATION_IDENTIFIER_COLUMN, applicationIdentifier));
-
-    return entityMapper.map(tenantSession.execute(statement)).all();
+    final Mapper<ApplicationPermissionEntity> entityMapper = statements.mapper(ApplicationPermissionEntity.class);
+    return entityMapper.map(statements.execute(statements.bind(SELECT_FOR_APPLICATION, applicationIdentifier))).all();
   }
 
   public void delete(final String applicationIdentifier, final String permittableGroupIdentifier) {
-    final Optional<ApplicationPermissionEntity> toDelete = tenantAwareEntityTemplate.findById(ApplicationPermissionEntity.class, applicationIdentifier, permittableGroupIdentifier);
-    toDelete.ifPresent(tenantAwareEntityTemplate::delete);
+    final Optional<ApplicationPermissionEntity> toDelete = find(applicationIdentifier, permittableGroupIdentifier);
+    toDelete.ifPresent(statements::delete);
   }
 
   public Optional<PermissionType> getPermissionForApplication(
           final String applicationIdentifier,
           final String permittableEndpointGroupIdentifier) {
 
-    return tenantAwareEntityTemplate
-            .findById(ApplicationPermissionEntity.class, applicationIdentifier, permittableEndpointGroupIdentifier)
+    return find(applicationIdentifier, permittableEndpointGroupIdentifier)
             .map(ApplicationPermissionEntity::getPermission);
   }
+
+  public CompletableFuture<Optional<PermissionType>> getPermissionForApplicationAsync(
+          final String applicationIdentifier,
+          final String permittableEndpointGroupIdentifier) {
+    return statements.getAsync(ApplicationPermissionEntity.class, applicationIdentifier, permittableEndpointGroupIdentifier)
+            .thenApply(x -> Optional.ofNullable(x).map(ApplicationPermissionEntity::getPermission));
+  }
+
+  private Optional<ApplicationPermissionEntity> find(
+          final String applicationIdentifier,
+          final String permittableGroupIdentifier) {
+    return Optional.ofNullable(statements.get(ApplicationPermissionEntity.class,
+            applicationIdentifier, permittableGroupIdentifier));
+  }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class ApplicationPermissionsForSQL implements ApplicationPermissionRepository {
+  static final String TABLE_NAME = "isis_application_permissions";
+  static final String APPLICATION_IDENTIFIER_COLUMN = "application_identifier";
+  static final String PERMITTABLE_GROUP_IDENTIFIER_COLUMN = "permittable_group_identifier";
+  static final String ALLOWED_OPERATIONS_COLUMN = "allowed_operations";
+
+  private static final String UPSERT_STMT = "INSERT INTO " + TABLE_NAME + " ("
+      + APPLICATION_IDENTIFIER_COLUMN + ", " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + ", " + ALLOWED_OPERATIONS_COLUMN + ")"
+      + " VALUES (?, ?, ?) ON CONFLICT (" + APPLICATION_IDENTIFIER_COLUMN + ", " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + ") DO UPDATE SET "
+      + ALLOWED_OPERATIONS_COLUMN + " = EXCLUDED." + ALLOWED_OPERATIONS_COLUMN;
+  private static final String FIND_ONE_STMT = "SELECT " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + ", " + ALLOWED_OPERATIONS_COLUMN
+      + " FROM " + TABLE_NAME + " WHERE " + APPLICATION_IDENTIFIER_COLUMN + " = ? AND " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + " = ?";
+  private static final String FIND_FOR_APPLICATION_STMT = "SELECT " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + ", " + ALLOWED_OPERATIONS_COLUMN
+      + " FROM " + TABLE_NAME + " WHERE " + APPLICATION_IDENTIFIER_COLUMN + " = ?";
+  private static final String DELETE_STMT = "DELETE FROM " + TABLE_NAME
+      + " WHERE " + APPLICATION_IDENTIFIER_COLUMN + " = ? AND " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + " = ?";
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  ApplicationPermissionsForSQL(final TenantAwareJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void add(final ApplicationPermissionEntity entity) {
+    jdbcTemplate.update(UPSERT_STMT, statement -> {
+      statement.setString(1, entity.getApplicationIdentifier());
+      statement.setString(2, entity.getPermittableGroupIdentifier());
+      statement.setArray(3, TenantAwareJdbcTemplate.allowedOperations(statement, entity.getPermission().getAllowedOperations()));
+    });
+  }
+
+  @Override
+  public boolean exists(final String applicationIdentifier, final String permittableGroupIdentifier) {
+    return getPermissionForApplication(applicationIdentifier, permittableGroupIdentifier).isPresent();
+  }
+
+  @Override
+  public List<PermissionType> getAllPermissionsForApplication(final String applicationIdentifier) {
+    return jdbcTemplate.query(FIND_FOR_APPLICATION_STMT, statement -> statement.setString(1, applicationIdentifier),
+        ApplicationPermissionsForSQL::map);
+  }
+
+  @Override
+  public void delete(final String applicationIdentifier, final String permittableGroupIdentifier) {
+    jdbcTemplate.update(DELETE_STMT, statement -> bindKey(statement, applicationIdentifier, permittableGroupIdentifier));
+  }
+
+  @Override
+  public Optional<PermissionType> getPermissionForApplication(
+          final String applicationIdentifier,
+          final String permittableEndpointGroupIdentifier) {
+    return jdbcTemplate.queryForObject(FIND_ONE_STMT,
+        statement -> bindKey(statement, applicationIdentifier, permittableEndpointGroupIdentifier),
+        ApplicationPermissionsForSQL::map);
+  }
+
+  private static void bindKey(
+      final PreparedStatement statement,
+      final String applicationIdentifier,
+      final String permittableGroupIdentifier) throws SQLException {
+    statement.setString(1, applicationIdentifier);
+    statement.setString(2, permittableGroupIdentifier);
+  }
+
+  private static PermissionType map(final ResultSet resultSet) throws SQLException {
+    return new PermissionType(
+        resultSet.getString(PERMITTABLE_GROUP_IDENTIFIER_COLUMN),
+        TenantAwareJdbcTemplate.allowedOperations(resultSet, ALLOWED_OPERATIONS_COLUMN));
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class ApplicationPermissionsInMemory implements ApplicationPermissionRepository {
+  private final InMemoryStore store;
+
+  @Autowired
+  public ApplicationPermissionsInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public void add(final ApplicationPermissionEntity entity) {
+    final ApplicationPermissionEntity stored = new ApplicationPermissionEntity(
+        entity.getApplicationIdentifier(), RolesInMemory.copy(entity.getPermission()));
+    store.partition().applicationPermissions.put(
+        InMemoryStore.key(stored.getApplicationIdentifier(), stored.getPermittableGroupIdentifier()), stored);
+  }
+
+  @Override
+  public boolean exists(final String applicationIdentifier, final String permittableGroupIdentifier) {
+    return store.partition().applicationPermissions.containsKey(InMemoryStore.key(applicationIdentifier, permittableGroupIdentifier));
+  }
+
+  @Override
+  public List<PermissionType> getAllPermissionsForApplication(final String applicationIdentifier) {
+    return store.partition().applicationPermissions.values().stream()
+        .filter(x -> x.getApplicationIdentifier().equals(applicationIdentifier))
+        .map(x -> RolesInMemory.copy(x.getPermission()))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public void delete(final String applicationIdentifier, final String permittableGroupIdentifier) {
+    store.partition().applicationPermissions.remove(InMemoryStore.key(applicationIdentifier, permittableGroupIdentifier));
+  }
+
+  @Override
+  public Optional<PermissionType> getPermissionForApplication(
+      final String applicationIdentifier,
+      final String permittableEndpointGroupIdentifier) {
+    return Optional.ofNullable(store.partition().applicationPermissions.get(
+        InMemoryStore.key(applicationIdentifier, permittableEndpointGroupIdentifier)))
+        .map(x -> RolesInMemory.copy(x.getPermission()));
+  }
+}
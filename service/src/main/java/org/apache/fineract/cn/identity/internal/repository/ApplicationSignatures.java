@@ -20,46 +20,46 @@ package org.apache.fineract.cn.identity.internal.repository;
 
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.ResultSet;
-import com.datastax.driver.core.Session;
-import com.datastax.driver.core.Statement;
-import com.datastax.driver.core.querybuilder.Delete;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
-import com.datastax.driver.core.querybuilder.Select;
 import com.datastax.driver.core.schemabuilder.Create;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import com.datastax.driver.mapping.Mapper;
-import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareCassandraMapperProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareEntityTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Myrle Krantz
  */
 @Component
-public class ApplicationSignatures {
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class ApplicationSignatures implements ApplicationSignatureRepository {
   static final java.lang.String TABLE_NAME = "isis_application_signatures";
   static final String APPLICATION_IDENTIFIER_COLUMN = "application_identifier";
   static final String KEY_TIMESTAMP_COLUMN = "key_timestamp";
   static final String PUBLIC_KEY_MOD_COLUMN = "public_key_mod";
   static final String PUBLIC_KEY_EXP_COLUMN = "public_key_exp";
 
-  private final CassandraSessionProvider cassandraSessionProvider;
-  private final TenantAwareEntityTemplate tenantAwareEntityTemplate;
-  private final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider;
+  private static final String SELECT_ALL = QueryBuilder.select().all().from(TABLE_NAME).getQueryString();
+  private static final String SELECT_FOR_APPLICATION = QueryBuilder.select().from(TABLE_NAME)
+      .where(QueryBuilder.eq(APPLICATION_IDENTIFIER_COLUMN, QueryBuilder.bindMarker()))
+      .getQueryString();
+  private static final String DELETE_FOR_APPLICATION = QueryBuilder.delete().from(TABLE_NAME)
+      .where(QueryBuilder.eq(APPLICATION_IDENTIFIER_COLUMN, QueryBuilder.bindMarker()))
+      .getQueryString();
+
+  private final TenantStatementRegistry statements;
 
   @Autowired
-  public ApplicationSignatures(final CassandraSessionProvider cassandraSessionProvider,
-                               final TenantAwareEntityTemplate tenantAwareEntityTemplate,
-                               final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider) {
-    this.cassandraSessionProvider = cassandraSessionProvider;
-    this.tenantAwareEntityTemplate = tenantAwareEntityTemplate;
-    this.tenantAwareCassandraMapperProvider = tenantAwareCassandraMapperProvider;
+  public ApplicationSignatures(final TenantStatementRegistry statements) {
+    this.statements = statements;
   }
 
   public void buildTable() {
@@ -70,18 +70,30 @@ public class ApplicationSignatures {
         .addColumn(PUBLIC_KEY_MOD_COLUMN, DataType.varint())
         .addColumn(PUBLIC_KEY_EXP_COLUMN, DataType.varint());
 
-    cassandraSessionProvider.getTenantSession().execute(create);
+    statements.execute(create);
   }
 
   public void add(final ApplicationSignatureEntity entity) {
-    tenantAwareEntityTemplate.save(entity);
+    statements.save(entity);
+  }
+
+  public CompletableFuture<Void> addAsync(final ApplicationSignatureEntity entity) {
+    return statements.saveAsync(entity);
   }
 
   public Optional<ApplicationSignatureEntity> get(final String applicationIdentifier, final String keyTimestamp)
   {
-    final ApplicationSignatureEntity entity =
-            tenantAwareCassandraMapperProvider.getMapper(ApplicationSignatureEntity.class).get(applicationIdentifier, keyTimestamp);
+    return checked(statements.get(ApplicationSignatureEntity.class, applicationIdentifier, keyTimestamp));
+  }
 
+  public CompletableFuture<Optional<ApplicationSignatureEntity>> getAsync(
+      final String applicationIdentifier,
+      final String keyTimestamp) {
+    return statements.getAsync(ApplicationSignatureEntity.class, applicationIdentifier, keyTimestamp)
+        .thenApply(ApplicationSignatures::checked);
+  }
+
+  private static Optional<ApplicationSignatureEntity> checked(final ApplicationSignatureEntity entity) {
     if (entity != null) {
       Assert.notNull(entity.getApplicationIdentifier());
       Assert.notNull(entity.getKeyTimestamp());
@@ -93,24 +105,16 @@ public class ApplicationSignatures {
   }
 
   public List<ApplicationSignatureEntity> getAll() {
-    final Mapper<ApplicationSignatureEntity> entityMapper = tenantAwareCassandraMapperProvider.getMapper(ApplicationSignatureEntity.class);
-    final Session tenantSession = cassandraSessionProvider.getTenantSession();
-
-    final Statement statement = QueryBuilder.select().all().from(TABLE_NAME);
-
-    return entityMapper.map(tenantSession.execute(statement)).all();
+    final Mapper<ApplicationSignatureEntity> entityMapper = statements.mapper(ApplicationSignatureEntity.class);
+    return entityMapper.map(statements.execute(statements.bind(SELECT_ALL))).all();
   }
 
   public void delete(final String applicationIdentifier) {
-    final Delete.Where deleteStatement = QueryBuilder.delete().from(TABLE_NAME)
-            .where(QueryBuilder.eq(APPLICATION_IDENTIFIER_COLUMN, applicationIdentifier));
-    cassandraSessionProvider.getTenantSession().execute(deleteStatement);
+    statements.execute(statements.bind(DELETE_FOR_APPLICATION, applicationIdentifier));
   }
 
   public boolean signaturesExistForApplication(final String applicationIdentifier) {
-    final Select.Where selectStatement = QueryBuilder.select().from(TABLE_NAME)
-            .where(QueryBuilder.eq(APPLICATION_IDENTIFIER_COLUMN, applicationIdentifier));
-    final ResultSet selected = cassandraSessionProvider.getTenantSession().execute(selectStatement);
+    final ResultSet selected = statements.execute(statements.bind(SELECT_FOR_APPLICATION, applicationIdentifier));
     final int count = selected.getAvailableWithoutFetching();
     return count > 0;
   }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class ApplicationSignaturesForSQL implements ApplicationSignatureRepository {
+  static final String TABLE_NAME = "isis_application_signatures";
+  static final String APPLICATION_IDENTIFIER_COLUMN = "application_identifier";
+  static final String KEY_TIMESTAMP_COLUMN = "key_timestamp";
+  static final String PUBLIC_KEY_MOD_COLUMN = "public_key_mod";
+  static final String PUBLIC_KEY_EXP_COLUMN = "public_key_exp";
+
+  private static final String ALL_COLUMNS = APPLICATION_IDENTIFIER_COLUMN + ", " + KEY_TIMESTAMP_COLUMN + ", "
+      + PUBLIC_KEY_MOD_COLUMN + ", " + PUBLIC_KEY_EXP_COLUMN;
+
+  private static final String UPSERT_STMT = "INSERT INTO " + TABLE_NAME + " (" + ALL_COLUMNS + ") VALUES (?, ?, ?, ?)"
+      + " ON CONFLICT (" + APPLICATION_IDENTIFIER_COLUMN + ", " + KEY_TIMESTAMP_COLUMN + ") DO UPDATE SET "
+      + PUBLIC_KEY_MOD_COLUMN + " = EXCLUDED." + PUBLIC_KEY_MOD_COLUMN + ", "
+      + PUBLIC_KEY_EXP_COLUMN + " = EXCLUDED." + PUBLIC_KEY_EXP_COLUMN;
+  private static final String FIND_ONE_STMT = "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME
+      + " WHERE " + APPLICATION_IDENTIFIER_COLUMN + " = ? AND " + KEY_TIMESTAMP_COLUMN + " = ?";
+  private static final String FETCH_ALL_STMT = "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME;
+  private static final String DELETE_STMT = "DELETE FROM " + TABLE_NAME + " WHERE " + APPLICATION_IDENTIFIER_COLUMN + " = ?";
+  private static final String EXISTS_STMT = "SELECT 1 FROM " + TABLE_NAME + " WHERE " + APPLICATION_IDENTIFIER_COLUMN + " = ? LIMIT 1";
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  ApplicationSignaturesForSQL(final TenantAwareJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void add(final ApplicationSignatureEntity entity) {
+    jdbcTemplate.update(UPSERT_STMT, statement -> {
+      statement.setString(1, entity.getApplicationIdentifier());
+      statement.setString(2, entity.getKeyTimestamp());
+      statement.setBigDecimal(3, TenantAwareJdbcTemplate.numeric(entity.getPublicKeyMod()));
+      statement.setBigDecimal(4, TenantAwareJdbcTemplate.numeric(entity.getPublicKeyExp()));
+    });
+  }
+
+  @Override
+  public Optional<ApplicationSignatureEntity> get(final String applicationIdentifier, final String keyTimestamp) {
+    return jdbcTemplate.queryForObject(FIND_ONE_STMT, statement -> {
+      statement.setString(1, applicationIdentifier);
+      statement.setString(2, keyTimestamp);
+    }, ApplicationSignaturesForSQL::map);
+  }
+
+  @Override
+  public List<ApplicationSignatureEntity> getAll() {
+    return jdbcTemplate.query(FETCH_ALL_STMT, ApplicationSignaturesForSQL::map);
+  }
+
+  @Override
+  public void delete(final String applicationIdentifier) {
+    jdbcTemplate.update(DELETE_STMT, statement -> statement.setString(1, applicationIdentifier));
+  }
+
+  @Override
+  public boolean signaturesExistForApplication(final String applicationIdentifier) {
+    return jdbcTemplate.exists(EXISTS_STMT, statement -> statement.setString(1, applicationIdentifier));
+  }
+
+  private static ApplicationSignatureEntity map(final ResultSet resultSet) throws SQLException {
+    final ApplicationSignatureEntity ret = new ApplicationSignatureEntity();
+    ret.setApplicationIdentifier(resultSet.getString(APPLICATION_IDENTIFIER_COLUMN));
+    ret.setKeyTimestamp(resultSet.getString(KEY_TIMESTAMP_COLUMN));
+    ret.setPublicKeyMod(TenantAwareJdbcTemplate.bigInteger(resultSet, PUBLIC_KEY_MOD_COLUMN));
+    ret.setPublicKeyExp(TenantAwareJdbcTemplate.bigInteger(resultSet, PUBLIC_KEY_EXP_COLUMN));
+    return ret;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class ApplicationSignaturesInMemory implements ApplicationSignatureRepository {
+  private final InMemoryStore store;
+
+  @Autowired
+  public ApplicationSignaturesInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public void add(final ApplicationSignatureEntity entity) {
+    store.partition().applicationSignatures.put(
+        InMemoryStore.key(entity.getApplicationIdentifier(), entity.getKeyTimestamp()), copy(entity));
+  }
+
+  @Override
+  public Optional<ApplicationSignatureEntity> get(final String applicationIdentifier, final String keyTimestamp) {
+    return Optional.ofNullable(store.partition().applicationSignatures.get(InMemoryStore.key(applicationIdentifier, keyTimestamp)))
+        .map(ApplicationSignaturesInMemory::copy);
+  }
+
+  @Override
+  public List<ApplicationSignatureEntity> getAll() {
+    return store.partition().applicationSignatures.values().stream()
+        .map(ApplicationSignaturesInMemory::copy)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public void delete(final String applicationIdentifier) {
+    store.partition().applicationSignatures.values()
+        .removeIf(x -> x.getApplicationIdentifier().equals(applicationIdentifier));
+  }
+
+  @Override
+  public boolean signaturesExistForApplication(final String applicationIdentifier) {
+    return store.partition().applicationSignatures.values().stream()
+        .anyMatch(x -> x.getApplicationIdentifier().equals(applicationIdentifier));
+  }
+
+  private static ApplicationSignatureEntity copy(final ApplicationSignatureEntity instance) {
+    final ApplicationSignatureEntity ret = new ApplicationSignatureEntity();
+    ret.setApplicationIdentifier(instance.getApplicationIdentifier());
+    ret.setKeyTimestamp(instance.getKeyTimestamp());
+    ret.setPublicKeyMod(instance.getPublicKeyMod());
+    ret.setPublicKeyExp(instance.getPublicKeyExp());
+    return ret;
+  }
+}
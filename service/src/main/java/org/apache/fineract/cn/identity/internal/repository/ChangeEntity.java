@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.util.Date;
+
+@SuppressWarnings("unused")
+public class ChangeEntity {
+  private long version;
+  private String entityType;
+  private String entityIdentifier;
+  private String operation;
+  private Date createdOn;
+
+  public ChangeEntity() {
+  }
+
+  public ChangeEntity(
+      final String entityType,
+      final String entityIdentifier,
+      final String operation,
+      final Date createdOn) {
+    this.entityType = entityType;
+    this.entityIdentifier = entityIdentifier;
+    this.operation = operation;
+    this.createdOn = createdOn;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  public String getEntityType() {
+    return entityType;
+  }
+
+  public void setEntityType(String entityType) {
+    this.entityType = entityType;
+  }
+
+  public String getEntityIdentifier() {
+    return entityIdentifier;
+  }
+
+  public void setEntityIdentifier(String entityIdentifier) {
+    this.entityIdentifier = entityIdentifier;
+  }
+
+  public String getOperation() {
+    return operation;
+  }
+
+  public void setOperation(String operation) {
+    this.operation = operation;
+  }
+
+  public Date getCreatedOn() {
+    return createdOn;
+  }
+
+  public void setCreatedOn(Date createdOn) {
+    this.createdOn = createdOn;
+  }
+}
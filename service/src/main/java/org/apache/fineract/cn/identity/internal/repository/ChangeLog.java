@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.schemabuilder.SchemaBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Versions are handed out by a compare-and-set on a single head row, so they are dense and ordered across instances.
+ * Each instance remembers the last head it saw per tenant and tries to move the head on from there.  A compare-and-set
+ * which wasn't applied returns the current head, so a retry needs no separate read, and usually a write takes a single
+ * Paxos round.  The head is only read, with serial consistency, when this instance hasn't seen it yet.  Changes are
+ * spread over partitions of {@link #BUCKET_SIZE} versions each.
+ */
+@Component
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class ChangeLog implements ChangeLogRepository {
+  static final String TABLE_NAME = "isis_change_log";
+  static final String HEAD_TABLE_NAME = "isis_change_log_head";
+  static final String BUCKET_COLUMN = "bucket";
+  static final String VERSION_COLUMN = "version";
+  static final String ENTITY_TYPE_COLUMN = "entity_type";
+  static final String ENTITY_IDENTIFIER_COLUMN = "entity_identifier";
+  static final String OPERATION_COLUMN = "operation";
+  static final String CREATED_ON_COLUMN = "created_on";
+  static final String HEAD_ID_COLUMN = "id";
+
+  static final long BUCKET_SIZE = 10000;
+  private static final int HEAD_ID = 1;
+  private static final int MAXIMUM_APPEND_ATTEMPTS = 50;
+
+  private static final String SELECT_HEAD = "SELECT " + VERSION_COLUMN + " FROM " + HEAD_TABLE_NAME
+      + " WHERE " + HEAD_ID_COLUMN + " = ?";
+  private static final String INSERT_HEAD = "INSERT INTO " + HEAD_TABLE_NAME
+      + " (" + HEAD_ID_COLUMN + ", " + VERSION_COLUMN + ") VALUES (?, ?) IF NOT EXISTS";
+  private static final String UPDATE_HEAD = "UPDATE " + HEAD_TABLE_NAME + " SET " + VERSION_COLUMN + " = ?"
+      + " WHERE " + HEAD_ID_COLUMN + " = ? IF " + VERSION_COLUMN + " = ?";
+  private static final String INSERT = "INSERT INTO " + TABLE_NAME + " ("
+      + BUCKET_COLUMN + ", "
+      + VERSION_COLUMN + ", "
+      + ENTITY_TYPE_COLUMN + ", "
+      + ENTITY_IDENTIFIER_COLUMN + ", "
+      + OPERATION_COLUMN + ", "
+      + CREATED_ON_COLUMN + ") VALUES (?, ?, ?, ?, ?, ?)";
+  private static final String SELECT_SINCE = "SELECT * FROM " + TABLE_NAME
+      + " WHERE " + BUCKET_COLUMN + " = ? AND " + VERSION_COLUMN + " > ? LIMIT ?";
+
+  private final TenantStatementRegistry statements;
+  private final ConcurrentHashMap<String, Long> lastSeenHeads = new ConcurrentHashMap<>();
+
+  @Autowired
+  ChangeLog(final TenantStatementRegistry statements) {
+    this.statements = statements;
+  }
+
+  public void buildTable() {
+    statements.execute(SchemaBuilder.createTable(HEAD_TABLE_NAME)
+        .ifNotExists()
+        .addPartitionKey(HEAD_ID_COLUMN, DataType.cint())
+        .addColumn(VERSION_COLUMN, DataType.bigint()));
+
+    statements.execute(SchemaBuilder.createTable(TABLE_NAME)
+        .ifNotExists()
+        .addPartitionKey(BUCKET_COLUMN, DataType.bigint())
+        .addClusteringColumn(VERSION_COLUMN, DataType.bigint())
+        .addColumn(ENTITY_TYPE_COLUMN, DataType.text())
+        .addColumn(ENTITY_IDENTIFIER_COLUMN, DataType.text())
+        .addColumn(OPERATION_COLUMN, DataType.text())
+        .addColumn(CREATED_ON_COLUMN, DataType.timestamp()));
+  }
+
+  @Override
+  public long append(final ChangeEntity change) {
+    //The tables don't exist until the tenant is provisioned again, so the change isn't logged.
+    if (!statements.hasTable(HEAD_TABLE_NAME))
+      return 0;
+
+    final long version = claimNextVersion();
+
+    statements.execute(statements.bind(INSERT,
+        version / BUCKET_SIZE,
+        version,
+        change.getEntityType(),
+        change.getEntityIdentifier(),
+        change.getOperation(),
+        change.getCreatedOn()));
+    return version;
+  }
+
+  @Override
+  public List<ChangeEntity> getSince(final long since, final int limit) {
+    if (!statements.hasTable(TABLE_NAME))
+      return Collections.emptyList();
+
+    final List<ChangeEntity> ret = new ArrayList<>();
+    for (final long bucket : buckets(since, getLatestVersion())) {
+      if (ret.size() >= limit)
+        break;
+      final ResultSet result = statements.execute(statements.bind(SELECT_SINCE, bucket, since, limit - ret.size()));
+      result.forEach(row -> ret.add(map(row)));
+    }
+    return ret;
+  }
+
+  @Override
+  public long getLatestVersion() {
+    if (!statements.hasTable(HEAD_TABLE_NAME))
+      return 0;
+
+    final Row head = statements.execute(statements.bind(SELECT_HEAD, HEAD_ID)).one();
+    return head == null ? 0 : head.getLong(VERSION_COLUMN);
+  }
+
+  /**
+   * The buckets which can hold versions after since, up to the bucket of the latest version.
+   */
+  static List<Long> buckets(final long since, final long latestVersion) {
+    return LongStream.rangeClosed((since + 1) / BUCKET_SIZE, latestVersion / BUCKET_SIZE)
+        .boxed()
+        .collect(Collectors.toList());
+  }
+
+  private long claimNextVersion() {
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    Long current = lastSeenHeads.get(tenant);
+    if (current == null)
+      current = readHeadSerially();
+
+    for (int attempt = 0; attempt < MAXIMUM_APPEND_ATTEMPTS; attempt++) {
+      final long next = current == null ? 1 : current + 1;
+      final Row result = current == null
+          ? statements.execute(statements.bind(INSERT_HEAD, HEAD_ID, next)).one()
+          : statements.execute(statements.bind(UPDATE_HEAD, next, HEAD_ID, current)).one();
+      if (result.getBool("[applied]")) {
+        lastSeenHeads.put(tenant, next);
+        return next;
+      }
+      current = headIn(result);
+    }
+    lastSeenHeads.remove(tenant);
+    throw new IllegalStateException("Could not claim a change log version after " + MAXIMUM_APPEND_ATTEMPTS + " attempts.");
+  }
+
+  private Long readHeadSerially() {
+    final Row head = statements.execute(statements.bind(SELECT_HEAD, HEAD_ID)
+        .setConsistencyLevel(ConsistencyLevel.SERIAL)).one();
+    return head == null ? null : head.getLong(VERSION_COLUMN);
+  }
+
+  /**
+   * A compare-and-set which wasn't applied returns the row as it is, or only the applied flag if there is no row.
+   */
+  private static Long headIn(final Row result) {
+    return result.getColumnDefinitions().contains(VERSION_COLUMN) && !result.isNull(VERSION_COLUMN)
+        ? result.getLong(VERSION_COLUMN)
+        : null;
+  }
+
+  private static ChangeEntity map(final Row row) {
+    final ChangeEntity ret = new ChangeEntity(
+        row.getString(ENTITY_TYPE_COLUMN),
+        row.getString(ENTITY_IDENTIFIER_COLUMN),
+        row.getString(OPERATION_COLUMN),
+        row.getTimestamp(CREATED_ON_COLUMN));
+    ret.setVersion(row.getLong(VERSION_COLUMN));
+    return ret;
+  }
+}
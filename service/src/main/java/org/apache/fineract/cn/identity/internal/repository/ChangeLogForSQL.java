@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends take an exclusive lock on the table for the length of their transaction, so versions are committed in
+ * order.  Readers are not blocked by it.
+ */
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class ChangeLogForSQL implements ChangeLogRepository {
+  static final String TABLE_NAME = "isis_change_log";
+  static final String VERSION_COLUMN = "version";
+  static final String ENTITY_TYPE_COLUMN = "entity_type";
+  static final String ENTITY_IDENTIFIER_COLUMN = "entity_identifier";
+  static final String OPERATION_COLUMN = "operation";
+  static final String CREATED_ON_COLUMN = "created_on";
+
+  private static final String LOCK_STMT = "LOCK TABLE " + TABLE_NAME + " IN EXCLUSIVE MODE";
+  private static final String INSERT_STMT = "INSERT INTO " + TABLE_NAME + " ("
+      + VERSION_COLUMN + ", " + ENTITY_TYPE_COLUMN + ", " + ENTITY_IDENTIFIER_COLUMN + ", "
+      + OPERATION_COLUMN + ", " + CREATED_ON_COLUMN + ")"
+      + " SELECT COALESCE(MAX(" + VERSION_COLUMN + "), 0) + 1, ?, ?, ?, ? FROM " + TABLE_NAME
+      + " RETURNING " + VERSION_COLUMN;
+  private static final String FIND_SINCE_STMT = "SELECT * FROM " + TABLE_NAME
+      + " WHERE " + VERSION_COLUMN + " > ? ORDER BY " + VERSION_COLUMN + " LIMIT ?";
+  private static final String FIND_LATEST_STMT = "SELECT MAX(" + VERSION_COLUMN + ") AS " + VERSION_COLUMN
+      + " FROM " + TABLE_NAME;
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  ChangeLogForSQL(final TenantAwareJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public long append(final ChangeEntity change) {
+    return jdbcTemplate.inTransaction(connection -> {
+      try (final Statement lock = connection.createStatement()) {
+        lock.execute(LOCK_STMT);
+      }
+      try (final PreparedStatement statement = connection.prepareStatement(INSERT_STMT)) {
+        statement.setString(1, change.getEntityType());
+        statement.setString(2, change.getEntityIdentifier());
+        statement.setString(3, change.getOperation());
+        statement.setTimestamp(4, new Timestamp(change.getCreatedOn().getTime()));
+        try (final ResultSet resultSet = statement.executeQuery()) {
+          resultSet.next();
+          return resultSet.getLong(VERSION_COLUMN);
+        }
+      }
+    });
+  }
+
+  @Override
+  public List<ChangeEntity> getSince(final long since, final int limit) {
+    return jdbcTemplate.query(FIND_SINCE_STMT, statement -> {
+      statement.setLong(1, since);
+      statement.setInt(2, limit);
+    }, resultSet -> {
+      final ChangeEntity ret = new ChangeEntity(
+          resultSet.getString(ENTITY_TYPE_COLUMN),
+          resultSet.getString(ENTITY_IDENTIFIER_COLUMN),
+          resultSet.getString(OPERATION_COLUMN),
+          resultSet.getTimestamp(CREATED_ON_COLUMN));
+      ret.setVersion(resultSet.getLong(VERSION_COLUMN));
+      return ret;
+    });
+  }
+
+  @Override
+  public long getLatestVersion() {
+    return jdbcTemplate.queryForObject(FIND_LATEST_STMT, statement -> { },
+        resultSet -> resultSet.getLong(VERSION_COLUMN)).orElse(0L);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class ChangeLogInMemory implements ChangeLogRepository {
+  private static final String TABLE_NAME = "isis_change_log";
+
+  private final InMemoryStore store;
+
+  @Autowired
+  public ChangeLogInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public long append(final ChangeEntity change) {
+    return store.locked(TABLE_NAME, "", () -> {
+      final long version = getLatestVersion() + 1;
+      final ChangeEntity stored = copy(change);
+      stored.setVersion(version);
+      store.partition().changes.put(version, stored);
+      return version;
+    });
+  }
+
+  @Override
+  public List<ChangeEntity> getSince(final long since, final int limit) {
+    return store.partition().changes.tailMap(since, false).values().stream()
+        .limit(limit)
+        .map(ChangeLogInMemory::copy)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public long getLatestVersion() {
+    final Map.Entry<Long, ChangeEntity> last = store.partition().changes.lastEntry();
+    return last == null ? 0 : last.getKey();
+  }
+
+  private static ChangeEntity copy(final ChangeEntity change) {
+    final ChangeEntity ret = new ChangeEntity(
+        change.getEntityType(), change.getEntityIdentifier(), change.getOperation(), change.getCreatedOn());
+    ret.setVersion(change.getVersion());
+    return ret;
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.util.List;
+
+/**
+ * The append-only, per-tenant log of changes to users, roles, permittable groups and applications.  Versions are
+ * assigned in order, starting at one.
+ */
+public interface ChangeLogRepository {
+
+  /**
+   * Assigns the next version to the change and stores it.
+   *
+   * @return the assigned version.
+   */
+  long append(ChangeEntity change);
+
+  /**
+   * @return at most limit changes with a version greater than since, ordered by version.  A version may be missing if
+   * its change is still being written, or if writing it failed.
+   */
+  List<ChangeEntity> getSince(long since, int limit);
+
+  long getLatestVersion();
+}
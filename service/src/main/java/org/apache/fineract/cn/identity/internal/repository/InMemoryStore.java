@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import com.datastax.driver.core.LocalDate;
+import com.google.common.util.concurrent.Striped;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the tenant data of the memory profile.  Each tenant gets its own partition of concurrent maps, so reads
+ * never block.  Changes which read before they write are serialized on a striped lock per tenant and row.
+ *
+ * If identity.memory.snapshotFile is set, the partitions are read from that file at startup, and written back to it
+ * at shutdown and every identity.memory.snapshotIntervalInSeconds, if that is positive.  A snapshot is consistent
+ * per row, but not across rows.
+ */
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class InMemoryStore {
+  public static final String PROFILE = "memory";
+
+  private static final Type PARTITIONS_TYPE = new TypeToken<Map<String, Partition>>(){}.getType();
+
+  private final Logger logger;
+  private final Striped<Lock> locks;
+  private final Path snapshotFile;
+  private final long snapshotIntervalInSeconds;
+  private final Gson gson;
+  private final ConcurrentHashMap<String, Partition> partitions = new ConcurrentHashMap<>();
+  private ScheduledExecutorService snapshotExecutor;
+
+  @Autowired
+  public InMemoryStore(
+      @Qualifier(IdentityConstants.LOGGER_NAME) final Logger logger,
+      @Value("${identity.memory.lockStripes:256}") final int lockStripes,
+      @Value("${identity.memory.snapshotFile:}") final String snapshotFile,
+      @Value("${identity.memory.snapshotIntervalInSeconds:0}") final long snapshotIntervalInSeconds) {
+    this.logger = logger;
+    this.locks = Striped.lock(lockStripes);
+    this.snapshotFile = snapshotFile.isEmpty() ? null : Paths.get(snapshotFile);
+    this.snapshotIntervalInSeconds = snapshotIntervalInSeconds;
+    this.gson = new GsonBuilder()
+        .registerTypeHierarchyAdapter(ByteBuffer.class, new ByteBufferAdapter().nullSafe())
+        .registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
+        .create();
+  }
+
+  static final class Partition {
+    final ConcurrentSkipListMap<String, UserEntity> users = new ConcurrentSkipListMap<>();
+    final ConcurrentSkipListSet<String> usersByRole = new ConcurrentSkipListSet<>();
+    final ConcurrentHashMap<String, RoleEntity> roles = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, PermittableGroupEntity> permittableGroups = new ConcurrentHashMap<>();
+    final ConcurrentSkipListMap<String, SignatureEntity> signatures = new ConcurrentSkipListMap<>();
+    final ConcurrentSkipListMap<String, PrivateSignatureEntity> privateSignatures = new ConcurrentSkipListMap<>();
+    volatile PrivateTenantInfoEntity privateTenantInfo;
+    volatile PasswordHashPolicyEntity passwordHashPolicy;
+    final ConcurrentHashMap<String, ApplicationSignatureEntity> applicationSignatures = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, ApplicationPermissionEntity> applicationPermissions = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, Boolean> applicationPermissionUsers = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, ApplicationCallEndpointSetEntity> applicationCallEndpointSets = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, Long> resourceVersions = new ConcurrentHashMap<>();
+    final ConcurrentSkipListMap<Long, ChangeEntity> changes = new ConcurrentSkipListMap<>();
+  }
+
+  static String key(final String... parts) {
+    return String.join("\u0000", parts);
+  }
+
+  Partition partition() {
+    return partitions.computeIfAbsent(TenantContextHolder.checkedGetIdentifier(), x -> new Partition());
+  }
+
+  <T> T locked(final String table, final String row, final Supplier<T> change) {
+    final Lock lock = locks.get(key(TenantContextHolder.checkedGetIdentifier(), table, row));
+    lock.lock();
+    try {
+      return change.get();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  void locked(final String table, final String row, final Runnable change) {
+    locked(table, row, () -> {
+      change.run();
+      return null;
+    });
+  }
+
+  @PostConstruct
+  void restore() {
+    if (snapshotFile != null && Files.exists(snapshotFile)) {
+      try (final Reader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+        final Map<String, Partition> restored = gson.fromJson(reader, PARTITIONS_TYPE);
+        if (restored != null)
+          partitions.putAll(restored);
+        logger.info("Restored {} tenants from snapshot '{}'.", partitions.size(), snapshotFile);
+      }
+      catch (final IOException | JsonParseException e) {
+        throw new IllegalStateException("Could not restore snapshot '" + snapshotFile + "'.", e);
+      }
+    }
+
+    if (snapshotFile != null && snapshotIntervalInSeconds > 0) {
+      snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "identity-memory-snapshot");
+        thread.setDaemon(true);
+        return thread;
+      });
+      snapshotExecutor.scheduleWithFixedDelay(this::snapshotQuietly,
+          snapshotIntervalInSeconds, snapshotIntervalInSeconds, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Writes all partitions to the snapshot file, replacing the previous snapshot only once the new one is complete.
+   * Does nothing if no snapshot file is configured.
+   */
+  public synchronized void snapshot() throws IOException {
+    if (snapshotFile == null)
+      return;
+
+    final Path absolute = snapshotFile.toAbsolutePath();
+    final Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+    try (final Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+      gson.toJson(partitions, PARTITIONS_TYPE, writer);
+    }
+    Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private void snapshotQuietly() {
+    try {
+      snapshot();
+    }
+    catch (final IOException | RuntimeException e) {
+      logger.warn("Could not write snapshot '{}'.", snapshotFile, e);
+    }
+  }
+
+  @PreDestroy
+  void close() {
+    if (snapshotExecutor != null)
+      snapshotExecutor.shutdownNow();
+    snapshotQuietly();
+  }
+
+  private static class ByteBufferAdapter extends TypeAdapter<ByteBuffer> {
+    @Override
+    public void write(final JsonWriter out, final ByteBuffer value) throws IOException {
+      final ByteBuffer readable = value.duplicate();
+      final byte[] bytes = new byte[readable.remaining()];
+      readable.get(bytes);
+      out.value(Base64.getEncoder().encodeToString(bytes));
+    }
+
+    @Override
+    public ByteBuffer read(final JsonReader in) throws IOException {
+      return ByteBuffer.wrap(Base64.getDecoder().decode(in.nextString()));
+    }
+  }
+
+  private static class LocalDateAdapter extends TypeAdapter<LocalDate> {
+    @Override
+    public void write(final JsonWriter out, final LocalDate value) throws IOException {
+      out.value(value.getDaysSinceEpoch());
+    }
+
+    @Override
+    public LocalDate read(final JsonReader in) throws IOException {
+      return LocalDate.fromDaysSinceEpoch(in.nextInt());
+    }
+  }
+}
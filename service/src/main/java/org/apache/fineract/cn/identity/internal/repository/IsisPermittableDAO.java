@@ -24,10 +24,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
 public class IsisPermittableDAO {
@@ -57,15 +55,13 @@ public class IsisPermittableDAO {
             }
         }
 
-        List<IsisPermittableDAO> collect() throws SQLException {
-            final ArrayList<IsisPermittableDAO> isisPermittableDAOS = new ArrayList<>();
+        void forEach(final Consumer<IsisPermittableDAO> consumer) throws SQLException {
             while (this.resultSet.next()) {
                 final IsisPermittableDAO isisPermittableDAO = new IsisPermittableDAO();
-                isisPermittableDAOS.add(isisPermittableDAO);
                 isisPermittableDAO.setIdentifier(this.resultSet.getString("identifier"));
                 isisPermittableDAO.setPermittables(this.resultSet.getString("permittables"));
+                consumer.accept(isisPermittableDAO);
             }
-            return isisPermittableDAOS;
         }
     }
 
@@ -75,10 +71,11 @@ public class IsisPermittableDAO {
     private static final String TABLE_NAME = "isis_permittable_groups";
     private static final String FETCH_ALL_STMT = " SELECT * FROM " + IsisPermittableDAO.TABLE_NAME;
     private static final String FIND_ONE_STMT = " SELECT * FROM " + IsisPermittableDAO.TABLE_NAME + " WHERE identifier = ?";
-    private static final String INSERT_STMT = " INSERT INTO " + IsisPermittableDAO.TABLE_NAME +
+    private static final String UPSERT_STMT = " INSERT INTO " + IsisPermittableDAO.TABLE_NAME +
             " (identifier, permittables) " +
             " values " +
-            " (?, ?) ";
+            " (?, CAST(? AS jsonb)) " +
+            " ON CONFLICT (identifier) DO UPDATE SET permittables = EXCLUDED.permittables ";
     private static final String DELETE_STMT = " DELETE FROM " + IsisPermittableDAO.TABLE_NAME + " WHERE identifier = ? ";
 
     private String identifier;
@@ -107,10 +104,16 @@ public class IsisPermittableDAO {
         }
     }
 
-    public static List<IsisPermittableDAO> fetchAll(final Connection connection) throws SQLException {
-        try (final Statement fetchAllTenantsStatement = connection.createStatement()) {
-            try (final ResultSet resultSet = fetchAllTenantsStatement.executeQuery(IsisPermittableDAO.FETCH_ALL_STMT)) {
-                return IsisPermittableDAO.create(resultSet).collect();
+    /**
+     * Hands each row to the consumer as it is read.  The driver only honours the fetch size inside a transaction,
+     * so the connection must not be in auto-commit mode.
+     */
+    public static void fetchAll(final Connection connection, final int fetchSize,
+                                final Consumer<IsisPermittableDAO> consumer) throws SQLException {
+        try (final PreparedStatement fetchAllStatement = connection.prepareStatement(IsisPermittableDAO.FETCH_ALL_STMT)) {
+            fetchAllStatement.setFetchSize(fetchSize);
+            try (final ResultSet resultSet = fetchAllStatement.executeQuery()) {
+                IsisPermittableDAO.create(resultSet).forEach(consumer);
             }
         }
     }
@@ -122,8 +125,8 @@ public class IsisPermittableDAO {
         }
     }
 
-    public void insert(final Connection connection) throws SQLException {
-        try (final PreparedStatement insertTenantStatement = connection.prepareStatement(IsisPermittableDAO.INSERT_STMT)) {
+    public void upsert(final Connection connection) throws SQLException {
+        try (final PreparedStatement insertTenantStatement = connection.prepareStatement(IsisPermittableDAO.UPSERT_STMT)) {
             insertTenantStatement.setString(INDEX_IDENTIFIER, this.getIdentifier());
             insertTenantStatement.setString(INDEX_PERMITTABLE, this.getPermittables());
             insertTenantStatement.execute();
@@ -153,7 +156,7 @@ public class IsisPermittableDAO {
     public void setPermittables(String permittables){
         this.permittables = permittables;
     }
-    private String getPermittables() {
+    public String getPermittables() {
         return this.permittables;
     }
 
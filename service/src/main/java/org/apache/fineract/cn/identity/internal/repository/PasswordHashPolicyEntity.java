@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+/**
+ * The tenant's password hashing policy.  Both configured values are optional; see
+ * {@link org.apache.fineract.cn.identity.internal.service.PasswordHashPolicyService} for how they are resolved.
+ * The calibrated iteration count is the target verification time converted when the policy was set, so that
+ * every instance hashes with the same count.
+ */
+@SuppressWarnings("unused")
+public class PasswordHashPolicyEntity {
+  private Integer iterationCount;
+  private Integer targetVerificationMillis;
+  private Integer calibratedIterationCount;
+
+  public PasswordHashPolicyEntity() { }
+
+  public Integer getIterationCount() {
+    return iterationCount;
+  }
+
+  public void setIterationCount(Integer iterationCount) {
+    this.iterationCount = iterationCount;
+  }
+
+  public Integer getTargetVerificationMillis() {
+    return targetVerificationMillis;
+  }
+
+  public void setTargetVerificationMillis(Integer targetVerificationMillis) {
+    this.targetVerificationMillis = targetVerificationMillis;
+  }
+
+  public Integer getCalibratedIterationCount() {
+    return calibratedIterationCount;
+  }
+
+  public void setCalibratedIterationCount(Integer calibratedIterationCount) {
+    this.calibratedIterationCount = calibratedIterationCount;
+  }
+}
@@ -22,8 +22,15 @@ package org.apache.fineract.cn.identity.internal.repository;
 import com.datastax.driver.mapping.annotations.Field;
 import com.datastax.driver.mapping.annotations.UDT;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @author Myrle Krantz
@@ -83,4 +90,52 @@ public class PermissionType {
             ", allowedOperations=" + allowedOperations +
             '}';
   }
+
+  /**
+   * Applies a change of a role's permissions to a list of them.  A replaced permission keeps its place, new ones are
+   * appended.
+   */
+  static List<PermissionType> change(
+      final List<PermissionType> permissions,
+      final List<PermissionType> add,
+      final Collection<String> remove) {
+    final List<PermissionType> ret = permissions.stream()
+        .filter(x -> !remove.contains(x.getPermittableGroupIdentifier()))
+        .collect(Collectors.toCollection(ArrayList::new));
+
+    for (final PermissionType permission : add) {
+      final int position = positionOf(ret, permission.getPermittableGroupIdentifier());
+      if (position < 0)
+        ret.add(permission);
+      else
+        ret.set(position, permission);
+    }
+
+    return ret;
+  }
+
+  /**
+   * Merges permissions for the same permittable group into one, which allows all of their operations, at the place of
+   * the first.
+   */
+  public static List<PermissionType> merged(final List<PermissionType> permissions) {
+    final Map<String, Set<AllowedOperationType>> ret = new LinkedHashMap<>();
+    for (final PermissionType permission : permissions) {
+      final Set<AllowedOperationType> allowedOperations = ret.computeIfAbsent(permission.getPermittableGroupIdentifier(),
+          x -> EnumSet.noneOf(AllowedOperationType.class));
+      if (permission.getAllowedOperations() != null)
+        allowedOperations.addAll(permission.getAllowedOperations());
+    }
+    return ret.entrySet().stream()
+        .map(x -> new PermissionType(x.getKey(), x.getValue()))
+        .collect(Collectors.toList());
+  }
+
+  private static int positionOf(final List<PermissionType> permissions, final String permittableGroupIdentifier) {
+    for (int i = 0; i < permissions.size(); i++) {
+      if (permissions.get(i).getPermittableGroupIdentifier().equals(permittableGroupIdentifier))
+        return i;
+    }
+    return -1;
+  }
 }
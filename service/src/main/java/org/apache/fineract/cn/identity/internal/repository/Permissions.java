@@ -23,6 +23,8 @@ import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
 import org.apache.fineract.cn.cassandra.util.CodecRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
@@ -31,6 +33,8 @@ import javax.annotation.PostConstruct;
  * @author Myrle Krantz
  */
 @Component
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
 public class Permissions {
 
   static final String TYPE_NAME = "isis_permission";
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage for permittable groups, independent of the database the tenant is provisioned on.
+ */
+public interface PermittableGroupRepository {
+
+  void add(PermittableGroupEntity instance);
+
+  Optional<PermittableGroupEntity> get(String identifier);
+
+  List<PermittableGroupEntity> getAll();
+
+  /**
+   * Removes the group's endpoints with the same path and method as those in remove, then appends those in add
+   * which the group doesn't have yet, without rewriting the group's other endpoints.
+   *
+   * @return false if the group doesn't exist.
+   */
+  boolean changePermittables(String identifier, List<PermittableType> add, List<PermittableType> remove);
+
+  /**
+   * @return false if {@link #changePermittables} isn't possible until the tenant is provisioned again.
+   */
+  default boolean canChangePermittables() {
+    return true;
+  }
+
+  default CompletableFuture<Void> addAsync(final PermittableGroupEntity instance) {
+    return TenantAwareFutures.run(() -> add(instance));
+  }
+
+  default CompletableFuture<Optional<PermittableGroupEntity>> getAsync(final String identifier) {
+    return TenantAwareFutures.supply(() -> get(identifier));
+  }
+}
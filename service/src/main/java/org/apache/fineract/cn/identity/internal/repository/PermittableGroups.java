@@ -18,8 +18,9 @@
  */
 package org.apache.fineract.cn.identity.internal.repository;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.DataType;
-import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.schemabuilder.Create;
@@ -27,22 +28,39 @@ import com.datastax.driver.core.schemabuilder.CreateType;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import com.datastax.driver.mapping.Mapper;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareCassandraMapperProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareEntityTemplate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
 /**
+ * A group's endpoints are kept one per row in isis_permittable_group_endpoints, so that single endpoints can be added
+ * or removed without rewriting the others.  All of a group's rows are in one partition, so a group is read in one
+ * query, and the partition's static migrated column marks that the rows are the group's endpoints.  Methods are
+ * stored upper-cased.
+ *
+ * Groups written before that table existed keep their endpoints in the frozen list of isis_permittable_groups.  These
+ * are read from there until the group's endpoints are next changed, which moves them into the table in one
+ * conditional batch.
+ *
  * @author Myrle Krantz
  */
 @Component
-//@Profile("cassandra")
-public class PermittableGroups {
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class PermittableGroups implements PermittableGroupRepository {
   static final String TABLE_NAME = "isis_permittable_groups";
   static final String IDENTIFIER_COLUMN = "identifier";
   static final String PERMITTABLES_COLUMN = "permittables";
@@ -52,18 +70,38 @@ public class PermittableGroups {
   static final String METHOD_FIELD = "method";
   static final String SOURCE_GROUP_ID_FIELD = "source_group_id";
 
-  private final CassandraSessionProvider cassandraSessionProvider;
-  private final TenantAwareEntityTemplate tenantAwareEntityTemplate;
-  private final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider;
+  static final String ENDPOINTS_TABLE_NAME = "isis_permittable_group_endpoints";
+  static final String GROUP_IDENTIFIER_COLUMN = "group_identifier";
+  static final String PATH_COLUMN = "path";
+  static final String METHOD_COLUMN = "method";
+  static final String SOURCE_GROUP_ID_COLUMN = "source_group_id";
+  static final String POSITION_COLUMN = "position";
+  static final String MIGRATED_COLUMN = "migrated";
+
+  private static final String SELECT_ALL = QueryBuilder.select().all().from(TABLE_NAME).getQueryString();
+  private static final String SELECT_ENDPOINTS = "SELECT " + GROUP_IDENTIFIER_COLUMN + ", " + PATH_COLUMN + ", " + METHOD_COLUMN
+      + ", " + SOURCE_GROUP_ID_COLUMN + ", " + POSITION_COLUMN + ", " + MIGRATED_COLUMN + " FROM " + ENDPOINTS_TABLE_NAME;
+  private static final String SELECT_GROUP_ENDPOINTS = SELECT_ENDPOINTS + " WHERE " + GROUP_IDENTIFIER_COLUMN + " = ?";
+  private static final String INSERT_ENDPOINT = "INSERT INTO " + ENDPOINTS_TABLE_NAME + " ("
+      + GROUP_IDENTIFIER_COLUMN + ", " + PATH_COLUMN + ", " + METHOD_COLUMN + ", " + SOURCE_GROUP_ID_COLUMN + ", " + POSITION_COLUMN
+      + ") VALUES (?, ?, ?, ?, ?)";
+  private static final String INSERT_ENDPOINT_AT = INSERT_ENDPOINT + " USING TIMESTAMP ?";
+  private static final String MARK_MIGRATED_AT = "UPDATE " + ENDPOINTS_TABLE_NAME + " USING TIMESTAMP ?"
+      + " SET " + MIGRATED_COLUMN + " = true WHERE " + GROUP_IDENTIFIER_COLUMN + " = ?";
+  private static final String MARK_MIGRATED_IF_NOT_YET = "UPDATE " + ENDPOINTS_TABLE_NAME
+      + " SET " + MIGRATED_COLUMN + " = true WHERE " + GROUP_IDENTIFIER_COLUMN + " = ? IF " + MIGRATED_COLUMN + " = null";
+  private static final String DELETE_ENDPOINT = "DELETE FROM " + ENDPOINTS_TABLE_NAME
+      + " WHERE " + GROUP_IDENTIFIER_COLUMN + " = ? AND " + PATH_COLUMN + " = ? AND " + METHOD_COLUMN + " = ?";
+  private static final String DELETE_ENDPOINTS = "DELETE FROM " + ENDPOINTS_TABLE_NAME
+      + " WHERE " + GROUP_IDENTIFIER_COLUMN + " = ?";
+  private static final String DELETE_ENDPOINTS_AT = "DELETE FROM " + ENDPOINTS_TABLE_NAME + " USING TIMESTAMP ?"
+      + " WHERE " + GROUP_IDENTIFIER_COLUMN + " = ?";
+
+  private final TenantStatementRegistry statements;
 
   @Autowired
-  PermittableGroups(
-          final CassandraSessionProvider cassandraSessionProvider,
-          final TenantAwareEntityTemplate tenantAwareEntityTemplate,
-          final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider) {
-    this.cassandraSessionProvider = cassandraSessionProvider;
-    this.tenantAwareEntityTemplate = tenantAwareEntityTemplate;
-    this.tenantAwareCassandraMapperProvider = tenantAwareCassandraMapperProvider;
+  PermittableGroups(final TenantStatementRegistry statements) {
+    this.statements = statements;
   }
 
   public void buildTable() {
@@ -73,26 +111,174 @@ public class PermittableGroups {
         .addColumn(METHOD_FIELD, DataType.text())
         .addColumn(SOURCE_GROUP_ID_FIELD, DataType.text());
 
-    cassandraSessionProvider.getTenantSession().execute(createType);
+    statements.execute(createType);
 
     final Create create = SchemaBuilder.createTable(TABLE_NAME)
         .ifNotExists()
         .addPartitionKey(IDENTIFIER_COLUMN, DataType.text())
         .addUDTListColumn(PERMITTABLES_COLUMN, SchemaBuilder.frozen(TYPE_NAME));
 
-    cassandraSessionProvider.getTenantSession().execute(create);
+    statements.execute(create);
 
+    final Create createEndpoints = SchemaBuilder.createTable(ENDPOINTS_TABLE_NAME)
+        .ifNotExists()
+        .addPartitionKey(GROUP_IDENTIFIER_COLUMN, DataType.text())
+        .addClusteringColumn(PATH_COLUMN, DataType.text())
+        .addClusteringColumn(METHOD_COLUMN, DataType.text())
+        .addColumn(SOURCE_GROUP_ID_COLUMN, DataType.text())
+        .addColumn(POSITION_COLUMN, DataType.bigint())
+        .addStaticColumn(MIGRATED_COLUMN, DataType.cboolean());
+
+    statements.execute(createEndpoints);
+
+    if (!statements.hasColumn(ENDPOINTS_TABLE_NAME, MIGRATED_COLUMN))
+      statements.execute(SchemaBuilder.alterTable(ENDPOINTS_TABLE_NAME).addStaticColumn(MIGRATED_COLUMN).type(DataType.cboolean()));
   }
 
   public void add(final PermittableGroupEntity instance) {
-    tenantAwareEntityTemplate.save(instance);
+    final List<PermittableType> permittables = listed(instance);
+    if (!hasEndpointsTable()) {
+      statements.save(instance);
+      return;
+    }
+    if (!storable(permittables)) {
+      saveListed(instance);
+      return;
+    }
+
+    //The old rows are deleted just before the new ones are written, because at the same timestamp the delete would
+    //win.  So the group's rows are replaced in one batch without reading them first.
+    final String identifier = instance.getIdentifier();
+    final long timestamp = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    final BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+    batch.add(statements.bind(DELETE_ENDPOINTS_AT, timestamp - 1, identifier));
+    batch.add(statements.bind(MARK_MIGRATED_AT, timestamp, identifier));
+    for (int i = 0; i < permittables.size(); i++) {
+      final PermittableType permittable = permittables.get(i);
+      batch.add(statements.bind(INSERT_ENDPOINT_AT, identifier, permittable.getPath(),
+          PermittableType.normalizedMethod(permittable.getMethod()), permittable.getSourceGroupId(), (long) i, timestamp));
+    }
+
+    statements.execute(batch);
+    statements.save(withoutListedPermittables(identifier));
+  }
+
+  public boolean changePermittables(final String identifier, final List<PermittableType> add, final List<PermittableType> remove) {
+    if (!hasEndpointsTable())
+      throw new IllegalStateException("Endpoints can only be changed one by one once the tenant is provisioned again.");
+
+    final EndpointPartition current = readEndpoints(identifier);
+    if (current.holdsGroup()) {
+      changeEndpointRows(identifier, current, add, remove);
+      return true;
+    }
+
+    final PermittableGroupEntity group = statements.get(PermittableGroupEntity.class, identifier);
+    if (group == null)
+      return false;
+
+    final List<PermittableType> changed = PermittableType.change(listed(group), add, remove);
+    if (!storable(changed)) {
+      group.setPermittables(changed);
+      saveListed(group);
+    }
+    else if (migrate(identifier, changed))
+      statements.save(withoutListedPermittables(identifier));
+    else
+      //Another writer moved the endpoints first, so the change is made to the rows it wrote.
+      changeEndpointRows(identifier, readEndpoints(identifier), add, remove);
+    return true;
+  }
+
+  private boolean migrate(final String identifier, final List<PermittableType> permittables) {
+    //All statements are on the group's partition, so the condition guards the whole batch.
+    final BatchStatement batch = new BatchStatement();
+    batch.add(statements.bind(MARK_MIGRATED_IF_NOT_YET, identifier));
+    for (int i = 0; i < permittables.size(); i++)
+      batch.add(insertEndpoint(identifier, permittables.get(i), i));
+    return statements.execute(batch).wasApplied();
+  }
+
+  /**
+   * Deletes the removed rows and appends the added endpoints the group doesn't have yet.  Rows which are kept keep
+   * their position, so that the group's endpoints keep their order.
+   */
+  private void changeEndpointRows(
+      final String identifier,
+      final EndpointPartition current,
+      final List<PermittableType> add,
+      final List<PermittableType> remove) {
+    final List<PermittableType> changed = PermittableType.change(current.permittables(), add, remove);
+    if (!storable(changed)) {
+      final PermittableGroupEntity group = new PermittableGroupEntity();
+      group.setIdentifier(identifier);
+      group.setPermittables(changed);
+      saveListed(group);
+      return;
+    }
+
+    final List<EndpointRow> removed = current.rows.stream()
+        .filter(x -> remove.stream().anyMatch(x.permittable::isSameEndpoint))
+        .collect(Collectors.toList());
+    final List<PermittableType> added = new ArrayList<>();
+    add.stream()
+        .filter(x -> current.rows.stream().noneMatch(y -> x.isSameEndpoint(y.permittable) && !removed.contains(y)))
+        .filter(x -> added.stream().noneMatch(x::isSameEndpoint))
+        .forEachOrdered(added::add);
+
+    final BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+    //Within a batch, a delete would win over an insert of the same row, so an endpoint which is removed and added
+    //again is only inserted.
+    removed.stream()
+        .filter(x -> added.stream().noneMatch(y -> sameRow(x.permittable, y)))
+        .forEach(x -> batch.add(statements.bind(DELETE_ENDPOINT, identifier, x.permittable.getPath(), x.permittable.getMethod())));
+
+    long next = current.rows.stream().mapToLong(x -> x.position + 1).max().orElse(0);
+    for (final PermittableType permittable : added)
+      batch.add(insertEndpoint(identifier, permittable, next++));
+
+    if (batch.size() > 0)
+      statements.execute(batch);
+  }
+
+  /**
+   * Endpoints without a path or method can't be keyed in the table, so such groups are kept in the list.
+   */
+  private void saveListed(final PermittableGroupEntity instance) {
+    final BatchStatement batch = new BatchStatement(BatchStatement.Type.LOGGED);
+    batch.add(statements.bind(DELETE_ENDPOINTS, instance.getIdentifier()));
+    batch.add(statements.mapper(PermittableGroupEntity.class).saveQuery(instance));
+
+    statements.execute(batch);
   }
 
   public Optional<PermittableGroupEntity> get(final String identifier)
   {
-    final PermittableGroupEntity instance =
-            tenantAwareCassandraMapperProvider.getMapper(PermittableGroupEntity.class).get(identifier);
+    if (!hasEndpointsTable())
+      return checked(statements.get(PermittableGroupEntity.class, identifier));
+
+    final EndpointPartition endpoints = readEndpoints(identifier);
+    return checked(endpoints.holdsGroup()
+        ? endpoints.group(identifier)
+        : statements.get(PermittableGroupEntity.class, identifier));
+  }
 
+  public CompletableFuture<Optional<PermittableGroupEntity>> getAsync(final String identifier) {
+    if (!hasEndpointsTable())
+      return statements.getAsync(PermittableGroupEntity.class, identifier).thenApply(PermittableGroups::checked);
+
+    //The read of a group which hasn't been migrated is prepared on the calling thread, since the stage which needs it
+    //runs on a driver thread.
+    return TenantAwareFutures.supply(() -> statements.prepareGetAsync(PermittableGroupEntity.class, identifier))
+        .thenCompose(getListed -> statements.executeAsync(statements.bind(SELECT_GROUP_ENDPOINTS, identifier))
+            .thenApply(EndpointPartition::new)
+            .thenCompose(endpoints -> endpoints.holdsGroup()
+                ? CompletableFuture.completedFuture(endpoints.group(identifier))
+                : getListed.get()))
+        .thenApply(PermittableGroups::checked);
+  }
+
+  private static Optional<PermittableGroupEntity> checked(final PermittableGroupEntity instance) {
     if (instance != null) {
       Assert.notNull(instance.getIdentifier());
     }
@@ -100,12 +286,116 @@ public class PermittableGroups {
     return Optional.ofNullable(instance);
   }
 
+  /**
+   * Reads all groups and all endpoint rows in two queries, rather than one query per group.
+   */
   public List<PermittableGroupEntity> getAll() {
-    final Session tenantSession = cassandraSessionProvider.getTenantSession();
-    final Mapper<PermittableGroupEntity> entityMapper = tenantAwareCassandraMapperProvider.getMapper(PermittableGroupEntity.class);
+    final Mapper<PermittableGroupEntity> entityMapper = statements.mapper(PermittableGroupEntity.class);
+    final List<PermittableGroupEntity> groups = entityMapper.map(statements.execute(statements.bind(SELECT_ALL))).all();
+    if (!hasEndpointsTable())
+      return groups;
 
-    final Statement statement = QueryBuilder.select().all().from(TABLE_NAME);
+    final Map<String, List<Row>> rowsByGroup = new HashMap<>();
+    statements.execute(statements.bind(SELECT_ENDPOINTS))
+        .forEach(row -> rowsByGroup.computeIfAbsent(row.getString(GROUP_IDENTIFIER_COLUMN), x -> new ArrayList<>()).add(row));
+
+    return groups.stream()
+        .map(group -> {
+          final EndpointPartition endpoints = new EndpointPartition(
+              rowsByGroup.getOrDefault(group.getIdentifier(), Collections.emptyList()));
+          return endpoints.holdsGroup() ? endpoints.group(group.getIdentifier()) : group;
+        })
+        .collect(Collectors.toList());
+  }
+
+  public boolean canChangePermittables() {
+    return hasEndpointsTable();
+  }
+
+  private boolean hasEndpointsTable() {
+    //The table doesn't exist until the tenant is provisioned again, until then all endpoints are in the list.
+    return statements.hasTable(ENDPOINTS_TABLE_NAME);
+  }
+
+  private static boolean storable(final List<PermittableType> permittables) {
+    return permittables.stream().allMatch(x -> x.getPath() != null && x.getMethod() != null);
+  }
+
+  /**
+   * Whether the endpoint would be written to the stored row, whose method may have been written before methods were
+   * upper-cased.
+   */
+  private static boolean sameRow(final PermittableType stored, final PermittableType permittable) {
+    return stored.getPath().equals(permittable.getPath())
+        && stored.getMethod().equals(PermittableType.normalizedMethod(permittable.getMethod()));
+  }
+
+  private static List<PermittableType> listed(final PermittableGroupEntity group) {
+    return group.getPermittables() == null ? Collections.emptyList() : group.getPermittables();
+  }
+
+  private static PermittableGroupEntity withoutListedPermittables(final String identifier) {
+    final PermittableGroupEntity ret = new PermittableGroupEntity();
+    ret.setIdentifier(identifier);
+    ret.setPermittables(Collections.emptyList());
+    return ret;
+  }
 
-    return new ArrayList<>(entityMapper.map(tenantSession.execute(statement)).all());
+  private Statement insertEndpoint(final String identifier, final PermittableType permittable, final long position) {
+    return statements.bind(INSERT_ENDPOINT, identifier, permittable.getPath(),
+        PermittableType.normalizedMethod(permittable.getMethod()), permittable.getSourceGroupId(), position);
+  }
+
+  private EndpointPartition readEndpoints(final String identifier) {
+    return new EndpointPartition(statements.execute(statements.bind(SELECT_GROUP_ENDPOINTS, identifier)));
+  }
+
+  /**
+   * A group's endpoint rows.  A partition which holds only the static column yields a single row without a path.
+   */
+  private static class EndpointPartition {
+    final boolean migrated;
+    final List<EndpointRow> rows;
+
+    EndpointPartition(final Iterable<Row> result) {
+      final List<Row> all = StreamSupport.stream(result.spliterator(), false).collect(Collectors.toList());
+      this.migrated = all.stream().anyMatch(row -> !row.isNull(MIGRATED_COLUMN) && row.getBool(MIGRATED_COLUMN));
+      this.rows = all.stream()
+          .filter(row -> !row.isNull(PATH_COLUMN))
+          .map(EndpointRow::new)
+          .sorted(Comparator.comparingLong((EndpointRow x) -> x.position))
+          .collect(Collectors.toList());
+    }
+
+    /**
+     * Rows without the migrated mark were written before it existed, and are the group's endpoints as well.
+     */
+    boolean holdsGroup() {
+      return migrated || !rows.isEmpty();
+    }
+
+    List<PermittableType> permittables() {
+      return rows.stream().map(x -> x.permittable).collect(Collectors.toList());
+    }
+
+    PermittableGroupEntity group(final String identifier) {
+      final PermittableGroupEntity ret = new PermittableGroupEntity();
+      ret.setIdentifier(identifier);
+      ret.setPermittables(permittables());
+      return ret;
+    }
+  }
+
+  private static class EndpointRow {
+    final PermittableType permittable;
+    final long position;
+
+    EndpointRow(final Row row) {
+      this.permittable = new PermittableType();
+      this.permittable.setPath(row.getString(PATH_COLUMN));
+      this.permittable.setMethod(row.getString(METHOD_COLUMN));
+      this.permittable.setSourceGroupId(row.getString(SOURCE_GROUP_ID_COLUMN));
+      this.position = row.isNull(POSITION_COLUMN) ? 0 : row.getLong(POSITION_COLUMN);
+    }
   }
 }
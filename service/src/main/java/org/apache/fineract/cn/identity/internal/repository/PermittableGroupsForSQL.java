@@ -18,97 +18,163 @@
  */
 package org.apache.fineract.cn.identity.internal.repository;
 
-import com.datastax.driver.core.Session;
-import com.datastax.driver.core.Statement;
-import com.datastax.driver.core.querybuilder.QueryBuilder;
-import com.datastax.driver.mapping.Mapper;
-import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareCassandraMapperProvider;
-//import org.apache.fineract.cn.cassandra.core.TenantAwarePostgresMapperProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareEntityTemplate;
-import org.apache.fineract.cn.identity.internal.util.DataSourceUtils;
-import org.flywaydb.core.Flyway;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.apache.fineract.cn.lang.TenantContextHolder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
-import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
-import org.springframework.util.Assert;
 
-import java.sql.Connection;
-import java.sql.SQLException;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
+ * Permittables are stored as a jsonb array in one column per group.  They are decoded once and kept per tenant
+ * as unmodifiable lists, so callers must not change the returned permittables.  Entries expire after
+ * identity.permittableGroups.cacheExpiryInSeconds so that groups written by other instances become visible.
+ *
  * @author Myrle Krantz
  */
 @Component
 @Profile("postgres")
-public class PermittableGroupsForSQL {
-  static final String TABLE_NAME = "isis_permittable_groups";
-  static final String IDENTIFIER_COLUMN = "identifier";
-  static final String PERMITTABLES_COLUMN = "permittables";
-
-  static final String TYPE_NAME = "isis_permittable_group";
-  static final String PATH_FIELD = "path";
-  static final String METHOD_FIELD = "method";
-  static final String SOURCE_GROUP_ID_FIELD = "source_group_id";
-
-  private final CassandraSessionProvider cassandraSessionProvider;
-  private final TenantAwareEntityTemplate tenantAwareEntityTemplate;
-//  private final IsisPermittableDAO isisPermittableDAO;
-  private final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider;
-  @Autowired
-  private Flyway flyway;
+public class PermittableGroupsForSQL implements PermittableGroupRepository {
+  private static final Type PERMITTABLES_TYPE = new TypeToken<List<PermittableType>>(){}.getType();
+  private static final int FETCH_SIZE = 100;
 
-  @Autowired
-  private final Environment environment;
+  private static String sameEndpoint(final String x, final String y) {
+    return x + "->>'path' = " + y + "->>'path' AND upper(" + x + "->>'method') = upper(" + y + "->>'method')";
+  }
 
-//  private final DataSource dataSource;
-//  private final FlywayFactoryBean flywayFactoryBean;
+  //Removes and appends endpoints within the jsonb array in one statement, so that concurrent changes to the same
+  //group don't overwrite each other.  Parameters are the endpoints to remove, to add, to remove, and the group.
+  private static final String CHANGE_PERMITTABLES_STMT = "UPDATE isis_permittable_groups SET permittables = ("
+      + "SELECT COALESCE(jsonb_agg(e.value ORDER BY e.position), '[]'::jsonb)"
+      + " FROM jsonb_array_elements(permittables) WITH ORDINALITY AS e(value, position)"
+      + " WHERE NOT EXISTS (SELECT 1 FROM jsonb_array_elements(CAST(? AS jsonb)) AS r(value) WHERE " + sameEndpoint("r.value", "e.value") + ")"
+      + ") || ("
+      + "SELECT COALESCE(jsonb_agg(a.value ORDER BY a.position), '[]'::jsonb)"
+      + " FROM jsonb_array_elements(CAST(? AS jsonb)) WITH ORDINALITY AS a(value, position)"
+      + " WHERE NOT EXISTS (SELECT 1 FROM jsonb_array_elements(permittables) AS c(value) WHERE " + sameEndpoint("a.value", "c.value")
+      + " AND NOT EXISTS (SELECT 1 FROM jsonb_array_elements(CAST(? AS jsonb)) AS r(value) WHERE " + sameEndpoint("r.value", "c.value") + "))"
+      + ") WHERE identifier = ? RETURNING permittables";
+
+  private static class TenantPermittableGroups {
+    private final ConcurrentMap<String, List<PermittableType>> groups = new ConcurrentHashMap<>();
+    private volatile boolean complete = false;
+  }
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+  private final Gson gson;
+  private final Cache<String, TenantPermittableGroups> tenantCache;
 
   @Autowired
   PermittableGroupsForSQL(
-          final CassandraSessionProvider cassandraSessionProvider,
-          final TenantAwareEntityTemplate tenantAwareEntityTemplate,
-          final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider, Environment environment) {
-    this.cassandraSessionProvider = cassandraSessionProvider;
-    this.tenantAwareEntityTemplate = tenantAwareEntityTemplate;
-    this.tenantAwareCassandraMapperProvider = tenantAwareCassandraMapperProvider;
-    this.environment = environment;
+          final TenantAwareJdbcTemplate jdbcTemplate,
+          @Qualifier(IdentityConstants.JSON_SERIALIZER_NAME) final Gson gson,
+          @Value("${identity.permittableGroups.cacheExpiryInSeconds:300}") final long cacheExpiryInSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.gson = gson;
+    this.tenantCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(cacheExpiryInSeconds, TimeUnit.SECONDS)
+            .build();
   }
 
-  public void buildTable() {
-    flyway.setLocations("db/migrations/postgresql");
-    flyway.setDataSource("jdbc:postgresql://localhost:5432/seshat","postgres","postgres");
-    flyway.setBaselineOnMigrate(true);
-//    flyway.setSchemas("seshat");
-    flyway.migrate();
-  }
+  @Override
+  public void add(final PermittableGroupEntity instance) {
+    final IsisPermittableDAO isisPermittableDAO = new IsisPermittableDAO();
+    isisPermittableDAO.setIdentifier(instance.getIdentifier());
+    isisPermittableDAO.setPermittables(gson.toJson(instance.getPermittables(), PERMITTABLES_TYPE));
 
-  public void add(final PermittableGroupEntityForSQL instance) {
-    tenantAwareEntityTemplate.save(instance);
+    jdbcTemplate.execute(connection -> {
+      isisPermittableDAO.upsert(connection);
+      return null;
+    });
+
+    tenantGroups().groups.put(instance.getIdentifier(), decode(isisPermittableDAO.getPermittables()));
   }
 
-  public Optional<PermittableGroupEntityForSQL> get(final String identifier)
+  @Override
+  public Optional<PermittableGroupEntity> get(final String identifier)
   {
-    final PermittableGroupEntityForSQL instance =
-            tenantAwareCassandraMapperProvider.getMapper(PermittableGroupEntityForSQL.class).get(identifier);
+    final TenantPermittableGroups tenantGroups = tenantGroups();
+    final List<PermittableType> cached = tenantGroups.groups.get(identifier);
+    if (cached != null)
+      return Optional.of(entity(identifier, cached));
+
+    final Optional<List<PermittableType>> found = jdbcTemplate
+            .execute(connection -> IsisPermittableDAO.find(connection, identifier))
+            .map(isisPermittableDAO -> decode(isisPermittableDAO.getPermittables()));
+    found.ifPresent(permittables -> tenantGroups.groups.putIfAbsent(identifier, permittables));
 
-    if (instance != null) {
-      Assert.notNull(instance.getIdentifier());
+    return found.map(permittables -> entity(identifier, permittables));
+  }
+
+  @Override
+  public boolean changePermittables(final String identifier, final List<PermittableType> add, final List<PermittableType> remove) {
+    final String addJson = gson.toJson(add, PERMITTABLES_TYPE);
+    final String removeJson = gson.toJson(remove, PERMITTABLES_TYPE);
+    final Optional<List<PermittableType>> changed = jdbcTemplate.queryForObject(CHANGE_PERMITTABLES_STMT,
+        statement -> {
+          statement.setString(1, removeJson);
+          statement.setString(2, addJson);
+          statement.setString(3, removeJson);
+          statement.setString(4, identifier);
+        },
+        resultSet -> decode(resultSet.getString("permittables")));
+
+    changed.ifPresent(permittables -> tenantGroups().groups.put(identifier, permittables));
+    return changed.isPresent();
+  }
+
+  @Override
+  public List<PermittableGroupEntity> getAll() {
+    final TenantPermittableGroups tenantGroups = tenantGroups();
+    if (!tenantGroups.complete) {
+      jdbcTemplate.inTransaction(connection -> {
+        IsisPermittableDAO.fetchAll(connection, FETCH_SIZE, isisPermittableDAO ->
+                tenantGroups.groups.putIfAbsent(isisPermittableDAO.getIdentifier(),
+                        decode(isisPermittableDAO.getPermittables())));
+        return null;
+      });
+      tenantGroups.complete = true;
     }
 
-    return Optional.ofNullable(instance);
+    return tenantGroups.groups.entrySet().stream()
+            .map(entry -> entity(entry.getKey(), entry.getValue()))
+            .collect(Collectors.toList());
   }
 
-  public List<PermittableGroupEntityForSQL> getAll() {
-    final Session tenantSession = cassandraSessionProvider.getTenantSession();
-    final Mapper<PermittableGroupEntityForSQL> entityMapper = tenantAwareCassandraMapperProvider.getMapper(PermittableGroupEntityForSQL.class);
+  private TenantPermittableGroups tenantGroups() {
+    try {
+      return tenantCache.get(TenantContextHolder.checkedGetIdentifier(), TenantPermittableGroups::new);
+    }
+    catch (final ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
 
-    final Statement statement = QueryBuilder.select().all().from(TABLE_NAME);
+  private List<PermittableType> decode(final String permittables) {
+    final List<PermittableType> decoded = gson.fromJson(permittables, PERMITTABLES_TYPE);
+    return Collections.unmodifiableList(decoded == null ? new ArrayList<>() : decoded);
+  }
 
-    return new ArrayList<>(entityMapper.map(tenantSession.execute(statement)).all());
+  private static PermittableGroupEntity entity(final String identifier, final List<PermittableType> permittables) {
+    final PermittableGroupEntity ret = new PermittableGroupEntity();
+    ret.setIdentifier(identifier);
+    ret.setPermittables(permittables);
+    return ret;
   }
 }
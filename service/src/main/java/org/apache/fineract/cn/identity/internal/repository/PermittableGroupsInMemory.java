@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class PermittableGroupsInMemory implements PermittableGroupRepository {
+  private final InMemoryStore store;
+
+  @Autowired
+  public PermittableGroupsInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public void add(final PermittableGroupEntity instance) {
+    store.partition().permittableGroups.put(instance.getIdentifier(), copy(instance));
+  }
+
+  @Override
+  public Optional<PermittableGroupEntity> get(final String identifier) {
+    return Optional.ofNullable(store.partition().permittableGroups.get(identifier))
+        .map(PermittableGroupsInMemory::copy);
+  }
+
+  @Override
+  public List<PermittableGroupEntity> getAll() {
+    return store.partition().permittableGroups.values().stream()
+        .map(PermittableGroupsInMemory::copy)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public boolean changePermittables(final String identifier, final List<PermittableType> add, final List<PermittableType> remove) {
+    final List<PermittableType> copies = add.stream().map(PermittableGroupsInMemory::copy).collect(Collectors.toList());
+    return store.partition().permittableGroups.computeIfPresent(identifier, (key, group) -> {
+      final PermittableGroupEntity ret = new PermittableGroupEntity();
+      ret.setIdentifier(key);
+      ret.setPermittables(PermittableType.change(
+          group.getPermittables() == null ? new ArrayList<>() : group.getPermittables(), copies, remove));
+      return ret;
+    }) != null;
+  }
+
+  private static PermittableGroupEntity copy(final PermittableGroupEntity instance) {
+    final PermittableGroupEntity ret = new PermittableGroupEntity();
+    ret.setIdentifier(instance.getIdentifier());
+    if (instance.getPermittables() != null)
+      ret.setPermittables(instance.getPermittables().stream().map(PermittableGroupsInMemory::copy)
+          .collect(Collectors.toList()));
+    return ret;
+  }
+
+  private static PermittableType copy(final PermittableType instance) {
+    final PermittableType ret = new PermittableType();
+    ret.setPath(instance.getPath());
+    ret.setMethod(instance.getMethod());
+    ret.setSourceGroupId(instance.getSourceGroupId());
+    return ret;
+  }
+}
@@ -21,7 +21,11 @@ package org.apache.fineract.cn.identity.internal.repository;
 import com.datastax.driver.mapping.annotations.Field;
 import com.datastax.driver.mapping.annotations.UDT;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * @author Myrle Krantz
@@ -84,4 +88,30 @@ public class PermittableType {
             ", sourceGroupId='" + sourceGroupId + '\'' +
             '}';
   }
+
+  /**
+   * Endpoints are identified by path and method, the source group is only informational.  Methods are compared
+   * upper-cased, in every store.
+   */
+  public boolean isSameEndpoint(final PermittableType other) {
+    return Objects.equals(path, other.path) &&
+        Objects.equals(normalizedMethod(method), normalizedMethod(other.method));
+  }
+
+  static String normalizedMethod(final String method) {
+    return method == null ? null : method.toUpperCase(Locale.ROOT);
+  }
+
+  static List<PermittableType> change(
+      final List<PermittableType> permittables,
+      final List<PermittableType> add,
+      final List<PermittableType> remove) {
+    final List<PermittableType> ret = permittables.stream()
+        .filter(x -> remove.stream().noneMatch(x::isSameEndpoint))
+        .collect(Collectors.toCollection(ArrayList::new));
+    add.stream()
+        .filter(x -> ret.stream().noneMatch(x::isSameEndpoint))
+        .forEach(ret::add);
+    return ret;
+  }
 }
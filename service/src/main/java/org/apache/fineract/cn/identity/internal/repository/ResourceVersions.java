@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.schemabuilder.Create;
+import com.datastax.driver.core.schemabuilder.SchemaBuilder;
+import java.util.OptionalLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class ResourceVersions implements ResourceVersionRepository {
+  static final String TABLE_NAME = "isis_resource_versions";
+  static final String RESOURCE_COLUMN = "resource";
+  static final String VERSION_COLUMN = "version";
+
+  private static final String SELECT = "SELECT " + VERSION_COLUMN + " FROM " + TABLE_NAME
+      + " WHERE " + RESOURCE_COLUMN + " = ?";
+  private static final String INCREMENT = "UPDATE " + TABLE_NAME
+      + " SET " + VERSION_COLUMN + " = " + VERSION_COLUMN + " + 1"
+      + " WHERE " + RESOURCE_COLUMN + " = ?";
+
+  private final TenantStatementRegistry statements;
+
+  @Autowired
+  ResourceVersions(final TenantStatementRegistry statements) {
+    this.statements = statements;
+  }
+
+  public void buildTable() {
+    //Counters must live in a table of their own.
+    final Create create = SchemaBuilder.createTable(TABLE_NAME)
+        .ifNotExists()
+        .addPartitionKey(RESOURCE_COLUMN, DataType.text())
+        .addColumn(VERSION_COLUMN, DataType.counter());
+
+    statements.execute(create);
+  }
+
+  @Override
+  public OptionalLong get(final String resource) {
+    //The table doesn't exist until the tenant is provisioned again.
+    if (!statements.hasTable(TABLE_NAME))
+      return OptionalLong.empty();
+
+    final Row row = statements.execute(statements.bind(SELECT, resource)).one();
+    return OptionalLong.of(row == null ? 0 : row.getLong(VERSION_COLUMN));
+  }
+
+  @Override
+  public void increment(final String resource) {
+    //Without the table, the versions of this tenant are not tracked.
+    if (statements.hasTable(TABLE_NAME))
+      statements.execute(statements.bind(INCREMENT, resource));
+  }
+}
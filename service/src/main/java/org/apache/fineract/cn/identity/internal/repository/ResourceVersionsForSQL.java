@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.util.OptionalLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class ResourceVersionsForSQL implements ResourceVersionRepository {
+  static final String TABLE_NAME = "isis_resource_versions";
+  static final String RESOURCE_COLUMN = "resource";
+  static final String VERSION_COLUMN = "version";
+
+  private static final String FIND_STMT = "SELECT " + VERSION_COLUMN + " FROM " + TABLE_NAME
+      + " WHERE " + RESOURCE_COLUMN + " = ?";
+  private static final String INCREMENT_STMT = "INSERT INTO " + TABLE_NAME + " ("
+      + RESOURCE_COLUMN + ", " + VERSION_COLUMN + ") VALUES (?, 1)"
+      + " ON CONFLICT (" + RESOURCE_COLUMN + ")"
+      + " DO UPDATE SET " + VERSION_COLUMN + " = " + TABLE_NAME + "." + VERSION_COLUMN + " + 1";
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  ResourceVersionsForSQL(final TenantAwareJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public OptionalLong get(final String resource) {
+    return OptionalLong.of(jdbcTemplate.queryForObject(FIND_STMT,
+        statement -> statement.setString(1, resource),
+        resultSet -> resultSet.getLong(VERSION_COLUMN)).orElse(0L));
+  }
+
+  @Override
+  public void increment(final String resource) {
+    jdbcTemplate.update(INCREMENT_STMT, statement -> statement.setString(1, resource));
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.util.OptionalLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class ResourceVersionsInMemory implements ResourceVersionRepository {
+  private final InMemoryStore store;
+
+  @Autowired
+  public ResourceVersionsInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public OptionalLong get(final String resource) {
+    return OptionalLong.of(store.partition().resourceVersions.getOrDefault(resource, 0L));
+  }
+
+  @Override
+  public void increment(final String resource) {
+    store.partition().resourceVersions.merge(resource, 1L, Long::sum);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage for roles, independent of the database the tenant is provisioned on.
+ */
+public interface RoleRepository {
+
+  void add(RoleEntity instance);
+
+  void change(RoleEntity instance);
+
+  Optional<RoleEntity> get(String identifier);
+
+  void delete(RoleEntity instance);
+
+  List<RoleEntity> getAll();
+
+  /**
+   * Removes the permissions for the given permittable groups, then replaces or appends the added ones, without
+   * rewriting the rest of the role's permissions.
+   *
+   * @return false if the role doesn't exist.
+   */
+  boolean changePermissions(String identifier, List<PermissionType> add, Collection<String> remove);
+
+  /**
+   * @return false if {@link #changePermissions} isn't possible until the tenant is provisioned again.
+   */
+  default boolean canChangePermissions() {
+    return true;
+  }
+
+  default CompletableFuture<Void> changeAsync(final RoleEntity instance) {
+    return TenantAwareFutures.run(() -> change(instance));
+  }
+
+  default CompletableFuture<Optional<RoleEntity>> getAsync(final String identifier) {
+    return TenantAwareFutures.supply(() -> get(identifier));
+  }
+}
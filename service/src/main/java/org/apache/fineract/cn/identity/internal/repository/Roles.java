@@ -18,45 +18,89 @@
  */
 package org.apache.fineract.cn.identity.internal.repository;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.DataType;
-import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.schemabuilder.Create;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import com.datastax.driver.mapping.Mapper;
-import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareCassandraMapperProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareEntityTemplate;
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 /**
+ * A role's permissions are kept one per row in isis_role_permissions, so that single permissions can be changed
+ * without rewriting the others.  All of a role's permission rows are in one partition, so a batch of changes to them
+ * is applied atomically, and a role is read in one query.  The partition's static migrated column marks that the
+ * rows are the role's permissions.
+ *
+ * Roles written before that table existed keep their permissions in the frozen list of isis_roles.  These are read
+ * from there until the role is next written.  A change of permissions moves them into the table in one conditional
+ * batch, which only applies if no other writer has moved them yet.
+ *
  * @author Myrle Krantz
  */
 @Component
-public class Roles {
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class Roles implements RoleRepository {
   static final String TABLE_NAME = "isis_roles";
   static final String IDENTIFIER_COLUMN = "identifier";
   static final String PERMISSIONS_COLUMN = "permissions";
 
-  private final CassandraSessionProvider cassandraSessionProvider;
-  private final TenantAwareEntityTemplate tenantAwareEntityTemplate;
-  private final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider;
+  static final String PERMISSIONS_TABLE_NAME = "isis_role_permissions";
+  static final String ROLE_IDENTIFIER_COLUMN = "role_identifier";
+  static final String PERMITTABLE_GROUP_IDENTIFIER_COLUMN = "permittable_group_identifier";
+  static final String POSITION_COLUMN = "position";
+  static final String ALLOWED_OPERATIONS_COLUMN = "allowed_operations";
+  static final String MIGRATED_COLUMN = "migrated";
+
+  private static final String SELECT_ALL = QueryBuilder.select().all().from(TABLE_NAME).getQueryString();
+  private static final String SELECT_PERMISSIONS = "SELECT " + ROLE_IDENTIFIER_COLUMN + ", " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN
+      + ", " + POSITION_COLUMN + ", " + ALLOWED_OPERATIONS_COLUMN + ", " + MIGRATED_COLUMN + " FROM " + PERMISSIONS_TABLE_NAME;
+  private static final String SELECT_ROLE_PERMISSIONS = SELECT_PERMISSIONS + " WHERE " + ROLE_IDENTIFIER_COLUMN + " = ?";
+  private static final String INSERT_PERMISSION = "INSERT INTO " + PERMISSIONS_TABLE_NAME + " ("
+      + ROLE_IDENTIFIER_COLUMN + ", " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + ", " + POSITION_COLUMN + ", " + ALLOWED_OPERATIONS_COLUMN
+      + ") VALUES (?, ?, ?, ?)";
+  private static final String INSERT_PERMISSION_AT = INSERT_PERMISSION + " USING TIMESTAMP ?";
+  private static final String UPDATE_ALLOWED_OPERATIONS = "UPDATE " + PERMISSIONS_TABLE_NAME + " SET " + ALLOWED_OPERATIONS_COLUMN + " = ?"
+      + " WHERE " + ROLE_IDENTIFIER_COLUMN + " = ? AND " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + " = ?";
+  private static final String MARK_MIGRATED_AT = "UPDATE " + PERMISSIONS_TABLE_NAME + " USING TIMESTAMP ?"
+      + " SET " + MIGRATED_COLUMN + " = true WHERE " + ROLE_IDENTIFIER_COLUMN + " = ?";
+  private static final String MARK_MIGRATED_IF_NOT_YET = "UPDATE " + PERMISSIONS_TABLE_NAME
+      + " SET " + MIGRATED_COLUMN + " = true WHERE " + ROLE_IDENTIFIER_COLUMN + " = ? IF " + MIGRATED_COLUMN + " = null";
+  private static final String DELETE_PERMISSION = "DELETE FROM " + PERMISSIONS_TABLE_NAME
+      + " WHERE " + ROLE_IDENTIFIER_COLUMN + " = ? AND " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + " = ?";
+  private static final String DELETE_PERMISSIONS = "DELETE FROM " + PERMISSIONS_TABLE_NAME
+      + " WHERE " + ROLE_IDENTIFIER_COLUMN + " = ?";
+  private static final String DELETE_PERMISSIONS_AT = "DELETE FROM " + PERMISSIONS_TABLE_NAME + " USING TIMESTAMP ?"
+      + " WHERE " + ROLE_IDENTIFIER_COLUMN + " = ?";
+
+  private final TenantStatementRegistry statements;
 
   @Autowired
-  Roles(
-          final CassandraSessionProvider cassandraSessionProvider,
-          final TenantAwareEntityTemplate tenantAwareEntityTemplate,
-          final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider) {
-    this.cassandraSessionProvider = cassandraSessionProvider;
-    this.tenantAwareEntityTemplate = tenantAwareEntityTemplate;
-    this.tenantAwareCassandraMapperProvider = tenantAwareCassandraMapperProvider;
+  Roles(final TenantStatementRegistry statements) {
+    this.statements = statements;
   }
 
   public void buildTable() {
@@ -65,23 +109,140 @@ public class Roles {
         .addPartitionKey(IDENTIFIER_COLUMN, DataType.text())
         .addUDTListColumn(PERMISSIONS_COLUMN, SchemaBuilder.frozen(Permissions.TYPE_NAME));
 
-    cassandraSessionProvider.getTenantSession().execute(create);
+    statements.execute(create);
 
+    final Create createPermissions = SchemaBuilder.createTable(PERMISSIONS_TABLE_NAME)
+        .ifNotExists()
+        .addPartitionKey(ROLE_IDENTIFIER_COLUMN, DataType.text())
+        .addClusteringColumn(PERMITTABLE_GROUP_IDENTIFIER_COLUMN, DataType.text())
+        .addColumn(POSITION_COLUMN, DataType.bigint())
+        .addColumn(ALLOWED_OPERATIONS_COLUMN, DataType.set(DataType.text()))
+        .addStaticColumn(MIGRATED_COLUMN, DataType.cboolean());
+
+    statements.execute(createPermissions);
+
+    if (!statements.hasColumn(PERMISSIONS_TABLE_NAME, MIGRATED_COLUMN))
+      statements.execute(SchemaBuilder.alterTable(PERMISSIONS_TABLE_NAME).addStaticColumn(MIGRATED_COLUMN).type(DataType.cboolean()));
   }
 
   public void add(final RoleEntity instance) {
-    tenantAwareEntityTemplate.save(instance);
+    save(instance);
   }
 
   public void change(final RoleEntity instance) {
-    tenantAwareEntityTemplate.save(instance);
+    save(instance);
+  }
+
+  private void save(final RoleEntity instance) {
+    if (!hasPermissionsTable()) {
+      statements.save(instance);
+      return;
+    }
+
+    final String identifier = instance.getIdentifier();
+    final List<PermissionType> permissions = PermissionType.merged(listed(instance));
+
+    //The old rows are deleted just before the new ones are written, because at the same timestamp the delete would
+    //win.  So the role's rows are replaced in one batch without reading them first.
+    final long timestamp = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    final BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+    batch.add(statements.bind(DELETE_PERMISSIONS_AT, timestamp - 1, identifier));
+    batch.add(statements.bind(MARK_MIGRATED_AT, timestamp, identifier));
+    for (int i = 0; i < permissions.size(); i++) {
+      final PermissionType permission = permissions.get(i);
+      batch.add(statements.bind(INSERT_PERMISSION_AT, identifier, permission.getPermittableGroupIdentifier(), (long) i,
+          permission.getAllowedOperations(), timestamp));
+    }
+
+    statements.execute(batch);
+    statements.save(withoutListedPermissions(identifier));
+  }
+
+  public boolean changePermissions(final String identifier, final List<PermissionType> add, final Collection<String> remove) {
+    if (!hasPermissionsTable())
+      throw new IllegalStateException("Permissions can only be changed one by one once the tenant is provisioned again.");
+
+    final PermissionPartition current = readPermissions(identifier);
+    if (current.migrated) {
+      changePermissionRows(identifier, current, add, remove);
+      return true;
+    }
+
+    final RoleEntity role = statements.get(RoleEntity.class, identifier);
+    if (role == null)
+      return false;
+
+    final List<PermissionType> permissions = current.rows.isEmpty() ? PermissionType.merged(listed(role)) : current.permissions();
+    if (migrate(identifier, PermissionType.change(permissions, add, remove)))
+      statements.save(withoutListedPermissions(identifier));
+    else
+      //Another writer moved the permissions first, so the change is made to the rows it wrote.
+      changePermissionRows(identifier, readPermissions(identifier), add, remove);
+    return true;
+  }
+
+  private boolean migrate(final String identifier, final List<PermissionType> permissions) {
+    //All statements are on the role's partition, so the condition guards the whole batch.
+    final BatchStatement batch = new BatchStatement();
+    batch.add(statements.bind(MARK_MIGRATED_IF_NOT_YET, identifier));
+    for (int i = 0; i < permissions.size(); i++)
+      batch.add(insertPermission(identifier, permissions.get(i), i));
+    return statements.execute(batch).wasApplied();
+  }
+
+  private void changePermissionRows(
+      final String identifier,
+      final PermissionPartition current,
+      final List<PermissionType> add,
+      final Collection<String> remove) {
+    final Set<String> added = add.stream().map(PermissionType::getPermittableGroupIdentifier).collect(Collectors.toSet());
+    final BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+    //Within a batch, a delete would win over an insert of the same row, so a permission which is removed and added
+    //again is only inserted.
+    remove.stream()
+        .filter(x -> current.rows.containsKey(x) && !added.contains(x))
+        .forEach(x -> batch.add(statements.bind(DELETE_PERMISSION, identifier, x)));
+
+    long next = current.rows.values().stream().mapToLong(x -> x.position + 1).max().orElse(0);
+    for (final PermissionType permission : add) {
+      final String group = permission.getPermittableGroupIdentifier();
+      if (current.rows.containsKey(group) && !remove.contains(group))
+        batch.add(statements.bind(UPDATE_ALLOWED_OPERATIONS, permission.getAllowedOperations(), identifier, group));
+      else
+        batch.add(insertPermission(identifier, permission, next++));
+    }
+
+    if (batch.size() > 0)
+      statements.execute(batch);
   }
 
   public Optional<RoleEntity> get(final String identifier)
   {
-    final RoleEntity instance =
-            tenantAwareCassandraMapperProvider.getMapper(RoleEntity.class).get(identifier);
+    if (!hasPermissionsTable())
+      return checked(statements.get(RoleEntity.class, identifier));
 
+    final PermissionPartition permissions = readPermissions(identifier);
+    return checked(permissions.holdsRole()
+        ? permissions.role(identifier)
+        : withListedPermissions(statements.get(RoleEntity.class, identifier)));
+  }
+
+  public CompletableFuture<Optional<RoleEntity>> getAsync(final String identifier) {
+    if (!hasPermissionsTable())
+      return statements.getAsync(RoleEntity.class, identifier).thenApply(Roles::checked);
+
+    //The read of a role which hasn't been migrated is prepared on the calling thread, since the stage which needs it
+    //runs on a driver thread.
+    return TenantAwareFutures.supply(() -> statements.prepareGetAsync(RoleEntity.class, identifier))
+        .thenCompose(getListed -> statements.executeAsync(statements.bind(SELECT_ROLE_PERMISSIONS, identifier))
+            .thenApply(PermissionPartition::new)
+            .thenCompose(permissions -> permissions.holdsRole()
+                ? CompletableFuture.completedFuture(permissions.role(identifier))
+                : getListed.get().thenApply(Roles::withListedPermissions)))
+        .thenApply(Roles::checked);
+  }
+
+  private static Optional<RoleEntity> checked(final RoleEntity instance) {
     if (instance != null) {
       Assert.notNull(instance.getIdentifier());
       Assert.notNull(instance.getPermissions());
@@ -91,16 +252,109 @@ public class Roles {
   }
 
   public void delete(final RoleEntity instance) {
-    tenantAwareEntityTemplate.delete(instance);
+    final BatchStatement batch = new BatchStatement(BatchStatement.Type.LOGGED);
+    if (hasPermissionsTable())
+      batch.add(statements.bind(DELETE_PERMISSIONS, instance.getIdentifier()));
+    batch.add(statements.mapper(RoleEntity.class).deleteQuery(instance));
+
+    statements.execute(batch);
   }
 
+  /**
+   * Reads all roles and all permission rows in two queries, rather than one query per role.
+   */
   public List<RoleEntity> getAll()
   {
-    final Session tenantSession = cassandraSessionProvider.getTenantSession();
-    final Mapper<RoleEntity> entityMapper = tenantAwareCassandraMapperProvider.getMapper(RoleEntity.class);
+    final Mapper<RoleEntity> entityMapper = statements.mapper(RoleEntity.class);
+    final List<RoleEntity> roles = entityMapper.map(statements.execute(statements.bind(SELECT_ALL))).all();
+    if (!hasPermissionsTable())
+      return roles;
+
+    final Map<String, List<Row>> rowsByRole = new HashMap<>();
+    statements.execute(statements.bind(SELECT_PERMISSIONS))
+        .forEach(row -> rowsByRole.computeIfAbsent(row.getString(ROLE_IDENTIFIER_COLUMN), x -> new ArrayList<>()).add(row));
+
+    return roles.stream()
+        .map(role -> {
+          final PermissionPartition permissions = new PermissionPartition(
+              rowsByRole.getOrDefault(role.getIdentifier(), Collections.emptyList()));
+          return permissions.holdsRole() ? permissions.role(role.getIdentifier()) : withListedPermissions(role);
+        })
+        .collect(Collectors.toList());
+  }
+
+  public boolean canChangePermissions() {
+    return hasPermissionsTable();
+  }
+
+  private boolean hasPermissionsTable() {
+    //The table doesn't exist until the tenant is provisioned again, until then all permissions are in the list.
+    return statements.hasTable(PERMISSIONS_TABLE_NAME);
+  }
+
+  private static List<PermissionType> listed(final RoleEntity role) {
+    return role.getPermissions() == null ? Collections.emptyList() : role.getPermissions();
+  }
+
+  private static RoleEntity withListedPermissions(final RoleEntity role) {
+    return role == null ? null : new RoleEntity(role.getIdentifier(), PermissionType.merged(listed(role)));
+  }
+
+  private static RoleEntity withoutListedPermissions(final String identifier) {
+    return new RoleEntity(identifier, Collections.emptyList());
+  }
 
-    final Statement statement = QueryBuilder.select().all().from(TABLE_NAME);
+  private Statement insertPermission(final String identifier, final PermissionType permission, final long position) {
+    return statements.bind(INSERT_PERMISSION, identifier, permission.getPermittableGroupIdentifier(), position, permission.getAllowedOperations());
+  }
+
+  private PermissionPartition readPermissions(final String identifier) {
+    return new PermissionPartition(statements.execute(statements.bind(SELECT_ROLE_PERMISSIONS, identifier)));
+  }
+
+  /**
+   * A role's permission rows.  A partition which holds only the static column yields a single row without a
+   * permittable group.
+   */
+  static class PermissionPartition {
+    final boolean migrated;
+    final Map<String, PermissionRow> rows;
+
+    PermissionPartition(final Iterable<Row> result) {
+      final List<Row> all = StreamSupport.stream(result.spliterator(), false).collect(Collectors.toList());
+      this.migrated = all.stream().anyMatch(row -> !row.isNull(MIGRATED_COLUMN) && row.getBool(MIGRATED_COLUMN));
+      this.rows = all.stream()
+          .filter(row -> !row.isNull(PERMITTABLE_GROUP_IDENTIFIER_COLUMN))
+          .map(PermissionRow::new)
+          .sorted(Comparator.comparingLong((PermissionRow x) -> x.position)
+              .thenComparing(x -> x.permission.getPermittableGroupIdentifier()))
+          .collect(Collectors.toMap(x -> x.permission.getPermittableGroupIdentifier(), x -> x, (x, y) -> x, LinkedHashMap::new));
+    }
+
+    /**
+     * Rows without the migrated mark were written before it existed, and are the role's permissions as well.
+     */
+    boolean holdsRole() {
+      return migrated || !rows.isEmpty();
+    }
 
-    return new ArrayList<>(entityMapper.map(tenantSession.execute(statement)).all());
+    List<PermissionType> permissions() {
+      return rows.values().stream().map(x -> x.permission).collect(Collectors.toList());
+    }
+
+    RoleEntity role(final String identifier) {
+      return new RoleEntity(identifier, permissions());
+    }
+  }
+
+  private static class PermissionRow {
+    final PermissionType permission;
+    final long position;
+
+    PermissionRow(final Row row) {
+      this.permission = new PermissionType(row.getString(PERMITTABLE_GROUP_IDENTIFIER_COLUMN),
+          row.getSet(ALLOWED_OPERATIONS_COLUMN, AllowedOperationType.class));
+      this.position = row.isNull(POSITION_COLUMN) ? 0 : row.getLong(POSITION_COLUMN);
+    }
   }
 }
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A role's permissions are kept one per row in isis_role_permissions, ordered by their position in the role.  A
+ * role and its permissions are read together in one query.  Writers lock the role's row, so that whole-role writes
+ * and permission changes to the same role don't interleave.
+ */
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class RolesForSQL implements RoleRepository {
+  static final String TABLE_NAME = "isis_roles";
+  static final String IDENTIFIER_COLUMN = "identifier";
+
+  static final String PERMISSIONS_TABLE_NAME = "isis_role_permissions";
+  static final String ROLE_IDENTIFIER_COLUMN = "role_identifier";
+  static final String POSITION_COLUMN = "position";
+  static final String PERMITTABLE_GROUP_IDENTIFIER_COLUMN = "permittable_group_identifier";
+  static final String ALLOWED_OPERATIONS_COLUMN = "allowed_operations";
+
+  private static final String INSERT_ROLE_STMT = "INSERT INTO " + TABLE_NAME + " (" + IDENTIFIER_COLUMN + ") VALUES (?)"
+      + " ON CONFLICT (" + IDENTIFIER_COLUMN + ") DO NOTHING";
+  private static final String LOCK_ROLE_STMT = "SELECT " + IDENTIFIER_COLUMN + " FROM " + TABLE_NAME + " WHERE " + IDENTIFIER_COLUMN + " = ? FOR UPDATE";
+  private static final String DELETE_ROLE_STMT = "DELETE FROM " + TABLE_NAME + " WHERE " + IDENTIFIER_COLUMN + " = ?";
+  private static final String DELETE_PERMISSIONS_STMT = "DELETE FROM " + PERMISSIONS_TABLE_NAME + " WHERE " + ROLE_IDENTIFIER_COLUMN + " = ?";
+  private static final String INSERT_PERMISSION_STMT = "INSERT INTO " + PERMISSIONS_TABLE_NAME + " ("
+      + ROLE_IDENTIFIER_COLUMN + ", " + POSITION_COLUMN + ", " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + ", " + ALLOWED_OPERATIONS_COLUMN + ")"
+      + " VALUES (?, ?, ?, ?)";
+  private static final String DELETE_GROUP_PERMISSIONS_STMT = DELETE_PERMISSIONS_STMT
+      + " AND " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + " = ANY (?)";
+  private static final String UPDATE_GROUP_PERMISSION_STMT = "UPDATE " + PERMISSIONS_TABLE_NAME + " SET " + ALLOWED_OPERATIONS_COLUMN + " = ?"
+      + " WHERE " + ROLE_IDENTIFIER_COLUMN + " = ? AND " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + " = ?";
+  private static final String APPEND_PERMISSION_STMT = "INSERT INTO " + PERMISSIONS_TABLE_NAME + " ("
+      + ROLE_IDENTIFIER_COLUMN + ", " + POSITION_COLUMN + ", " + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + ", " + ALLOWED_OPERATIONS_COLUMN + ")"
+      + " SELECT ?, COALESCE(MAX(" + POSITION_COLUMN + ") + 1, 0), ?, ? FROM " + PERMISSIONS_TABLE_NAME + " WHERE " + ROLE_IDENTIFIER_COLUMN + " = ?";
+  private static final String SELECT_WITH_PERMISSIONS = "SELECT r." + IDENTIFIER_COLUMN + ", p." + PERMITTABLE_GROUP_IDENTIFIER_COLUMN + ", p." + ALLOWED_OPERATIONS_COLUMN
+      + " FROM " + TABLE_NAME + " r LEFT JOIN " + PERMISSIONS_TABLE_NAME + " p ON p." + ROLE_IDENTIFIER_COLUMN + " = r." + IDENTIFIER_COLUMN;
+  private static final String FIND_ONE_STMT = SELECT_WITH_PERMISSIONS + " WHERE r." + IDENTIFIER_COLUMN + " = ? ORDER BY p." + POSITION_COLUMN;
+  private static final String FETCH_ALL_STMT = SELECT_WITH_PERMISSIONS + " ORDER BY r." + IDENTIFIER_COLUMN + ", p." + POSITION_COLUMN;
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  RolesForSQL(final TenantAwareJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void add(final RoleEntity instance) {
+    save(instance);
+  }
+
+  @Override
+  public void change(final RoleEntity instance) {
+    save(instance);
+  }
+
+  @Override
+  public Optional<RoleEntity> get(final String identifier) {
+    final List<RoleEntity> ret = collect(jdbcTemplate.query(FIND_ONE_STMT, statement -> statement.setString(1, identifier), RoleRow::new));
+    return ret.stream().findFirst();
+  }
+
+  @Override
+  public void delete(final RoleEntity instance) {
+    //Permissions are removed by the foreign key cascade.
+    jdbcTemplate.update(DELETE_ROLE_STMT, statement -> statement.setString(1, instance.getIdentifier()));
+  }
+
+  @Override
+  public List<RoleEntity> getAll() {
+    return collect(jdbcTemplate.query(FETCH_ALL_STMT, RoleRow::new));
+  }
+
+  @Override
+  public boolean changePermissions(final String identifier, final List<PermissionType> add, final Collection<String> remove) {
+    return jdbcTemplate.inTransaction(connection -> {
+      if (!lock(connection, identifier))
+        return false;
+
+      if (!remove.isEmpty())
+        TenantAwareJdbcTemplate.update(connection, DELETE_GROUP_PERMISSIONS_STMT, statement -> {
+          statement.setString(1, identifier);
+          statement.setArray(2, TenantAwareJdbcTemplate.textArray(statement, remove));
+        });
+
+      for (final PermissionType permission : add) {
+        final int updated = TenantAwareJdbcTemplate.update(connection, UPDATE_GROUP_PERMISSION_STMT, statement -> {
+          statement.setArray(1, TenantAwareJdbcTemplate.allowedOperations(statement, permission.getAllowedOperations()));
+          statement.setString(2, identifier);
+          statement.setString(3, permission.getPermittableGroupIdentifier());
+        });
+        if (updated == 0)
+          TenantAwareJdbcTemplate.update(connection, APPEND_PERMISSION_STMT, statement -> {
+            statement.setString(1, identifier);
+            statement.setString(2, permission.getPermittableGroupIdentifier());
+            statement.setArray(3, TenantAwareJdbcTemplate.allowedOperations(statement, permission.getAllowedOperations()));
+            statement.setString(4, identifier);
+          });
+      }
+      return true;
+    });
+  }
+
+  private static boolean lock(final Connection connection, final String identifier) throws SQLException {
+    return !TenantAwareJdbcTemplate.query(connection, LOCK_ROLE_STMT,
+        statement -> statement.setString(1, identifier),
+        resultSet -> resultSet.getString(IDENTIFIER_COLUMN)).isEmpty();
+  }
+
+  private void save(final RoleEntity instance) {
+    final List<PermissionType> permissions = instance.getPermissions() == null ? new ArrayList<>() : instance.getPermissions();
+    jdbcTemplate.inTransaction(connection -> {
+      TenantAwareJdbcTemplate.update(connection, INSERT_ROLE_STMT, statement -> statement.setString(1, instance.getIdentifier()));
+      lock(connection, instance.getIdentifier());
+      TenantAwareJdbcTemplate.update(connection, DELETE_PERMISSIONS_STMT, statement -> statement.setString(1, instance.getIdentifier()));
+
+      final List<Integer> positions = new ArrayList<>();
+      for (int i = 0; i < permissions.size(); i++)
+        positions.add(i);
+      TenantAwareJdbcTemplate.batchUpdate(connection, INSERT_PERMISSION_STMT, positions, (statement, position) -> {
+        final PermissionType permission = permissions.get(position);
+        statement.setString(1, instance.getIdentifier());
+        statement.setInt(2, position);
+        statement.setString(3, permission.getPermittableGroupIdentifier());
+        statement.setArray(4, TenantAwareJdbcTemplate.allowedOperations(statement, permission.getAllowedOperations()));
+      });
+      return null;
+    });
+  }
+
+  private static List<RoleEntity> collect(final List<RoleRow> rows) {
+    final Map<String, RoleEntity> ret = new LinkedHashMap<>();
+    rows.forEach(row -> {
+      final RoleEntity role = ret.computeIfAbsent(row.identifier, x -> new RoleEntity(x, new ArrayList<>()));
+      if (row.permission != null)
+        role.getPermissions().add(row.permission);
+    });
+    return new ArrayList<>(ret.values());
+  }
+
+  private static class RoleRow {
+    final String identifier;
+    final PermissionType permission;
+
+    RoleRow(final ResultSet resultSet) throws SQLException {
+      this.identifier = resultSet.getString(IDENTIFIER_COLUMN);
+      final String permittableGroupIdentifier = resultSet.getString(PERMITTABLE_GROUP_IDENTIFIER_COLUMN);
+      this.permission = permittableGroupIdentifier == null ? null : new PermissionType(
+          permittableGroupIdentifier, TenantAwareJdbcTemplate.allowedOperations(resultSet, ALLOWED_OPERATIONS_COLUMN));
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class RolesInMemory implements RoleRepository {
+  private final InMemoryStore store;
+
+  @Autowired
+  public RolesInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public void add(final RoleEntity instance) {
+    store.partition().roles.put(instance.getIdentifier(), copy(instance));
+  }
+
+  @Override
+  public void change(final RoleEntity instance) {
+    add(instance);
+  }
+
+  @Override
+  public Optional<RoleEntity> get(final String identifier) {
+    return Optional.ofNullable(store.partition().roles.get(identifier)).map(RolesInMemory::copy);
+  }
+
+  @Override
+  public void delete(final RoleEntity instance) {
+    store.partition().roles.remove(instance.getIdentifier());
+  }
+
+  @Override
+  public List<RoleEntity> getAll() {
+    return store.partition().roles.values().stream().map(RolesInMemory::copy).collect(Collectors.toList());
+  }
+
+  @Override
+  public boolean changePermissions(final String identifier, final List<PermissionType> add, final Collection<String> remove) {
+    final List<PermissionType> copies = add.stream().map(RolesInMemory::copy).collect(Collectors.toList());
+    return store.partition().roles.computeIfPresent(identifier, (key, role) -> new RoleEntity(key,
+        PermissionType.change(role.getPermissions() == null ? new ArrayList<>() : role.getPermissions(), copies, remove))) != null;
+  }
+
+  private static RoleEntity copy(final RoleEntity instance) {
+    final List<PermissionType> permissions = instance.getPermissions() == null ? null
+        : instance.getPermissions().stream().map(RolesInMemory::copy).collect(Collectors.toList());
+    return new RoleEntity(instance.getIdentifier(), permissions);
+  }
+
+  static PermissionType copy(final PermissionType instance) {
+    return new PermissionType(instance.getPermittableGroupIdentifier(),
+        instance.getAllowedOperations() == null || instance.getAllowedOperations().isEmpty()
+            ? instance.getAllowedOperations()
+            : EnumSet.copyOf(instance.getAllowedOperations()));
+  }
+}
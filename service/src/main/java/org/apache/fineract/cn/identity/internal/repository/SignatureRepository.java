@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
+import org.apache.fineract.cn.lang.security.RsaKeyPairFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage for the tenant's own signing keys, independent of the database the tenant is provisioned on.
+ */
+public interface SignatureRepository {
+
+  SignatureEntity add(RsaKeyPairFactory.KeyPairHolder keys);
+
+  Optional<SignatureEntity> getSignature(String keyTimestamp);
+
+  /**
+   * @return the most current valid private key pair with key timestamp.  If there are no valid key pairs, returns Optional.empty.
+   */
+  Optional<PrivateSignatureEntity> getPrivateSignature();
+
+  List<String> getAllKeyTimestamps();
+
+  void invalidateEntry(String keyTimestamp);
+
+  default CompletableFuture<Optional<SignatureEntity>> getSignatureAsync(final String keyTimestamp) {
+    return TenantAwareFutures.supply(() -> getSignature(keyTimestamp));
+  }
+
+  default CompletableFuture<Optional<PrivateSignatureEntity>> getPrivateSignatureAsync() {
+    return TenantAwareFutures.supply(this::getPrivateSignature);
+  }
+}
@@ -23,21 +23,21 @@ import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.exceptions.InvalidQueryException;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
-import com.datastax.driver.core.querybuilder.Select;
-import com.datastax.driver.core.querybuilder.Update;
 import com.datastax.driver.core.schemabuilder.Create;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import com.datastax.driver.core.schemabuilder.SchemaStatement;
-import com.datastax.driver.mapping.Mapper;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
-import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareCassandraMapperProvider;
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
 import org.apache.fineract.cn.lang.security.RsaKeyPairFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 /**
@@ -51,7 +51,9 @@ import org.springframework.stereotype.Component;
  * @author Myrle Krantz
  */
 @Component
-public class Signatures {
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class Signatures implements SignatureRepository {
   static final String TABLE_NAME = "isis_signatures";
   private static final String INDEX_NAME = "isis_signatures_valid_index";
   static final String KEY_TIMESTAMP_COLUMN = "key_timestamp";
@@ -61,15 +63,28 @@ public class Signatures {
   static final String PUBLIC_KEY_MOD_COLUMN = "public_key_mod";
   static final String PUBLIC_KEY_EXP_COLUMN = "public_key_exp";
 
-  private final CassandraSessionProvider cassandraSessionProvider;
-  private final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider;
+  private static final String INSERT = "INSERT INTO " + TABLE_NAME + " ("
+      + KEY_TIMESTAMP_COLUMN + ", "
+      + VALID_COLUMN + ", "
+      + PRIVATE_KEY_MOD_COLUMN + ", "
+      + PRIVATE_KEY_EXP_COLUMN + ", "
+      + PUBLIC_KEY_MOD_COLUMN + ", "
+      + PUBLIC_KEY_EXP_COLUMN + ")"
+      + "VALUES (?, ?, ?, ?, ?, ?)";
+  private static final String SELECT_VALID_KEY_TIMESTAMPS = QueryBuilder.select(KEY_TIMESTAMP_COLUMN)
+      .from(TABLE_NAME)
+      .where(QueryBuilder.eq(VALID_COLUMN, QueryBuilder.bindMarker()))
+      .getQueryString();
+  private static final String INVALIDATE = QueryBuilder.update(TABLE_NAME)
+      .where(QueryBuilder.eq(KEY_TIMESTAMP_COLUMN, QueryBuilder.bindMarker()))
+      .with(QueryBuilder.set(VALID_COLUMN, false))
+      .getQueryString();
+
+  private final TenantStatementRegistry statements;
 
   @Autowired
-  public Signatures(
-          final CassandraSessionProvider cassandraSessionProvider,
-          final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider) {
-    this.cassandraSessionProvider = cassandraSessionProvider;
-    this.tenantAwareCassandraMapperProvider = tenantAwareCassandraMapperProvider;
+  public Signatures(final TenantStatementRegistry statements) {
+    this.statements = statements;
   }
 
   public synchronized void buildTable() {
@@ -82,28 +97,20 @@ public class Signatures {
         .addColumn(PUBLIC_KEY_MOD_COLUMN, DataType.varint())
         .addColumn(PUBLIC_KEY_EXP_COLUMN, DataType.varint());
 
-    cassandraSessionProvider.getTenantSession().execute(create);
+    statements.execute(create);
 
     final SchemaStatement createValidIndex = SchemaBuilder.createIndex(INDEX_NAME)
         .ifNotExists()
         .onTable(TABLE_NAME)
         .andColumn(VALID_COLUMN);
 
-    cassandraSessionProvider.getTenantSession().execute(createValidIndex);
+    statements.execute(createValidIndex);
   }
 
   public synchronized SignatureEntity add(final RsaKeyPairFactory.KeyPairHolder keys)
   {
     //There will only be one entry in this table.
-    final BoundStatement tenantCreationStatement =
-            cassandraSessionProvider.getTenantSession().prepare("INSERT INTO " + TABLE_NAME + " ("
-                    + KEY_TIMESTAMP_COLUMN + ", "
-                    + VALID_COLUMN + ", "
-                    + PRIVATE_KEY_MOD_COLUMN + ", "
-                    + PRIVATE_KEY_EXP_COLUMN + ", "
-                    + PUBLIC_KEY_MOD_COLUMN + ", "
-                    + PUBLIC_KEY_EXP_COLUMN + ")"
-                    + "VALUES (?, ?, ?, ?, ?, ?)").bind();
+    final BoundStatement tenantCreationStatement = statements.bind(INSERT);
 
     tenantCreationStatement.setString(KEY_TIMESTAMP_COLUMN, keys.getTimestamp());
 
@@ -113,7 +120,7 @@ public class Signatures {
     tenantCreationStatement.setVarint(PUBLIC_KEY_MOD_COLUMN, keys.getPublicKeyMod());
     tenantCreationStatement.setVarint(PUBLIC_KEY_EXP_COLUMN, keys.getPublicKeyExp());
 
-    cassandraSessionProvider.getTenantSession().execute(tenantCreationStatement);
+    statements.execute(tenantCreationStatement);
 
     final SignatureEntity ret = new SignatureEntity();
     ret.setKeyTimestamp(keys.getTimestamp());
@@ -126,10 +133,8 @@ public class Signatures {
 
   public Optional<SignatureEntity> getSignature(final String keyTimestamp) {
     try {
-      final Mapper<SignatureEntity> signatureEntityMapper
-          = tenantAwareCassandraMapperProvider.getMapper(SignatureEntity.class);
-
-      final Optional<SignatureEntity> ret = Optional.ofNullable(signatureEntityMapper.get(keyTimestamp));
+      final Optional<SignatureEntity> ret
+          = Optional.ofNullable(statements.get(SignatureEntity.class, keyTimestamp));
       return ret.filter(SignatureEntity::getValid);
     }
     catch (final InvalidQueryException e) {
@@ -137,6 +142,17 @@ public class Signatures {
     }
   }
 
+  public CompletableFuture<Optional<SignatureEntity>> getSignatureAsync(final String keyTimestamp) {
+    return statements.getAsync(SignatureEntity.class, keyTimestamp)
+        .thenApply(x -> Optional.ofNullable(x).filter(SignatureEntity::getValid))
+        .exceptionally(e -> {
+          final Throwable cause = TenantAwareFutures.cause(e);
+          if (cause instanceof InvalidQueryException)
+            return Optional.empty();
+          throw new CompletionException(cause);
+        });
+  }
+
   /**
    * @return the most current valid private key pair with key timestamp.  If there are no valid key pairs, returns Optional.empty.
    */
@@ -149,10 +165,8 @@ public class Signatures {
 
   private Optional<PrivateSignatureEntity> getPrivateSignatureEntity(final String keyTimestamp) {
     try {
-      final Mapper<PrivateSignatureEntity> privateSignatureEntityMapper
-          = tenantAwareCassandraMapperProvider.getMapper(PrivateSignatureEntity.class);
-
-      final Optional<PrivateSignatureEntity> ret = Optional.ofNullable(privateSignatureEntityMapper.get(keyTimestamp));
+      final Optional<PrivateSignatureEntity> ret
+          = Optional.ofNullable(statements.get(PrivateSignatureEntity.class, keyTimestamp));
       return ret.filter(PrivateSignatureEntity::getValid);
     }
     catch (final InvalidQueryException e) {
@@ -166,10 +180,7 @@ public class Signatures {
 
   private Stream<String> streamValidKeyTimestamps() {
     try {
-      final Select.Where selectValid = QueryBuilder.select(KEY_TIMESTAMP_COLUMN)
-          .from(TABLE_NAME)
-          .where(QueryBuilder.eq(VALID_COLUMN, true));
-      final ResultSet result = cassandraSessionProvider.getTenantSession().execute(selectValid);
+      final ResultSet result = statements.execute(statements.bind(SELECT_VALID_KEY_TIMESTAMPS, true));
       return StreamSupport.stream(result.spliterator(), false)
           .map(x -> x.get(KEY_TIMESTAMP_COLUMN, String.class));
     }
@@ -179,7 +190,6 @@ public class Signatures {
   }
 
   public synchronized void invalidateEntry(final String keyTimestamp) {
-    final Update.Assignments updateQuery = QueryBuilder.update(TABLE_NAME).where(QueryBuilder.eq(KEY_TIMESTAMP_COLUMN, keyTimestamp)).with(QueryBuilder.set(VALID_COLUMN, false));
-    cassandraSessionProvider.getTenantSession().execute(updateQuery);
+    statements.execute(statements.bind(INVALIDATE, keyTimestamp));
   }
 }
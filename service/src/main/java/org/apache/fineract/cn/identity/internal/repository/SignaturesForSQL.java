@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.apache.fineract.cn.lang.security.RsaKeyPairFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Calls which could be made before the tenant is provisioned treat a missing table as an empty one.
+ */
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class SignaturesForSQL implements SignatureRepository {
+  static final String TABLE_NAME = "isis_signatures";
+  static final String KEY_TIMESTAMP_COLUMN = "key_timestamp";
+  static final String VALID_COLUMN = "valid";
+  static final String PRIVATE_KEY_MOD_COLUMN = "private_key_mod";
+  static final String PRIVATE_KEY_EXP_COLUMN = "private_key_exp";
+  static final String PUBLIC_KEY_MOD_COLUMN = "public_key_mod";
+  static final String PUBLIC_KEY_EXP_COLUMN = "public_key_exp";
+
+  private static final String INSERT_STMT = "INSERT INTO " + TABLE_NAME + " ("
+      + KEY_TIMESTAMP_COLUMN + ", " + VALID_COLUMN + ", "
+      + PRIVATE_KEY_MOD_COLUMN + ", " + PRIVATE_KEY_EXP_COLUMN + ", "
+      + PUBLIC_KEY_MOD_COLUMN + ", " + PUBLIC_KEY_EXP_COLUMN + ")"
+      + " VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (" + KEY_TIMESTAMP_COLUMN + ") DO NOTHING";
+  private static final String FIND_VALID_STMT = "SELECT " + KEY_TIMESTAMP_COLUMN + ", " + PUBLIC_KEY_MOD_COLUMN + ", " + PUBLIC_KEY_EXP_COLUMN
+      + " FROM " + TABLE_NAME + " WHERE " + KEY_TIMESTAMP_COLUMN + " = ? AND " + VALID_COLUMN;
+  private static final String FIND_LATEST_PRIVATE_STMT = "SELECT " + KEY_TIMESTAMP_COLUMN + ", " + PRIVATE_KEY_MOD_COLUMN + ", " + PRIVATE_KEY_EXP_COLUMN
+      + " FROM " + TABLE_NAME + " WHERE " + VALID_COLUMN + " ORDER BY " + KEY_TIMESTAMP_COLUMN + " DESC LIMIT 1";
+  private static final String FETCH_VALID_KEY_TIMESTAMPS_STMT = "SELECT " + KEY_TIMESTAMP_COLUMN
+      + " FROM " + TABLE_NAME + " WHERE " + VALID_COLUMN;
+  private static final String INVALIDATE_STMT = "UPDATE " + TABLE_NAME + " SET " + VALID_COLUMN + " = FALSE WHERE " + KEY_TIMESTAMP_COLUMN + " = ?";
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  SignaturesForSQL(final TenantAwareJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public SignatureEntity add(final RsaKeyPairFactory.KeyPairHolder keys) {
+    jdbcTemplate.update(INSERT_STMT, statement -> {
+      statement.setString(1, keys.getTimestamp());
+      statement.setBoolean(2, true);
+      statement.setBigDecimal(3, TenantAwareJdbcTemplate.numeric(keys.getPrivateKeyMod()));
+      statement.setBigDecimal(4, TenantAwareJdbcTemplate.numeric(keys.getPrivateKeyExp()));
+      statement.setBigDecimal(5, TenantAwareJdbcTemplate.numeric(keys.getPublicKeyMod()));
+      statement.setBigDecimal(6, TenantAwareJdbcTemplate.numeric(keys.getPublicKeyExp()));
+    });
+
+    final SignatureEntity ret = new SignatureEntity();
+    ret.setKeyTimestamp(keys.getTimestamp());
+    ret.setPublicKeyMod(keys.getPublicKeyMod());
+    ret.setPublicKeyExp(keys.getPublicKeyExp());
+    ret.setValid(true);
+
+    return ret;
+  }
+
+  @Override
+  public Optional<SignatureEntity> getSignature(final String keyTimestamp) {
+    try {
+      return jdbcTemplate.queryForObject(FIND_VALID_STMT, statement -> statement.setString(1, keyTimestamp), resultSet -> {
+        final SignatureEntity ret = new SignatureEntity();
+        ret.setKeyTimestamp(resultSet.getString(KEY_TIMESTAMP_COLUMN));
+        ret.setValid(true);
+        ret.setPublicKeyMod(TenantAwareJdbcTemplate.bigInteger(resultSet, PUBLIC_KEY_MOD_COLUMN));
+        ret.setPublicKeyExp(TenantAwareJdbcTemplate.bigInteger(resultSet, PUBLIC_KEY_EXP_COLUMN));
+        return ret;
+      });
+    }
+    catch (final IllegalStateException e) {
+      if (TenantAwareJdbcTemplate.isUndefinedTable(e))
+        return Optional.empty();
+      throw e;
+    }
+  }
+
+  @Override
+  public Optional<PrivateSignatureEntity> getPrivateSignature() {
+    try {
+      return jdbcTemplate.queryForObject(FIND_LATEST_PRIVATE_STMT, statement -> { }, resultSet -> {
+        final PrivateSignatureEntity ret = new PrivateSignatureEntity();
+        ret.setKeyTimestamp(resultSet.getString(KEY_TIMESTAMP_COLUMN));
+        ret.setValid(true);
+        ret.setPrivateKeyMod(TenantAwareJdbcTemplate.bigInteger(resultSet, PRIVATE_KEY_MOD_COLUMN));
+        ret.setPrivateKeyExp(TenantAwareJdbcTemplate.bigInteger(resultSet, PRIVATE_KEY_EXP_COLUMN));
+        return ret;
+      });
+    }
+    catch (final IllegalStateException e) {
+      if (TenantAwareJdbcTemplate.isUndefinedTable(e))
+        return Optional.empty();
+      throw e;
+    }
+  }
+
+  @Override
+  public List<String> getAllKeyTimestamps() {
+    try {
+      return jdbcTemplate.query(FETCH_VALID_KEY_TIMESTAMPS_STMT, resultSet -> resultSet.getString(KEY_TIMESTAMP_COLUMN));
+    }
+    catch (final IllegalStateException e) {
+      if (TenantAwareJdbcTemplate.isUndefinedTable(e))
+        return Collections.emptyList();
+      throw e;
+    }
+  }
+
+  @Override
+  public void invalidateEntry(final String keyTimestamp) {
+    jdbcTemplate.update(INVALIDATE_STMT, statement -> statement.setString(1, keyTimestamp));
+  }
+}
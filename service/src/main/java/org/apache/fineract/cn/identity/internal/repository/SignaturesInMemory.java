@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.apache.fineract.cn.lang.security.RsaKeyPairFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class SignaturesInMemory implements SignatureRepository {
+  private static final String TABLE_NAME = "signatures";
+
+  private final InMemoryStore store;
+
+  @Autowired
+  public SignaturesInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public SignatureEntity add(final RsaKeyPairFactory.KeyPairHolder keys) {
+    final SignatureEntity ret = new SignatureEntity();
+    ret.setKeyTimestamp(keys.getTimestamp());
+    ret.setPublicKeyMod(keys.getPublicKeyMod());
+    ret.setPublicKeyExp(keys.getPublicKeyExp());
+    ret.setValid(true);
+
+    final PrivateSignatureEntity privateSignature = new PrivateSignatureEntity();
+    privateSignature.setKeyTimestamp(keys.getTimestamp());
+    privateSignature.setPrivateKeyMod(keys.getPrivateKeyMod());
+    privateSignature.setPrivateKeyExp(keys.getPrivateKeyExp());
+    privateSignature.setValid(true);
+
+    final InMemoryStore.Partition partition = store.partition();
+    store.locked(TABLE_NAME, keys.getTimestamp(), () -> {
+      if (partition.signatures.putIfAbsent(keys.getTimestamp(), ret) == null)
+        partition.privateSignatures.put(keys.getTimestamp(), privateSignature);
+    });
+
+    return copy(ret);
+  }
+
+  @Override
+  public Optional<SignatureEntity> getSignature(final String keyTimestamp) {
+    return Optional.ofNullable(store.partition().signatures.get(keyTimestamp))
+        .filter(x -> Boolean.TRUE.equals(x.getValid()))
+        .map(SignaturesInMemory::copy);
+  }
+
+  @Override
+  public Optional<PrivateSignatureEntity> getPrivateSignature() {
+    return store.partition().privateSignatures.descendingMap().values().stream()
+        .filter(x -> Boolean.TRUE.equals(x.getValid()))
+        .findFirst()
+        .map(SignaturesInMemory::copy);
+  }
+
+  @Override
+  public List<String> getAllKeyTimestamps() {
+    return store.partition().signatures.values().stream()
+        .filter(x -> Boolean.TRUE.equals(x.getValid()))
+        .map(SignatureEntity::getKeyTimestamp)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public void invalidateEntry(final String keyTimestamp) {
+    final InMemoryStore.Partition partition = store.partition();
+    store.locked(TABLE_NAME, keyTimestamp, () -> {
+      partition.signatures.computeIfPresent(keyTimestamp, (key, signature) -> {
+        final SignatureEntity invalid = copy(signature);
+        invalid.setValid(false);
+        return invalid;
+      });
+      partition.privateSignatures.computeIfPresent(keyTimestamp, (key, signature) -> {
+        final PrivateSignatureEntity invalid = copy(signature);
+        invalid.setValid(false);
+        return invalid;
+      });
+    });
+  }
+
+  private static SignatureEntity copy(final SignatureEntity instance) {
+    final SignatureEntity ret = new SignatureEntity();
+    ret.setKeyTimestamp(instance.getKeyTimestamp());
+    ret.setPublicKeyMod(instance.getPublicKeyMod());
+    ret.setPublicKeyExp(instance.getPublicKeyExp());
+    ret.setValid(instance.getValid());
+    return ret;
+  }
+
+  private static PrivateSignatureEntity copy(final PrivateSignatureEntity instance) {
+    final PrivateSignatureEntity ret = new PrivateSignatureEntity();
+    ret.setKeyTimestamp(instance.getKeyTimestamp());
+    ret.setPrivateKeyMod(instance.getPrivateKeyMod());
+    ret.setPrivateKeyExp(instance.getPrivateKeyExp());
+    ret.setValid(instance.getValid());
+    return ret;
+  }
+}
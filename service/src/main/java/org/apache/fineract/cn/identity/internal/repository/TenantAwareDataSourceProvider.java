@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.fineract.cn.identity.api.v1.domain.DatabaseConnectionInfo;
+import org.apache.fineract.cn.identity.internal.util.DataSourceUtils;
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Hands out one connection pool per tenant.  Pools are created on first use and live until shutdown.  Each tenant's
+ * tables are in a schema named after the tenant, and its pool's connections only see that schema, so tenants sharing
+ * a database never see each other's rows.
+ *
+ * Where a tenant's data lives is looked up in the tenants table of the meta database named by postgresql.database,
+ * which the provisioner fills when it creates the tenant.  Connection settings missing there are taken from the
+ * postgresql properties.  Without a meta database, each tenant gets the database named after its identifier.
+ */
+@Component
+@Profile("postgres")
+public class TenantAwareDataSourceProvider {
+  static final String META_DATABASE_PROP = "postgresql.database";
+
+  private static final String SELECT_TENANT =
+      "SELECT driver_class, database_name, host, port, a_user, pwd FROM tenants WHERE identifier = ?";
+
+  private final Environment environment;
+  private final Logger logger;
+  private final ConcurrentHashMap<String, HikariDataSource> dataSources = new ConcurrentHashMap<>();
+  private volatile HikariDataSource metaDataSource;
+
+  @Autowired
+  TenantAwareDataSourceProvider(
+      final Environment environment,
+      @Qualifier(IdentityConstants.LOGGER_NAME) final Logger logger) {
+    this.environment = environment;
+    this.logger = logger;
+  }
+
+  public DataSource getTenantDataSource() {
+    return dataSources.computeIfAbsent(TenantContextHolder.checkedGetIdentifier(), this::createDataSource);
+  }
+
+  public String getTenantSchema() {
+    return tenantSchema(TenantContextHolder.checkedGetIdentifier());
+  }
+
+  static String tenantSchema(final String tenantIdentifier) {
+    return tenantIdentifier;
+  }
+
+  DatabaseConnectionInfo tenantConnectionInfo(final String tenantIdentifier) {
+    final String metaDatabase = environment.getProperty(META_DATABASE_PROP);
+    if (metaDatabase == null || metaDatabase.isEmpty())
+      return DataSourceUtils.connectionInfo(environment, tenantIdentifier);
+
+    try (final Connection connection = metaDataSource(metaDatabase).getConnection();
+         final PreparedStatement statement = connection.prepareStatement(SELECT_TENANT)) {
+      statement.setString(1, tenantIdentifier);
+      try (final ResultSet resultSet = statement.executeQuery()) {
+        if (!resultSet.next())
+          throw new IllegalStateException("No database is registered for tenant '" + tenantIdentifier + "'.");
+
+        final DatabaseConnectionInfo ret = DataSourceUtils.connectionInfo(environment, resultSet.getString("database_name"));
+        if (ret.getDatabaseName() == null || ret.getDatabaseName().isEmpty())
+          throw new IllegalStateException("No database is registered for tenant '" + tenantIdentifier + "'.");
+        setIfPresent(resultSet.getString("driver_class"), ret::setDriverClass);
+        setIfPresent(resultSet.getString("host"), ret::setHost);
+        setIfPresent(resultSet.getString("port"), ret::setPort);
+        setIfPresent(resultSet.getString("a_user"), ret::setUser);
+        setIfPresent(resultSet.getString("pwd"), ret::setPassword);
+        return ret;
+      }
+    }
+    catch (final SQLException e) {
+      throw new IllegalStateException("Could not look up the database of tenant '" + tenantIdentifier + "'.", e);
+    }
+  }
+
+  private static void setIfPresent(final String value, final Consumer<String> setter) {
+    if (value != null && !value.isEmpty())
+      setter.accept(value);
+  }
+
+  private HikariDataSource metaDataSource(final String metaDatabase) {
+    if (metaDataSource == null) {
+      synchronized (this) {
+        if (metaDataSource == null)
+          metaDataSource = DataSourceUtils.createPooled(DataSourceUtils.connectionInfo(environment, metaDatabase), environment);
+      }
+    }
+    return metaDataSource;
+  }
+
+  private HikariDataSource createDataSource(final String tenantIdentifier) {
+    return new HikariDataSource(tenantPoolConfig(tenantIdentifier));
+  }
+
+  HikariConfig tenantPoolConfig(final String tenantIdentifier) {
+    final DatabaseConnectionInfo connectionInfo = tenantConnectionInfo(tenantIdentifier);
+    logger.info("Creating connection pool for tenant '{}' in database '{}'.", tenantIdentifier,
+        connectionInfo.getDatabaseName());
+    return DataSourceUtils.poolConfig(connectionInfo, environment, tenantSchema(tenantIdentifier));
+  }
+
+  @PreDestroy
+  void close() {
+    dataSources.values().forEach(HikariDataSource::close);
+    dataSources.clear();
+    if (metaDataSource != null)
+      metaDataSource.close();
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import com.datastax.driver.core.LocalDate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs statements against the current tenant's database.  Each call borrows a pooled connection for the duration
+ * of the call only.  SQLExceptions are rethrown as IllegalStateExceptions.
+ */
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class TenantAwareJdbcTemplate {
+  private static final int BATCH_SIZE = 100;
+  private static final String UNDEFINED_TABLE_SQL_STATE = "42P01";
+
+  @FunctionalInterface
+  public interface StatementBinder {
+    void bind(PreparedStatement statement) throws SQLException;
+  }
+
+  @FunctionalInterface
+  public interface ItemBinder<T> {
+    void bind(PreparedStatement statement, T item) throws SQLException;
+  }
+
+  @FunctionalInterface
+  public interface RowMapper<T> {
+    T map(ResultSet resultSet) throws SQLException;
+  }
+
+  @FunctionalInterface
+  public interface ConnectionCallback<T> {
+    T doInConnection(Connection connection) throws SQLException;
+  }
+
+  private static final StatementBinder NO_PARAMETERS = statement -> { };
+
+  private final TenantAwareDataSourceProvider tenantAwareDataSourceProvider;
+
+  @Autowired
+  TenantAwareJdbcTemplate(final TenantAwareDataSourceProvider tenantAwareDataSourceProvider) {
+    this.tenantAwareDataSourceProvider = tenantAwareDataSourceProvider;
+  }
+
+  public <T> Optional<T> queryForObject(final String sql, final StatementBinder binder, final RowMapper<T> mapper) {
+    return execute(connection -> {
+      try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+        binder.bind(statement);
+        try (final ResultSet resultSet = statement.executeQuery()) {
+          return resultSet.next() ? Optional.ofNullable(mapper.map(resultSet)) : Optional.<T>empty();
+        }
+      }
+    });
+  }
+
+  public <T> List<T> query(final String sql, final RowMapper<T> mapper) {
+    return query(sql, NO_PARAMETERS, mapper);
+  }
+
+  public <T> List<T> query(final String sql, final StatementBinder binder, final RowMapper<T> mapper) {
+    return execute(connection -> query(connection, sql, binder, mapper));
+  }
+
+  public boolean exists(final String sql, final StatementBinder binder) {
+    return queryForObject(sql, binder, resultSet -> Boolean.TRUE).isPresent();
+  }
+
+  public int update(final String sql, final StatementBinder binder) {
+    return execute(connection -> update(connection, sql, binder));
+  }
+
+  /**
+   * Runs the callback on a single connection inside one transaction, which is rolled back if the callback fails.
+   */
+  public <T> T inTransaction(final ConnectionCallback<T> callback) {
+    return execute(connection -> {
+      connection.setAutoCommit(false);
+      try {
+        final T ret = callback.doInConnection(connection);
+        connection.commit();
+        return ret;
+      }
+      catch (final SQLException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      }
+      finally {
+        connection.setAutoCommit(true);
+      }
+    });
+  }
+
+  static <T> List<T> query(
+      final Connection connection,
+      final String sql,
+      final StatementBinder binder,
+      final RowMapper<T> mapper) throws SQLException {
+    try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+      binder.bind(statement);
+      try (final ResultSet resultSet = statement.executeQuery()) {
+        final List<T> ret = new ArrayList<>();
+        while (resultSet.next()) {
+          ret.add(mapper.map(resultSet));
+        }
+        return ret;
+      }
+    }
+  }
+
+  static int update(final Connection connection, final String sql, final StatementBinder binder) throws SQLException {
+    try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+      binder.bind(statement);
+      return statement.executeUpdate();
+    }
+  }
+
+  /**
+   * Sends the items to the database in batches rather than one round trip per item.
+   */
+  static <T> void batchUpdate(
+      final Connection connection,
+      final String sql,
+      final Collection<T> items,
+      final ItemBinder<T> binder) throws SQLException {
+    if (items.isEmpty())
+      return;
+
+    try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+      int pending = 0;
+      for (final T item : items) {
+        binder.bind(statement, item);
+        statement.addBatch();
+        if (++pending == BATCH_SIZE) {
+          statement.executeBatch();
+          pending = 0;
+        }
+      }
+      if (pending > 0)
+        statement.executeBatch();
+    }
+  }
+
+  static byte[] bytes(final ByteBuffer buffer) {
+    if (buffer == null)
+      return null;
+    final ByteBuffer source = buffer.duplicate();
+    final byte[] ret = new byte[source.remaining()];
+    source.get(ret);
+    return ret;
+  }
+
+  static ByteBuffer byteBuffer(final byte[] bytes) {
+    return bytes == null ? null : ByteBuffer.wrap(bytes);
+  }
+
+  static BigDecimal numeric(final BigInteger value) {
+    return value == null ? null : new BigDecimal(value);
+  }
+
+  static BigInteger bigInteger(final ResultSet resultSet, final String column) throws SQLException {
+    final BigDecimal value = resultSet.getBigDecimal(column);
+    return value == null ? null : value.toBigIntegerExact();
+  }
+
+  static Date sqlDate(final LocalDate date) {
+    return date == null ? null : Date.valueOf(java.time.LocalDate.of(date.getYear(), date.getMonth(), date.getDay()));
+  }
+
+  static LocalDate localDate(final ResultSet resultSet, final String column) throws SQLException {
+    final Date date = resultSet.getDate(column);
+    if (date == null)
+      return null;
+    final java.time.LocalDate localDate = date.toLocalDate();
+    return LocalDate.fromYearMonthDay(localDate.getYear(), localDate.getMonthValue(), localDate.getDayOfMonth());
+  }
+
+  static Array textArray(final PreparedStatement statement, final Collection<String> values) throws SQLException {
+    return statement.getConnection().createArrayOf("text", values.toArray());
+  }
+
+  static List<String> strings(final ResultSet resultSet, final String column) throws SQLException {
+    final Array array = resultSet.getArray(column);
+    if (array == null)
+      return new ArrayList<>();
+    return new ArrayList<>(Arrays.asList((String[]) array.getArray()));
+  }
+
+  static Array allowedOperations(final PreparedStatement statement, final Set<AllowedOperationType> allowedOperations)
+      throws SQLException {
+    return textArray(statement, allowedOperations.stream().map(Enum::name).collect(Collectors.toList()));
+  }
+
+  static Set<AllowedOperationType> allowedOperations(final ResultSet resultSet, final String column) throws SQLException {
+    return strings(resultSet, column).stream().map(AllowedOperationType::valueOf).collect(Collectors.toSet());
+  }
+
+  /**
+   * Before a tenant is provisioned, its tables do not exist.  Callers which may run before provisioning treat
+   * this case as an empty table.
+   */
+  static boolean isUndefinedTable(final IllegalStateException e) {
+    return (e.getCause() instanceof SQLException) &&
+        UNDEFINED_TABLE_SQL_STATE.equals(((SQLException) e.getCause()).getSQLState());
+  }
+
+  public <T> T execute(final ConnectionCallback<T> callback) {
+    try (final Connection connection = tenantAwareDataSourceProvider.getTenantDataSource().getConnection()) {
+      return callback.doInConnection(connection);
+    }
+    catch (final SQLException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+}
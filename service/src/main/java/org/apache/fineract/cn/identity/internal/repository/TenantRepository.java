@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage for tenant wide settings, independent of the database the tenant is provisioned on.
+ */
+public interface TenantRepository {
+
+  void add(byte[] fixedSalt, int passwordExpiresInDays, int timeToChangePasswordAfterExpirationInDays);
+
+  Optional<PrivateTenantInfoEntity> getPrivateTenantInfo();
+
+  Optional<PasswordHashPolicyEntity> getPasswordHashPolicy();
+
+  void changePasswordHashPolicy(PasswordHashPolicyEntity policy);
+
+  default CompletableFuture<Optional<PrivateTenantInfoEntity>> getPrivateTenantInfoAsync() {
+    return TenantAwareFutures.supply(this::getPrivateTenantInfo);
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.KeyspaceMetadata;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TableMetadata;
+import com.datastax.driver.mapping.Mapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
+import org.apache.fineract.cn.cassandra.core.TenantAwareCassandraMapperProvider;
+import org.apache.fineract.cn.identity.internal.metrics.StatementMetrics;
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
+
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Prepares each statement once per tenant session and keeps entity mappers per tenant, so that repositories
+ * only bind values on the request path.  The least recently used tenants are evicted once more than
+ * identity.cassandra.statementCache.maximumTenants are held.
+ *
+ * All cassandra access of the identity repositories goes through here, so that every statement is counted and timed
+ * by {@link StatementMetrics}.  Entities are therefore read and written via the mapper's statements rather than
+ * via the mapper directly.  The same goes for the asynchronous variants, which execute the mapper's statements with
+ * executeAsync.  Those are timed and logged when slow, but not counted towards the command which issued them,
+ * since they complete on driver threads.  Statements are still prepared synchronously the first time they are used
+ * for a tenant.
+ */
+@Component
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class TenantStatementRegistry {
+  private static class TenantStatements {
+    private final Session session;
+    private final ConcurrentMap<String, PreparedStatement> preparedStatements = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Mapper<?>> mappers = new ConcurrentHashMap<>();
+
+    private TenantStatements(final Session session) {
+      this.session = session;
+    }
+  }
+
+  private final CassandraSessionProvider cassandraSessionProvider;
+  private final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider;
+  private final StatementMetrics statementMetrics;
+  private final Cache<String, TenantStatements> tenants;
+
+  @Autowired
+  public TenantStatementRegistry(
+      final CassandraSessionProvider cassandraSessionProvider,
+      final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider,
+      final StatementMetrics statementMetrics,
+      @Value("${identity.cassandra.statementCache.maximumTenants:100}") final long maximumTenants) {
+    this.cassandraSessionProvider = cassandraSessionProvider;
+    this.tenantAwareCassandraMapperProvider = tenantAwareCassandraMapperProvider;
+    this.statementMetrics = statementMetrics;
+    this.tenants = CacheBuilder.newBuilder().maximumSize(maximumTenants).build();
+  }
+
+  public Session session() {
+    return cassandraSessionProvider.getTenantSession();
+  }
+
+  public BoundStatement bind(final String cql, final Object... values) {
+    return prepare(cql).bind(values);
+  }
+
+  public PreparedStatement prepare(final String cql) {
+    final TenantStatements tenantStatements = tenantStatements();
+    return tenantStatements.preparedStatements.computeIfAbsent(cql, tenantStatements.session::prepare);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> Mapper<T> mapper(final Class<T> entityClass) {
+    return (Mapper<T>) tenantStatements().mappers
+        .computeIfAbsent(entityClass, x -> tenantAwareCassandraMapperProvider.getMapper(entityClass));
+  }
+
+  public ResultSet execute(final Statement statement) {
+    final long start = System.nanoTime();
+    try {
+      return session().execute(statement);
+    }
+    finally {
+      statementMetrics.record(cql(statement), System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Failures, including those while preparing the statement, are returned in the future rather than thrown.
+   */
+  public CompletableFuture<ResultSet> executeAsync(final Statement statement) {
+    final long start = System.nanoTime();
+    final String cql = cql(statement);
+    return TenantAwareFutures.supply(() -> session().executeAsync(statement))
+        .thenCompose(TenantAwareFutures::of)
+        .whenComplete((result, error) -> statementMetrics.record(cql, System.nanoTime() - start));
+  }
+
+  public <T> T get(final Class<T> entityClass, final Object... primaryKey) {
+    final Mapper<T> mapper = mapper(entityClass);
+    return mapper.map(execute(mapper.getQuery(primaryKey))).one();
+  }
+
+  public <T> CompletableFuture<T> getAsync(final Class<T> entityClass, final Object... primaryKey) {
+    return TenantAwareFutures.supply(() -> prepareGetAsync(entityClass, primaryKey)).thenCompose(Supplier::get);
+  }
+
+  /**
+   * Prepares a read by primary key on the calling thread, for stages which may run on driver threads and so must not
+   * prepare anything themselves.
+   */
+  public <T> Supplier<CompletableFuture<T>> prepareGetAsync(final Class<T> entityClass, final Object... primaryKey) {
+    final Mapper<T> mapper = mapper(entityClass);
+    final Statement query = mapper.getQuery(primaryKey);
+    return () -> executeAsync(query).thenApply(result -> mapper.map(result).one());
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> void save(final T entity) {
+    execute(mapper((Class<T>) entity.getClass()).saveQuery(entity));
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<Void> saveAsync(final T entity) {
+    return TenantAwareFutures.supply(() -> mapper((Class<T>) entity.getClass()).saveQuery(entity))
+        .thenCompose(this::executeAsync)
+        .thenApply(result -> null);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> void delete(final T entity) {
+    execute(mapper((Class<T>) entity.getClass()).deleteQuery(entity));
+  }
+
+  /**
+   * Answered from the schema the driver keeps up to date, so checking costs no round trip.  Schema changes made
+   * through the session are reflected as soon as they return.
+   */
+  public boolean hasTable(final String table) {
+    return tableMetadata(table) != null;
+  }
+
+  public boolean hasColumn(final String table, final String column) {
+    final TableMetadata tableMetadata = tableMetadata(table);
+    return tableMetadata != null && tableMetadata.getColumn(column) != null;
+  }
+
+  private TableMetadata tableMetadata(final String table) {
+    final Session session = session();
+    final KeyspaceMetadata keyspace = session.getCluster().getMetadata().getKeyspace(session.getLoggedKeyspace());
+    return keyspace == null ? null : keyspace.getTable(table);
+  }
+
+  private static String cql(final Statement statement) {
+    if (statement instanceof BoundStatement)
+      return ((BoundStatement) statement).preparedStatement().getQueryString();
+    if (statement instanceof RegularStatement)
+      return ((RegularStatement) statement).getQueryString();
+    return statement.toString();
+  }
+
+  private TenantStatements tenantStatements() {
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+    final Session session = session();
+    try {
+      final TenantStatements cached = tenants.get(tenantIdentifier, () -> new TenantStatements(session));
+      if (cached.session == session)
+        return cached;
+
+      //The session for the tenant was replaced, so everything prepared on the old one is useless.
+      final TenantStatements replacement = new TenantStatements(session);
+      tenants.put(tenantIdentifier, replacement);
+      return replacement;
+    }
+    catch (final ExecutionException | UncheckedExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
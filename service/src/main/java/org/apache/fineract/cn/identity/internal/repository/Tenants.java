@@ -20,36 +20,60 @@ package org.apache.fineract.cn.identity.internal.repository;
 
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.schemabuilder.Create;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import java.nio.ByteBuffer;
 import java.util.Optional;
-import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareEntityTemplate;
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 /**
  * @author Myrle Krantz
  */
 @Component
-public class Tenants {
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class Tenants implements TenantRepository {
   static final String TABLE_NAME = "isis_tenant";
   static final String VERSION_COLUMN = "version";
   static final String FIXED_SALT_COLUMN = "fixed_salt";
   static final String PASSWORD_EXPIRES_IN_DAYS_COLUMN = "password_expires_in_days";
   static final String TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS = "time_to_change_password_after_expiration_in_days";
+  static final String PASSWORD_ITERATION_COUNT_COLUMN = "password_iteration_count";
+  static final String PASSWORD_HASH_TARGET_MILLIS_COLUMN = "password_hash_target_millis";
+  static final String PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN = "password_calibrated_iteration_count";
+
+  private static final String INSERT = "INSERT INTO " + Tenants.TABLE_NAME + " ("
+      + VERSION_COLUMN + ", "
+      + FIXED_SALT_COLUMN + ", "
+      + PASSWORD_EXPIRES_IN_DAYS_COLUMN + ", "
+      + TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS + ")"
+      + "VALUES (?, ?, ?, ?)";
+
+  private static final String SELECT_PASSWORD_HASH_POLICY = "SELECT "
+      + PASSWORD_ITERATION_COUNT_COLUMN + ", "
+      + PASSWORD_HASH_TARGET_MILLIS_COLUMN + ", "
+      + PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN
+      + " FROM " + Tenants.TABLE_NAME + " WHERE " + VERSION_COLUMN + " = ?";
 
-  private final CassandraSessionProvider cassandraSessionProvider;
-  private final TenantAwareEntityTemplate tenantAwareEntityTemplate;
+  private static final String UPDATE_PASSWORD_HASH_POLICY = "UPDATE " + Tenants.TABLE_NAME + " SET "
+      + PASSWORD_ITERATION_COUNT_COLUMN + " = ?, "
+      + PASSWORD_HASH_TARGET_MILLIS_COLUMN + " = ?, "
+      + PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN + " = ?"
+      + " WHERE " + VERSION_COLUMN + " = ?";
+
+  private final TenantStatementRegistry statements;
 
   @Autowired
-  Tenants(final CassandraSessionProvider cassandraSessionProvider,
-          final TenantAwareEntityTemplate tenantAwareEntityTemplate)
+  Tenants(final TenantStatementRegistry statements)
   {
-    this.cassandraSessionProvider = cassandraSessionProvider;
-    this.tenantAwareEntityTemplate = tenantAwareEntityTemplate;
+    this.statements = statements;
   }
 
   public void buildTable() {
@@ -58,9 +82,32 @@ public class Tenants {
         .addPartitionKey(VERSION_COLUMN, DataType.cint())
         .addColumn(FIXED_SALT_COLUMN, DataType.blob())
         .addColumn(PASSWORD_EXPIRES_IN_DAYS_COLUMN, DataType.cint())
-        .addColumn(TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS, DataType.cint());
+        .addColumn(TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS, DataType.cint())
+        .addColumn(PASSWORD_ITERATION_COUNT_COLUMN, DataType.cint())
+        .addColumn(PASSWORD_HASH_TARGET_MILLIS_COLUMN, DataType.cint())
+        .addColumn(PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN, DataType.cint());
+
+    statements.execute(create);
+  }
 
-    cassandraSessionProvider.getTenantSession().execute(create);
+  /**
+   * Adds the policy columns to tables created before they existed.  Called when a tenant is provisioned again.  The
+   * columns are deliberately not part of {@link PrivateTenantInfoEntity}, so that tenants which haven't been
+   * reprovisioned can still log in.
+   */
+  public void buildPasswordHashPolicyColumns() {
+    addColumnIfMissing(PASSWORD_ITERATION_COUNT_COLUMN);
+    addColumnIfMissing(PASSWORD_HASH_TARGET_MILLIS_COLUMN);
+    addColumnIfMissing(PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN);
+  }
+
+  private void addColumnIfMissing(final String column) {
+    if (!statements.hasColumn(TABLE_NAME, column))
+      statements.execute(SchemaBuilder.alterTable(TABLE_NAME).addColumn(column).type(DataType.cint()));
+  }
+
+  private boolean hasPasswordHashPolicyColumns() {
+    return statements.hasColumn(TABLE_NAME, PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN);
   }
 
   public void add(
@@ -69,13 +116,7 @@ public class Tenants {
           final int timeToChangePasswordAfterExpirationInDays)
   {
     //There will only be one entry in this table.
-    final BoundStatement tenantCreationStatement =
-        cassandraSessionProvider.getTenantSession().prepare("INSERT INTO " + Tenants.TABLE_NAME + " ("
-            + VERSION_COLUMN + ", "
-            + FIXED_SALT_COLUMN + ", "
-            + PASSWORD_EXPIRES_IN_DAYS_COLUMN + ", "
-            + TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS + ")"
-            + "VALUES (?, ?, ?, ?)").bind();
+    final BoundStatement tenantCreationStatement = statements.bind(INSERT);
 
     tenantCreationStatement.setInt(VERSION_COLUMN, IdentityConstants.CURRENT_VERSION);
 
@@ -84,12 +125,46 @@ public class Tenants {
     tenantCreationStatement.setInt(TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS, timeToChangePasswordAfterExpirationInDays);
 
 
-    cassandraSessionProvider.getTenantSession().execute(tenantCreationStatement);
+    statements.execute(tenantCreationStatement);
   }
 
   public Optional<PrivateTenantInfoEntity> getPrivateTenantInfo()
   {
-    return tenantAwareEntityTemplate
-        .findById(PrivateTenantInfoEntity.class, IdentityConstants.CURRENT_VERSION);
+    return Optional.ofNullable(
+        statements.get(PrivateTenantInfoEntity.class, IdentityConstants.CURRENT_VERSION));
+  }
+
+  public CompletableFuture<Optional<PrivateTenantInfoEntity>> getPrivateTenantInfoAsync() {
+    return statements.getAsync(PrivateTenantInfoEntity.class, IdentityConstants.CURRENT_VERSION)
+        .thenApply(Optional::ofNullable);
+  }
+
+  public Optional<PasswordHashPolicyEntity> getPasswordHashPolicy() {
+    //Tenants which haven't been provisioned again since the policy was introduced have no policy.
+    if (!hasPasswordHashPolicyColumns())
+      return Optional.empty();
+
+    final Row row = statements.execute(statements.bind(SELECT_PASSWORD_HASH_POLICY, IdentityConstants.CURRENT_VERSION)).one();
+    if (row == null)
+      return Optional.empty();
+
+    final PasswordHashPolicyEntity ret = new PasswordHashPolicyEntity();
+    ret.setIterationCount(nullableInt(row, PASSWORD_ITERATION_COUNT_COLUMN));
+    ret.setTargetVerificationMillis(nullableInt(row, PASSWORD_HASH_TARGET_MILLIS_COLUMN));
+    ret.setCalibratedIterationCount(nullableInt(row, PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN));
+    return Optional.of(ret);
+  }
+
+  private static Integer nullableInt(final Row row, final String column) {
+    return row.isNull(column) ? null : row.getInt(column);
+  }
+
+  public void changePasswordHashPolicy(final PasswordHashPolicyEntity policy) {
+    if (!hasPasswordHashPolicyColumns())
+      throw new IllegalStateException("The tenant must be provisioned again before it can have a password hash policy.");
+
+    statements.execute(statements.bind(UPDATE_PASSWORD_HASH_POLICY,
+        policy.getIterationCount(), policy.getTargetVerificationMillis(), policy.getCalibratedIterationCount(),
+        IdentityConstants.CURRENT_VERSION));
   }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.Optional;
+
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class TenantsForSQL implements TenantRepository {
+  static final String TABLE_NAME = "isis_tenant";
+  static final String VERSION_COLUMN = "version";
+  static final String FIXED_SALT_COLUMN = "fixed_salt";
+  static final String PASSWORD_EXPIRES_IN_DAYS_COLUMN = "password_expires_in_days";
+  static final String TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS = "time_to_change_password_after_expiration_in_days";
+  static final String PASSWORD_ITERATION_COUNT_COLUMN = "password_iteration_count";
+  static final String PASSWORD_HASH_TARGET_MILLIS_COLUMN = "password_hash_target_millis";
+  static final String PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN = "password_calibrated_iteration_count";
+
+  private static final String UPSERT_STMT = "INSERT INTO " + TABLE_NAME + " ("
+      + VERSION_COLUMN + ", " + FIXED_SALT_COLUMN + ", " + PASSWORD_EXPIRES_IN_DAYS_COLUMN + ", " + TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS + ")"
+      + " VALUES (?, ?, ?, ?) ON CONFLICT (" + VERSION_COLUMN + ") DO UPDATE SET "
+      + FIXED_SALT_COLUMN + " = EXCLUDED." + FIXED_SALT_COLUMN + ", "
+      + PASSWORD_EXPIRES_IN_DAYS_COLUMN + " = EXCLUDED." + PASSWORD_EXPIRES_IN_DAYS_COLUMN + ", "
+      + TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS + " = EXCLUDED." + TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS;
+  private static final String FIND_ONE_STMT = "SELECT "
+      + VERSION_COLUMN + ", " + FIXED_SALT_COLUMN + ", " + PASSWORD_EXPIRES_IN_DAYS_COLUMN + ", " + TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS
+      + " FROM " + TABLE_NAME + " WHERE " + VERSION_COLUMN + " = ?";
+  private static final String FIND_PASSWORD_HASH_POLICY_STMT = "SELECT "
+      + PASSWORD_ITERATION_COUNT_COLUMN + ", " + PASSWORD_HASH_TARGET_MILLIS_COLUMN + ", " + PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN
+      + " FROM " + TABLE_NAME + " WHERE " + VERSION_COLUMN + " = ?";
+  private static final String UPDATE_PASSWORD_HASH_POLICY_STMT = "UPDATE " + TABLE_NAME + " SET "
+      + PASSWORD_ITERATION_COUNT_COLUMN + " = ?, " + PASSWORD_HASH_TARGET_MILLIS_COLUMN + " = ?, " + PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN + " = ?"
+      + " WHERE " + VERSION_COLUMN + " = ?";
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  TenantsForSQL(final TenantAwareJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void add(
+          final byte[] fixedSalt,
+          final int passwordExpiresInDays,
+          final int timeToChangePasswordAfterExpirationInDays)
+  {
+    jdbcTemplate.update(UPSERT_STMT, statement -> {
+      statement.setInt(1, IdentityConstants.CURRENT_VERSION);
+      statement.setBytes(2, fixedSalt);
+      statement.setInt(3, passwordExpiresInDays);
+      statement.setInt(4, timeToChangePasswordAfterExpirationInDays);
+    });
+  }
+
+  @Override
+  public Optional<PrivateTenantInfoEntity> getPrivateTenantInfo()
+  {
+    try {
+      return jdbcTemplate.queryForObject(FIND_ONE_STMT, statement -> statement.setInt(1, IdentityConstants.CURRENT_VERSION), resultSet -> {
+        final PrivateTenantInfoEntity ret = new PrivateTenantInfoEntity();
+        ret.setVersion(resultSet.getInt(VERSION_COLUMN));
+        ret.setFixedSalt(TenantAwareJdbcTemplate.byteBuffer(resultSet.getBytes(FIXED_SALT_COLUMN)));
+        ret.setPasswordExpiresInDays(resultSet.getInt(PASSWORD_EXPIRES_IN_DAYS_COLUMN));
+        ret.setTimeToChangePasswordAfterExpirationInDays(resultSet.getInt(TIME_TO_CHANGE_PASSWORD_AFTER_EXPIRATION_IN_DAYS));
+        return ret;
+      });
+    }
+    catch (final IllegalStateException e) {
+      if (TenantAwareJdbcTemplate.isUndefinedTable(e))
+        return Optional.empty();
+      throw e;
+    }
+  }
+
+  @Override
+  public Optional<PasswordHashPolicyEntity> getPasswordHashPolicy() {
+    try {
+      return jdbcTemplate.queryForObject(FIND_PASSWORD_HASH_POLICY_STMT, statement -> statement.setInt(1, IdentityConstants.CURRENT_VERSION), resultSet -> {
+        final PasswordHashPolicyEntity ret = new PasswordHashPolicyEntity();
+        ret.setIterationCount((Integer) resultSet.getObject(PASSWORD_ITERATION_COUNT_COLUMN));
+        ret.setTargetVerificationMillis((Integer) resultSet.getObject(PASSWORD_HASH_TARGET_MILLIS_COLUMN));
+        ret.setCalibratedIterationCount((Integer) resultSet.getObject(PASSWORD_CALIBRATED_ITERATION_COUNT_COLUMN));
+        return ret;
+      });
+    }
+    catch (final IllegalStateException e) {
+      if (TenantAwareJdbcTemplate.isUndefinedTable(e))
+        return Optional.empty();
+      throw e;
+    }
+  }
+
+  @Override
+  public void changePasswordHashPolicy(final PasswordHashPolicyEntity policy) {
+    jdbcTemplate.update(UPDATE_PASSWORD_HASH_POLICY_STMT, statement -> {
+      statement.setObject(1, policy.getIterationCount(), Types.INTEGER);
+      statement.setObject(2, policy.getTargetVerificationMillis(), Types.INTEGER);
+      statement.setObject(3, policy.getCalibratedIterationCount(), Types.INTEGER);
+      statement.setInt(4, IdentityConstants.CURRENT_VERSION);
+    });
+  }
+}
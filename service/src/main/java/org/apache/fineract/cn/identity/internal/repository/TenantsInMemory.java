@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class TenantsInMemory implements TenantRepository {
+  private final InMemoryStore store;
+
+  @Autowired
+  public TenantsInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public void add(
+      final byte[] fixedSalt,
+      final int passwordExpiresInDays,
+      final int timeToChangePasswordAfterExpirationInDays)
+  {
+    final PrivateTenantInfoEntity privateTenantInfo = new PrivateTenantInfoEntity();
+    privateTenantInfo.setVersion(IdentityConstants.CURRENT_VERSION);
+    privateTenantInfo.setFixedSalt(ByteBuffer.wrap(fixedSalt.clone()));
+    privateTenantInfo.setPasswordExpiresInDays(passwordExpiresInDays);
+    privateTenantInfo.setTimeToChangePasswordAfterExpirationInDays(timeToChangePasswordAfterExpirationInDays);
+    store.partition().privateTenantInfo = privateTenantInfo;
+  }
+
+  @Override
+  public Optional<PrivateTenantInfoEntity> getPrivateTenantInfo() {
+    return Optional.ofNullable(store.partition().privateTenantInfo).map(instance -> {
+      final PrivateTenantInfoEntity ret = new PrivateTenantInfoEntity();
+      ret.setVersion(instance.getVersion());
+      ret.setFixedSalt(instance.getFixedSalt().duplicate());
+      ret.setPasswordExpiresInDays(instance.getPasswordExpiresInDays());
+      ret.setTimeToChangePasswordAfterExpirationInDays(instance.getTimeToChangePasswordAfterExpirationInDays());
+      return ret;
+    });
+  }
+
+  @Override
+  public Optional<PasswordHashPolicyEntity> getPasswordHashPolicy() {
+    return Optional.ofNullable(store.partition().passwordHashPolicy).map(TenantsInMemory::copy);
+  }
+
+  @Override
+  public void changePasswordHashPolicy(final PasswordHashPolicyEntity policy) {
+    store.partition().passwordHashPolicy = copy(policy);
+  }
+
+  private static PasswordHashPolicyEntity copy(final PasswordHashPolicyEntity instance) {
+    final PasswordHashPolicyEntity ret = new PasswordHashPolicyEntity();
+    ret.setIterationCount(instance.getIterationCount());
+    ret.setTargetVerificationMillis(instance.getTargetVerificationMillis());
+    ret.setCalibratedIterationCount(instance.getCalibratedIterationCount());
+    return ret;
+  }
+}
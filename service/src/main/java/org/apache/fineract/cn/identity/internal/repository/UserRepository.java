@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage for users, independent of the database the tenant is provisioned on.
+ */
+public interface UserRepository {
+
+  void add(UserEntity instance);
+
+  /**
+   * Like {@link #add(UserEntity)}, for callers which already know the role the user had before, so that it needn't
+   * be read again.  The previous role is null if the user is new.
+   */
+  default void add(final UserEntity instance, final String previousRole) {
+    add(instance);
+  }
+
+  /**
+   * Replaces only the password hash, salt and iteration count of a user, and only if the stored password is still
+   * the one which was verified.  Used to rehash at login without undoing changes made since the user was read.
+   *
+   * @return true if the password was replaced.
+   */
+  boolean rehashPassword(UserEntity rehashed, ByteBuffer verifiedPassword);
+
+  void changeRole(String identifier, String previousRole, String newRole);
+
+  Optional<UserEntity> get(String identifier);
+
+  List<UserEntity> getAll();
+
+  List<String> getIdentifiersByRole(String role, String startAfter, int size);
+
+  /**
+   * The asynchronous variants complete on the calling thread unless the implementation overrides them.
+   */
+  default CompletableFuture<Void> addAsync(final UserEntity instance) {
+    return TenantAwareFutures.run(() -> add(instance));
+  }
+
+  default CompletableFuture<Optional<UserEntity>> getAsync(final String identifier) {
+    return TenantAwareFutures.supply(() -> get(identifier));
+  }
+}
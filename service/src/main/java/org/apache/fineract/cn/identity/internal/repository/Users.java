@@ -18,28 +18,37 @@
  */
 package org.apache.fineract.cn.identity.internal.repository;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.DataType;
-import com.datastax.driver.core.Session;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.schemabuilder.Create;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import com.datastax.driver.mapping.Mapper;
-import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareCassandraMapperProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareEntityTemplate;
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Myrle Krantz
  */
 @Component
-public class Users {
+@Profile("!postgres")
+@Conditional(NotInMemoryCondition.class)
+public class Users implements UserRepository {
 
   static final String TABLE_NAME = "isis_users";
   static final String IDENTIFIER_COLUMN = "identifier";
@@ -49,18 +58,57 @@ public class Users {
   static final String SALT_COLUMN = "salt";
   static final String ITERATION_COUNT_COLUMN = "iteration_count";
 
-  private final CassandraSessionProvider cassandraSessionProvider;
-  private final TenantAwareEntityTemplate tenantAwareEntityTemplate;
-  private final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider;
+  static final String BY_ROLE_TABLE_NAME = "isis_users_by_role";
+  static final String BY_ROLE_ROLE_COLUMN = "role_identifier";
+  static final String BY_ROLE_USER_COLUMN = "user_identifier";
+
+  private static final int BACKFILL_FETCH_SIZE = 500;
+
+  private static final String UPDATE_ROLE = QueryBuilder.update(TABLE_NAME)
+      .with(QueryBuilder.set(ROLE_COLUMN, QueryBuilder.bindMarker()))
+      .where(QueryBuilder.eq(IDENTIFIER_COLUMN, QueryBuilder.bindMarker()))
+      .getQueryString();
+  private static final String REHASH_PASSWORD = QueryBuilder.update(TABLE_NAME)
+      .with(QueryBuilder.set(PASSWORD_COLUMN, QueryBuilder.bindMarker()))
+      .and(QueryBuilder.set(SALT_COLUMN, QueryBuilder.bindMarker()))
+      .and(QueryBuilder.set(ITERATION_COUNT_COLUMN, QueryBuilder.bindMarker()))
+      .where(QueryBuilder.eq(IDENTIFIER_COLUMN, QueryBuilder.bindMarker()))
+      .onlyIf(QueryBuilder.eq(PASSWORD_COLUMN, QueryBuilder.bindMarker()))
+      .getQueryString();
+  private static final String INSERT_BY_ROLE = QueryBuilder.insertInto(BY_ROLE_TABLE_NAME)
+      .value(BY_ROLE_ROLE_COLUMN, QueryBuilder.bindMarker())
+      .value(BY_ROLE_USER_COLUMN, QueryBuilder.bindMarker())
+      .getQueryString();
+  private static final String DELETE_BY_ROLE = QueryBuilder.delete().from(BY_ROLE_TABLE_NAME)
+      .where(QueryBuilder.eq(BY_ROLE_ROLE_COLUMN, QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq(BY_ROLE_USER_COLUMN, QueryBuilder.bindMarker()))
+      .getQueryString();
+  private static final String FIRST_BY_ROLE = QueryBuilder.select(BY_ROLE_USER_COLUMN)
+      .from(BY_ROLE_TABLE_NAME)
+      .where(QueryBuilder.eq(BY_ROLE_ROLE_COLUMN, QueryBuilder.bindMarker()))
+      .limit(QueryBuilder.bindMarker())
+      .getQueryString();
+  private static final String NEXT_BY_ROLE = QueryBuilder.select(BY_ROLE_USER_COLUMN)
+      .from(BY_ROLE_TABLE_NAME)
+      .where(QueryBuilder.eq(BY_ROLE_ROLE_COLUMN, QueryBuilder.bindMarker()))
+      .and(QueryBuilder.gt(BY_ROLE_USER_COLUMN, QueryBuilder.bindMarker()))
+      .limit(QueryBuilder.bindMarker())
+      .getQueryString();
+  private static final String SELECT_ROLE = QueryBuilder.select(ROLE_COLUMN)
+      .from(TABLE_NAME)
+      .where(QueryBuilder.eq(IDENTIFIER_COLUMN, QueryBuilder.bindMarker()))
+      .getQueryString();
+  private static final String SELECT_ROLES = QueryBuilder.select(IDENTIFIER_COLUMN, ROLE_COLUMN)
+      .from(TABLE_NAME)
+      .getQueryString();
+  private static final String SELECT_ALL = QueryBuilder.select().all().from(TABLE_NAME).getQueryString();
+
+  private final TenantStatementRegistry statements;
 
   @Autowired
-  Users(final CassandraSessionProvider cassandraSessionProvider,
-      final TenantAwareEntityTemplate tenantAwareEntityTemplate,
-      final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider)
+  Users(final TenantStatementRegistry statements)
   {
-    this.cassandraSessionProvider = cassandraSessionProvider;
-    this.tenantAwareEntityTemplate = tenantAwareEntityTemplate;
-    this.tenantAwareCassandraMapperProvider = tenantAwareCassandraMapperProvider;
+    this.statements = statements;
   }
 
   public void buildTable() {
@@ -73,19 +121,131 @@ public class Users {
         .addColumn(ITERATION_COUNT_COLUMN, DataType.cint())
         .addColumn(PASSWORD_EXPIRES_ON_COLUMN, DataType.date());
 
-    cassandraSessionProvider.getTenantSession().execute(create);
+    statements.execute(create);
+
+    final Create createByRole = SchemaBuilder.createTable(BY_ROLE_TABLE_NAME)
+        .ifNotExists()
+        .addPartitionKey(BY_ROLE_ROLE_COLUMN, DataType.text())
+        .addClusteringColumn(BY_ROLE_USER_COLUMN, DataType.text());
+
+    statements.execute(createByRole);
   }
 
   public void add(final UserEntity instance) {
-    tenantAwareEntityTemplate.save(instance);
+    final String previousRole = role(statements.execute(statements.bind(SELECT_ROLE, instance.getIdentifier())));
+    add(instance, previousRole);
+  }
+
+  public void add(final UserEntity instance, final String previousRole) {
+    statements.execute(new UserWrite(instance).batch(previousRole));
+  }
+
+  public CompletableFuture<Void> addAsync(final UserEntity instance) {
+    //Everything is prepared before the first hop, since the later stages run on driver threads.
+    return TenantAwareFutures.supply(() -> new UserWrite(instance))
+        .thenCompose(write -> statements.executeAsync(write.selectRole)
+            .thenCompose(result -> statements.executeAsync(write.batch(role(result)))))
+        .thenApply(result -> null);
+  }
+
+  /**
+   * Writes the user and its role index entry together, removing the entry for the role the user had before, if it
+   * is being added again with a different role.  The statements are prepared on construction.
+   */
+  private final class UserWrite {
+    private final UserEntity instance;
+    private final Statement selectRole;
+    private final Statement save;
+    private final PreparedStatement deleteByRole;
+    private final PreparedStatement insertByRole;
+
+    private UserWrite(final UserEntity instance) {
+      this.instance = instance;
+      this.selectRole = statements.bind(SELECT_ROLE, instance.getIdentifier());
+      this.save = statements.mapper(UserEntity.class).saveQuery(instance);
+      this.deleteByRole = statements.prepare(DELETE_BY_ROLE);
+      this.insertByRole = statements.prepare(INSERT_BY_ROLE);
+    }
+
+    private BatchStatement batch(final String previousRole) {
+      final BatchStatement batch = new BatchStatement(BatchStatement.Type.LOGGED);
+      batch.add(save);
+      if (previousRole != null && !previousRole.equals(instance.getRole())) {
+        batch.add(deleteByRole.bind(previousRole, instance.getIdentifier()));
+      }
+      batch.add(insertByRole.bind(instance.getRole(), instance.getIdentifier()));
+      return batch;
+    }
+  }
+
+  private static String role(final ResultSet result) {
+    final Row row = result.one();
+    return row == null ? null : row.getString(ROLE_COLUMN);
+  }
+
+  public boolean rehashPassword(final UserEntity rehashed, final ByteBuffer verifiedPassword) {
+    return statements.execute(statements.bind(REHASH_PASSWORD,
+        rehashed.getPassword(), rehashed.getSalt(), rehashed.getIterationCount(), rehashed.getIdentifier(),
+        verifiedPassword)).wasApplied();
+  }
+
+  public void changeRole(final String identifier, final String previousRole, final String newRole) {
+    final BatchStatement batch = new BatchStatement(BatchStatement.Type.LOGGED);
+    batch.add(statements.bind(UPDATE_ROLE, newRole, identifier));
+    if (previousRole != null && !previousRole.equals(newRole)) {
+      batch.add(statements.bind(DELETE_BY_ROLE, previousRole, identifier));
+    }
+    batch.add(insertByRole(newRole, identifier));
+
+    statements.execute(batch);
+  }
+
+  public List<String> getIdentifiersByRole(final String role, final String startAfter, final int size) {
+    final Statement select = (startAfter == null)
+        ? statements.bind(FIRST_BY_ROLE, role, size)
+        : statements.bind(NEXT_BY_ROLE, role, startAfter, size);
+    final ResultSet result = statements.execute(select);
+    return StreamSupport.stream(result.spliterator(), false)
+        .map(x -> x.getString(BY_ROLE_USER_COLUMN))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Fills the users by role table from the users table.  Used to bring tenants which were provisioned before the
+   * users by role table existed up to date.  Writing an entry which already exists is harmless, so this can be
+   * repeated.
+   *
+   * @return the number of users indexed.
+   */
+  public int backfillRolesIndex() {
+    final Statement select = statements.bind(SELECT_ROLES).setFetchSize(BACKFILL_FETCH_SIZE);
+
+    int count = 0;
+    for (final Row row : statements.execute(select)) {
+      final String role = row.getString(ROLE_COLUMN);
+      if (role != null) {
+        statements.execute(insertByRole(role, row.getString(IDENTIFIER_COLUMN)));
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private Statement insertByRole(final String role, final String identifier) {
+    return statements.bind(INSERT_BY_ROLE, role, identifier);
   }
 
 
   public Optional<UserEntity> get(final String identifier)
   {
-    final UserEntity instance =
-        tenantAwareCassandraMapperProvider.getMapper(UserEntity.class).get(identifier);
+    return checked(statements.get(UserEntity.class, identifier));
+  }
 
+  public CompletableFuture<Optional<UserEntity>> getAsync(final String identifier) {
+    return statements.getAsync(UserEntity.class, identifier).thenApply(Users::checked);
+  }
+
+  private static Optional<UserEntity> checked(final UserEntity instance) {
     if (instance != null) {
       Assert.notNull(instance.getIdentifier());
       Assert.notNull(instance.getRole());
@@ -97,11 +257,7 @@ public class Users {
 
   public List<UserEntity> getAll()
   {
-    final Mapper<UserEntity> entityMapper = tenantAwareCassandraMapperProvider.getMapper(UserEntity.class);
-    final Session tenantSession = cassandraSessionProvider.getTenantSession();
-
-    final Statement statement = QueryBuilder.select().all().from(TABLE_NAME);
-
-    return entityMapper.map(tenantSession.execute(statement)).all();
+    final Mapper<UserEntity> entityMapper = statements.mapper(UserEntity.class);
+    return entityMapper.map(statements.execute(statements.bind(SELECT_ALL))).all();
   }
 }
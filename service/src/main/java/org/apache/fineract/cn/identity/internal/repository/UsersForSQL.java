@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The users by role query is answered from the index on role_identifier, so unlike in cassandra no separate table
+ * has to be maintained.
+ */
+@SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
+@Component
+@Profile("postgres")
+public class UsersForSQL implements UserRepository {
+  static final String TABLE_NAME = "isis_users";
+  static final String IDENTIFIER_COLUMN = "identifier";
+  static final String ROLE_COLUMN = "role_identifier";
+  static final String PASSWORD_COLUMN = "password_word";
+  static final String SALT_COLUMN = "salt";
+  static final String ITERATION_COUNT_COLUMN = "iteration_count";
+  static final String PASSWORD_EXPIRES_ON_COLUMN = "password_expires_on";
+
+  private static final String ALL_COLUMNS = IDENTIFIER_COLUMN + ", " + ROLE_COLUMN + ", " + PASSWORD_COLUMN + ", "
+      + SALT_COLUMN + ", " + ITERATION_COUNT_COLUMN + ", " + PASSWORD_EXPIRES_ON_COLUMN;
+
+  private static final String UPSERT_STMT = "INSERT INTO " + TABLE_NAME + " (" + ALL_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)"
+      + " ON CONFLICT (" + IDENTIFIER_COLUMN + ") DO UPDATE SET "
+      + ROLE_COLUMN + " = EXCLUDED." + ROLE_COLUMN + ", "
+      + PASSWORD_COLUMN + " = EXCLUDED." + PASSWORD_COLUMN + ", "
+      + SALT_COLUMN + " = EXCLUDED." + SALT_COLUMN + ", "
+      + ITERATION_COUNT_COLUMN + " = EXCLUDED." + ITERATION_COUNT_COLUMN + ", "
+      + PASSWORD_EXPIRES_ON_COLUMN + " = EXCLUDED." + PASSWORD_EXPIRES_ON_COLUMN;
+  private static final String REHASH_PASSWORD_STMT = "UPDATE " + TABLE_NAME + " SET " + PASSWORD_COLUMN + " = ?, "
+      + SALT_COLUMN + " = ?, " + ITERATION_COUNT_COLUMN + " = ? WHERE " + IDENTIFIER_COLUMN + " = ? AND "
+      + PASSWORD_COLUMN + " = ?";
+  private static final String CHANGE_ROLE_STMT = "UPDATE " + TABLE_NAME + " SET " + ROLE_COLUMN + " = ? WHERE " + IDENTIFIER_COLUMN + " = ?";
+  private static final String FIND_ONE_STMT = "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME + " WHERE " + IDENTIFIER_COLUMN + " = ?";
+  private static final String FETCH_ALL_STMT = "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME;
+  private static final String FIRST_BY_ROLE_STMT = "SELECT " + IDENTIFIER_COLUMN + " FROM " + TABLE_NAME
+      + " WHERE " + ROLE_COLUMN + " = ? ORDER BY " + IDENTIFIER_COLUMN + " LIMIT ?";
+  private static final String NEXT_BY_ROLE_STMT = "SELECT " + IDENTIFIER_COLUMN + " FROM " + TABLE_NAME
+      + " WHERE " + ROLE_COLUMN + " = ? AND " + IDENTIFIER_COLUMN + " > ? ORDER BY " + IDENTIFIER_COLUMN + " LIMIT ?";
+
+  private final TenantAwareJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  UsersForSQL(final TenantAwareJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void add(final UserEntity instance) {
+    jdbcTemplate.update(UPSERT_STMT, statement -> {
+      statement.setString(1, instance.getIdentifier());
+      statement.setString(2, instance.getRole());
+      statement.setBytes(3, TenantAwareJdbcTemplate.bytes(instance.getPassword()));
+      statement.setBytes(4, TenantAwareJdbcTemplate.bytes(instance.getSalt()));
+      statement.setInt(5, instance.getIterationCount());
+      statement.setDate(6, TenantAwareJdbcTemplate.sqlDate(instance.getPasswordExpiresOn()));
+    });
+  }
+
+  @Override
+  public boolean rehashPassword(final UserEntity rehashed, final ByteBuffer verifiedPassword) {
+    return jdbcTemplate.update(REHASH_PASSWORD_STMT, statement -> {
+      statement.setBytes(1, TenantAwareJdbcTemplate.bytes(rehashed.getPassword()));
+      statement.setBytes(2, TenantAwareJdbcTemplate.bytes(rehashed.getSalt()));
+      statement.setInt(3, rehashed.getIterationCount());
+      statement.setString(4, rehashed.getIdentifier());
+      statement.setBytes(5, TenantAwareJdbcTemplate.bytes(verifiedPassword));
+    }) == 1;
+  }
+
+  @Override
+  public void changeRole(final String identifier, final String previousRole, final String newRole) {
+    jdbcTemplate.update(CHANGE_ROLE_STMT, statement -> {
+      statement.setString(1, newRole);
+      statement.setString(2, identifier);
+    });
+  }
+
+  @Override
+  public Optional<UserEntity> get(final String identifier) {
+    return jdbcTemplate.queryForObject(FIND_ONE_STMT, statement -> statement.setString(1, identifier), UsersForSQL::map);
+  }
+
+  @Override
+  public List<UserEntity> getAll() {
+    return jdbcTemplate.query(FETCH_ALL_STMT, UsersForSQL::map);
+  }
+
+  @Override
+  public List<String> getIdentifiersByRole(final String role, final String startAfter, final int size) {
+    if (startAfter == null) {
+      return jdbcTemplate.query(FIRST_BY_ROLE_STMT, statement -> {
+        statement.setString(1, role);
+        statement.setInt(2, size);
+      }, resultSet -> resultSet.getString(IDENTIFIER_COLUMN));
+    }
+
+    return jdbcTemplate.query(NEXT_BY_ROLE_STMT, statement -> {
+      statement.setString(1, role);
+      statement.setString(2, startAfter);
+      statement.setInt(3, size);
+    }, resultSet -> resultSet.getString(IDENTIFIER_COLUMN));
+  }
+
+  private static UserEntity map(final ResultSet resultSet) throws SQLException {
+    final UserEntity ret = new UserEntity();
+    ret.setIdentifier(resultSet.getString(IDENTIFIER_COLUMN));
+    ret.setRole(resultSet.getString(ROLE_COLUMN));
+    ret.setPassword(TenantAwareJdbcTemplate.byteBuffer(resultSet.getBytes(PASSWORD_COLUMN)));
+    ret.setSalt(TenantAwareJdbcTemplate.byteBuffer(resultSet.getBytes(SALT_COLUMN)));
+    ret.setIterationCount(resultSet.getInt(ITERATION_COUNT_COLUMN));
+    ret.setPasswordExpiresOn(TenantAwareJdbcTemplate.localDate(resultSet, PASSWORD_EXPIRES_ON_COLUMN));
+    return ret;
+  }
+}
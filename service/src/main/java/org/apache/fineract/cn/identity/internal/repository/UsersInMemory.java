@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Users are copied on the way in and out, so that callers can't change stored rows without saving them.
+ */
+@Component
+@Profile(InMemoryStore.PROFILE)
+public class UsersInMemory implements UserRepository {
+  private static final String TABLE_NAME = "users";
+
+  private final InMemoryStore store;
+
+  @Autowired
+  public UsersInMemory(final InMemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public void add(final UserEntity instance) {
+    final UserEntity stored = copy(instance);
+    final InMemoryStore.Partition partition = store.partition();
+    store.locked(TABLE_NAME, stored.getIdentifier(), () -> {
+      final UserEntity previous = partition.users.put(stored.getIdentifier(), stored);
+      if (previous != null)
+        partition.usersByRole.remove(InMemoryStore.key(previous.getRole(), previous.getIdentifier()));
+      partition.usersByRole.add(InMemoryStore.key(stored.getRole(), stored.getIdentifier()));
+    });
+  }
+
+  @Override
+  public boolean rehashPassword(final UserEntity rehashed, final ByteBuffer verifiedPassword) {
+    final InMemoryStore.Partition partition = store.partition();
+    return store.locked(TABLE_NAME, rehashed.getIdentifier(), () -> {
+      final UserEntity previous = partition.users.get(rehashed.getIdentifier());
+      if (previous == null || !verifiedPassword.equals(previous.getPassword()))
+        return false;
+
+      final UserEntity changed = copy(previous);
+      changed.setPassword(rehashed.getPassword().duplicate());
+      changed.setSalt(rehashed.getSalt().duplicate());
+      changed.setIterationCount(rehashed.getIterationCount());
+      partition.users.put(changed.getIdentifier(), changed);
+      return true;
+    });
+  }
+
+  @Override
+  public void changeRole(final String identifier, final String previousRole, final String newRole) {
+    final InMemoryStore.Partition partition = store.partition();
+    store.locked(TABLE_NAME, identifier, () -> {
+      final UserEntity previous = partition.users.get(identifier);
+      if (previous == null)
+        return;
+
+      final UserEntity changed = copy(previous);
+      changed.setRole(newRole);
+      partition.users.put(identifier, changed);
+      partition.usersByRole.remove(InMemoryStore.key(previous.getRole(), identifier));
+      if (previousRole != null)
+        partition.usersByRole.remove(InMemoryStore.key(previousRole, identifier));
+      partition.usersByRole.add(InMemoryStore.key(newRole, identifier));
+    });
+  }
+
+  @Override
+  public Optional<UserEntity> get(final String identifier) {
+    return Optional.ofNullable(store.partition().users.get(identifier)).map(UsersInMemory::copy);
+  }
+
+  @Override
+  public List<UserEntity> getAll() {
+    return store.partition().users.values().stream().map(UsersInMemory::copy).collect(Collectors.toList());
+  }
+
+  @Override
+  public List<String> getIdentifiersByRole(final String role, final String startAfter, final int size) {
+    final String prefix = InMemoryStore.key(role, "");
+    final Iterable<String> candidates = (startAfter == null)
+        ? store.partition().usersByRole.tailSet(prefix, true)
+        : store.partition().usersByRole.tailSet(prefix + startAfter, false);
+
+    final List<String> ret = new ArrayList<>(size);
+    for (final String candidate : candidates) {
+      if (ret.size() >= size || !candidate.startsWith(prefix))
+        break;
+      ret.add(candidate.substring(prefix.length()));
+    }
+    return ret;
+  }
+
+  private static UserEntity copy(final UserEntity instance) {
+    final UserEntity ret = new UserEntity();
+    ret.setIdentifier(instance.getIdentifier());
+    ret.setRole(instance.getRole());
+    ret.setPassword(instance.getPassword() == null ? null : instance.getPassword().duplicate());
+    ret.setSalt(instance.getSalt() == null ? null : instance.getSalt().duplicate());
+    ret.setIterationCount(instance.getIterationCount());
+    ret.setPasswordExpiresOn(instance.getPasswordExpiresOn());
+    return ret;
+  }
+}
@@ -28,11 +28,11 @@ import org.apache.fineract.cn.identity.api.v1.domain.Permission;
 import org.apache.fineract.cn.identity.internal.mapper.ApplicationCallEndpointSetMapper;
 import org.apache.fineract.cn.identity.internal.mapper.PermissionMapper;
 import org.apache.fineract.cn.identity.internal.mapper.SignatureMapper;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSets;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUsers;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissions;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSetRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionRepository;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUserRepository;
 import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureEntity;
-import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatures;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -42,16 +42,16 @@ import org.springframework.stereotype.Service;
 @Service
 public class ApplicationService {
 
-  private final ApplicationSignatures applicationSignaturesRepository;
-  private final ApplicationPermissions applicationPermissionsRepository;
-  private final ApplicationPermissionUsers applicationPermissionsUserRepository;
-  private final ApplicationCallEndpointSets applicationCallEndpointSets;
+  private final ApplicationSignatureRepository applicationSignaturesRepository;
+  private final ApplicationPermissionRepository applicationPermissionsRepository;
+  private final ApplicationPermissionUserRepository applicationPermissionsUserRepository;
+  private final ApplicationCallEndpointSetRepository applicationCallEndpointSets;
 
   @Autowired
-  public ApplicationService(final ApplicationSignatures applicationSignaturesRepository,
-                            final ApplicationPermissions applicationPermissionsRepository,
-                            final ApplicationPermissionUsers applicationPermissionsUserRepository,
-                            final ApplicationCallEndpointSets applicationCallEndpointSets) {
+  public ApplicationService(final ApplicationSignatureRepository applicationSignaturesRepository,
+                            final ApplicationPermissionRepository applicationPermissionsRepository,
+                            final ApplicationPermissionUserRepository applicationPermissionsUserRepository,
+                            final ApplicationCallEndpointSetRepository applicationCallEndpointSets) {
     this.applicationSignaturesRepository = applicationSignaturesRepository;
     this.applicationPermissionsRepository = applicationPermissionsRepository;
     this.applicationPermissionsUserRepository = applicationPermissionsUserRepository;
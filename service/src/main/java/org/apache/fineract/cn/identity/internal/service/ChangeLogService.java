@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.cn.identity.api.v1.domain.Change;
+import org.apache.fineract.cn.identity.api.v1.domain.ChangeSet;
+import org.apache.fineract.cn.identity.internal.repository.ChangeEntity;
+import org.apache.fineract.cn.identity.internal.repository.ChangeLogRepository;
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Writes and reads the change feed.  Readers only ever get an unbroken run of versions, so that a consumer which
+ * continues from the returned version can't skip a change which is still being written.  A missing version is only
+ * passed over once the change after it is older than {@link #GAP_TIMEOUT_MILLIS}, because then its write has failed.
+ *
+ * Long polling requests don't hold a request thread.  They are parked per tenant and answered by a single poller,
+ * which checks the latest version of each tenant with waiting requests every {@link #POLL_INTERVAL_MILLIS}, and only
+ * reads the log for those requests which are behind it.  Changes written on this instance wake the poller at once.
+ */
+@Service
+public class ChangeLogService {
+  private static final long GAP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+  private static final long POLL_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+  private final ChangeLogRepository changeLog;
+  private final Logger logger;
+  private final long maximumWaitMillis;
+  private final ConcurrentHashMap<String, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService poller;
+
+  private static final class Waiter {
+    private final long since;
+    private final int limit;
+    private final DeferredResult<ChangeSet> result;
+
+    private Waiter(final long since, final int limit, final DeferredResult<ChangeSet> result) {
+      this.since = since;
+      this.limit = limit;
+      this.result = result;
+    }
+  }
+
+  @Autowired
+  public ChangeLogService(
+      final ChangeLogRepository changeLog,
+      @Qualifier(IdentityConstants.LOGGER_NAME) final Logger logger,
+      @Value("${identity.changes.maximumWaitInSeconds:30}") final long maximumWaitInSeconds) {
+    this.changeLog = changeLog;
+    this.logger = logger;
+    this.maximumWaitMillis = TimeUnit.SECONDS.toMillis(maximumWaitInSeconds);
+    this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "identity-change-poller");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.poller.scheduleWithFixedDelay(this::pollAll, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void close() {
+    poller.shutdownNow();
+  }
+
+  /**
+   * Called after the entity was written, so a failure here must not fail the command.  A version claimed by a failed
+   * append is passed over by readers once the gap times out, the change itself is only logged.
+   */
+  public void record(final String entityType, final String entityIdentifier, final String operation) {
+    try {
+      changeLog.append(new ChangeEntity(entityType, entityIdentifier, operation, new Date()));
+    }
+    catch (final RuntimeException e) {
+      logger.error("Could not record the change '{}' of {} '{}' in the change log.",
+          operation, entityType, entityIdentifier, e);
+      return;
+    }
+
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    if (waiters.containsKey(tenant))
+      poller.execute(() -> poll(tenant));
+  }
+
+  /**
+   * Answers at once if there are changes after since, otherwise when there are, or with no changes after waitMillis.
+   */
+  public DeferredResult<ChangeSet> getChanges(final long since, final int limit, final long waitMillis) {
+    final long timeoutMillis = Math.min(Math.max(waitMillis, 0), maximumWaitMillis);
+    final DeferredResult<ChangeSet> ret
+        = new DeferredResult<>(timeoutMillis, new ChangeSet(since, Collections.emptyList()));
+
+    final ChangeSet current = read(since, limit);
+    if (!current.getChanges().isEmpty() || timeoutMillis == 0) {
+      ret.setResult(current);
+      return ret;
+    }
+
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    final Waiter waiter = new Waiter(since, limit, ret);
+    waiters.compute(tenant, (key, tenantWaiters) -> {
+      final Set<Waiter> value = tenantWaiters == null ? ConcurrentHashMap.newKeySet() : tenantWaiters;
+      value.add(waiter);
+      return value;
+    });
+    ret.onCompletion(() -> remove(tenant, waiter));
+    return ret;
+  }
+
+  private void remove(final String tenant, final Waiter waiter) {
+    waiters.computeIfPresent(tenant, (key, tenantWaiters) -> {
+      tenantWaiters.remove(waiter);
+      return tenantWaiters.isEmpty() ? null : tenantWaiters;
+    });
+  }
+
+  int waitingRequests() {
+    return waiters.values().stream().mapToInt(Set::size).sum();
+  }
+
+  void pollAll() {
+    waiters.keySet().forEach(this::poll);
+  }
+
+  private void poll(final String tenant) {
+    final Set<Waiter> tenantWaiters = waiters.get(tenant);
+    if (tenantWaiters == null)
+      return;
+
+    TenantContextHolder.setIdentifier(tenant);
+    try {
+      final long latestVersion = changeLog.getLatestVersion();
+      for (final Waiter waiter : tenantWaiters) {
+        if (waiter.result.isSetOrExpired())
+          remove(tenant, waiter);
+        else if (waiter.since < latestVersion) {
+          final ChangeSet changes = read(waiter.since, waiter.limit);
+          if (!changes.getChanges().isEmpty()) {
+            waiter.result.setResult(changes);
+            remove(tenant, waiter);
+          }
+        }
+      }
+    }
+    catch (final RuntimeException e) {
+      logger.warn("Could not poll the change log of tenant '{}'.", tenant, e);
+    }
+    finally {
+      TenantContextHolder.clear();
+    }
+  }
+
+  private ChangeSet read(final long since, final int limit) {
+    final long now = System.currentTimeMillis();
+    final List<Change> changes = new ArrayList<>();
+    long version = since;
+    for (final ChangeEntity entity : changeLog.getSince(since, limit)) {
+      if (entity.getVersion() != version + 1 && now - entity.getCreatedOn().getTime() < GAP_TIMEOUT_MILLIS)
+        break;
+
+      changes.add(map(entity));
+      version = entity.getVersion();
+    }
+    return new ChangeSet(version, changes);
+  }
+
+  private static Change map(final ChangeEntity entity) {
+    return new Change(
+        entity.getVersion(),
+        entity.getEntityType(),
+        entity.getEntityIdentifier(),
+        entity.getOperation(),
+        entity.getCreatedOn().toInstant().toString());
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import javax.annotation.PostConstruct;
+import org.apache.fineract.cn.crypto.HashGenerator;
+import org.apache.fineract.cn.crypto.SaltGenerator;
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures what one PBKDF2 iteration costs on the hardware this instance is running on, so that a
+ * target verification time can be turned into an iteration count.  The measurement is taken once,
+ * at startup, so that it doesn't delay a request.
+ */
+@Component
+public class PasswordHashCalibrator {
+  public static final int MINIMUM_ITERATION_COUNT = 1000;
+  public static final int MAXIMUM_ITERATION_COUNT = 10000000;
+
+  private static final int CALIBRATION_ITERATION_COUNT = 10000;
+  private static final int CALIBRATION_ROUNDS = 5;
+  private static final String CALIBRATION_PASSWORD = "calibration";
+
+  private final HashGenerator hashGenerator;
+  private final SaltGenerator saltGenerator;
+  private final Logger logger;
+
+  private volatile double nanosPerIteration;
+
+  @Autowired
+  public PasswordHashCalibrator(
+      final HashGenerator hashGenerator,
+      final SaltGenerator saltGenerator,
+      @Qualifier(IdentityConstants.LOGGER_NAME) final Logger logger) {
+    this.hashGenerator = hashGenerator;
+    this.saltGenerator = saltGenerator;
+    this.logger = logger;
+  }
+
+  @PostConstruct
+  void calibrateAtStartup() {
+    nanosPerIteration();
+  }
+
+  public int iterationCountFor(final int targetVerificationMillis) {
+    final double iterations = (targetVerificationMillis * 1000000.0) / nanosPerIteration();
+    return (int) Math.max(MINIMUM_ITERATION_COUNT, Math.min(MAXIMUM_ITERATION_COUNT, Math.round(iterations)));
+  }
+
+  public double estimateVerificationMillis(final int iterationCount) {
+    return (iterationCount * nanosPerIteration()) / 1000000.0;
+  }
+
+  private double nanosPerIteration() {
+    if (nanosPerIteration == 0) {
+      synchronized (this) {
+        if (nanosPerIteration == 0)
+          nanosPerIteration = calibrate();
+      }
+    }
+    return nanosPerIteration;
+  }
+
+  private double calibrate() {
+    final byte[] salt = saltGenerator.createRandomSalt();
+
+    //The first round warms up the code path and is discarded.  Of the rest, the fastest is the least disturbed.
+    hash(salt);
+    long fastest = Long.MAX_VALUE;
+    for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+      fastest = Math.min(fastest, hash(salt));
+    }
+
+    final double ret = Math.max(1.0, (double) fastest / CALIBRATION_ITERATION_COUNT);
+    logger.info("Calibrated password hashing at {} nanoseconds per iteration.", String.format("%.1f", ret));
+    return ret;
+  }
+
+  private long hash(final byte[] salt) {
+    final long start = System.nanoTime();
+    hashGenerator.hash(CALIBRATION_PASSWORD, salt, CALIBRATION_ITERATION_COUNT, IdentityConstants.HASH_LENGTH);
+    return System.nanoTime() - start;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.cn.identity.api.v1.domain.PasswordHashPolicy;
+import org.apache.fineract.cn.identity.internal.repository.PasswordHashPolicyEntity;
+import org.apache.fineract.cn.identity.internal.repository.TenantRepository;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves the iteration count new password hashes are created with.  An explicit iteration count in the
+ * tenant's policy wins, then the count its target verification time was calibrated to when the policy was
+ * set, then the service default.  Calibrating only when the policy is set means every instance agrees on the
+ * count, so users aren't rehashed back and forth depending on which instance they log in to.  The resolved
+ * count is cached per tenant, so a policy changed on another instance takes effect here once the cache entry
+ * expires.
+ */
+@Service
+public class PasswordHashPolicyService {
+  private final TenantRepository tenants;
+  private final PasswordHashCalibrator calibrator;
+  private final int defaultIterationCount;
+  private final Cache<String, Integer> iterationCounts;
+
+  @Autowired
+  public PasswordHashPolicyService(
+      final TenantRepository tenants,
+      final PasswordHashCalibrator calibrator,
+      @Value("${identity.passwordHash.iterationCount:4096}") final int defaultIterationCount,
+      @Value("${identity.passwordHash.policyCacheExpiryInSeconds:60}") final long policyCacheExpiryInSeconds) {
+    this.tenants = tenants;
+    this.calibrator = calibrator;
+    this.defaultIterationCount = defaultIterationCount;
+    this.iterationCounts = CacheBuilder.newBuilder()
+        .expireAfterWrite(policyCacheExpiryInSeconds, TimeUnit.SECONDS)
+        .build();
+  }
+
+  public int iterationCount() {
+    try {
+      return iterationCounts.get(TenantContextHolder.checkedGetIdentifier(),
+          () -> resolve(tenants.getPasswordHashPolicy()));
+    }
+    catch (final ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Stores the iteration count the policy's target verification time converts to on this instance.
+   */
+  public PasswordHashPolicyEntity calibrate(final PasswordHashPolicyEntity policy) {
+    policy.setCalibratedIterationCount(
+        policy.getTargetVerificationMillis() == null ? null : calibrator.iterationCountFor(policy.getTargetVerificationMillis()));
+    return policy;
+  }
+
+  public PasswordHashPolicy getPolicy() {
+    final Optional<PasswordHashPolicyEntity> entity = tenants.getPasswordHashPolicy();
+    final int effectiveIterationCount = resolve(entity);
+
+    final PasswordHashPolicy ret = new PasswordHashPolicy(
+        entity.map(PasswordHashPolicyEntity::getIterationCount).orElse(null),
+        entity.map(PasswordHashPolicyEntity::getTargetVerificationMillis).orElse(null));
+    ret.setEffectiveIterationCount(effectiveIterationCount);
+    ret.setEstimatedVerificationMillis(calibrator.estimateVerificationMillis(effectiveIterationCount));
+    return ret;
+  }
+
+  public void invalidate() {
+    iterationCounts.invalidate(TenantContextHolder.checkedGetIdentifier());
+  }
+
+  private int resolve(final Optional<PasswordHashPolicyEntity> policy) {
+    final Optional<Integer> iterationCount = policy.map(PasswordHashPolicyEntity::getIterationCount);
+    if (iterationCount.isPresent())
+      return iterationCount.get();
+
+    return policy.map(PasswordHashPolicyEntity::getCalibratedIterationCount)
+        .orElse(defaultIterationCount);
+  }
+}
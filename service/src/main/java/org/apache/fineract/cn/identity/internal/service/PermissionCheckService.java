@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.anubis.api.v1.domain.AllowedOperation;
+import org.apache.fineract.cn.anubis.api.v1.domain.TokenPermission;
+import org.apache.fineract.cn.identity.api.v1.domain.PermissionCheck;
+import org.apache.fineract.cn.identity.internal.repository.AllowedOperationType;
+import org.apache.fineract.cn.identity.internal.repository.PermissionType;
+import org.apache.fineract.cn.identity.internal.repository.PrivateTenantInfoEntity;
+import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
+import org.apache.fineract.cn.identity.internal.repository.TenantRepository;
+import org.apache.fineract.cn.identity.internal.repository.UserEntity;
+import org.apache.fineract.cn.identity.internal.repository.UserRepository;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers batches of permission checks with what the user's identity access token would permit, as computed by
+ * {@link UserTokenPermissions}.  The token's permissions of each role are compiled into a {@link PermissionMatcher}
+ * keyed by operation, which is reused while the role's permissions are unchanged.  Permittable groups are not re-read
+ * on every check, so compiled roles are dropped when groups are created on this node, and otherwise after
+ * identity.permissionCheck.compiledRoleExpiryInSeconds.  When endpoints are added to or removed from a group on this
+ * node, the roles which permit that group are compiled again, and the new matchers replace the old ones.  A matcher is
+ * never changed once it is in the cache.
+ */
+@Service
+public class PermissionCheckService {
+  private final UserRepository users;
+  private final RoleRepository roles;
+  private final TenantRepository tenants;
+  private final UserTokenPermissions userTokenPermissions;
+  private final Cache<String, CompiledRole> compiledRoles;
+
+  private static final class CompiledRole {
+    private final List<PermissionType> permissions;
+    private final PermissionMatcher matcher;
+
+    private CompiledRole(final List<PermissionType> permissions, final PermissionMatcher matcher) {
+      this.permissions = permissions;
+      this.matcher = matcher;
+    }
+  }
+
+  @Autowired
+  public PermissionCheckService(
+      final UserRepository users,
+      final RoleRepository roles,
+      final TenantRepository tenants,
+      final UserTokenPermissions userTokenPermissions,
+      @Value("${identity.permissionCheck.compiledRoleExpiryInSeconds:60}") final long compiledRoleExpiryInSeconds) {
+    this.users = users;
+    this.roles = roles;
+    this.tenants = tenants;
+    this.userTokenPermissions = userTokenPermissions;
+    this.compiledRoles = CacheBuilder.newBuilder()
+        .expireAfterWrite(compiledRoleExpiryInSeconds, TimeUnit.SECONDS)
+        .build();
+  }
+
+  /**
+   * @return the answered checks, or empty if the user doesn't exist.
+   */
+  public Optional<List<PermissionCheck>> check(final String userIdentifier, final List<PermissionCheck> checks) {
+    return users.get(userIdentifier).map(user -> {
+      final PermissionMatcher matcher = matcherFor(user);
+      return checks.stream()
+          .map(check -> new PermissionCheck(check.getPath(), check.getMethod(), allows(matcher, check, userIdentifier)))
+          .collect(Collectors.toList());
+    });
+  }
+
+  public void invalidateRole(final String roleIdentifier) {
+    compiledRoles.invalidate(key(roleIdentifier));
+  }
+
+  public void invalidateAllRoles() {
+    final String prefix = key("");
+    compiledRoles.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  /**
+   * Called once the group's endpoints have been changed in the repository, from which the roles are compiled again.
+   * A role compiled again concurrently from newer permissions isn't replaced.
+   */
+  public void permittablesChanged(final String groupIdentifier) {
+    final String prefix = key("");
+    compiledRoles.asMap().forEach((key, compiled) -> {
+      if (key.startsWith(prefix) && compiled.permissions.stream()
+          .anyMatch(permission -> permission.getPermittableGroupIdentifier().equals(groupIdentifier)))
+        compiledRoles.asMap().replace(key, compiled, new CompiledRole(compiled.permissions,
+            compile(userTokenPermissions.forRolePermissions(compiled.permissions))));
+    });
+  }
+
+  private PermissionMatcher matcherFor(final UserEntity user) {
+    final Optional<LocalDateTime> passwordExpiration = UserTokenPermissions.passwordExpiration(user);
+    if (!UserTokenPermissions.pastExpiration(passwordExpiration))
+      return matcherFor(user.getRole());
+
+    //No token at all is issued once the grace period is over.
+    final int gracePeriod = tenants.getPrivateTenantInfo()
+        .map(PrivateTenantInfoEntity::getTimeToChangePasswordAfterExpirationInDays)
+        .orElse(0);
+    if (UserTokenPermissions.pastGracePeriod(passwordExpiration, gracePeriod))
+      return new PermissionMatcher();
+    return compile(userTokenPermissions.forUser(user, true));
+  }
+
+  private PermissionMatcher matcherFor(final String roleIdentifier) {
+    final Optional<List<PermissionType>> permissions = roles.get(roleIdentifier).map(RoleEntity::getPermissions);
+    final List<PermissionType> comparable = permissions.orElse(Collections.emptyList());
+
+    final String key = key(roleIdentifier);
+    final CompiledRole existing = compiledRoles.getIfPresent(key);
+    if (existing != null && existing.permissions.equals(comparable))
+      return existing.matcher;
+
+    final PermissionMatcher matcher = compile(userTokenPermissions.forRolePermissions(permissions.orElse(null)));
+    compiledRoles.put(key, new CompiledRole(new ArrayList<>(comparable), matcher));
+    return matcher;
+  }
+
+  private static PermissionMatcher compile(final Set<TokenPermission> tokenPermissions) {
+    final PermissionMatcher ret = new PermissionMatcher();
+    for (final TokenPermission tokenPermission : tokenPermissions) {
+      for (final AllowedOperation allowedOperation : tokenPermission.getAllowedOperations())
+        ret.add(tokenPermission.getPath(), allowedOperation.name());
+    }
+    return ret;
+  }
+
+  /**
+   * Anubis authorizes a request by the operation its method maps to, so the matcher is keyed by operation too.
+   */
+  private static boolean allows(final PermissionMatcher matcher, final PermissionCheck check, final String userIdentifier) {
+    final String operation = operation(check.getMethod());
+    return operation != null && matcher.matches(check.getPath(), operation, userIdentifier);
+  }
+
+  private static String operation(final String method) {
+    final AllowedOperationType operation = AllowedOperationType.fromHttpMethod(method.toUpperCase(Locale.ROOT));
+    return operation == null ? null : RoleMapper.mapAllowedOperation(operation).name();
+  }
+
+  private static String key(final String roleIdentifier) {
+    return TenantContextHolder.checkedGetIdentifier() + "\u0000" + roleIdentifier;
+  }
+}
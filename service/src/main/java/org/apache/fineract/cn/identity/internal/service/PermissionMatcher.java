@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The endpoints a role may call, compiled into a trie over path segments.  Matching follows anubis: "*" matches any
+ * one segment, or any number of segments including none when it is the last segment, "{useridentifier}" matches only
+ * the user being checked, and any other "{variable}" matches any one segment.  Endpoints which compile to the same
+ * entry, such as "/a/{b}" and "/a/{c}", share it.  A matcher is built before it is shared, and isn't changed after;
+ * when endpoints change, the matcher is compiled again.
+ */
+final class PermissionMatcher {
+  private static final String WILDCARD = "*";
+  private static final String USER_VARIABLE = "{useridentifier}";
+
+  private static final class Node {
+    private final Map<String, Node> literals = new HashMap<>();
+    private Node anySegment;
+    private Node userSegment;
+    private final Set<String> methods = new HashSet<>();
+    private final Set<String> methodsForRest = new HashSet<>();
+  }
+
+  private final Node root = new Node();
+  private int size = 0;
+
+  void add(final String path, final String method) {
+    final String[] segments = segments(path);
+    final String normalizedMethod = method.toUpperCase(Locale.ROOT);
+    Node node = root;
+    for (int i = 0; i < segments.length; i++) {
+      final String segment = segments[i];
+      if (segment.equals(WILDCARD) && i == segments.length - 1) {
+        addMethod(node.methodsForRest, normalizedMethod);
+        return;
+      }
+      if (segment.equals(WILDCARD) || (isVariable(segment) && !segment.equals(USER_VARIABLE))) {
+        if (node.anySegment == null)
+          node.anySegment = new Node();
+        node = node.anySegment;
+      }
+      else if (segment.equals(USER_VARIABLE)) {
+        if (node.userSegment == null)
+          node.userSegment = new Node();
+        node = node.userSegment;
+      }
+      else {
+        node = node.literals.computeIfAbsent(segment, x -> new Node());
+      }
+    }
+    addMethod(node.methods, normalizedMethod);
+  }
+
+  boolean matches(final String path, final String method, final String userIdentifier) {
+    return matches(root, segments(path), 0, method.toUpperCase(Locale.ROOT), userIdentifier);
+  }
+
+  int size() {
+    return size;
+  }
+
+  private void addMethod(final Set<String> methods, final String method) {
+    if (methods.add(method))
+      size++;
+  }
+
+  private static boolean matches(
+      final Node node,
+      final String[] segments,
+      final int index,
+      final String method,
+      final String userIdentifier) {
+    if (node.methodsForRest.contains(method))
+      return true;
+    if (index == segments.length)
+      return node.methods.contains(method);
+
+    final String segment = segments[index];
+    final Node literal = node.literals.get(segment);
+    if (literal != null && matches(literal, segments, index + 1, method, userIdentifier))
+      return true;
+    if (node.userSegment != null && segment.equals(userIdentifier)
+        && matches(node.userSegment, segments, index + 1, method, userIdentifier))
+      return true;
+    return node.anySegment != null && matches(node.anySegment, segments, index + 1, method, userIdentifier);
+  }
+
+  private static boolean isVariable(final String segment) {
+    return segment.startsWith("{") && segment.endsWith("}");
+  }
+
+  private static String[] segments(final String path) {
+    int start = 0;
+    int end = path.length();
+    while (start < end && path.charAt(start) == '/')
+      start++;
+    while (end > start && path.charAt(end - 1) == '/')
+      end--;
+    return start == end ? new String[0] : path.substring(start, end).split("/+");
+  }
+}
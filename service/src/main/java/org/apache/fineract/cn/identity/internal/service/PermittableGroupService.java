@@ -24,7 +24,7 @@ import java.util.stream.Collectors;
 import org.apache.fineract.cn.anubis.api.v1.domain.PermittableEndpoint;
 import org.apache.fineract.cn.identity.api.v1.domain.PermittableGroup;
 import org.apache.fineract.cn.identity.internal.repository.PermittableGroupEntity;
-import org.apache.fineract.cn.identity.internal.repository.PermittableGroups;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupRepository;
 import org.apache.fineract.cn.identity.internal.repository.PermittableType;
 import org.springframework.stereotype.Service;
 
@@ -33,12 +33,16 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class PermittableGroupService {
-  private final PermittableGroups repository;
+  private final PermittableGroupRepository repository;
 
-  public PermittableGroupService(final PermittableGroups repository) {
+  public PermittableGroupService(final PermittableGroupRepository repository) {
     this.repository = repository;
   }
 
+  public boolean canChangePermittables() {
+    return repository.canChangePermittables();
+  }
+
   public Optional<PermittableGroup> findByIdentifier(final String identifier) {
     final Optional<PermittableGroupEntity> ret = repository.get(identifier);
 
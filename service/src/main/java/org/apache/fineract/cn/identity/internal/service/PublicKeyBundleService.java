@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.fineract.cn.identity.api.v1.domain.PublicKey;
+import org.apache.fineract.cn.identity.api.v1.domain.PublicKeyBundle;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureRepository;
+import org.apache.fineract.cn.identity.internal.repository.SignatureEntity;
+import org.apache.fineract.cn.identity.internal.repository.SignatureRepository;
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Assembles the public key bundle token verifiers poll.  Every key change increments the tenant's stored
+ * {@link ResourceVersionService#PUBLIC_KEYS} version, which is read on each request and is the bundle's version, so all
+ * instances hand out the same version and notice a change made on any of them at once.  The assembled bundle is
+ * cached per tenant for as long as the stored version doesn't change.  For tenants whose versions aren't tracked yet,
+ * the version is a digest of the keys, and key changes made on other instances become visible once the cache entry
+ * expires.
+ */
+@Service
+public class PublicKeyBundleService {
+  private final SignatureRepository signatures;
+  private final ApplicationSignatureRepository applicationSignatures;
+  private final ResourceVersionService resourceVersions;
+  private final long cacheExpiryInSeconds;
+  private final Cache<String, PublicKeyBundle> bundles;
+
+  @Autowired
+  public PublicKeyBundleService(
+      final SignatureRepository signatures,
+      final ApplicationSignatureRepository applicationSignatures,
+      final ResourceVersionService resourceVersions,
+      @Value("${identity.publicKeyBundle.cacheExpiryInSeconds:30}") final long cacheExpiryInSeconds) {
+    this.signatures = signatures;
+    this.applicationSignatures = applicationSignatures;
+    this.resourceVersions = resourceVersions;
+    this.cacheExpiryInSeconds = cacheExpiryInSeconds;
+    this.bundles = CacheBuilder.newBuilder()
+        .expireAfterWrite(cacheExpiryInSeconds, TimeUnit.SECONDS)
+        .build();
+  }
+
+  public PublicKeyBundle getBundle(final boolean includeApplicationKeys) {
+    final OptionalLong storedVersion = resourceVersions.version(ResourceVersionService.PUBLIC_KEYS);
+    if (!storedVersion.isPresent()) {
+      try {
+        return bundles.get(key(includeApplicationKeys), () -> assemble(includeApplicationKeys, Optional.empty()));
+      }
+      catch (final ExecutionException e) {
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+
+    final String version = "v" + storedVersion.getAsLong();
+    final String key = key(includeApplicationKeys);
+    final PublicKeyBundle cached = bundles.getIfPresent(key);
+    if (cached != null && cached.getVersion().equals(version))
+      return cached;
+
+    final PublicKeyBundle ret = assemble(includeApplicationKeys, Optional.of(version));
+    bundles.put(key, ret);
+    return ret;
+  }
+
+  public long getCacheExpiryInSeconds() {
+    return cacheExpiryInSeconds;
+  }
+
+  /**
+   * Called after the keys of the current tenant changed.
+   */
+  public void keysChanged() {
+    resourceVersions.changed(ResourceVersionService.PUBLIC_KEYS);
+    bundles.invalidate(key(true));
+    bundles.invalidate(key(false));
+  }
+
+  private PublicKeyBundle assemble(
+      final boolean includeApplicationKeys,
+      @SuppressWarnings("OptionalUsedAsFieldOrParameterType") final Optional<String> version) {
+    final List<CompletableFuture<Optional<SignatureEntity>>> identitySignatures = signatures.getAllKeyTimestamps().stream()
+        .sorted()
+        .map(signatures::getSignatureAsync)
+        .collect(Collectors.toList());
+    final List<PublicKey> identityKeys = TenantAwareFutures.join(TenantAwareFutures.allOf(identitySignatures)).stream()
+        .filter(Optional::isPresent)
+        .map(Optional::get)
+        .map(x -> new PublicKey(null, x.getKeyTimestamp(), x.getPublicKeyMod(), x.getPublicKeyExp()))
+        .collect(Collectors.toList());
+
+    final List<PublicKey> applicationKeys = includeApplicationKeys
+        ? applicationSignatures.getAll().stream()
+            .map(x -> new PublicKey(x.getApplicationIdentifier(), x.getKeyTimestamp(), x.getPublicKeyMod(), x.getPublicKeyExp()))
+            .sorted(Comparator.comparing(PublicKey::getApplicationIdentifier).thenComparing(PublicKey::getKeyTimestamp))
+            .collect(Collectors.toList())
+        : Collections.emptyList();
+
+    return new PublicKeyBundle(
+        version.orElseGet(() -> digest(identityKeys, applicationKeys)), identityKeys, applicationKeys);
+  }
+
+  private static String digest(final List<PublicKey> identityKeys, final List<PublicKey> applicationKeys) {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    }
+    catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    Stream.concat(identityKeys.stream(), applicationKeys.stream()).forEach(x -> {
+      final String line = x.getApplicationIdentifier() + "|" + x.getKeyTimestamp() + "|"
+          + x.getPublicKeyMod() + "|" + x.getPublicKeyExp() + "\n";
+      digest.update(line.getBytes(StandardCharsets.UTF_8));
+    });
+
+    final StringBuilder ret = new StringBuilder();
+    final byte[] hash = digest.digest();
+    for (int i = 0; i < 16; i++)
+      ret.append(String.format("%02x", hash[i]));
+    return ret.toString();
+  }
+
+  private static String key(final boolean includeApplicationKeys) {
+    return TenantContextHolder.checkedGetIdentifier() + "\u0000" + includeApplicationKeys;
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import java.util.OptionalLong;
+import java.util.Optional;
+import org.apache.fineract.cn.identity.internal.repository.ResourceVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Turns the stored resource versions into ETags.  Command handlers call {@link #changed(String)} after they wrote, so
+ * a reader which sees a new version also sees the data it stands for.
+ */
+@Service
+public class ResourceVersionService {
+  public static final String ROLES = "roles";
+  public static final String PERMITTABLE_GROUPS = "permittablegroups";
+  public static final String USERS = "users";
+  public static final String PUBLIC_KEYS = "publickeys";
+
+  private final ResourceVersionRepository versions;
+
+  @Autowired
+  public ResourceVersionService(final ResourceVersionRepository versions) {
+    this.versions = versions;
+  }
+
+  public void changed(final String resource) {
+    versions.increment(resource);
+  }
+
+  /**
+   * @return the stored version of the resource, or empty if the versions of this tenant aren't tracked.
+   */
+  public OptionalLong version(final String resource) {
+    return versions.get(resource);
+  }
+
+  /**
+   * @return an ETag covering all the given resources, or empty if the versions of this tenant aren't tracked.
+   */
+  public Optional<String> etag(final String... resources) {
+    final StringBuilder ret = new StringBuilder();
+    for (final String resource : resources) {
+      final OptionalLong version = versions.get(resource);
+      if (!version.isPresent())
+        return Optional.empty();
+      if (ret.length() > 0)
+        ret.append('.');
+      ret.append(version.getAsLong());
+    }
+    return Optional.of(ret.toString());
+  }
+}
@@ -20,12 +20,16 @@ package org.apache.fineract.cn.identity.internal.service;
 
 import org.apache.fineract.cn.identity.api.v1.domain.Role;
 import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
-import org.apache.fineract.cn.identity.internal.repository.Roles;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -34,10 +38,10 @@ import java.util.stream.Collectors;
 @Service
 public class RoleService {
 
-  private final Roles repository;
+  private final RoleRepository repository;
 
   @Autowired
-  public RoleService(final Roles repository) {
+  public RoleService(final RoleRepository repository) {
     this.repository = repository;
   }
 
@@ -55,10 +59,30 @@ public class RoleService {
     return ret;
   }
 
+  public boolean canChangePermissions() {
+    return repository.canChangePermissions();
+  }
+
   public Optional<Role> findByIdentifier(final String identifier)
   {
     final Optional<RoleEntity> ret = repository.get(identifier);
 
     return ret.map(this::mapEntity);
   }
+
+  /**
+   * Reads the roles concurrently.  Roles which don't exist are left out, the rest are returned in the order requested.
+   */
+  public List<Role> findByIdentifiers(final Collection<String> identifiers)
+  {
+    final List<CompletableFuture<Optional<RoleEntity>>> reads = new LinkedHashSet<>(identifiers).stream()
+        .map(repository::getAsync)
+        .collect(Collectors.toList());
+
+    return TenantAwareFutures.join(TenantAwareFutures.allOf(reads)).stream()
+        .filter(Optional::isPresent)
+        .map(Optional::get)
+        .map(this::mapEntity)
+        .collect(Collectors.toList());
+  }
 }
@@ -28,7 +28,7 @@ import org.apache.fineract.cn.anubis.config.TenantSignatureRepository;
 import org.apache.fineract.cn.identity.internal.mapper.SignatureMapper;
 import org.apache.fineract.cn.identity.internal.repository.PrivateSignatureEntity;
 import org.apache.fineract.cn.identity.internal.repository.SignatureEntity;
-import org.apache.fineract.cn.identity.internal.repository.Signatures;
+import org.apache.fineract.cn.identity.internal.repository.SignatureRepository;
 import org.apache.fineract.cn.lang.security.RsaKeyPairFactory;
 import org.apache.fineract.cn.lang.security.RsaPrivateKeyBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,12 +39,14 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class TenantService implements TenantSignatureRepository {
-  private final Signatures signatures;
+  private final SignatureRepository signatures;
+  private final PublicKeyBundleService publicKeyBundleService;
 
   @Autowired
-  TenantService(final Signatures signatures)
+  TenantService(final SignatureRepository signatures, final PublicKeyBundleService publicKeyBundleService)
   {
     this.signatures = signatures;
+    this.publicKeyBundleService = publicKeyBundleService;
   }
 
   public Optional<Signature> getIdentityManagerSignature(final String keyTimestamp) {
@@ -66,6 +68,7 @@ public class TenantService implements TenantSignatureRepository {
   @Override
   public void deleteSignatureSet(final String keyTimestamp) {
     signatures.invalidateEntry(keyTimestamp);
+    publicKeyBundleService.keysChanged();
   }
 
   @Override
@@ -77,6 +80,7 @@ public class TenantService implements TenantSignatureRepository {
   public ApplicationSignatureSet createSignatureSet() {
     final RsaKeyPairFactory.KeyPairHolder keys = RsaKeyPairFactory.createKeyPair();
     final SignatureEntity signatureEntity = signatures.add(keys);
+    publicKeyBundleService.keysChanged();
     return SignatureMapper.mapToApplicationSignatureSet(signatureEntity);
   }
 
@@ -24,13 +24,15 @@ import org.apache.fineract.cn.identity.api.v1.domain.User;
 import org.apache.fineract.cn.anubis.api.v1.domain.AllowedOperation;
 import org.apache.fineract.cn.identity.internal.repository.PermissionType;
 import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
-import org.apache.fineract.cn.identity.internal.repository.Roles;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
 import org.apache.fineract.cn.identity.internal.repository.UserEntity;
-import org.apache.fineract.cn.identity.internal.repository.Users;
+import org.apache.fineract.cn.identity.internal.repository.UserRepository;
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -39,11 +41,11 @@ import java.util.stream.Collectors;
 @Service
 public class UserService {
 
-  private final Users users;
-  private final Roles roles;
+  private final UserRepository users;
+  private final RoleRepository roles;
 
   @Autowired
-  UserService(final Users users, final Roles roles)
+  UserService(final UserRepository users, final RoleRepository roles)
   {
     this.users = users;
     this.roles = roles;
@@ -58,6 +60,28 @@ public class UserService {
     return users.get(identifier).map(UserService::mapUser);
   }
 
+  /**
+   * Reads the users concurrently.  Users which don't exist are left out, the rest are returned in the order requested.
+   */
+  public List<User> findByIdentifiers(final Collection<String> identifiers)
+  {
+    final List<CompletableFuture<Optional<UserEntity>>> reads = new LinkedHashSet<>(identifiers).stream()
+        .map(users::getAsync)
+        .collect(Collectors.toList());
+
+    return TenantAwareFutures.join(TenantAwareFutures.allOf(reads)).stream()
+        .filter(Optional::isPresent)
+        .map(Optional::get)
+        .map(UserService::mapUser)
+        .collect(Collectors.toList());
+  }
+
+  public List<User> findByRole(final String role, final String startAfter, final int size) {
+    return users.getIdentifiersByRole(role, startAfter, size).stream()
+        .map(identifier -> new User(identifier, role))
+        .collect(Collectors.toList());
+  }
+
   static private User mapUser(final UserEntity u) {
     return new User(u.getIdentifier(), u.getRole());
   }
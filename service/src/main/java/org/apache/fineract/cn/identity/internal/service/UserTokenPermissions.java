@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import com.google.common.collect.Sets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.fineract.cn.anubis.api.v1.domain.AllowedOperation;
+import org.apache.fineract.cn.anubis.api.v1.domain.TokenPermission;
+import org.apache.fineract.cn.identity.internal.repository.AllowedOperationType;
+import org.apache.fineract.cn.identity.internal.repository.PermissionType;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupEntity;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupRepository;
+import org.apache.fineract.cn.identity.internal.repository.PermittableType;
+import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
+import org.apache.fineract.cn.identity.internal.repository.UserEntity;
+import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
+import org.apache.fineract.cn.identity.internal.util.TenantAwareFutures;
+import org.apache.fineract.cn.lang.ApplicationName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * The permissions an access token for identity itself grants a user: those of the user's role and the endpoints every
+ * user may call on their own behalf, or, once the password has expired, only what is needed to change it.  Login and
+ * refresh put these into the token, and the permission check answers from them, so the two can't disagree.
+ */
+@Component
+public class UserTokenPermissions {
+  private final RoleRepository roles;
+  private final PermittableGroupRepository permittableGroups;
+  private final ApplicationName applicationName;
+
+  @Autowired
+  public UserTokenPermissions(
+      final RoleRepository roles,
+      final PermittableGroupRepository permittableGroups,
+      final ApplicationName applicationName) {
+    this.roles = roles;
+    this.permittableGroups = permittableGroups;
+    this.applicationName = applicationName;
+  }
+
+  public Set<TokenPermission> forUser(final UserEntity user, final boolean passwordExpired) {
+    if (passwordExpired)
+      return identityEndpointsAllowedEvenWithExpiredPassword();
+
+    return forRolePermissions(roles.get(user.getRole())
+        .map(RoleEntity::getPermissions)
+        .orElse(null));
+  }
+
+  /**
+   * @param rolePermissions the permissions of the user's role, or null if the role doesn't exist.
+   */
+  public Set<TokenPermission> forRolePermissions(final List<PermissionType> rolePermissions) {
+    final Set<TokenPermission> ret = rolePermissions == null ? new HashSet<>() : forPermissions(rolePermissions);
+    ret.addAll(identityEndpointsForEveryUser());
+    return ret;
+  }
+
+  public Set<TokenPermission> forPermissions(final Collection<PermissionType> permissions) {
+    //The permittable groups are read all at once, rather than one round trip after the other.
+    final List<CompletableFuture<List<TokenPermission>>> mapped = permissions.stream()
+            .map(permission -> permittableGroups.getAsync(permission.getPermittableGroupIdentifier())
+                    .thenApply(permittableGroup -> forPermission(permission, permittableGroup)))
+            .collect(Collectors.toList());
+
+    return TenantAwareFutures.join(TenantAwareFutures.allOf(mapped)).stream()
+            .flatMap(Collection::stream)
+            .collect(Collectors.toCollection(HashSet::new));
+  }
+
+  private Set<TokenPermission> identityEndpointsForEveryUser() {
+    final Set<TokenPermission> ret = identityEndpointsAllowedEvenWithExpiredPassword();
+
+    ret.add(new TokenPermission(
+            applicationName + "/applications/*/permissions/*/users/{useridentifier}/enabled",
+            Sets.newHashSet(AllowedOperation.READ, AllowedOperation.CHANGE, AllowedOperation.DELETE)));
+    ret.add(new TokenPermission(
+            applicationName + "/users/{useridentifier}/permissions",
+            Sets.newHashSet(AllowedOperation.READ)));
+    ret.add(new TokenPermission(
+            applicationName + "/users/{useridentifier}/permissions/_check",
+            Sets.newHashSet(AllowedOperation.CHANGE)));
+
+    return ret;
+  }
+
+  private Set<TokenPermission> identityEndpointsAllowedEvenWithExpiredPassword() {
+    final Set<TokenPermission> ret = new HashSet<>();
+
+    ret.add(new TokenPermission(
+            applicationName + "/users/{useridentifier}/password",
+            Sets.newHashSet(AllowedOperation.READ, AllowedOperation.CHANGE, AllowedOperation.DELETE)));
+    ret.add(new TokenPermission(
+            applicationName + "/token/_current",
+            Sets.newHashSet(AllowedOperation.DELETE)));
+
+    return ret;
+  }
+
+  private static List<TokenPermission> forPermission(
+          final PermissionType permission,
+          @SuppressWarnings("OptionalUsedAsFieldOrParameterType") final Optional<PermittableGroupEntity> permittableGroup) {
+    return permitted(permission, permittableGroup
+            .map(PermittableGroupEntity::getPermittables)
+            .map(Collection::stream)
+            .orElse(Stream.empty()))
+            .map(UserTokenPermissions::tokenPermission)
+            .collect(Collectors.toList());
+  }
+
+  static Stream<PermittableType> permitted(final PermissionType permission, final Stream<PermittableType> permittables) {
+    return permittables.filter(permittable ->
+        permission.getAllowedOperations().contains(AllowedOperationType.fromHttpMethod(permittable.getMethod())));
+  }
+
+  private static TokenPermission tokenPermission(final PermittableType permittable) {
+    final HashSet<AllowedOperation> allowedOperations = new HashSet<>();
+    allowedOperations.add(RoleMapper.mapAllowedOperation(AllowedOperationType.fromHttpMethod(permittable.getMethod())));
+    return new TokenPermission(permittable.getPath(), allowedOperations);
+  }
+
+  public static Optional<LocalDateTime> passwordExpiration(final UserEntity user) {
+    if (user.getIdentifier().equals(IdentityConstants.SU_NAME))
+      return Optional.empty();
+    else
+      return Optional.of(LocalDateTime.of(
+              LocalDate.ofEpochDay(user.getPasswordExpiresOn().getDaysSinceEpoch()), //Convert from cassandra LocalDate to java LocalDate.
+              LocalTime.MIDNIGHT));
+  }
+
+  public static boolean pastExpiration(
+          @SuppressWarnings("OptionalUsedAsFieldOrParameterType") final Optional<LocalDateTime> passwordExpiration) {
+    return passwordExpiration.map(x -> LocalDateTime.now().compareTo(x) >= 0).orElse(false);
+  }
+
+  public static boolean pastGracePeriod(
+          @SuppressWarnings("OptionalUsedAsFieldOrParameterType") final Optional<LocalDateTime> passwordExpiration,
+          final long gracePeriod) {
+    return passwordExpiration.map(x -> (LocalDateTime.now().compareTo(x.plusDays(gracePeriod)) >= 0)).orElse(false);
+  }
+}
@@ -18,66 +18,104 @@
  */
 package org.apache.fineract.cn.identity.internal.util;
 
-import org.apache.fineract.cn.postgresql.util.PostgreSQLConstants;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.core.env.Environment;
 import org.apache.fineract.cn.postgresql.util.JdbcUrlBuilder;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.fineract.cn.identity.api.v1.domain.DatabaseConnectionInfo;
 
 public class DataSourceUtils {
 
+    static final String POOL_MAXIMUM_SIZE_PROP = "postgresql.pool.maximumPoolSize";
+    static final String POOL_MINIMUM_IDLE_PROP = "postgresql.pool.minimumIdle";
+    static final String POOL_CONNECTION_TIMEOUT_PROP = "postgresql.pool.connectionTimeoutInMillis";
+    static final String POOL_IDLE_TIMEOUT_PROP = "postgresql.pool.idleTimeoutInMinutes";
+    static final String POOL_MAX_LIFETIME_PROP = "postgresql.pool.maxLifetimeInMinutes";
+    static final String POOL_VALIDATION_QUERY_PROP = "postgresql.pool.validationQuery";
+    static final String POOL_VALIDATION_TIMEOUT_PROP = "postgresql.pool.validationTimeoutInMillis";
+    static final String STATEMENT_CACHE_QUERIES_PROP = "postgresql.pool.statementCacheQueries";
+    static final String STATEMENT_CACHE_SIZE_PROP = "postgresql.pool.statementCacheSizeInMiB";
+    static final String PREPARE_THRESHOLD_PROP = "postgresql.pool.prepareThreshold";
+
     private DataSourceUtils() {
         super();
     }
 
-    public static Connection create(final DatabaseConnectionInfo databaseConnectionInfo) {
-        try {
-            Class.forName(databaseConnectionInfo.getDriverClass());
-        } catch (ClassNotFoundException cnfex) {
-            throw new IllegalArgumentException(cnfex.getMessage(), cnfex);
+    public static DatabaseConnectionInfo connectionInfo(final Environment environment, final String databaseName) {
+        final DatabaseConnectionInfo databaseConnectionInfo = new DatabaseConnectionInfo();
+        databaseConnectionInfo.setDriverClass(environment.getProperty("postgresql.driverClass", "org.postgresql.Driver"));
+        if (databaseName != null) {
+            databaseConnectionInfo.setDatabaseName(databaseName);
         }
+        databaseConnectionInfo.setHost(environment.getProperty("postgresql.host"));
+        databaseConnectionInfo.setPort(environment.getProperty("postgresql.port"));
+        databaseConnectionInfo.setUser(environment.getProperty("postgresql.user"));
+        databaseConnectionInfo.setPassword(environment.getProperty("postgresql.password"));
+        return databaseConnectionInfo;
+    }
 
-        final String jdbcUrl = JdbcUrlBuilder
+    public static String jdbcUrl(final DatabaseConnectionInfo databaseConnectionInfo) {
+        return JdbcUrlBuilder
                 .create(JdbcUrlBuilder.DatabaseType.POSTGRESQL)
                 .host(databaseConnectionInfo.getHost())
                 .port(databaseConnectionInfo.getPort())
                 .instanceName(databaseConnectionInfo.getDatabaseName())
                 .build();
-        try {
-            try {
-                Class.forName("org.postgresql.Driver");
-            } catch (ClassNotFoundException e) {
-                e.printStackTrace();
-            }
-            final Connection connection = DriverManager.getConnection(jdbcUrl, databaseConnectionInfo.getUser(), databaseConnectionInfo.getPassword());
-            connection.setAutoCommit(true);
-            return connection;
-        } catch (SQLException sqlex) {
-            throw new IllegalStateException(sqlex.getMessage(), sqlex);
-        }
     }
 
-    public static Connection createConnection(final Environment environment, String databaseName) {
-        final DatabaseConnectionInfo databaseConnectionInfo = new DatabaseConnectionInfo();
-        databaseConnectionInfo.setDriverClass(environment.getProperty("postgresql.driverClass"));
-        if (databaseName != null) {
-            databaseConnectionInfo.setDatabaseName(databaseName);
+    /**
+     * Creates a connection pool for the given database.  The pool loads the driver once, validates connections
+     * before handing them out, and keeps prepared statements cached on the server side per connection, so callers
+     * should borrow a connection per unit of work and close it again promptly.
+     */
+    public static HikariDataSource createPooled(final DatabaseConnectionInfo databaseConnectionInfo,
+                                                final Environment environment) {
+        return new HikariDataSource(poolConfig(databaseConnectionInfo, environment, null));
+    }
+
+    public static HikariConfig poolConfig(final DatabaseConnectionInfo databaseConnectionInfo,
+                                          final Environment environment,
+                                          final String schema) {
+        final HikariConfig config = new HikariConfig();
+        config.setPoolName("identity-" + databaseConnectionInfo.getDatabaseName());
+        config.setDriverClassName(databaseConnectionInfo.getDriverClass());
+        config.setJdbcUrl(jdbcUrl(databaseConnectionInfo));
+        config.setUsername(databaseConnectionInfo.getUser());
+        config.setPassword(databaseConnectionInfo.getPassword());
+        config.setAutoCommit(true);
+
+        config.setMaximumPoolSize(environment.getProperty(POOL_MAXIMUM_SIZE_PROP, Integer.class, 10));
+        config.setMinimumIdle(environment.getProperty(POOL_MINIMUM_IDLE_PROP, Integer.class, 1));
+        config.setConnectionTimeout(environment.getProperty(POOL_CONNECTION_TIMEOUT_PROP, Long.class, 30000L));
+        config.setIdleTimeout(TimeUnit.MINUTES.toMillis(environment.getProperty(POOL_IDLE_TIMEOUT_PROP, Long.class, 10L)));
+        config.setMaxLifetime(TimeUnit.MINUTES.toMillis(environment.getProperty(POOL_MAX_LIFETIME_PROP, Long.class, 30L)));
+        config.setValidationTimeout(environment.getProperty(POOL_VALIDATION_TIMEOUT_PROP, Long.class, 5000L));
+
+        //Without a validation query the pool validates with Connection.isValid, which the PostgreSQL driver supports.
+        final String validationQuery = environment.getProperty(POOL_VALIDATION_QUERY_PROP);
+        if (validationQuery != null && !validationQuery.isEmpty()) {
+            config.setConnectionTestQuery(validationQuery);
         }
-        databaseConnectionInfo.setHost(environment.getProperty("postgresql.host"));
-        databaseConnectionInfo.setPort(environment.getProperty("postgresql.port"));
-        databaseConnectionInfo.setUser(environment.getProperty("postgresql.user"));
-        databaseConnectionInfo.setPassword(environment.getProperty("postgresql.password"));
 
-        try {
-            final Connection connection = DataSourceUtils.create(databaseConnectionInfo);
-            connection.setAutoCommit(true);
-            return connection;
-        } catch (SQLException error) {
-            throw new IllegalStateException(error.getMessage(), error);
+        config.addDataSourceProperty("prepareThreshold",
+                environment.getProperty(PREPARE_THRESHOLD_PROP, Integer.class, 3));
+        config.addDataSourceProperty("preparedStatementCacheQueries",
+                environment.getProperty(STATEMENT_CACHE_QUERIES_PROP, Integer.class, 256));
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB",
+                environment.getProperty(STATEMENT_CACHE_SIZE_PROP, Integer.class, 5));
+
+        if (schema != null) {
+            config.setPoolName(config.getPoolName() + "-" + schema);
+            config.setConnectionInitSql("SET search_path TO " + quoteIdentifier(schema));
         }
+
+        return config;
+    }
+
+    public static String quoteIdentifier(final String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
     }
 }
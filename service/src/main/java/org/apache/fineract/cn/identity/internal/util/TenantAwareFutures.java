@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.util;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bridges the cassandra driver's futures to {@link CompletableFuture}.  The driver completes its futures on I/O
+ * threads, which don't know the tenant.  The futures returned here are completed with the tenant of the thread which
+ * started the operation, so that stages added before completion see the same {@link TenantContextHolder} as the
+ * caller.
+ */
+public final class TenantAwareFutures {
+  private TenantAwareFutures() {
+  }
+
+  public static <T> CompletableFuture<T> of(final ListenableFuture<T> future) {
+    final Optional<String> tenant = TenantContextHolder.identifier();
+    final CompletableFuture<T> ret = new CompletableFuture<>();
+    Futures.addCallback(future, new FutureCallback<T>() {
+      @Override
+      public void onSuccess(final T result) {
+        withTenant(tenant, () -> ret.complete(result));
+      }
+
+      @Override
+      public void onFailure(final Throwable t) {
+        withTenant(tenant, () -> ret.completeExceptionally(t));
+      }
+    }, MoreExecutors.directExecutor());
+    return ret;
+  }
+
+  /**
+   * Runs a blocking operation on the calling thread, for repositories which have no asynchronous driver.  Failures
+   * are returned in the future rather than thrown.
+   */
+  public static <T> CompletableFuture<T> supply(final Supplier<T> operation) {
+    try {
+      return CompletableFuture.completedFuture(operation.get());
+    }
+    catch (final RuntimeException e) {
+      final CompletableFuture<T> ret = new CompletableFuture<>();
+      ret.completeExceptionally(e);
+      return ret;
+    }
+  }
+
+  public static CompletableFuture<Void> run(final Runnable operation) {
+    return supply(() -> {
+      operation.run();
+      return null;
+    });
+  }
+
+  public static <T> CompletableFuture<List<T>> allOf(final List<CompletableFuture<T>> futures) {
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+        .thenApply(x -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+  }
+
+  /**
+   * @return the exception an operation failed with, without the wrapping added by dependent stages.
+   */
+  public static Throwable cause(final Throwable t) {
+    return (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+  }
+
+  /**
+   * Waits for the future, rethrowing runtime exceptions as they were thrown by the operation.
+   */
+  public static <T> T join(final CompletableFuture<T> future) {
+    try {
+      return future.join();
+    }
+    catch (final CompletionException e) {
+      final Throwable cause = cause(e);
+      if (cause instanceof RuntimeException)
+        throw (RuntimeException) cause;
+      if (cause instanceof Error)
+        throw (Error) cause;
+      throw e;
+    }
+  }
+
+  private static void withTenant(
+      @SuppressWarnings("OptionalUsedAsFieldOrParameterType") final Optional<String> tenant,
+      final Runnable completion) {
+    final Optional<String> previous = TenantContextHolder.identifier();
+    tenant.ifPresent(TenantContextHolder::setIdentifier);
+    try {
+      completion.run();
+    }
+    finally {
+      TenantContextHolder.clear();
+      previous.ifPresent(TenantContextHolder::setIdentifier);
+    }
+  }
+}
@@ -19,6 +19,7 @@
 package org.apache.fineract.cn.identity.rest;
 
 
+import org.apache.fineract.cn.identity.api.v1.IdentityMediaTypes;
 import org.apache.fineract.cn.identity.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.identity.api.v1.domain.Permission;
 import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
@@ -65,7 +66,7 @@ public class ApplicationRestController {
 
   @RequestMapping(method = RequestMethod.GET,
           consumes = {MediaType.ALL_VALUE},
-          produces = {MediaType.APPLICATION_JSON_VALUE})
+          produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.SYSTEM)
   public @ResponseBody
   ResponseEntity<List<String>>
@@ -89,7 +90,7 @@ public class ApplicationRestController {
 
   @RequestMapping(value = "/{applicationidentifier}/signatures/{timestamp}", method = RequestMethod.GET,
           consumes = {MediaType.ALL_VALUE},
-          produces = {MediaType.APPLICATION_JSON_VALUE})
+          produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.SYSTEM)
   public @ResponseBody
   ResponseEntity<Signature>
@@ -130,7 +131,7 @@ public class ApplicationRestController {
 
   @RequestMapping(value = "/{applicationidentifier}/permissions", method = RequestMethod.GET,
           consumes = {MediaType.ALL_VALUE},
-          produces = {MediaType.APPLICATION_JSON_VALUE})
+          produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.SYSTEM)
   @Permittable(value = AcceptedTokenType.TENANT, permittedEndpoint = "applications/{applicationidentifier}/permissions", groupId = PermittableGroupIds.APPLICATION_SELF_MANAGEMENT)
   public @ResponseBody
@@ -142,7 +143,7 @@ public class ApplicationRestController {
 
   @RequestMapping(value = "/{applicationidentifier}/permissions/{permissionidentifier}", method = RequestMethod.GET,
           consumes = {MediaType.ALL_VALUE},
-          produces = {MediaType.APPLICATION_JSON_VALUE})
+          produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.SYSTEM)
   public @ResponseBody
   ResponseEntity<Permission> getApplicationPermission(@PathVariable("applicationidentifier") String applicationIdentifier,
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.cn.identity.rest;
 
+import org.apache.fineract.cn.identity.api.v1.IdentityMediaTypes;
 import org.apache.fineract.cn.identity.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.identity.api.v1.client.IdentityManager;
 import org.apache.fineract.cn.identity.api.v1.domain.Authentication;
@@ -78,7 +79,7 @@ public class AuthorizationRestController {
       value = "/token",
       method = RequestMethod.POST,
       consumes = {MediaType.ALL_VALUE},
-      produces = {MediaType.APPLICATION_JSON_VALUE}
+      produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE}
   )
   @Permittable(AcceptedTokenType.GUEST)
   public
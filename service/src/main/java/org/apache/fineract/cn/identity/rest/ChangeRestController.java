@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.rest;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
+import org.apache.fineract.cn.anubis.annotation.Permittable;
+import org.apache.fineract.cn.identity.api.v1.PermittableGroupIds;
+import org.apache.fineract.cn.identity.api.v1.domain.ChangeSet;
+import org.apache.fineract.cn.identity.internal.service.ChangeLogService;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * The change feed downstream caches of users, roles and permittable groups apply incrementally.  With waitInSeconds,
+ * the response is held, without holding a request thread, until there are changes or the time is up.
+ */
+@SuppressWarnings("unused")
+@RestController
+@RequestMapping("/changes")
+public class ChangeRestController {
+  private static final int MAXIMUM_LIMIT = 1000;
+
+  private final ChangeLogService service;
+
+  @Autowired
+  public ChangeRestController(final ChangeLogService service) {
+    this.service = service;
+  }
+
+  @RequestMapping(method = RequestMethod.GET,
+          consumes = {MediaType.ALL_VALUE},
+          produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.IDENTITY_MANAGEMENT)
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.ROLE_MANAGEMENT)
+  public @ResponseBody DeferredResult<ChangeSet> getChanges(
+          @RequestParam(value = "since", required = false, defaultValue = "0") final long since,
+          @RequestParam(value = "limit", required = false, defaultValue = "100") final int limit,
+          @RequestParam(value = "waitInSeconds", required = false, defaultValue = "0") final int waitInSeconds)
+  {
+    if (since < 0)
+      throw ServiceException.badRequest("since may not be negative.");
+    if (limit <= 0 || limit > MAXIMUM_LIMIT)
+      throw ServiceException.badRequest("limit must be between 1 and {0}.", MAXIMUM_LIMIT);
+    if (waitInSeconds < 0)
+      throw ServiceException.badRequest("waitInSeconds may not be negative.");
+
+    return service.getChanges(since, limit, TimeUnit.SECONDS.toMillis(waitInSeconds));
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.rest;
+
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Answers conditional GETs of resources whose ETag is derived from their stored versions.  The same version is
+ * served as JSON or Smile, compressed or not, so the ETag is weak, and caches are told to keep the representations
+ * apart.
+ */
+final class ConditionalRequests {
+  private ConditionalRequests() {
+  }
+
+  /**
+   * Sets the ETag and Vary headers on the response.
+   *
+   * @return true if the client's copy is current, in which case the response is already a 304.
+   */
+  static boolean notModified(final ServletWebRequest request, final Optional<String> etag) {
+    request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+    return etag.isPresent() && request.checkNotModified("W/\"" + etag.get() + "\"");
+  }
+}
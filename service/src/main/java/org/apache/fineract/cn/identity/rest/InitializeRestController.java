@@ -22,8 +22,10 @@ import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
 import org.apache.fineract.cn.anubis.annotation.Permittable;
 import org.apache.fineract.cn.anubis.api.v1.domain.ApplicationSignatureSet;
 import org.apache.fineract.cn.identity.internal.command.handler.Provisioner;
+import org.apache.fineract.cn.identity.internal.repository.NotInMemoryCondition;
 import org.apache.fineract.cn.identity.internal.service.TenantService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -41,6 +43,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping()
 @Profile("cassandra")
+@Conditional(NotInMemoryCondition.class)
 public class InitializeRestController {
   private final TenantService tenantService;
   private final Provisioner provisioner;
@@ -22,6 +22,7 @@ import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
 import org.apache.fineract.cn.anubis.annotation.Permittable;
 import org.apache.fineract.cn.anubis.api.v1.domain.ApplicationSignatureSet;
 import org.apache.fineract.cn.identity.internal.command.handler.ProvisionerForSQL;
+import org.apache.fineract.cn.identity.internal.repository.InMemoryStore;
 import org.apache.fineract.cn.identity.internal.service.TenantService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
@@ -36,7 +37,7 @@ import org.springframework.web.bind.annotation.*;
 @SuppressWarnings("unused")
 @RestController
 @RequestMapping()
-@Profile("postgres")
+@Profile({"postgres", InMemoryStore.PROFILE})
 public class InitializeRestControllerForSQL {
   private final TenantService tenantService;
   private final ProvisionerForSQL provisioner;
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.rest;
+
+import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
+import org.apache.fineract.cn.anubis.annotation.Permittable;
+import org.apache.fineract.cn.identity.internal.metrics.AuthenticationMetrics;
+import org.apache.fineract.cn.identity.internal.metrics.CommandMetrics;
+import org.apache.fineract.cn.identity.internal.metrics.CommandStatistics;
+import org.apache.fineract.cn.identity.internal.metrics.PhaseStatistics;
+import org.apache.fineract.cn.identity.internal.metrics.StatementMetrics;
+import org.apache.fineract.cn.identity.internal.metrics.StatementStatistics;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Operational statistics for the calling tenant.
+ */
+@SuppressWarnings("unused")
+@RestController
+@RequestMapping("/metrics")
+public class MetricsRestController {
+  private final CommandMetrics commandMetrics;
+  private final AuthenticationMetrics authenticationMetrics;
+  private final StatementMetrics statementMetrics;
+
+  @Autowired
+  public MetricsRestController(
+      final CommandMetrics commandMetrics,
+      final AuthenticationMetrics authenticationMetrics,
+      final StatementMetrics statementMetrics) {
+    this.commandMetrics = commandMetrics;
+    this.authenticationMetrics = authenticationMetrics;
+    this.statementMetrics = statementMetrics;
+  }
+
+  @RequestMapping(value = "/commands",
+      method = RequestMethod.GET,
+      consumes = {MediaType.ALL_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Permittable(AcceptedTokenType.SYSTEM)
+  public @ResponseBody ResponseEntity<List<CommandStatistics>> getCommandStatistics() {
+    return ResponseEntity.ok(commandMetrics.getStatistics(TenantContextHolder.checkedGetIdentifier()));
+  }
+
+  @RequestMapping(value = "/authentication",
+      method = RequestMethod.GET,
+      consumes = {MediaType.ALL_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Permittable(AcceptedTokenType.SYSTEM)
+  public @ResponseBody ResponseEntity<List<PhaseStatistics>> getAuthenticationStatistics() {
+    return ResponseEntity.ok(authenticationMetrics.getStatistics());
+  }
+
+  @RequestMapping(value = "/statements",
+      method = RequestMethod.GET,
+      consumes = {MediaType.ALL_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Permittable(AcceptedTokenType.SYSTEM)
+  public @ResponseBody ResponseEntity<List<StatementStatistics>> getStatementStatistics() {
+    return ResponseEntity.ok(statementMetrics.getStatistics(TenantContextHolder.checkedGetIdentifier()));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.rest;
+
+import javax.validation.Valid;
+import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
+import org.apache.fineract.cn.anubis.annotation.Permittable;
+import org.apache.fineract.cn.command.gateway.CommandGateway;
+import org.apache.fineract.cn.identity.api.v1.domain.PasswordHashPolicy;
+import org.apache.fineract.cn.identity.internal.command.ChangePasswordHashPolicyCommand;
+import org.apache.fineract.cn.identity.internal.service.PasswordHashPolicyService;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The calling tenant's password hashing cost.  Hashing cost is a matter of the hardware a deployment
+ * runs on, so only the system may read or change it.
+ */
+@SuppressWarnings("unused")
+@RestController
+@RequestMapping("/passwordhashpolicy")
+public class PasswordHashPolicyRestController {
+  private final CommandGateway commandGateway;
+  private final PasswordHashPolicyService service;
+
+  @Autowired
+  public PasswordHashPolicyRestController(
+      final CommandGateway commandGateway,
+      final PasswordHashPolicyService service) {
+    this.commandGateway = commandGateway;
+    this.service = service;
+  }
+
+  @RequestMapping(method = RequestMethod.GET,
+      consumes = {MediaType.ALL_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Permittable(AcceptedTokenType.SYSTEM)
+  public @ResponseBody ResponseEntity<PasswordHashPolicy> get() {
+    return ResponseEntity.ok(service.getPolicy());
+  }
+
+  @RequestMapping(method = RequestMethod.PUT,
+      consumes = {MediaType.APPLICATION_JSON_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Permittable(AcceptedTokenType.SYSTEM)
+  public @ResponseBody ResponseEntity<Void> change(@RequestBody @Valid final PasswordHashPolicy instance) {
+    if (instance == null)
+      throw ServiceException.badRequest("Instance may not be null.");
+
+    this.commandGateway.process(new ChangePasswordHashPolicyCommand(instance));
+    return new ResponseEntity<>(HttpStatus.ACCEPTED);
+  }
+}
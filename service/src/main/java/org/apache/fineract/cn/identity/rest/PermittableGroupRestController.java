@@ -18,22 +18,27 @@
  */
 package org.apache.fineract.cn.identity.rest;
 
+import org.apache.fineract.cn.identity.api.v1.IdentityMediaTypes;
 import org.apache.fineract.cn.identity.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.identity.api.v1.domain.PermittableGroup;
+import org.apache.fineract.cn.identity.api.v1.domain.PermittableGroupEndpointsChange;
 import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
 import org.apache.fineract.cn.anubis.annotation.Permittable;
 import org.apache.fineract.cn.command.gateway.CommandGateway;
+import org.apache.fineract.cn.identity.internal.command.ChangePermittableGroupEndpointsCommand;
 import org.apache.fineract.cn.identity.internal.command.CreatePermittableGroupCommand;
 import org.apache.fineract.cn.identity.internal.service.PermittableGroupService;
+import org.apache.fineract.cn.identity.internal.service.ResourceVersionService;
 import org.apache.fineract.cn.lang.ServiceException;
-import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @author Myrle Krantz
@@ -41,14 +46,16 @@ import java.util.List;
 @SuppressWarnings("unused")
 @RestController
 @RequestMapping("/permittablegroups")
-@Profile("cassandra")
 public class PermittableGroupRestController {
   private final PermittableGroupService service;
+  private final ResourceVersionService resourceVersionService;
   private final CommandGateway commandGateway;
 
   public PermittableGroupRestController(final PermittableGroupService service,
+                                        final ResourceVersionService resourceVersionService,
                                         final CommandGateway commandGateway) {
     this.service = service;
+    this.resourceVersionService = resourceVersionService;
     this.commandGateway = commandGateway;
   }
 
@@ -72,16 +79,19 @@ public class PermittableGroupRestController {
 
   @RequestMapping(method = RequestMethod.GET,
           consumes = {MediaType.ALL_VALUE},
-          produces = {MediaType.APPLICATION_JSON_VALUE})
+          produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.ROLE_MANAGEMENT)
   public @ResponseBody
-  List<PermittableGroup> findAll() {
+  List<PermittableGroup> findAll(final ServletWebRequest request) {
+    if (ConditionalRequests.notModified(request, resourceVersionService.etag(ResourceVersionService.PERMITTABLE_GROUPS)))
+      return null;
+
     return service.findAll();
   }
 
   @RequestMapping(value= PathConstants.IDENTIFIER_RESOURCE_STRING, method = RequestMethod.GET,
           consumes = {MediaType.ALL_VALUE},
-          produces = {MediaType.APPLICATION_JSON_VALUE})
+          produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.SYSTEM)
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.ROLE_MANAGEMENT)
   public @ResponseBody ResponseEntity<PermittableGroup> get(@PathVariable(PathConstants.IDENTIFIER_PATH_VARIABLE) final String identifier)
@@ -89,6 +99,30 @@ public class PermittableGroupRestController {
     return new ResponseEntity<>(checkIdentifier(identifier), HttpStatus.OK);
   }
 
+  //POST is accepted as well, for clients which can't send PATCH.
+  @RequestMapping(value= PathConstants.IDENTIFIER_RESOURCE_STRING + "/permittables", method = {RequestMethod.PATCH, RequestMethod.POST},
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Permittable(value = AcceptedTokenType.SYSTEM)
+  public @ResponseBody ResponseEntity<Void> changePermittables(
+          @PathVariable(PathConstants.IDENTIFIER_PATH_VARIABLE) final String identifier,
+          @RequestBody @Valid final PermittableGroupEndpointsChange change)
+  {
+    checkIdentifier(identifier);
+
+    //Checked here, since a failure in the command handler would come after the change was accepted.
+    if (!service.canChangePermittables())
+      throw ServiceException.conflict("Endpoints can only be changed one by one once the tenant is provisioned again.");
+
+    if (Stream.concat(change.getAdd().stream(), change.getRemove().stream())
+        .anyMatch(x -> x == null || x.getPath() == null || x.getMethod() == null))
+      throw ServiceException.badRequest("Endpoints to add or remove must have a path and a method.");
+
+    final ChangePermittableGroupEndpointsCommand changeCommand = new ChangePermittableGroupEndpointsCommand(identifier, change);
+    this.commandGateway.process(changeCommand);
+    return new ResponseEntity<>(HttpStatus.ACCEPTED);
+  }
+
   private PermittableGroup checkIdentifier(final String identifier) {
     if (identifier == null)
       throw ServiceException.badRequest("identifier may not be null.");
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.rest;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
+import org.apache.fineract.cn.anubis.annotation.Permittable;
+import org.apache.fineract.cn.identity.api.v1.domain.PublicKeyBundle;
+import org.apache.fineract.cn.identity.internal.service.PublicKeyBundleService;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves all public keys of a tenant in one response.  The bundle carries its version as a strong ETag, so verifiers
+ * can poll with If-None-Match and usually get a 304 back.
+ */
+@SuppressWarnings("unused")
+@RestController
+@RequestMapping("/publickeys")
+public class PublicKeyRestController {
+  private final PublicKeyBundleService service;
+
+  @Autowired
+  public PublicKeyRestController(final PublicKeyBundleService service) {
+    this.service = service;
+  }
+
+  @RequestMapping(method = RequestMethod.GET,
+          consumes = {MediaType.ALL_VALUE},
+          produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Permittable(AcceptedTokenType.GUEST)
+  public @ResponseBody ResponseEntity<PublicKeyBundle> getBundle(
+          @RequestParam(value = "includeApplicationKeys", required = false, defaultValue = "false") final boolean includeApplicationKeys)
+  {
+    final PublicKeyBundle bundle = service.getBundle(includeApplicationKeys);
+    //Spring answers with 304 Not Modified if the request's If-None-Match matches the ETag.
+    return ResponseEntity.ok()
+            .eTag(bundle.getVersion())
+            .cacheControl(CacheControl.maxAge(service.getCacheExpiryInSeconds(), TimeUnit.SECONDS).mustRevalidate())
+            .header(HttpHeaders.VARY, TenantHeaderFilter.TENANT_HEADER)
+            .body(bundle);
+  }
+}
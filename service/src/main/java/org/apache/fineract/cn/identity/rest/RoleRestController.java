@@ -18,8 +18,11 @@
  */
 package org.apache.fineract.cn.identity.rest;
 
+import org.apache.fineract.cn.identity.api.v1.IdentityMediaTypes;
 import org.apache.fineract.cn.identity.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.identity.api.v1.domain.Role;
+import org.apache.fineract.cn.identity.api.v1.domain.RolePermissionsChange;
+import org.apache.fineract.cn.identity.api.v1.domain.User;
 import org.apache.fineract.cn.identity.api.v1.validation.CheckRoleChangeable;
 import java.util.List;
 import javax.validation.Valid;
@@ -27,9 +30,12 @@ import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
 import org.apache.fineract.cn.anubis.annotation.Permittable;
 import org.apache.fineract.cn.command.gateway.CommandGateway;
 import org.apache.fineract.cn.identity.internal.command.ChangeRoleCommand;
+import org.apache.fineract.cn.identity.internal.command.ChangeRolePermissionsCommand;
 import org.apache.fineract.cn.identity.internal.command.CreateRoleCommand;
 import org.apache.fineract.cn.identity.internal.command.DeleteRoleCommand;
+import org.apache.fineract.cn.identity.internal.service.ResourceVersionService;
 import org.apache.fineract.cn.identity.internal.service.RoleService;
+import org.apache.fineract.cn.identity.internal.service.UserService;
 import org.apache.fineract.cn.lang.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,8 +45,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 
 /**
@@ -51,15 +59,24 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/roles")
 public class RoleRestController
 {
+  private static final int MAX_USERS_PAGE_SIZE = 1000;
+  private static final int MAX_IDENTIFIERS = 500;
+
   private final RoleService service;
+  private final UserService userService;
+  private final ResourceVersionService resourceVersionService;
   private final CommandGateway commandGateway;
 
   @Autowired public RoleRestController(
       final CommandGateway commandGateway,
-      final RoleService service)
+      final RoleService service,
+      final UserService userService,
+      final ResourceVersionService resourceVersionService)
   {
     this.commandGateway = commandGateway;
     this.service = service;
+    this.userService = userService;
+    this.resourceVersionService = resourceVersionService;
   }
 
   @RequestMapping(method = RequestMethod.POST,
@@ -81,15 +98,29 @@ public class RoleRestController
 
   @RequestMapping(method = RequestMethod.GET,
       consumes = {MediaType.ALL_VALUE},
-      produces = {MediaType.APPLICATION_JSON_VALUE})
+      produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.ROLE_MANAGEMENT)
-  public @ResponseBody List<Role> findAll() {
+  public @ResponseBody List<Role> findAll(final ServletWebRequest request) {
+    if (ConditionalRequests.notModified(request, resourceVersionService.etag(ResourceVersionService.ROLES)))
+      return null;
+
     return service.findAll();
   }
 
+  @RequestMapping(method = RequestMethod.GET, params = "ids",
+      consumes = {MediaType.ALL_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.ROLE_MANAGEMENT)
+  public @ResponseBody List<Role> findByIdentifiers(@RequestParam("ids") final List<String> identifiers) {
+    if (identifiers.size() > MAX_IDENTIFIERS)
+      throw ServiceException.badRequest("At most " + MAX_IDENTIFIERS + " roles can be requested at once.");
+
+    return service.findByIdentifiers(identifiers);
+  }
+
   @RequestMapping(value= PathConstants.IDENTIFIER_RESOURCE_STRING, method = RequestMethod.GET,
       consumes = {MediaType.ALL_VALUE},
-      produces = {MediaType.APPLICATION_JSON_VALUE})
+      produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.ROLE_MANAGEMENT)
   public @ResponseBody ResponseEntity<Role> get(@PathVariable(PathConstants.IDENTIFIER_PATH_VARIABLE) final String identifier)
   {
@@ -132,6 +163,49 @@ public class RoleRestController
     return new ResponseEntity<>(HttpStatus.ACCEPTED);
   }
 
+  //POST is accepted as well, for clients which can't send PATCH.
+  @RequestMapping(value= PathConstants.IDENTIFIER_RESOURCE_STRING + "/permissions", method = {RequestMethod.PATCH, RequestMethod.POST},
+      consumes = {MediaType.APPLICATION_JSON_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.ROLE_MANAGEMENT)
+  public @ResponseBody ResponseEntity<Void> changePermissions(
+          @PathVariable(PathConstants.IDENTIFIER_PATH_VARIABLE) final String identifier,
+          @RequestBody @Valid final RolePermissionsChange change)
+  {
+    if (!CheckRoleChangeable.isChangeableRoleIdentifier(identifier))
+      throw ServiceException.badRequest("Role with identifier: " + identifier + " cannot be changed.");
+
+    checkIdentifier(identifier);
+
+    //Checked here, since a failure in the command handler would come after the change was accepted.
+    if (!service.canChangePermissions())
+      throw ServiceException.conflict("Permissions can only be changed one by one once the tenant is provisioned again.");
+
+    if (change.getRemove().stream().anyMatch(x -> x == null))
+      throw ServiceException.badRequest("Permittable group identifiers to remove may not be null.");
+
+    final ChangeRolePermissionsCommand changeCommand = new ChangeRolePermissionsCommand(identifier, change);
+    this.commandGateway.process(changeCommand);
+    return new ResponseEntity<>(HttpStatus.ACCEPTED);
+  }
+
+  @RequestMapping(value= PathConstants.IDENTIFIER_RESOURCE_STRING + "/users", method = RequestMethod.GET,
+      consumes = {MediaType.ALL_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.ROLE_MANAGEMENT)
+  public @ResponseBody ResponseEntity<List<User>> getUsers(
+      @PathVariable(PathConstants.IDENTIFIER_PATH_VARIABLE) final String identifier,
+      @RequestParam(value = "startAfter", required = false) final String startAfter,
+      @RequestParam(value = "size", required = false, defaultValue = "50") final Integer size)
+  {
+    if (size < 1 || size > MAX_USERS_PAGE_SIZE)
+      throw ServiceException.badRequest("size must be between 1 and " + MAX_USERS_PAGE_SIZE + ".");
+
+    checkIdentifier(identifier);
+
+    return new ResponseEntity<>(userService.findByRole(identifier, startAfter, size), HttpStatus.OK);
+  }
+
   private Role checkIdentifier(final String identifier) {
     if (identifier == null)
       throw ServiceException.badRequest("identifier may not be null.");
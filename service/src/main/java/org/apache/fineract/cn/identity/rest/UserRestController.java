@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.cn.identity.rest;
 
+import org.apache.fineract.cn.identity.api.v1.IdentityMediaTypes;
 import org.apache.fineract.cn.identity.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
 import org.apache.fineract.cn.anubis.annotation.Permittable;
@@ -25,12 +26,15 @@ import org.apache.fineract.cn.api.util.UserContextHolder;
 import org.apache.fineract.cn.command.gateway.CommandGateway;
 import org.apache.fineract.cn.identity.api.v1.domain.Password;
 import org.apache.fineract.cn.identity.api.v1.domain.Permission;
+import org.apache.fineract.cn.identity.api.v1.domain.PermissionCheck;
 import org.apache.fineract.cn.identity.api.v1.domain.RoleIdentifier;
 import org.apache.fineract.cn.identity.api.v1.domain.User;
 import org.apache.fineract.cn.identity.api.v1.domain.UserWithPassword;
 import org.apache.fineract.cn.identity.internal.command.ChangeUserPasswordCommand;
 import org.apache.fineract.cn.identity.internal.command.ChangeUserRoleCommand;
 import org.apache.fineract.cn.identity.internal.command.CreateUserCommand;
+import org.apache.fineract.cn.identity.internal.service.PermissionCheckService;
+import org.apache.fineract.cn.identity.internal.service.ResourceVersionService;
 import org.apache.fineract.cn.identity.internal.service.UserService;
 import org.apache.fineract.cn.identity.internal.util.IdentityConstants;
 import org.apache.fineract.cn.lang.ServiceException;
@@ -39,9 +43,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 
@@ -53,25 +59,45 @@ import java.util.Set;
 @RestController
 @RequestMapping("/users")
 public class UserRestController {
+  private static final int MAXIMUM_PERMISSION_CHECKS = 1000;
+  private static final int MAXIMUM_IDENTIFIERS = 500;
+
   private final UserService service;
+  private final PermissionCheckService permissionCheckService;
+  private final ResourceVersionService resourceVersionService;
   private final CommandGateway commandGateway;
 
   @Autowired
   public UserRestController(
           final CommandGateway commandGateway,
-          final UserService service) {
+          final UserService service,
+          final PermissionCheckService permissionCheckService,
+          final ResourceVersionService resourceVersionService) {
     this.commandGateway = commandGateway;
     this.service = service;
+    this.permissionCheckService = permissionCheckService;
+    this.resourceVersionService = resourceVersionService;
   }
 
   @RequestMapping(method = RequestMethod.GET,
       consumes = {MediaType.ALL_VALUE},
-      produces = {MediaType.APPLICATION_JSON_VALUE})
+      produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.IDENTITY_MANAGEMENT)
   public @ResponseBody List<User> findAll() {
     return this.service.findAll();
   }
 
+  @RequestMapping(method = RequestMethod.GET, params = "ids",
+      consumes = {MediaType.ALL_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.IDENTITY_MANAGEMENT)
+  public @ResponseBody List<User> findByIdentifiers(@RequestParam("ids") final List<String> identifiers) {
+    if (identifiers.size() > MAXIMUM_IDENTIFIERS)
+      throw ServiceException.badRequest("At most {0} users can be requested at once.", MAXIMUM_IDENTIFIERS);
+
+    return this.service.findByIdentifiers(identifiers);
+  }
+
   @RequestMapping(method = RequestMethod.POST,
           consumes = {MediaType.APPLICATION_JSON_VALUE},
           produces = {MediaType.APPLICATION_JSON_VALUE})
@@ -91,7 +117,7 @@ public class UserRestController {
 
   @RequestMapping(value= PathConstants.IDENTIFIER_RESOURCE_STRING, method = RequestMethod.GET,
       consumes = {MediaType.ALL_VALUE},
-      produces = {MediaType.APPLICATION_JSON_VALUE})
+      produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.IDENTITY_MANAGEMENT)
   public @ResponseBody ResponseEntity<User> get(@PathVariable(PathConstants.IDENTIFIER_PATH_VARIABLE) final String userIdentifier)
   {
@@ -118,17 +144,49 @@ public class UserRestController {
 
   @RequestMapping(value = PathConstants.IDENTIFIER_RESOURCE_STRING + "/permissions", method = RequestMethod.GET,
           consumes = {MediaType.ALL_VALUE},
-          produces = {MediaType.APPLICATION_JSON_VALUE})
+          produces = {MediaType.APPLICATION_JSON_VALUE, IdentityMediaTypes.APPLICATION_SMILE_VALUE})
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.IDENTITY_MANAGEMENT)
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.SELF_MANAGEMENT, permittedEndpoint = "/users/{useridentifier}/permissions")
   @ResponseBody
-  Set<Permission> getUserPermissions(@PathVariable(PathConstants.IDENTIFIER_PATH_VARIABLE) String userIdentifier)
+  Set<Permission> getUserPermissions(
+          @PathVariable(PathConstants.IDENTIFIER_PATH_VARIABLE) String userIdentifier,
+          final ServletWebRequest request)
   {
+    //A user's permissions change with their role assignment, the role, or the groups the role refers to.
+    final Optional<String> etag = resourceVersionService.etag(
+            ResourceVersionService.USERS, ResourceVersionService.ROLES, ResourceVersionService.PERMITTABLE_GROUPS);
+    if (ConditionalRequests.notModified(request, etag))
+      return null;
+
     checkIdentifier(userIdentifier);
 
     return service.getPermissions(userIdentifier);
   }
 
+  @RequestMapping(value = PathConstants.IDENTIFIER_RESOURCE_STRING + "/permissions/_check", method = RequestMethod.POST,
+          consumes = {MediaType.APPLICATION_JSON_VALUE},
+          produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.IDENTITY_MANAGEMENT)
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.SELF_MANAGEMENT, permittedEndpoint = "/users/{useridentifier}/permissions/_check")
+  @ResponseBody
+  List<PermissionCheck> checkUserPermissions(
+          @PathVariable(PathConstants.IDENTIFIER_PATH_VARIABLE) String userIdentifier,
+          @RequestBody @Valid final List<PermissionCheck> checks)
+  {
+    if (checks == null)
+      throw ServiceException.badRequest("checks may not be null.");
+    if (checks.size() > MAXIMUM_PERMISSION_CHECKS)
+      throw ServiceException.badRequest("At most {0} permissions can be checked at once.", MAXIMUM_PERMISSION_CHECKS);
+    if (checks.stream().anyMatch(check -> check.getPath() == null || check.getMethod() == null))
+      throw ServiceException.badRequest("path and method are required for each check.");
+
+    if (userIdentifier == null)
+      throw ServiceException.badRequest("identifier may not be null.");
+
+    return permissionCheckService.check(userIdentifier, checks)
+            .orElseThrow(() -> ServiceException.notFound("Instance with identifier " + userIdentifier + " doesn't exist."));
+  }
+
   @RequestMapping(value = PathConstants.IDENTIFIER_RESOURCE_STRING + "/password", method = RequestMethod.PUT,
       consumes = {MediaType.APPLICATION_JSON_VALUE},
       produces = {MediaType.APPLICATION_JSON_VALUE})
@@ -0,0 +1,116 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+CREATE TABLE isis_tenant (
+    version integer NOT NULL,
+    fixed_salt bytea NOT NULL,
+    password_expires_in_days integer NOT NULL,
+    time_to_change_password_after_expiration_in_days integer NOT NULL,
+    CONSTRAINT isis_tenant_pk PRIMARY KEY (version)
+);
+
+CREATE TABLE isis_signatures (
+    key_timestamp text NOT NULL,
+    valid boolean NOT NULL,
+    private_key_mod numeric NOT NULL,
+    private_key_exp numeric NOT NULL,
+    public_key_mod numeric NOT NULL,
+    public_key_exp numeric NOT NULL,
+    CONSTRAINT isis_signatures_pk PRIMARY KEY (key_timestamp)
+);
+
+CREATE INDEX isis_signatures_valid_index ON isis_signatures (key_timestamp) WHERE valid;
+
+CREATE TABLE isis_users (
+    identifier text NOT NULL,
+    role_identifier text NOT NULL,
+    password_word bytea NOT NULL,
+    salt bytea NOT NULL,
+    iteration_count integer NOT NULL,
+    password_expires_on date,
+    CONSTRAINT isis_users_pk PRIMARY KEY (identifier)
+);
+
+CREATE INDEX isis_users_role_index ON isis_users (role_identifier, identifier);
+
+CREATE TABLE isis_roles (
+    identifier text NOT NULL,
+    CONSTRAINT isis_roles_pk PRIMARY KEY (identifier)
+);
+
+CREATE TABLE isis_role_permissions (
+    role_identifier text NOT NULL,
+    position integer NOT NULL,
+    permittable_group_identifier text NOT NULL,
+    allowed_operations text[] NOT NULL,
+    CONSTRAINT isis_role_permissions_pk PRIMARY KEY (role_identifier, position),
+    CONSTRAINT isis_role_permissions_role_fk FOREIGN KEY (role_identifier) REFERENCES isis_roles (identifier) ON DELETE CASCADE
+);
+
+CREATE TABLE isis_application_signatures (
+    application_identifier text NOT NULL,
+    key_timestamp text NOT NULL,
+    public_key_mod numeric NOT NULL,
+    public_key_exp numeric NOT NULL,
+    CONSTRAINT isis_application_signatures_pk PRIMARY KEY (application_identifier, key_timestamp)
+);
+
+CREATE TABLE isis_application_permissions (
+    application_identifier text NOT NULL,
+    permittable_group_identifier text NOT NULL,
+    allowed_operations text[] NOT NULL,
+    CONSTRAINT isis_application_permissions_pk PRIMARY KEY (application_identifier, permittable_group_identifier)
+);
+
+CREATE TABLE isis_application_permission_users (
+    application_identifier text NOT NULL,
+    permittable_group_identifier text NOT NULL,
+    user_identifier text NOT NULL,
+    enabled boolean NOT NULL,
+    CONSTRAINT isis_application_permission_users_pk PRIMARY KEY (application_identifier, permittable_group_identifier, user_identifier)
+);
+
+CREATE TABLE isis_application_callendpointsets (
+    application_identifier text NOT NULL,
+    call_endpoint_set_identifier text NOT NULL,
+    call_endpoint_group_identifiers text[] NOT NULL,
+    CONSTRAINT isis_application_callendpointsets_pk PRIMARY KEY (application_identifier, call_endpoint_set_identifier)
+);
+
+-- Each tenant's tables are in its own schema.  Earlier releases wrote permittable groups to the public schema, which
+-- every tenant of the database shared, so each tenant's schema starts with a copy of them.
+DO $$
+BEGIN
+    IF current_schema() <> 'public' AND to_regclass('public.isis_permittable_groups') IS NOT NULL THEN
+        INSERT INTO isis_permittable_groups (identifier, permittables)
+            SELECT identifier, permittables FROM public.isis_permittable_groups;
+    END IF;
+END
+$$;
+
+-- Earlier releases inserted a group again when it was created concurrently or provisioned again, so an identifier may
+-- have several rows.  No column records when a row was written, so the newest can't be told apart; the rows are the
+-- same definition written again, and which of them survives doesn't matter.  ctid only makes the choice within this
+-- statement consistent, it is not an insertion order.
+DELETE FROM isis_permittable_groups a
+    USING isis_permittable_groups b
+    WHERE a.identifier = b.identifier
+      AND a.ctid < b.ctid;
+
+ALTER TABLE isis_permittable_groups
+    ADD CONSTRAINT isis_permittable_groups_pk PRIMARY KEY (identifier);
@@ -0,0 +1,51 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+-- Earlier releases wrote the list's toString, for example
+--   [PermittableType{path='identity-v1/users/*', method='GET', sourceGroupId='null'}]
+-- which is converted to the json Gson reads.  Anything that is neither json nor that format fails the migration,
+-- rather than losing the group's endpoints.
+CREATE FUNCTION isis_permittables_to_jsonb(value text) RETURNS jsonb AS $$
+DECLARE
+    pattern constant text := 'PermittableType\{path=''(.*?)'', method=''(.*?)'', sourceGroupId=''(.*?)''\}';
+    ret jsonb;
+BEGIN
+    BEGIN
+        RETURN value::jsonb;
+    EXCEPTION WHEN invalid_text_representation THEN
+        NULL;
+    END;
+
+    IF regexp_replace(value, pattern, '', 'g') !~ '^\s*\[(\s|,)*\]\s*$' THEN
+        RAISE EXCEPTION 'Permittables "%" are neither json nor in the format of earlier releases.', value;
+    END IF;
+
+    SELECT COALESCE(jsonb_agg(jsonb_build_object(
+               'path', m.match[1],
+               'method', m.match[2],
+               'sourceGroupId', NULLIF(m.match[3], 'null')) ORDER BY m.position), '[]'::jsonb)
+        INTO ret
+        FROM regexp_matches(value, pattern, 'g') WITH ORDINALITY AS m(match, position);
+    RETURN ret;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE isis_permittable_groups
+    ALTER COLUMN permittables TYPE jsonb USING isis_permittables_to_jsonb(permittables);
+
+DROP FUNCTION isis_permittables_to_jsonb(text);
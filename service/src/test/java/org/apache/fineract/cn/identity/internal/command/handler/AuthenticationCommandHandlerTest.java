@@ -29,6 +29,9 @@ import org.apache.fineract.cn.crypto.SaltGenerator;
 import org.apache.fineract.cn.identity.internal.command.AuthenticationCommandResponse;
 import org.apache.fineract.cn.identity.internal.command.PasswordAuthenticationCommand;
 import org.apache.fineract.cn.identity.internal.command.RefreshTokenAuthenticationCommand;
+import org.apache.fineract.cn.identity.internal.metrics.AuthenticationMetrics;
+import org.apache.fineract.cn.identity.internal.metrics.CommandMetrics;
+import org.apache.fineract.cn.identity.internal.metrics.StatementMetrics;
 import org.apache.fineract.cn.identity.internal.repository.AllowedOperationType;
 import org.apache.fineract.cn.identity.internal.repository.ApplicationCallEndpointSets;
 import org.apache.fineract.cn.identity.internal.repository.ApplicationPermissionUsers;
@@ -44,12 +47,15 @@ import org.apache.fineract.cn.identity.internal.repository.Signatures;
 import org.apache.fineract.cn.identity.internal.repository.Tenants;
 import org.apache.fineract.cn.identity.internal.repository.UserEntity;
 import org.apache.fineract.cn.identity.internal.repository.Users;
+import org.apache.fineract.cn.identity.internal.service.PasswordHashPolicyService;
+import org.apache.fineract.cn.identity.internal.service.UserTokenPermissions;
 import org.apache.fineract.cn.lang.ApplicationName;
 import org.apache.fineract.cn.lang.DateConverter;
 import org.apache.fineract.cn.lang.security.RsaKeyPairFactory;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.springframework.jms.core.JmsTemplate;
@@ -81,13 +87,17 @@ public class AuthenticationCommandHandlerTest {
   private static final long REFRESH_TOKEN_TIME_TO_LIVE = 40;
   private static final int GRACE_PERIOD = 2;
   private static AuthenticationCommandHandler commandHandler;
+  private static Users users;
+  private static PasswordHashPolicyService passwordHashPolicy;
 
   @BeforeClass()
   static public void setup()
   {
     RsaKeyPairFactory.KeyPairHolder keyPair = RsaKeyPairFactory.createKeyPair();
 
-    final Users users = Mockito.mock(Users.class);
+    users = Mockito.mock(Users.class);
+    passwordHashPolicy = Mockito.mock(PasswordHashPolicyService.class);
+    when(passwordHashPolicy.iterationCount()).thenReturn(ITERATION_COUNT);
     final Roles roles = Mockito.mock(Roles.class);
     final PermittableGroups permittableGroups = Mockito.mock(PermittableGroups.class);
     final Signatures signatures = Mockito.mock(Signatures.class);
@@ -108,12 +118,13 @@ public class AuthenticationCommandHandlerTest {
     final ApplicationCallEndpointSets applicationCallEndpointSets = Mockito.mock(ApplicationCallEndpointSets.class);
 
     commandHandler = new AuthenticationCommandHandler(
-        users, roles, permittableGroups, signatures, tenants,
+        users, roles, new UserTokenPermissions(roles, permittableGroups, applicationName), signatures, tenants,
         hashGenerator,
         tenantAccessTokenSerializer, tenantRefreshTokenSerializer, tenantRsaKeyProvider,
             applicationSignatures, applicationPermissions, applicationPermissionUsers, applicationCallEndpointSets,
         jmsTemplate, applicationName,
-        gson, logger);
+        gson, logger, new CommandMetrics(new StatementMetrics(logger, 200, 100), 100), new AuthenticationMetrics(logger, 1000),
+        new UserEntityCreator(new SaltGenerator(), hashGenerator, tenants, passwordHashPolicy));
 
     final PrivateTenantInfoEntity privateTenantInfoEntity = new PrivateTenantInfoEntity();
     privateTenantInfoEntity.setFixedSalt(ByteBuffer.wrap(new SaltGenerator().createRandomSalt()));
@@ -152,6 +163,7 @@ public class AuthenticationCommandHandlerTest {
     when(tenantRefreshTokenSerializer.deserialize(anyObject(), anyObject())).thenReturn(deserialized);
 
     when(hashGenerator.isEqual(any(), any(), any(), any(), anyInt(), anyInt())).thenReturn(true);
+    when(hashGenerator.hash(anyString(), any(), anyInt(), anyInt())).thenReturn(PASSWORD.getBytes());
   }
 
   private static com.datastax.driver.core.LocalDate dataStaxNow() {
@@ -168,6 +180,30 @@ public class AuthenticationCommandHandlerTest {
     Assert.assertNotNull(commandResponse);
   }
 
+  @Test
+  public void passwordRehashedWhenPolicyChanged()
+  {
+    when(passwordHashPolicy.iterationCount()).thenReturn(ITERATION_COUNT * 2);
+    try {
+      final PasswordAuthenticationCommand command = new PasswordAuthenticationCommand(USER_NAME, PASSWORD);
+
+      final AuthenticationCommandResponse commandResponse = commandHandler.process(command);
+      Assert.assertNotNull(commandResponse);
+      Mockito.verify(users).add(Mockito.argThat(new ArgumentMatcher<UserEntity>() {
+        @Override
+        public boolean matches(final Object argument) {
+          final UserEntity user = (UserEntity) argument;
+          return USER_NAME.equals(user.getIdentifier())
+              && ROLE.equals(user.getRole())
+              && user.getIterationCount() == ITERATION_COUNT * 2;
+        }
+      }));
+    }
+    finally {
+      when(passwordHashPolicy.iterationCount()).thenReturn(ITERATION_COUNT);
+    }
+  }
+
   @Test
   public void correctRefreshTokenAuthentication()
   {
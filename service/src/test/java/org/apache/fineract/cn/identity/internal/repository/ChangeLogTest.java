@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChangeLogTest {
+  @Test
+  public void bucketsStartWithTheBucketOfTheNextVersion() {
+    Assert.assertEquals(Arrays.asList(0L, 1L), ChangeLog.buckets(ChangeLog.BUCKET_SIZE - 2, ChangeLog.BUCKET_SIZE + 1));
+    Assert.assertEquals(Collections.singletonList(1L),
+        ChangeLog.buckets(ChangeLog.BUCKET_SIZE - 1, ChangeLog.BUCKET_SIZE + 1));
+  }
+
+  @Test
+  public void bucketsEndWithTheBucketOfTheLatestVersion() {
+    Assert.assertEquals(Collections.singletonList(0L), ChangeLog.buckets(0, ChangeLog.BUCKET_SIZE - 1));
+    Assert.assertEquals(Arrays.asList(0L, 1L), ChangeLog.buckets(0, ChangeLog.BUCKET_SIZE));
+  }
+
+  @Test
+  public void noBucketsWhenNothingFollowsSince() {
+    Assert.assertEquals(Collections.emptyList(),
+        ChangeLog.buckets(2 * ChangeLog.BUCKET_SIZE - 1, 2 * ChangeLog.BUCKET_SIZE - 1));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PermissionTypeTest {
+  @Test
+  public void mergedUnitesTheOperationsOfTheSameGroupAtItsFirstPlace() {
+    final List<PermissionType> merged = PermissionType.merged(Arrays.asList(
+        permission("a", AllowedOperationType.READ),
+        permission("b", AllowedOperationType.READ),
+        permission("a", AllowedOperationType.CHANGE, AllowedOperationType.DELETE)));
+
+    Assert.assertEquals(Arrays.asList(
+        permission("a", AllowedOperationType.READ, AllowedOperationType.CHANGE, AllowedOperationType.DELETE),
+        permission("b", AllowedOperationType.READ)), merged);
+  }
+
+  @Test
+  public void changeReplacesInPlaceAppendsAndRemoves() {
+    final List<PermissionType> changed = PermissionType.change(
+        Arrays.asList(
+            permission("a", AllowedOperationType.READ),
+            permission("b", AllowedOperationType.READ),
+            permission("c", AllowedOperationType.READ)),
+        Arrays.asList(
+            permission("b", AllowedOperationType.CHANGE),
+            permission("d", AllowedOperationType.DELETE)),
+        Collections.singletonList("a"));
+
+    Assert.assertEquals(Arrays.asList(
+        permission("b", AllowedOperationType.CHANGE),
+        permission("c", AllowedOperationType.READ),
+        permission("d", AllowedOperationType.DELETE)), changed);
+  }
+
+  @Test
+  public void removedAndAddedAgainIsAppended() {
+    final List<PermissionType> changed = PermissionType.change(
+        Arrays.asList(permission("a", AllowedOperationType.READ), permission("b", AllowedOperationType.READ)),
+        Collections.singletonList(permission("a", AllowedOperationType.CHANGE)),
+        Collections.singletonList("a"));
+
+    Assert.assertEquals(Arrays.asList(
+        permission("b", AllowedOperationType.READ),
+        permission("a", AllowedOperationType.CHANGE)), changed);
+  }
+
+  private static PermissionType permission(
+      final String permittableGroupIdentifier,
+      final AllowedOperationType first,
+      final AllowedOperationType... rest) {
+    return new PermissionType(permittableGroupIdentifier, EnumSet.of(first, rest));
+  }
+}
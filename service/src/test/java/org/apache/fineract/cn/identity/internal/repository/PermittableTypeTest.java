@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PermittableTypeTest {
+  @Test
+  public void methodsAreComparedUpperCased() {
+    Assert.assertTrue(permittable("identity-v1/roles", "get").isSameEndpoint(permittable("identity-v1/roles", "GET")));
+    Assert.assertFalse(permittable("identity-v1/roles", "GET").isSameEndpoint(permittable("identity-v1/Roles", "GET")));
+    Assert.assertEquals("PATCH", PermittableType.normalizedMethod("patch"));
+  }
+
+  @Test
+  public void changeRemovesRegardlessOfTheMethodsCase() {
+    final List<PermittableType> changed = PermittableType.change(
+        Arrays.asList(permittable("identity-v1/roles", "get"), permittable("identity-v1/users", "GET")),
+        Collections.emptyList(),
+        Collections.singletonList(permittable("identity-v1/roles", "GET")));
+
+    Assert.assertEquals(Collections.singletonList(permittable("identity-v1/users", "GET")), changed);
+  }
+
+  @Test
+  public void changeAddsEachEndpointOnce() {
+    final List<PermittableType> changed = PermittableType.change(
+        Collections.singletonList(permittable("identity-v1/roles", "GET")),
+        Arrays.asList(
+            permittable("identity-v1/roles", "get"),
+            permittable("identity-v1/users", "GET"),
+            permittable("identity-v1/users", "get")),
+        Collections.emptyList());
+
+    Assert.assertEquals(Arrays.asList(
+        permittable("identity-v1/roles", "GET"),
+        permittable("identity-v1/users", "GET")), changed);
+  }
+
+  private static PermittableType permittable(final String path, final String method) {
+    final PermittableType ret = new PermittableType();
+    ret.setPath(path);
+    ret.setMethod(method);
+    return ret;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+public class RolesInMemoryTest {
+  private RolesInMemory testSubject;
+
+  @Before
+  public void setup() {
+    TenantContextHolder.setIdentifier("tenant");
+    testSubject = new RolesInMemory(new InMemoryStore(Mockito.mock(Logger.class), 16, "", 0));
+  }
+
+  @After
+  public void tearDown() {
+    TenantContextHolder.clear();
+  }
+
+  @Test
+  public void changePermissionsKeepsTheOthers() {
+    testSubject.add(new RoleEntity("clerk", Arrays.asList(
+        new PermissionType("a", EnumSet.of(AllowedOperationType.READ)),
+        new PermissionType("b", EnumSet.of(AllowedOperationType.READ)))));
+
+    Assert.assertTrue(testSubject.changePermissions("clerk",
+        Arrays.asList(
+            new PermissionType("b", EnumSet.of(AllowedOperationType.CHANGE)),
+            new PermissionType("c", EnumSet.of(AllowedOperationType.DELETE))),
+        Collections.emptyList()));
+
+    Assert.assertEquals(Arrays.asList(
+        new PermissionType("a", EnumSet.of(AllowedOperationType.READ)),
+        new PermissionType("b", EnumSet.of(AllowedOperationType.CHANGE)),
+        new PermissionType("c", EnumSet.of(AllowedOperationType.DELETE))),
+        testSubject.get("clerk").map(RoleEntity::getPermissions).orElse(null));
+  }
+
+  @Test
+  public void changePermissionsRemoves() {
+    testSubject.add(new RoleEntity("clerk", Arrays.asList(
+        new PermissionType("a", EnumSet.of(AllowedOperationType.READ)),
+        new PermissionType("b", EnumSet.of(AllowedOperationType.READ)))));
+
+    Assert.assertTrue(testSubject.changePermissions("clerk", Collections.emptyList(), Collections.singletonList("a")));
+
+    Assert.assertEquals(Collections.singletonList(new PermissionType("b", EnumSet.of(AllowedOperationType.READ))),
+        testSubject.get("clerk").map(RoleEntity::getPermissions).orElse(null));
+  }
+
+  @Test
+  public void changePermissionsOfMissingRole() {
+    Assert.assertFalse(testSubject.changePermissions("nobody", Collections.emptyList(), Collections.singletonList("a")));
+    Assert.assertFalse(testSubject.get("nobody").isPresent());
+  }
+}
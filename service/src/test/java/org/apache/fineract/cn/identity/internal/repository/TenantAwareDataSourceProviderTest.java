@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.springframework.mock.env.MockEnvironment;
+
+public class TenantAwareDataSourceProviderTest {
+  private TenantAwareDataSourceProvider testSubject;
+
+  @Before
+  public void setup() {
+    final MockEnvironment environment = new MockEnvironment()
+        .withProperty("postgresql.driverClass", "org.postgresql.Driver")
+        .withProperty("postgresql.host", "localhost")
+        .withProperty("postgresql.port", "5432")
+        .withProperty("postgresql.user", "postgres")
+        .withProperty("postgresql.password", "postgres")
+        .withProperty(TenantAwareDataSourceProvider.META_DATABASE_PROP, "");
+    testSubject = new TenantAwareDataSourceProvider(environment, Mockito.mock(Logger.class));
+  }
+
+  @Test
+  public void tenantsWithTheSameUserIdentifierDontShareTables() {
+    //Both tenants have a user "antony" in isis_users.  Which row a query finds depends only on the search path
+    //and database of the connection it runs on.
+    final HikariConfig first = testSubject.tenantPoolConfig("first");
+    final HikariConfig second = testSubject.tenantPoolConfig("second");
+
+    Assert.assertEquals("SET search_path TO \"first\"", first.getConnectionInitSql());
+    Assert.assertEquals("SET search_path TO \"second\"", second.getConnectionInitSql());
+    Assert.assertNotEquals(first.getJdbcUrl(), second.getJdbcUrl());
+    Assert.assertNotEquals(first.getPoolName(), second.getPoolName());
+  }
+
+  @Test
+  public void schemaNamesAreQuoted() {
+    final HikariConfig config = testSubject.tenantPoolConfig("a\"; DROP TABLE isis_users; --");
+
+    Assert.assertEquals("SET search_path TO \"a\"\"; DROP TABLE isis_users; --\"", config.getConnectionInitSql());
+  }
+
+  @Test
+  public void withoutMetaDatabaseEachTenantHasItsOwnDatabase() {
+    final MockEnvironment environment = new MockEnvironment()
+        .withProperty("postgresql.host", "localhost")
+        .withProperty("postgresql.port", "5432");
+    final TenantAwareDataSourceProvider withoutMetaDatabase
+        = new TenantAwareDataSourceProvider(environment, Mockito.mock(Logger.class));
+
+    Assert.assertEquals("first", withoutMetaDatabase.tenantConnectionInfo("first").getDatabaseName());
+    Assert.assertEquals("second", withoutMetaDatabase.tenantConnectionInfo("second").getDatabaseName());
+  }
+}
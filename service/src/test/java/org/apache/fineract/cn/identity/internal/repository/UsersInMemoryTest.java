@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.repository;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+public class UsersInMemoryTest {
+  private UsersInMemory testSubject;
+
+  @Before
+  public void setup() {
+    TenantContextHolder.setIdentifier("tenant");
+    testSubject = new UsersInMemory(new InMemoryStore(Mockito.mock(Logger.class), 16, "", 0));
+  }
+
+  @After
+  public void tearDown() {
+    TenantContextHolder.clear();
+  }
+
+  @Test
+  public void rehashPasswordKeepsTheRole() {
+    testSubject.add(user("antony", "pharaoh", "old", 10));
+    testSubject.changeRole("antony", "pharaoh", "scribe");
+
+    Assert.assertTrue(testSubject.rehashPassword(user("antony", "pharaoh", "new", 20), buffer("old")));
+
+    final UserEntity rehashed = testSubject.get("antony").orElseThrow(AssertionError::new);
+    Assert.assertEquals("scribe", rehashed.getRole());
+    Assert.assertEquals(buffer("new"), rehashed.getPassword());
+    Assert.assertEquals(20, rehashed.getIterationCount());
+    Assert.assertEquals(Collections.singletonList("antony"), testSubject.getIdentifiersByRole("scribe", null, 10));
+    Assert.assertEquals(Collections.emptyList(), testSubject.getIdentifiersByRole("pharaoh", null, 10));
+  }
+
+  @Test
+  public void rehashPasswordSkipsAChangedPassword() {
+    testSubject.add(user("antony", "pharaoh", "changed", 10));
+
+    Assert.assertFalse(testSubject.rehashPassword(user("antony", "pharaoh", "new", 20), buffer("old")));
+
+    final UserEntity unchanged = testSubject.get("antony").orElseThrow(AssertionError::new);
+    Assert.assertEquals(buffer("changed"), unchanged.getPassword());
+    Assert.assertEquals(10, unchanged.getIterationCount());
+  }
+
+  @Test
+  public void rehashPasswordOfMissingUser() {
+    Assert.assertFalse(testSubject.rehashPassword(user("nobody", "pharaoh", "new", 20), buffer("old")));
+    Assert.assertFalse(testSubject.get("nobody").isPresent());
+  }
+
+  private static UserEntity user(final String identifier, final String role, final String password, final int iterationCount) {
+    final UserEntity ret = new UserEntity();
+    ret.setIdentifier(identifier);
+    ret.setRole(role);
+    ret.setPassword(buffer(password));
+    ret.setSalt(buffer("salt"));
+    ret.setIterationCount(iterationCount);
+    return ret;
+  }
+
+  private static ByteBuffer buffer(final String value) {
+    return ByteBuffer.wrap(value.getBytes());
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.identity.api.v1.domain.Change;
+import org.apache.fineract.cn.identity.api.v1.domain.ChangeSet;
+import org.apache.fineract.cn.identity.internal.repository.ChangeEntity;
+import org.apache.fineract.cn.identity.internal.repository.ChangeLogRepository;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.springframework.web.context.request.async.DeferredResult;
+
+public class ChangeLogServiceTest {
+  private final ConcurrentSkipListMap<Long, ChangeEntity> log = new ConcurrentSkipListMap<>();
+  private ChangeLogService testSubject;
+
+  @Before
+  public void setup() {
+    TenantContextHolder.setIdentifier("tenant");
+
+    final ChangeLogRepository repository = new ChangeLogRepository() {
+      @Override
+      public long append(final ChangeEntity change) {
+        final long version = getLatestVersion() + 1;
+        change.setVersion(version);
+        log.put(version, change);
+        return version;
+      }
+
+      @Override
+      public List<ChangeEntity> getSince(final long since, final int limit) {
+        return log.tailMap(since, false).values().stream().limit(limit).collect(Collectors.toList());
+      }
+
+      @Override
+      public long getLatestVersion() {
+        return log.isEmpty() ? 0 : log.lastKey();
+      }
+    };
+
+    testSubject = new ChangeLogService(repository, Mockito.mock(Logger.class), 30);
+  }
+
+  @After
+  public void tearDown() {
+    testSubject.close();
+    TenantContextHolder.clear();
+  }
+
+  @Test
+  public void recentGapHoldsBackLaterChanges() {
+    write(1, new Date());
+    write(3, new Date());
+
+    final ChangeSet changes = (ChangeSet) testSubject.getChanges(0, 10, 0).getResult();
+
+    Assert.assertNotNull(changes);
+    Assert.assertEquals(1, changes.getVersion());
+    Assert.assertEquals(1, changes.getChanges().size());
+  }
+
+  @Test
+  public void oldGapIsPassedOver() {
+    final Date longAgo = new Date(System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(10));
+    write(1, longAgo);
+    write(3, longAgo);
+
+    final ChangeSet changes = (ChangeSet) testSubject.getChanges(0, 10, 0).getResult();
+
+    Assert.assertNotNull(changes);
+    Assert.assertEquals(3, changes.getVersion());
+    Assert.assertEquals(2, changes.getChanges().size());
+  }
+
+  @Test
+  public void changesAfterSinceAreAnsweredAtOnce() {
+    write(1, new Date());
+    write(2, new Date());
+
+    final DeferredResult<ChangeSet> result = testSubject.getChanges(1, 10, TimeUnit.SECONDS.toMillis(30));
+
+    Assert.assertTrue(result.hasResult());
+    Assert.assertEquals(2, ((ChangeSet) result.getResult()).getVersion());
+    Assert.assertEquals(0, testSubject.waitingRequests());
+  }
+
+  @Test
+  public void waitingRequestIsAnsweredWhenAChangeIsRecorded() throws InterruptedException {
+    final DeferredResult<ChangeSet> result = testSubject.getChanges(0, 10, TimeUnit.SECONDS.toMillis(30));
+    Assert.assertFalse(result.hasResult());
+    Assert.assertEquals(1, testSubject.waitingRequests());
+
+    testSubject.record("user", "antony", "CREATE");
+
+    final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+    while (!result.hasResult() && System.currentTimeMillis() < deadline)
+      Thread.sleep(10);
+
+    Assert.assertTrue(result.hasResult());
+    final List<Change> changes = ((ChangeSet) result.getResult()).getChanges();
+    Assert.assertEquals(1, changes.size());
+    Assert.assertEquals("antony", changes.get(0).getEntityIdentifier());
+    Assert.assertEquals(0, testSubject.waitingRequests());
+  }
+
+  @Test
+  public void failedAppendDoesNotFailTheCommand() {
+    final ChangeLogRepository repository = Mockito.mock(ChangeLogRepository.class);
+    Mockito.when(repository.append(Mockito.any(ChangeEntity.class)))
+        .thenThrow(new IllegalStateException("Could not claim a change log version after 50 attempts."));
+    final ChangeLogService failing = new ChangeLogService(repository, Mockito.mock(Logger.class), 30);
+    try {
+      failing.record("user", "antony", "CREATE");
+    }
+    finally {
+      failing.close();
+    }
+  }
+
+  private void write(final long version, final Date createdOn) {
+    final ChangeEntity entity = new ChangeEntity("user", "user" + version, "CREATE", createdOn);
+    entity.setVersion(version);
+    log.put(version, entity);
+  }
+}
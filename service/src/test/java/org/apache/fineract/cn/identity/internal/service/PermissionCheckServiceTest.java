@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.identity.api.v1.domain.PermissionCheck;
+import org.apache.fineract.cn.identity.internal.repository.AllowedOperationType;
+import org.apache.fineract.cn.identity.internal.repository.InMemoryStore;
+import org.apache.fineract.cn.identity.internal.repository.PermissionType;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupEntity;
+import org.apache.fineract.cn.identity.internal.repository.PermittableGroupsInMemory;
+import org.apache.fineract.cn.identity.internal.repository.PermittableType;
+import org.apache.fineract.cn.identity.internal.repository.RoleEntity;
+import org.apache.fineract.cn.identity.internal.repository.RoleRepository;
+import org.apache.fineract.cn.identity.internal.repository.TenantRepository;
+import org.apache.fineract.cn.identity.internal.repository.UserEntity;
+import org.apache.fineract.cn.identity.internal.repository.UserRepository;
+import org.apache.fineract.cn.lang.ApplicationName;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+public class PermissionCheckServiceTest {
+  private static final String USER = "cleopatra";
+  private static final String ROLE = "scribe";
+  private static final String GROUP = "identity__v1__roles";
+
+  private PermittableGroupsInMemory permittableGroups;
+  private PermissionCheckService testSubject;
+
+  @Before
+  public void setup() {
+    TenantContextHolder.setIdentifier("tenant");
+
+    final UserEntity user = new UserEntity();
+    user.setIdentifier(USER);
+    user.setRole(ROLE);
+    user.setPasswordExpiresOn(com.datastax.driver.core.LocalDate.fromDaysSinceEpoch(
+        (int) LocalDate.now(ZoneId.of("UTC")).plusDays(30).toEpochDay()));
+    final UserRepository users = Mockito.mock(UserRepository.class);
+    Mockito.when(users.get(USER)).thenReturn(Optional.of(user));
+
+    final RoleRepository roles = Mockito.mock(RoleRepository.class);
+    Mockito.when(roles.get(ROLE)).thenReturn(Optional.of(new RoleEntity(ROLE,
+        Collections.singletonList(new PermissionType(GROUP, EnumSet.of(AllowedOperationType.READ))))));
+
+    permittableGroups = new PermittableGroupsInMemory(new InMemoryStore(Mockito.mock(Logger.class), 16, "", 0));
+    final PermittableGroupEntity group = new PermittableGroupEntity();
+    group.setIdentifier(GROUP);
+    group.setPermittables(Collections.singletonList(permittable("identity-v1/roles")));
+    permittableGroups.add(group);
+
+    final ApplicationName applicationName = Mockito.mock(ApplicationName.class);
+    Mockito.when(applicationName.toString()).thenReturn("identity-v1");
+
+    testSubject = new PermissionCheckService(users, roles, Mockito.mock(TenantRepository.class),
+        new UserTokenPermissions(roles, permittableGroups, applicationName), 60);
+  }
+
+  @After
+  public void tearDown() {
+    TenantContextHolder.clear();
+  }
+
+  @Test
+  public void changedEndpointsAreCheckedOnceTheRoleIsCompiledAgain() {
+    Assert.assertEquals(Arrays.asList(true, false), allowed("identity-v1/roles", "identity-v1/roles/{identifier}"));
+
+    permittableGroups.changePermittables(GROUP,
+        Collections.singletonList(permittable("identity-v1/roles/{identifier}")),
+        Collections.singletonList(permittable("identity-v1/roles")));
+    //The compiled role is kept until it is told of the change.
+    Assert.assertEquals(Arrays.asList(true, false), allowed("identity-v1/roles", "identity-v1/roles/{identifier}"));
+
+    testSubject.permittablesChanged(GROUP);
+    Assert.assertEquals(Arrays.asList(false, true), allowed("identity-v1/roles", "identity-v1/roles/{identifier}"));
+  }
+
+  @Test
+  public void changesToOtherGroupsKeepTheCompiledRole() {
+    Assert.assertEquals(Collections.singletonList(true), allowed("identity-v1/roles"));
+
+    permittableGroups.changePermittables(GROUP, Collections.emptyList(),
+        Collections.singletonList(permittable("identity-v1/roles")));
+    testSubject.permittablesChanged("identity__v1__users");
+
+    Assert.assertEquals(Collections.singletonList(true), allowed("identity-v1/roles"));
+  }
+
+  private List<Boolean> allowed(final String... paths) {
+    final List<PermissionCheck> checks = Arrays.stream(paths)
+        .map(path -> new PermissionCheck(path, "GET"))
+        .collect(Collectors.toList());
+    return testSubject.check(USER, checks)
+        .map(answered -> answered.stream().map(PermissionCheck::getAllowed).collect(Collectors.toList()))
+        .orElse(null);
+  }
+
+  private static PermittableType permittable(final String path) {
+    final PermittableType ret = new PermittableType();
+    ret.setPath(path);
+    ret.setMethod("GET");
+    return ret;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PermissionMatcherTest {
+  private static final String USER = "antony";
+
+  @Test
+  public void literalPathsMatchExactly() {
+    final PermissionMatcher testSubject = new PermissionMatcher();
+    testSubject.add("identity-v1/roles", "GET");
+
+    Assert.assertTrue(testSubject.matches("identity-v1/roles", "GET", USER));
+    Assert.assertTrue(testSubject.matches("/identity-v1/roles/", "GET", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/roles/scribe", "GET", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1", "GET", USER));
+    Assert.assertFalse(testSubject.matches("office-v1/roles", "GET", USER));
+  }
+
+  @Test
+  public void methodsMatchIgnoringCase() {
+    final PermissionMatcher testSubject = new PermissionMatcher();
+    testSubject.add("identity-v1/roles", "get");
+
+    Assert.assertTrue(testSubject.matches("identity-v1/roles", "GET", USER));
+    Assert.assertTrue(testSubject.matches("identity-v1/roles", "Get", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/roles", "POST", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/roles", "DELETE", USER));
+  }
+
+  @Test
+  public void wildcardMatchesOneSegment() {
+    final PermissionMatcher testSubject = new PermissionMatcher();
+    testSubject.add("identity-v1/roles/*/permissions", "GET");
+
+    Assert.assertTrue(testSubject.matches("identity-v1/roles/scribe/permissions", "GET", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/roles/scribe/pharaoh/permissions", "GET", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/roles/permissions", "GET", USER));
+  }
+
+  @Test
+  public void trailingWildcardMatchesTheRest() {
+    final PermissionMatcher testSubject = new PermissionMatcher();
+    testSubject.add("identity-v1/roles/*", "GET");
+
+    Assert.assertTrue(testSubject.matches("identity-v1/roles", "GET", USER));
+    Assert.assertTrue(testSubject.matches("identity-v1/roles/scribe", "GET", USER));
+    Assert.assertTrue(testSubject.matches("identity-v1/roles/scribe/permissions", "GET", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/users/scribe", "GET", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/roles/scribe", "DELETE", USER));
+  }
+
+  @Test
+  public void otherVariablesMatchAnySegment() {
+    final PermissionMatcher testSubject = new PermissionMatcher();
+    testSubject.add("identity-v1/roles/{identifier}", "PUT");
+
+    Assert.assertTrue(testSubject.matches("identity-v1/roles/scribe", "PUT", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/roles/scribe/permissions", "PUT", USER));
+  }
+
+  @Test
+  public void userVariableMatchesOnlyTheCheckedUser() {
+    final PermissionMatcher testSubject = new PermissionMatcher();
+    testSubject.add("identity-v1/users/{useridentifier}/password", "PUT");
+
+    Assert.assertTrue(testSubject.matches("identity-v1/users/antony/password", "PUT", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/users/cleopatra/password", "PUT", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/users/{useridentifier}/password", "PUT", USER));
+  }
+
+  @Test
+  public void literalAndUserVariableAreBothTried() {
+    final PermissionMatcher testSubject = new PermissionMatcher();
+    testSubject.add("identity-v1/users/{useridentifier}/permissions", "GET");
+    testSubject.add("identity-v1/users/cleopatra", "GET");
+
+    Assert.assertTrue(testSubject.matches("identity-v1/users/antony/permissions", "GET", USER));
+    Assert.assertTrue(testSubject.matches("identity-v1/users/cleopatra", "GET", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/users/cleopatra/permissions", "GET", USER));
+  }
+
+  @Test
+  public void equivalentEndpointsShareAnEntry() {
+    final PermissionMatcher testSubject = new PermissionMatcher();
+    testSubject.add("identity-v1/roles/*", "GET");
+    testSubject.add("identity-v1/roles/{identifier}", "GET");
+    testSubject.add("identity-v1/roles/{role}", "get");
+    Assert.assertEquals(2, testSubject.size());
+
+    Assert.assertTrue(testSubject.matches("identity-v1/roles/scribe", "GET", USER));
+    Assert.assertFalse(testSubject.matches("identity-v1/roles/scribe", "POST", USER));
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.identity.internal.service;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.fineract.cn.identity.api.v1.domain.PublicKeyBundle;
+import org.apache.fineract.cn.identity.internal.repository.ApplicationSignatureRepository;
+import org.apache.fineract.cn.identity.internal.repository.ResourceVersionRepository;
+import org.apache.fineract.cn.identity.internal.repository.SignatureEntity;
+import org.apache.fineract.cn.identity.internal.repository.SignatureRepository;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class PublicKeyBundleServiceTest {
+  private final List<String> keyTimestamps = new ArrayList<>();
+  private final Map<String, Long> storedVersions = new ConcurrentHashMap<>();
+  private SignatureRepository signatures;
+  private ApplicationSignatureRepository applicationSignatures;
+  private ResourceVersionRepository versions;
+
+  @Before
+  public void setup() {
+    TenantContextHolder.setIdentifier("tenant");
+
+    signatures = Mockito.mock(SignatureRepository.class);
+    Mockito.when(signatures.getAllKeyTimestamps()).thenAnswer(invocation -> new ArrayList<>(keyTimestamps));
+    Mockito.when(signatures.getSignatureAsync(Mockito.anyString()))
+        .thenAnswer(invocation -> CompletableFuture.completedFuture(Optional.of(signature((String) invocation.getArguments()[0]))));
+
+    applicationSignatures = Mockito.mock(ApplicationSignatureRepository.class);
+    Mockito.when(applicationSignatures.getAll()).thenReturn(Collections.emptyList());
+
+    versions = new ResourceVersionRepository() {
+      @Override
+      public OptionalLong get(final String resource) {
+        return OptionalLong.of(storedVersions.getOrDefault(resource, 0L));
+      }
+
+      @Override
+      public void increment(final String resource) {
+        storedVersions.merge(resource, 1L, Long::sum);
+      }
+    };
+
+    keyTimestamps.add("2017_01_01T00_00_00");
+  }
+
+  @After
+  public void tearDown() {
+    TenantContextHolder.clear();
+  }
+
+  @Test
+  public void keyChangeOnOneInstanceIsSeenByAnotherAtOnce() {
+    final PublicKeyBundleService first = service(versions);
+    final PublicKeyBundleService second = service(versions);
+    final PublicKeyBundle before = second.getBundle(false);
+    Assert.assertEquals(before.getVersion(), first.getBundle(false).getVersion());
+
+    keyTimestamps.add("2018_01_01T00_00_00");
+    first.keysChanged();
+
+    final PublicKeyBundle after = second.getBundle(false);
+    Assert.assertNotEquals(before.getVersion(), after.getVersion());
+    Assert.assertEquals(2, after.getIdentityKeys().size());
+    Assert.assertEquals(after.getVersion(), first.getBundle(false).getVersion());
+  }
+
+  @Test
+  public void unchangedVersionServesTheCachedBundle() {
+    final PublicKeyBundleService testSubject = service(versions);
+
+    final PublicKeyBundle first = testSubject.getBundle(false);
+    final PublicKeyBundle second = testSubject.getBundle(false);
+
+    Assert.assertSame(first, second);
+    Mockito.verify(signatures, Mockito.times(1)).getAllKeyTimestamps();
+  }
+
+  @Test
+  public void untrackedTenantsAreVersionedByDigest() {
+    final ResourceVersionRepository untracked = Mockito.mock(ResourceVersionRepository.class);
+    Mockito.when(untracked.get(Mockito.anyString())).thenReturn(OptionalLong.empty());
+
+    final String first = service(untracked).getBundle(false).getVersion();
+    final String second = service(untracked).getBundle(false).getVersion();
+
+    Assert.assertEquals(first, second);
+    Assert.assertEquals(32, first.length());
+  }
+
+  private PublicKeyBundleService service(final ResourceVersionRepository resourceVersions) {
+    return new PublicKeyBundleService(signatures, applicationSignatures, new ResourceVersionService(resourceVersions), 30);
+  }
+
+  private static SignatureEntity signature(final String keyTimestamp) {
+    final SignatureEntity ret = new SignatureEntity();
+    ret.setKeyTimestamp(keyTimestamp);
+    ret.setPublicKeyMod(BigInteger.valueOf(keyTimestamp.hashCode()).abs());
+    ret.setPublicKeyExp(BigInteger.valueOf(65537));
+    return ret;
+  }
+}